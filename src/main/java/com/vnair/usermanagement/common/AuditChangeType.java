@@ -0,0 +1,15 @@
+package com.vnair.usermanagement.common;
+
+/**
+ * Kind of entry in the user role audit log.
+ * ROLE_DELETED and USER_DELETED end every assignment of that role or user at once.
+ */
+public enum AuditChangeType {
+    ASSIGNED,
+    UPDATED,
+    DEACTIVATED,
+    EXPIRED,
+    REMOVED,
+    ROLE_DELETED,
+    USER_DELETED
+}
@@ -0,0 +1,8 @@
+package com.vnair.usermanagement.common;
+
+public enum BatchOperationStatus {
+    SUCCEEDED,   // Applied and committed
+    FAILED,      // This operation failed, so its chunk was rolled back
+    ROLLED_BACK, // Applied, but rolled back because another operation in its chunk failed
+    SKIPPED      // Not attempted because an earlier chunk failed
+}
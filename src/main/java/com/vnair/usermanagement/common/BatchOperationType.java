@@ -0,0 +1,11 @@
+package com.vnair.usermanagement.common;
+
+public enum BatchOperationType {
+    UPDATE_USER_STATUS,   // userId, status
+    UPDATE_ROLE,          // roleId, description and/or isActive
+    ASSIGN_ROLE,          // userId, roleId, optional isActive, expiresAt, notes
+    UPDATE_USER_ROLE,     // userRoleId, any of isActive, expiresAt, notes
+    SET_USER_ROLE_EXPIRY, // userRoleId, expiresAt (null removes the expiry)
+    REACTIVATE_USER_ROLE, // userRoleId
+    REMOVE_USER_ROLE      // userRoleId
+}
@@ -0,0 +1,9 @@
+package com.vnair.usermanagement.common;
+
+public enum BulkJobStatus {
+    PENDING,   // Đã tạo, chờ xử lý
+    RUNNING,   // Đang xử lý theo từng chunk
+    COMPLETED, // Hoàn tất
+    CANCELLED, // Bị hủy qua API
+    FAILED     // Lỗi trong quá trình xử lý
+}
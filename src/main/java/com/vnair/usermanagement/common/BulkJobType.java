@@ -0,0 +1,7 @@
+package com.vnair.usermanagement.common;
+
+public enum BulkJobType {
+    DEACTIVATE_ROLE_ASSIGNMENTS, // Vô hiệu hóa mọi phân quyền của một role
+    DEACTIVATE_USER_ROLES,       // Vô hiệu hóa mọi role của một user
+    DEACTIVATE_EXPIRED           // Vô hiệu hóa các phân quyền đã hết hạn
+}
@@ -0,0 +1,7 @@
+package com.vnair.usermanagement.common;
+
+public enum ChangeEntityType {
+    USER,
+    ROLE,
+    USER_ROLE
+}
@@ -0,0 +1,7 @@
+package com.vnair.usermanagement.common;
+
+public enum ChangeOperation {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,7 @@
+package com.vnair.usermanagement.common;
+
+public enum JobRunStatus {
+    RUNNING,   // Đang chạy trên node giữ lease
+    SUCCEEDED, // Chạy thành công
+    FAILED     // Lỗi trong quá trình chạy
+}
@@ -0,0 +1,83 @@
+package com.vnair.usermanagement.common;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Permission catalog. Each permission owns a fixed bit of the 64-bit mask stored on a role,
+ * so bits must never be reused or renumbered once assigned.
+ */
+public enum Permission {
+    AIRCRAFT_READ(0, "aircraft:read"),
+    AIRCRAFT_WRITE(1, "aircraft:write"),
+    CABIN_READ(2, "cabin:read"),
+    CABIN_WRITE(3, "cabin:write"),
+    USER_ROLE_READ(4, "user-role:read"),
+    USER_ROLE_WRITE(5, "user-role:write"),
+    CHANGE_FEED_READ(6, "change-feed:read");
+    
+    private final int bit;
+    private final String code;
+    
+    Permission(int bit, String code) {
+        this.bit = bit;
+        this.code = code;
+    }
+    
+    public int getBit() {
+        return bit;
+    }
+    
+    public String getCode() {
+        return code;
+    }
+    
+    public long mask() {
+        return 1L << bit;
+    }
+    
+    public static long maskOf(Permission... permissions) {
+        long mask = 0L;
+        for (Permission permission : permissions) {
+            mask |= permission.mask();
+        }
+        return mask;
+    }
+    
+    public static long allMask() {
+        return maskOf(values());
+    }
+    
+    // Returns null when the code is unknown
+    public static Permission fromCode(String code) {
+        for (Permission permission : values()) {
+            if (permission.code.equalsIgnoreCase(code)) {
+                return permission;
+            }
+        }
+        return null;
+    }
+    
+    public static Set<String> codesOf(long mask) {
+        Set<String> codes = new LinkedHashSet<>();
+        for (Permission permission : values()) {
+            if ((mask & permission.mask()) != 0) {
+                codes.add(permission.code);
+            }
+        }
+        return codes;
+    }
+    
+    // Unknown codes are reported by the caller, see fromCode
+    public static long maskOfCodes(Collection<String> codes) {
+        long mask = 0L;
+        for (String code : codes) {
+            Permission permission = fromCode(code);
+            if (permission != null) {
+                mask |= permission.mask();
+            }
+        }
+        return mask;
+    }
+}
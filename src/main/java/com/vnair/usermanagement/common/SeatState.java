@@ -0,0 +1,7 @@
+package com.vnair.usermanagement.common;
+
+public enum SeatState {
+    AVAILABLE, // Ghế trống, có thể giữ chỗ
+    HELD,      // Ghế đang được giữ cho một booking
+    BLOCKED    // Ghế bị khóa, không bán (hỏng, dành cho tổ bay...)
+}
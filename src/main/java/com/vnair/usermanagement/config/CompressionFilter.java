@@ -0,0 +1,446 @@
+package com.vnair.usermanagement.config;
+
+import com.vnair.usermanagement.util.FleetReferenceCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip compression of responses that are at least app.compression.min-size-bytes long and have one of
+ * the configured content types, for clients that send Accept-Encoding: gzip.
+ * <p>
+ * For reference listings (app.compression.cached-paths) the compressed bytes are kept next to a SHA-256
+ * of the raw bytes, keyed by URL and content type; when a later response has the same digest the stored
+ * gzip body is sent without compressing again. The CPU time spent compressing each response is reported in
+ * a Server-Timing header and summed in {@link #getStats()}.
+ * <p>
+ * Runs before Spring Security so error responses are covered too. Server-Sent Event streams
+ * (Accept: text/event-stream) are never buffered, and neither are the fleet listings that
+ * {@link FleetReferenceCache} answers with bytes it has already compressed. When a handler starts
+ * async processing anyway (an SSE endpoint called without that Accept header), what it wrote so far is
+ * sent uncompressed and later writes go straight to the client.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+public class CompressionFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CompressionFilter.class);
+    
+    private static final String GZIP = "gzip";
+    
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    
+    @Value("${app.compression.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.compression.min-size-bytes:2048}")
+    private int minSizeBytes;
+    
+    @Value("${app.compression.level:6}")
+    private int level;
+    
+    @Value("${app.compression.cached-paths:/api/aircrafts,/api/aircrafts/**,/api/cabins,/api/cabins/**}")
+    private String[] cachedPaths;
+    
+    @Value("${app.compression.cache-max-body-bytes:262144}")
+    private int cacheMaxBodyBytes;
+    
+    private final List<MediaType> compressibleTypes;
+    private final PrecompressedCache cache;
+    
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder skippedResponses = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder compressionCpuNanos = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    
+    @Autowired
+    private FleetReferenceCache fleetReferenceCache;
+    
+    public CompressionFilter(
+            @Value("${app.compression.mime-types:text/html,text/plain,text/css,text/csv,application/javascript,application/json,application/*+json,application/xml,application/cbor,application/x-jackson-smile}") String[] mimeTypes,
+            @Value("${app.compression.cache-max-entries:64}") int cacheMaxEntries) {
+        this.compressibleTypes = new ArrayList<>(mimeTypes.length);
+        for (String mimeType : mimeTypes) {
+            compressibleTypes.add(MediaType.parseMediaType(mimeType.trim()));
+        }
+        this.cache = new PrecompressedCache(cacheMaxEntries);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || "HEAD".equals(request.getMethod()) || !acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return true;
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return (accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE)) || fleetReferenceCache.serves(request);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AsyncAwareResponseWrapper responseWrapper = new AsyncAwareResponseWrapper(response);
+        filterChain.doFilter(request, responseWrapper);
+        
+        if (request.isAsyncStarted()) {
+            // The handler keeps writing after this returns, so nothing can be compressed as a whole
+            skippedResponses.increment();
+            responseWrapper.stopBuffering();
+            return;
+        }
+        
+        byte[] body = responseWrapper.getContentAsByteArray();
+        String contentType = responseWrapper.getContentType();
+        int status = responseWrapper.getStatus();
+        if (!isCompressible(contentType) || status < 200 || status == HttpServletResponse.SC_NO_CONTENT
+                || status == HttpServletResponse.SC_NOT_MODIFIED || response.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+        
+        // The representation depends on Accept-Encoding from here on, whatever the size
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (body.length < minSizeBytes) {
+            skippedResponses.increment();
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+        
+        String cacheKey = isCachedPath(request) && body.length <= cacheMaxBodyBytes
+                ? request.getRequestURI() + '?' + request.getQueryString() + '\n' + contentType
+                : null;
+        byte[] digest = cacheKey != null ? sha256(body) : null;
+        byte[] compressed = cacheKey != null ? cache.get(cacheKey, digest) : null;
+        long cpuNanos = 0;
+        if (compressed != null) {
+            cacheHits.increment();
+        } else {
+            long start = currentThreadCpuNanos();
+            compressed = gzip(body, level);
+            cpuNanos = currentThreadCpuNanos() - start;
+            compressionCpuNanos.add(cpuNanos);
+            if (cacheKey != null) {
+                cacheMisses.increment();
+                cache.put(cacheKey, digest, compressed);
+            }
+        }
+        
+        if (compressed.length >= body.length) {
+            skippedResponses.increment();
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+        
+        compressedResponses.increment();
+        bytesIn.add(body.length);
+        bytesOut.add(compressed.length);
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        response.addHeader("Server-Timing", String.format(Locale.ROOT, "gzip;dur=%.3f", cpuNanos / 1_000_000.0));
+        response.setContentLength(compressed.length);
+        response.getOutputStream().write(compressed);
+        response.flushBuffer();
+    }
+    
+    // Compression counters since startup
+    public Map<String, Object> getStats() {
+        long compressed = compressedResponses.sum();
+        long in = bytesIn.sum();
+        long out = bytesOut.sum();
+        long cpuNanos = compressionCpuNanos.sum();
+        long hits = cacheHits.sum();
+        long misses = cacheMisses.sum();
+        
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("compressedResponses", compressed);
+        stats.put("skippedResponses", skippedResponses.sum());
+        stats.put("bytesIn", in);
+        stats.put("bytesOut", out);
+        stats.put("compressionRatio", out == 0 ? 0.0 : (double) in / out);
+        stats.put("cpuMillisTotal", cpuNanos / 1_000_000.0);
+        stats.put("cpuMicrosPerCompression", compressed == 0 ? 0.0 : cpuNanos / 1000.0 / compressed);
+        stats.put("cacheHits", hits);
+        stats.put("cacheMisses", misses);
+        stats.put("cacheEntries", cache.size());
+        return stats;
+    }
+    
+    // Whether Accept-Encoding allows gzip, either by name or through *, and does not refuse it with q=0
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase(GZIP) && !name.equals("*")) {
+                continue;
+            }
+            // gzip;q=0 explicitly refuses the coding
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(param.substring(2)) == 0.0;
+                    } catch (NumberFormatException e) {
+                        logger.debug("Ignoring malformed Accept-Encoding quality: {}", param);
+                    }
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        for (MediaType compressibleType : compressibleTypes) {
+            if (compressibleType.includes(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean isCachedPath(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : cachedPaths) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public static byte[] gzip(byte[] body, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new LeveledGzipOutputStream(out, level)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+    
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private long currentThreadCpuNanos() {
+        return threadMXBean.isCurrentThreadCpuTimeSupported()
+                ? threadMXBean.getCurrentThreadCpuTime()
+                : System.nanoTime();
+    }
+    
+    private static class LeveledGzipOutputStream extends GZIPOutputStream {
+        
+        LeveledGzipOutputStream(ByteArrayOutputStream out, int level) throws IOException {
+            super(out, 8192);
+            def.setLevel(level);
+        }
+    }
+    
+    /**
+     * Buffers the body like {@link ContentCachingResponseWrapper} until {@link #stopBuffering()}, then
+     * writes through to the response. Writes and the switch are serialized, because async handlers
+     * may already be writing from another thread when the filter switches.
+     */
+    private static class AsyncAwareResponseWrapper extends ContentCachingResponseWrapper {
+        
+        private boolean passThrough; // guarded by this
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+        
+        AsyncAwareResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+        
+        synchronized void stopBuffering() throws IOException {
+            copyBodyToResponse(false);
+            getResponse().flushBuffer();
+            passThrough = true;
+        }
+        
+        @Override
+        public synchronized ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                outputStream = new SwitchingOutputStream();
+            }
+            return outputStream;
+        }
+        
+        @Override
+        public synchronized PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new FlushingPrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+        
+        @Override
+        public synchronized void flushBuffer() throws IOException {
+            if (passThrough) {
+                getResponse().flushBuffer();
+            } else {
+                super.flushBuffer();
+            }
+        }
+        
+        private ServletOutputStream target() throws IOException {
+            return passThrough ? getResponse().getOutputStream() : super.getOutputStream();
+        }
+        
+        // Pushes every write into the stream, so the buffered body is complete whenever it is read
+        private static class FlushingPrintWriter extends PrintWriter {
+            
+            FlushingPrintWriter(OutputStreamWriter out) {
+                super(out);
+            }
+            
+            @Override
+            public void write(char[] buf, int off, int len) {
+                super.write(buf, off, len);
+                super.flush();
+            }
+            
+            @Override
+            public void write(String str, int off, int len) {
+                super.write(str, off, len);
+                super.flush();
+            }
+            
+            @Override
+            public void write(int c) {
+                super.write(c);
+                super.flush();
+            }
+        }
+        
+        private class SwitchingOutputStream extends ServletOutputStream {
+            
+            @Override
+            public void write(int b) throws IOException {
+                synchronized (AsyncAwareResponseWrapper.this) {
+                    target().write(b);
+                }
+            }
+            
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                synchronized (AsyncAwareResponseWrapper.this) {
+                    target().write(b, off, len);
+                }
+            }
+            
+            @Override
+            public void flush() throws IOException {
+                synchronized (AsyncAwareResponseWrapper.this) {
+                    target().flush();
+                }
+            }
+            
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+            
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                throw new UnsupportedOperationException("Non-blocking writes are not supported while compressing");
+            }
+        }
+    }
+    
+    /**
+     * Bounded LRU of raw body digest and gzip body per key. A stored gzip body is only reused when the
+     * SHA-256 of the raw bytes matches, so stale entries are never served, they just miss and get replaced.
+     */
+    private static class PrecompressedCache {
+        
+        private final Map<String, Entry> entries;
+        
+        PrecompressedCache(int maxEntries) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+        
+        synchronized byte[] get(String key, byte[] digest) {
+            Entry entry = entries.get(key);
+            return entry != null && Arrays.equals(entry.digest, digest) ? entry.compressed : null;
+        }
+        
+        synchronized void put(String key, byte[] digest, byte[] compressed) {
+            entries.put(key, new Entry(digest, compressed));
+        }
+        
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+    
+    private static class Entry {
+        
+        private final byte[] digest;
+        private final byte[] compressed;
+        
+        private Entry(byte[] digest, byte[] compressed) {
+            this.digest = digest;
+            this.compressed = compressed;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.vnair.usermanagement.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vnair.usermanagement.exception.GlobalExceptionHandler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key support for create and bulk endpoints that clients retry on timeouts.
+ * <p>
+ * The first request with a key runs normally and its response (status below 500) is kept in a
+ * bounded in-memory store for app.idempotency.ttl-minutes. Retries with the same key and body get
+ * that response replayed without running the handler again; duplicates that arrive while the first
+ * request is still running wait for its result. Reusing a key with a different body is rejected
+ * with 422. Keys are scoped to the authenticated user and the request path, and the store is local
+ * to each node. Entries of requests that are still running are never evicted, since their duplicates
+ * wait on them; when the store is full of running requests, requests with a new key get 503.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class);
+    
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.idempotency.paths:/users,/api/auth/register,/user-roles,/user-roles/users/*/batch-assign,/roles/users/*/batch-assign}")
+    private String[] paths;
+    
+    @Value("${app.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+    
+    private final Store store;
+    
+    public IdempotencyFilter(@Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                             @Value("${app.idempotency.ttl-minutes:60}") long ttlMinutes) {
+        this.store = new Store(maxEntries, TimeUnit.MINUTES.toNanos(ttlMinutes));
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : paths) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        String storeKey = currentPrincipal() + '\n' + request.getRequestURI() + '\n' + idempotencyKey;
+        String fingerprint = fingerprint(request, body);
+        
+        while (true) {
+            Entry entry = new Entry(fingerprint);
+            Entry existing = store.putIfAbsent(storeKey, entry);
+            if (existing == null) {
+                execute(new CachedBodyRequest(request, body), response, filterChain, storeKey, entry);
+                return;
+            }
+            if (existing == Store.FULL) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                writeError(response, HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many requests with an " + IDEMPOTENCY_KEY_HEADER + " are in progress, retry later");
+                return;
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        IDEMPOTENCY_KEY_HEADER + " was already used with a different request");
+                return;
+            }
+            
+            StoredResponse stored;
+            try {
+                stored = existing.result.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                writeError(response, HttpStatus.CONFLICT,
+                        "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writeError(response, HttpStatus.CONFLICT,
+                        "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress");
+                return;
+            } catch (ExecutionException e) {
+                stored = null;
+            }
+            
+            if (stored != null) {
+                logger.debug("Replaying response for {} {} with key {}", request.getMethod(), request.getRequestURI(), idempotencyKey);
+                replay(stored, response);
+                return;
+            }
+            // The first request failed without a replayable response, so this one runs it again
+        }
+    }
+    
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String storeKey, Entry entry) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        StoredResponse stored = null;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            // Server errors may be transient, so a retry runs the request again
+            if (responseWrapper.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                stored = new StoredResponse(responseWrapper.getStatus(), responseWrapper.getContentType(),
+                        responseWrapper.getHeader(HttpHeaders.LOCATION), responseWrapper.getContentAsByteArray());
+            }
+        } finally {
+            store.complete(storeKey, entry, stored);
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+    
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status);
+        if (stored.contentType != null) {
+            response.setContentType(stored.contentType);
+        }
+        if (stored.location != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location);
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body.length);
+        response.getOutputStream().write(stored.body);
+    }
+    
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        GlobalExceptionHandler.ErrorResponse errorResponse = new GlobalExceptionHandler.ErrorResponse(
+                status.value(),
+                message,
+                LocalDateTime.now()
+        );
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+    
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return "anonymous";
+        }
+        return authentication.getName();
+    }
+    
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            if (request.getQueryString() != null) {
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private static final class Entry {
+        private final String fingerprint;
+        private final long createdAtNanos = System.nanoTime();
+        // Completed with null when the request failed without a replayable response
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+        
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+    
+    private static final class StoredResponse {
+        private final int status;
+        private final String contentType;
+        private final String location;
+        private final byte[] body;
+        
+        private StoredResponse(int status, String contentType, String location, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.location = location;
+            this.body = body;
+        }
+    }
+    
+    /**
+     * Bounded store in insertion order. Every entry lives for the same TTL, so expired entries are
+     * always at the head; the oldest completed entries are dropped first when the store is full.
+     * Entries whose request is still running are skipped, whatever their age.
+     */
+    private static final class Store {
+        // Returned instead of storing when every entry belongs to a running request
+        private static final Entry FULL = new Entry("");
+        
+        private final int maxEntries;
+        private final long ttlNanos;
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+        
+        private Store(int maxEntries, long ttlNanos) {
+            this.maxEntries = maxEntries;
+            this.ttlNanos = ttlNanos;
+        }
+        
+        // Returns the live entry for the key, FULL when there is no room, or null after storing the given one
+        private synchronized Entry putIfAbsent(String key, Entry entry) {
+            long now = System.nanoTime();
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Entry head = iterator.next().getValue();
+                if (now - head.createdAtNanos < ttlNanos && entries.size() < maxEntries) {
+                    break;
+                }
+                if (head.result.isDone()) {
+                    iterator.remove();
+                }
+            }
+            Entry existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            if (entries.size() >= maxEntries) {
+                return FULL;
+            }
+            entries.put(key, entry);
+            return null;
+        }
+        
+        private synchronized void complete(String key, Entry entry, StoredResponse stored) {
+            if (stored == null) {
+                entries.remove(key, entry);
+            }
+            entry.result.complete(stored);
+        }
+    }
+    
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+        
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+                
+                @Override
+                public int read() {
+                    return input.read();
+                }
+                
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
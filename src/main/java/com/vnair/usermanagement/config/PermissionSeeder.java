@@ -0,0 +1,84 @@
+package com.vnair.usermanagement.config;
+
+import com.vnair.usermanagement.common.Permission;
+import com.vnair.usermanagement.entity.Role;
+import com.vnair.usermanagement.event.RoleChangedEvent;
+import com.vnair.usermanagement.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Grants the default permission masks to the built-in roles at startup.
+ * <p>
+ * On databases that existed before the permission catalog, ddl-auto adds roles.permissions with
+ * DEFAULT 0 and the seed UPDATEs in init.sql never run, so every built-in role would be denied by
+ * {@link com.vnair.usermanagement.security.PermissionInterceptor}. Masks are only written while they are
+ * still 0, so permissions changed by an administrator are left alone. The one exception is an ADMIN mask
+ * equal to every permission that existed before a new one was added: it is extended to all permissions.
+ */
+@Component
+public class PermissionSeeder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionSeeder.class);
+
+    private static final Map<String, Long> DEFAULT_MASKS = new LinkedHashMap<>();
+
+    // ADMIN masks that were "all permissions" in earlier versions of the catalog
+    private static final long[] PREVIOUS_ADMIN_MASKS = {
+            Permission.maskOf(Permission.AIRCRAFT_READ, Permission.AIRCRAFT_WRITE, Permission.CABIN_READ,
+                    Permission.CABIN_WRITE, Permission.USER_ROLE_READ, Permission.USER_ROLE_WRITE)
+    };
+
+    static {
+        DEFAULT_MASKS.put("ADMIN", Permission.allMask());
+        DEFAULT_MASKS.put("MANAGER", Permission.maskOf(Permission.AIRCRAFT_READ, Permission.AIRCRAFT_WRITE,
+                Permission.CABIN_READ, Permission.CABIN_WRITE, Permission.USER_ROLE_READ));
+        DEFAULT_MASKS.put("USER", Permission.maskOf(Permission.AIRCRAFT_READ, Permission.CABIN_READ));
+    }
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        for (Map.Entry<String, Long> entry : DEFAULT_MASKS.entrySet()) {
+            Optional<Role> found = roleRepository.findByName(entry.getKey());
+            if (found.isEmpty()) {
+                continue;
+            }
+            Role role = found.get();
+            long current = role.getPermissions() != null ? role.getPermissions() : 0L;
+            if (current != 0L && !(entry.getKey().equals("ADMIN") && isPreviousAdminMask(current))) {
+                continue;
+            }
+            role.setPermissions(entry.getValue());
+            roleRepository.save(role);
+            // Role caches and cached user authorities reload after commit
+            eventPublisher.publishEvent(new RoleChangedEvent(role.getId(), RoleChangedEvent.ChangeType.UPDATED));
+            logger.info("Granted default permissions {} to role {}", Permission.codesOf(entry.getValue()), entry.getKey());
+        }
+    }
+
+    private boolean isPreviousAdminMask(long mask) {
+        for (long previous : PREVIOUS_ADMIN_MASKS) {
+            if (mask == previous) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
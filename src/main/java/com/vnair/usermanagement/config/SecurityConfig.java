@@ -58,6 +58,9 @@ public class SecurityConfig {
                 .requestMatchers("/api/**").authenticated()
                 // SSR pages - these require authentication
                 .requestMatchers("/roles/**", "/users/**", "/user-roles/**").hasRole("ADMIN")
+                .requestMatchers("/admin/**").hasRole("ADMIN")
+                .requestMatchers("/batch/**").hasRole("ADMIN")
+                .requestMatchers("/changes/**").authenticated()
                 .anyRequest().permitAll()
             )
             .formLogin(form -> form
@@ -0,0 +1,50 @@
+package com.vnair.usermanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Writes one baseline ASSIGNED audit entry, changed by "baseline", for every active assignment
+ * that has no audit entry yet.
+ * <p>
+ * Assignments made before the audit log existed would otherwise be missing from point-in-time
+ * queries. The entry is dated at the assignment's assigned_at and carries its current expiry, since
+ * earlier changes were never recorded. Assignments that were already inactive when the log started
+ * cannot be reconstructed. Rows that already have an entry are skipped, so the seed is safe to run
+ * on every startup.
+ */
+@Component
+public class UserRoleAuditBaselineSeeder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserRoleAuditBaselineSeeder.class);
+
+    // An existing change_type value, so CHECK constraints generated for the enum column still accept it
+    private static final String INSERT_BASELINE_SQL = "INSERT INTO user_role_audit_log " +
+            "(user_role_id, user_id, role_id, change_type, active, expires_at, changed_by, occurred_at, recorded_at) " +
+            "SELECT ur.id, ur.user_id, ur.role_id, 'ASSIGNED', true, ur.expires_at, 'baseline', " +
+            "COALESCE(ur.assigned_at, ?), ? " +
+            "FROM user_roles ur WHERE ur.is_active = true " +
+            "AND NOT EXISTS (SELECT 1 FROM user_role_audit_log a WHERE a.user_role_id = ur.id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int seeded = jdbcTemplate.update(INSERT_BASELINE_SQL, now, now);
+        if (seeded > 0) {
+            logger.info("Recorded {} baseline audit entries for assignments made before the audit log", seeded);
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.vnair.usermanagement.controller;
 
+import com.vnair.usermanagement.common.Permission;
+import com.vnair.usermanagement.dto.request.AircraftCloneRequestDTO;
 import com.vnair.usermanagement.dto.request.AircraftCreateRequestDTO;
 import com.vnair.usermanagement.dto.request.AircraftPageRequestDTO;
 import com.vnair.usermanagement.dto.request.AircraftUpdateRequestDTO;
 import com.vnair.usermanagement.dto.response.AircraftResponseDTO;
+import com.vnair.usermanagement.dto.response.MultiGetResponseDTO;
 import com.vnair.usermanagement.dto.response.PageResponseDTO;
+import com.vnair.usermanagement.security.RequiresPermission;
 import com.vnair.usermanagement.service.AircraftService;
+import com.vnair.usermanagement.util.FleetReferenceCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,20 +21,31 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/aircrafts")
 @Tag(name = "Quản lý máy bay", description = "API quản lý thông tin máy bay")
 @SecurityRequirement(name = "Bearer Authentication")
+@RequiresPermission(Permission.AIRCRAFT_READ)
 public class AircraftController {
     @Autowired
     private AircraftService aircraftService;
 
+    @Autowired
+    private FleetReferenceCache fleetReferenceCache;
+
     @PostMapping
+    @RequiresPermission(Permission.AIRCRAFT_WRITE)
     @Operation(summary = "Tạo máy bay mới", 
                description = "Tạo một máy bay mới với mã và tên máy bay")
     @ApiResponses(value = {
@@ -57,7 +73,41 @@ public class AircraftController {
         return aircraftService.createAircraft(request);
     }
 
+    @PostMapping("/{id}/clone")
+    @RequiresPermission({Permission.AIRCRAFT_WRITE, Permission.CABIN_WRITE})
+    @Operation(summary = "Nhân bản máy bay", 
+               description = "Tạo một hoặc nhiều máy bay mới với cấu hình khoang giống máy bay nguồn, trong một transaction")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Nhân bản thành công, trả về các máy bay mới theo thứ tự mã"),
+        @ApiResponse(responseCode = "400", 
+                    description = "Dữ liệu không hợp lệ"),
+        @ApiResponse(responseCode = "404", 
+                    description = "Không tìm thấy máy bay nguồn"),
+        @ApiResponse(responseCode = "409", 
+                    description = "Mã máy bay mới đã tồn tại")
+    })
+    public List<AircraftResponseDTO> cloneAircraft(
+            @Parameter(description = "ID của máy bay nguồn", required = true)
+            @PathVariable Long id,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                description = "Các mã máy bay mới và tên (tùy chọn)",
+                content = @Content(
+                    schema = @Schema(implementation = AircraftCloneRequestDTO.class),
+                    examples = @ExampleObject(
+                        value = "{\n" +
+                               "  \"codes\": [\"VN-A322\", \"VN-A323\"],\n" +
+                               "  \"name\": \"Airbus A321\"\n" +
+                               "}"
+                    )
+                )
+            )
+            @Valid @RequestBody AircraftCloneRequestDTO request) {
+        return aircraftService.cloneAircraft(id, request);
+    }
+
     @PutMapping("/{id}")
+    @RequiresPermission(Permission.AIRCRAFT_WRITE)
     @Operation(summary = "Cập nhật thông tin máy bay", 
                description = "Cập nhật thông tin máy bay theo ID")
     @ApiResponses(value = {
@@ -67,9 +117,11 @@ public class AircraftController {
         @ApiResponse(responseCode = "404", 
                     description = "Không tìm thấy máy bay"),
         @ApiResponse(responseCode = "400", 
-                    description = "Dữ liệu không hợp lệ")
+                    description = "Dữ liệu không hợp lệ"),
+        @ApiResponse(responseCode = "412", 
+                    description = "If-Match không khớp ETag hiện tại")
     })
-    public AircraftResponseDTO updateAircraft(
+    public ResponseEntity<AircraftResponseDTO> updateAircraft(
             @Parameter(description = "ID của máy bay cần cập nhật", required = true)
             @PathVariable Long id, 
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -84,11 +136,15 @@ public class AircraftController {
                     )
                 )
             )
-            @Valid @RequestBody AircraftUpdateRequestDTO request) {
-        return aircraftService.updateAircraft(id, request);
+            @Valid @RequestBody AircraftUpdateRequestDTO request,
+            @Parameter(description = "ETag đã đọc trước đó; trả về 412 nếu máy bay đã bị thay đổi")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        AircraftResponseDTO aircraft = aircraftService.updateAircraft(id, request, ifMatch);
+        return ResponseEntity.ok().eTag(aircraft.getEtag()).body(aircraft);
     }
 
     @DeleteMapping("/{id}")
+    @RequiresPermission(Permission.AIRCRAFT_WRITE)
     @Operation(summary = "Xóa máy bay", 
                description = "Xóa máy bay theo ID")
     @ApiResponses(value = {
@@ -113,10 +169,32 @@ public class AircraftController {
         @ApiResponse(responseCode = "404", 
                     description = "Không tìm thấy máy bay")
     })
-    public AircraftResponseDTO getAircraft(
+    public ResponseEntity<AircraftResponseDTO> getAircraft(
             @Parameter(description = "ID của máy bay", required = true)
-            @PathVariable Long id) {
-        return aircraftService.getAircraft(id);
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        // Kiểm tra If-None-Match chỉ đọc cột version; checkNotModified đã ghi sẵn 304
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(aircraftService.getAircraftETag(id))) {
+            return null;
+        }
+        AircraftResponseDTO aircraft = aircraftService.getAircraft(id);
+        return ResponseEntity.ok().eTag(aircraft.getEtag()).body(aircraft);
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Lấy nhiều máy bay theo ID", 
+               description = "Lấy nhiều máy bay trong một request, giữ thứ tự ID và trả về các ID không tồn tại")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Lấy danh sách thành công"),
+        @ApiResponse(responseCode = "400", 
+                    description = "Vượt quá số ID cho phép")
+    })
+    public MultiGetResponseDTO<AircraftResponseDTO> getAircraftsByIds(
+            @Parameter(description = "Danh sách ID, ví dụ 1,2,3", required = true)
+            @RequestParam List<Long> ids) {
+        return aircraftService.getAircraftsByIds(ids);
     }
 
     @GetMapping
@@ -129,6 +207,14 @@ public class AircraftController {
         return aircraftService.getAllAircrafts();
     }
 
+    // Danh sách JSON đầy đủ được phục vụ từ bộ nhớ đệm đã serialize sẵn, không truy vấn DB và không chạy Jackson;
+    // các định dạng khác (CBOR, Smile) vẫn đi qua handler phía trên
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(hidden = true)
+    public void getAllAircraftsCached(ServletWebRequest webRequest) throws IOException {
+        fleetReferenceCache.write(FleetReferenceCache.Listing.AIRCRAFTS, webRequest);
+    }
+
     @GetMapping("/page")
     @Operation(summary = "Lấy danh sách máy bay với phân trang", 
                description = "Lấy danh sách máy bay có phân trang và sắp xếp")
@@ -4,6 +4,7 @@ import com.vnair.usermanagement.common.UserStatus;
 import com.vnair.usermanagement.dto.UserRegistrationRequestDTO;
 import com.vnair.usermanagement.dto.UserRegistrationResponseDTO;
 import com.vnair.usermanagement.entity.User;
+import com.vnair.usermanagement.event.UserChangedEvent;
 import com.vnair.usermanagement.exception.DuplicateUserException;
 import com.vnair.usermanagement.repository.UserRepository;
 import com.vnair.usermanagement.util.JwtUtil;
@@ -16,6 +17,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -59,6 +61,9 @@ public class AuthController {
     
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Login endpoint
@@ -238,6 +243,7 @@ public class AuthController {
             
             // Save user to database
             User savedUser = userRepository.save(newUser);
+            eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId(), UserChangedEvent.ChangeType.CREATED));
             
             System.out.println("=== User registration successful! User ID: " + savedUser.getId());
             
@@ -0,0 +1,35 @@
+package com.vnair.usermanagement.controller;
+
+import com.vnair.usermanagement.common.Permission;
+import com.vnair.usermanagement.dto.BatchRequestDTO;
+import com.vnair.usermanagement.dto.BatchResponseDTO;
+import com.vnair.usermanagement.security.RequiresPermission;
+import com.vnair.usermanagement.service.BatchService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/batch")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class BatchController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BatchController.class);
+    
+    @Autowired
+    private BatchService batchService;
+    
+    // Apply an ordered list of user, role and assignment operations; the result of each is in the response
+    @PostMapping
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
+    public ResponseEntity<BatchResponseDTO> executeBatch(@Valid @RequestBody BatchRequestDTO batchRequestDTO) {
+        logger.info("POST /batch - Executing batch of {} operations",
+                batchRequestDTO.getOperations() != null ? batchRequestDTO.getOperations().size() : 0);
+        
+        BatchResponseDTO response = batchService.executeBatch(batchRequestDTO);
+        return ResponseEntity.ok(response);
+    }
+}
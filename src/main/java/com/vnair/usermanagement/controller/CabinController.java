@@ -1,11 +1,15 @@
 package com.vnair.usermanagement.controller;
 
+import com.vnair.usermanagement.common.Permission;
 import com.vnair.usermanagement.dto.request.CabinCreateRequestDTO;
 import com.vnair.usermanagement.dto.request.CabinPageRequestDTO;
 import com.vnair.usermanagement.dto.request.CabinUpdateRequestDTO;
 import com.vnair.usermanagement.dto.response.CabinResponseDTO;
+import com.vnair.usermanagement.dto.response.MultiGetResponseDTO;
 import com.vnair.usermanagement.dto.response.PageResponseDTO;
+import com.vnair.usermanagement.security.RequiresPermission;
 import com.vnair.usermanagement.service.CabinService;
+import com.vnair.usermanagement.util.FleetReferenceCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,20 +20,32 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/cabins")
 @Tag(name = "Quản lý khoang máy bay", description = "API quản lý các khoang (cabin) trong máy bay")
 @SecurityRequirement(name = "Bearer Authentication")
+@RequiresPermission(Permission.CABIN_READ)
 public class CabinController {
     @Autowired
     private CabinService cabinService;
 
+    @Autowired
+    private FleetReferenceCache fleetReferenceCache;
+
     @PostMapping
+    @RequiresPermission(Permission.CABIN_WRITE)
     @Operation(summary = "Tạo khoang máy bay mới", 
                description = "Tạo một khoang mới cho máy bay")
     @ApiResponses(value = {
@@ -71,6 +87,7 @@ public class CabinController {
     }
 
     @PutMapping("/{id}")
+    @RequiresPermission(Permission.CABIN_WRITE)
     @Operation(summary = "Cập nhật thông tin khoang", 
                description = "Cập nhật thông tin khoang máy bay theo ID")
     @ApiResponses(value = {
@@ -80,16 +97,22 @@ public class CabinController {
         @ApiResponse(responseCode = "404", 
                     description = "Không tìm thấy khoang hoặc máy bay"),
         @ApiResponse(responseCode = "400", 
-                    description = "Dữ liệu không hợp lệ")
+                    description = "Dữ liệu không hợp lệ"),
+        @ApiResponse(responseCode = "412", 
+                    description = "If-Match không khớp ETag hiện tại")
     })
-    public CabinResponseDTO updateCabin(
+    public ResponseEntity<CabinResponseDTO> updateCabin(
             @Parameter(description = "ID của khoang cần cập nhật", required = true)
             @PathVariable Long id, 
-            @Valid @RequestBody CabinUpdateRequestDTO request) {
-        return cabinService.updateCabin(id, request);
+            @Valid @RequestBody CabinUpdateRequestDTO request,
+            @Parameter(description = "ETag đã đọc trước đó; trả về 412 nếu khoang đã bị thay đổi")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CabinResponseDTO cabin = cabinService.updateCabin(id, request, ifMatch);
+        return ResponseEntity.ok().eTag(cabin.getEtag()).body(cabin);
     }
 
     @DeleteMapping("/{id}")
+    @RequiresPermission(Permission.CABIN_WRITE)
     @Operation(summary = "Xóa khoang", 
                description = "Xóa khoang máy bay theo ID")
     @ApiResponses(value = {
@@ -114,10 +137,32 @@ public class CabinController {
         @ApiResponse(responseCode = "404", 
                     description = "Không tìm thấy khoang")
     })
-    public CabinResponseDTO getCabin(
+    public ResponseEntity<CabinResponseDTO> getCabin(
             @Parameter(description = "ID của khoang", required = true)
-            @PathVariable Long id) {
-        return cabinService.getCabin(id);
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        // Kiểm tra If-None-Match chỉ đọc cột version; checkNotModified đã ghi sẵn 304
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(cabinService.getCabinETag(id))) {
+            return null;
+        }
+        CabinResponseDTO cabin = cabinService.getCabin(id);
+        return ResponseEntity.ok().eTag(cabin.getEtag()).body(cabin);
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Lấy nhiều khoang theo ID", 
+               description = "Lấy nhiều khoang trong một request, giữ thứ tự ID và trả về các ID không tồn tại")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Lấy danh sách thành công"),
+        @ApiResponse(responseCode = "400", 
+                    description = "Vượt quá số ID cho phép")
+    })
+    public MultiGetResponseDTO<CabinResponseDTO> getCabinsByIds(
+            @Parameter(description = "Danh sách ID, ví dụ 1,2,3", required = true)
+            @RequestParam List<Long> ids) {
+        return cabinService.getCabinsByIds(ids);
     }
 
     @GetMapping
@@ -130,6 +175,31 @@ public class CabinController {
         return cabinService.getAllCabins();
     }
 
+    // Danh sách JSON đầy đủ được phục vụ từ bộ nhớ đệm đã serialize sẵn, không truy vấn DB và không chạy Jackson;
+    // các định dạng khác (CBOR, Smile) vẫn đi qua handler phía trên
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(hidden = true)
+    public void getAllCabinsCached(ServletWebRequest webRequest) throws IOException {
+        fleetReferenceCache.write(FleetReferenceCache.Listing.CABINS, webRequest);
+    }
+
+    // Lấy danh sách khoang chỉ với các trường được chọn, ví dụ ?fields=id,name,seatCount
+    // (khi có cả ?ids= thì request thuộc về endpoint lấy nhiều khoang theo ID)
+    @GetMapping(params = {"fields", "!ids"})
+    @Operation(summary = "Lấy danh sách khoang với các trường được chọn", 
+               description = "Chỉ truy vấn các cột được chọn; aircraft chỉ được join khi chọn aircraftCode hoặc aircraftName")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+                    description = "Lấy danh sách thành công"),
+        @ApiResponse(responseCode = "400", 
+                    description = "Trường không hợp lệ")
+    })
+    public List<Map<String, Object>> getAllCabinsWithFields(
+            @Parameter(description = "Danh sách trường, ví dụ id,name,seatCount,aircraftCode", required = true)
+            @RequestParam String fields) {
+        return cabinService.getAllCabins(fields);
+    }
+
     // Lấy danh sách cabin của một máy bay
     @GetMapping("/aircraft/{aircraftId}")
     @Operation(summary = "Lấy danh sách khoang theo máy bay", 
@@ -0,0 +1,42 @@
+package com.vnair.usermanagement.controller;
+
+import com.vnair.usermanagement.common.Permission;
+import com.vnair.usermanagement.dto.ChangeFeedResponseDTO;
+import com.vnair.usermanagement.security.RequiresPermission;
+import com.vnair.usermanagement.service.ChangeFeedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/changes")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequiresPermission(Permission.CHANGE_FEED_READ)
+public class ChangeFeedController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedController.class);
+    
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    
+    // Get changes after the cursor; 410 means the cursor is too old and the client must resync
+    @GetMapping
+    public ResponseEntity<ChangeFeedResponseDTO> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("GET /changes - Fetching changes since: {}, limit: {}", since, limit);
+        
+        ChangeFeedResponseDTO changes = changeFeedService.getChanges(since, limit);
+        return ResponseEntity.ok(changes);
+    }
+    
+    // Get the latest cursor, to start following the feed after a full sync
+    @GetMapping("/latest")
+    public ResponseEntity<Long> getLatestCursor() {
+        logger.info("GET /changes/latest - Fetching latest change cursor");
+        
+        return ResponseEntity.ok(changeFeedService.getLatestSeq());
+    }
+}
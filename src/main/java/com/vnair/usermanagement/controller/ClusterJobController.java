@@ -0,0 +1,41 @@
+package com.vnair.usermanagement.controller;
+
+import com.vnair.usermanagement.dto.JobRunResponseDTO;
+import com.vnair.usermanagement.dto.JobStatusResponseDTO;
+import com.vnair.usermanagement.service.ClusterJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/jobs")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ClusterJobController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ClusterJobController.class);
+    
+    @Autowired
+    private ClusterJobService clusterJobService;
+    
+    // Get lease state of all cluster jobs
+    @GetMapping
+    public ResponseEntity<List<JobStatusResponseDTO>> getJobStatuses() {
+        logger.info("GET /admin/jobs - Fetching cluster job statuses");
+        
+        List<JobStatusResponseDTO> statuses = clusterJobService.getJobStatuses();
+        return ResponseEntity.ok(statuses);
+    }
+    
+    // Get recent job runs
+    @GetMapping("/runs")
+    public ResponseEntity<List<JobRunResponseDTO>> getJobRuns(@RequestParam(required = false) String jobName) {
+        logger.info("GET /admin/jobs/runs - Fetching job runs for: {}", jobName);
+        
+        List<JobRunResponseDTO> runs = clusterJobService.getJobRuns(jobName);
+        return ResponseEntity.ok(runs);
+    }
+}
@@ -0,0 +1,29 @@
+package com.vnair.usermanagement.controller;
+
+import com.vnair.usermanagement.config.CompressionFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/compression")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class CompressionStatsController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CompressionStatsController.class);
+    
+    @Autowired
+    private CompressionFilter compressionFilter;
+    
+    // Get response compression counters, including compression CPU time and precompressed cache hits
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getCompressionStats() {
+        logger.info("GET /admin/compression/stats - Fetching response compression statistics");
+        
+        return ResponseEntity.ok(compressionFilter.getStats());
+    }
+}
@@ -0,0 +1,45 @@
+package com.vnair.usermanagement.controller;
+
+import com.vnair.usermanagement.service.DashboardStreamService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/dashboard")
+public class DashboardStreamController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStreamController.class);
+    
+    @Autowired
+    private DashboardStreamService dashboardStreamService;
+    
+    // Live counter stream for the SSR dashboards
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamCounters() {
+        logger.info("GET /admin/dashboard/stream - Opening dashboard counter stream");
+        
+        return dashboardStreamService.subscribe()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "30")
+                        .build());
+    }
+    
+    // Current counters, for clients that poll instead of streaming
+    @GetMapping("/counters")
+    public ResponseEntity<Map<String, Long>> getCounters() {
+        logger.info("GET /admin/dashboard/counters - Fetching dashboard counters");
+        return ResponseEntity.ok(dashboardStreamService.getCounters());
+    }
+}
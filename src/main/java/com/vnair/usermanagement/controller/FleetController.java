@@ -0,0 +1,89 @@
+package com.vnair.usermanagement.controller;
+
+import com.vnair.usermanagement.common.Permission;
+import com.vnair.usermanagement.dto.response.CapacityResponseDTO;
+import com.vnair.usermanagement.dto.response.FleetResponseDTO;
+import com.vnair.usermanagement.security.RequiresPermission;
+import com.vnair.usermanagement.service.FleetService;
+import com.vnair.usermanagement.util.ETagUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/fleet")
+@Tag(name = "Tổng quan đội bay", description = "API tổng hợp về toàn bộ máy bay và khoang")
+@SecurityRequirement(name = "Bearer Authentication")
+@RequiresPermission({Permission.AIRCRAFT_READ, Permission.CABIN_READ})
+public class FleetController {
+    @Autowired
+    private FleetService fleetService;
+
+    @GetMapping
+    @Operation(summary = "Snapshot toàn bộ đội bay",
+               description = "Lấy mọi máy bay kèm các khoang của nó trong một request. ETag là version đội bay, " +
+                             "gửi lại qua If-None-Match để nhận 304 khi đội bay chưa thay đổi")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200",
+                    description = "Lấy snapshot thành công",
+                    content = @Content(schema = @Schema(implementation = FleetResponseDTO.class))),
+        @ApiResponse(responseCode = "304",
+                    description = "Đội bay chưa thay đổi từ version trong If-None-Match")
+    })
+    public ResponseEntity<FleetResponseDTO> getFleet(WebRequest webRequest) {
+        // Kiểm tra If-None-Match chỉ đọc bộ đếm version; checkNotModified đã ghi sẵn 304
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(fleetService.getFleetETag())) {
+            return null;
+        }
+        FleetResponseDTO fleet = fleetService.getFleet();
+        return ResponseEntity.ok().eTag(ETagUtil.of(fleet.getVersion())).body(fleet);
+    }
+
+    @GetMapping("/capacity")
+    @Operation(summary = "Sức chứa toàn đội bay",
+               description = "Tổng số khoang và số ghế của toàn đội bay, tổng và theo vị trí khoang")
+    @ApiResponse(responseCode = "200",
+                description = "Lấy sức chứa thành công",
+                content = @Content(schema = @Schema(implementation = CapacityResponseDTO.class)))
+    public CapacityResponseDTO getFleetCapacity() {
+        return fleetService.getFleetCapacity();
+    }
+
+    @GetMapping("/capacity/aircraft")
+    @Operation(summary = "Sức chứa theo máy bay",
+               description = "Số khoang và số ghế của từng máy bay có ít nhất một khoang, theo vị trí khoang")
+    @ApiResponse(responseCode = "200",
+                description = "Lấy danh sách thành công")
+    public List<CapacityResponseDTO> getAircraftCapacities() {
+        return fleetService.getAircraftCapacities();
+    }
+
+    @GetMapping("/capacity/aircraft/{aircraftId}")
+    @Operation(summary = "Sức chứa của một máy bay",
+               description = "Số khoang và số ghế của một máy bay, tổng và theo vị trí khoang")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200",
+                    description = "Lấy sức chứa thành công",
+                    content = @Content(schema = @Schema(implementation = CapacityResponseDTO.class))),
+        @ApiResponse(responseCode = "404",
+                    description = "Không tìm thấy máy bay")
+    })
+    public CapacityResponseDTO getAircraftCapacity(
+            @Parameter(description = "ID của máy bay", required = true)
+            @PathVariable Long aircraftId) {
+        return fleetService.getAircraftCapacity(aircraftId);
+    }
+}
@@ -0,0 +1,29 @@
+package com.vnair.usermanagement.controller;
+
+import com.vnair.usermanagement.util.SingleFlightRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/lookups")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class LookupStatsController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LookupStatsController.class);
+    
+    @Autowired
+    private SingleFlightRegistry singleFlightRegistry;
+    
+    // Get request coalescing counters of the hot lookups
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> getLookupStats() {
+        logger.info("GET /admin/lookups/stats - Fetching lookup coalescing statistics");
+        
+        return ResponseEntity.ok(singleFlightRegistry.getStats());
+    }
+}
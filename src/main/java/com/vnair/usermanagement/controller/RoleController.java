@@ -3,6 +3,7 @@ package com.vnair.usermanagement.controller;
 import com.vnair.usermanagement.dto.RoleCreateRequestDTO;
 import com.vnair.usermanagement.dto.RoleResponseDTO;
 import com.vnair.usermanagement.dto.RoleUpdateRequestDTO;
+import com.vnair.usermanagement.dto.response.MultiGetResponseDTO;
 import com.vnair.usermanagement.service.RoleService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -12,9 +13,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -39,13 +42,26 @@ public class RoleController {
         return new ResponseEntity<>(createdRole, HttpStatus.CREATED);
     }
     
+    // Get the permission catalog (codes and their mask bits)
+    @GetMapping("/permissions")
+    public ResponseEntity<List<Map<String, Object>>> getPermissionCatalog() {
+        logger.info("GET /roles/permissions - Fetching permission catalog");
+        
+        return ResponseEntity.ok(roleService.getPermissionCatalog());
+    }
+    
     // Get role by ID
     @GetMapping("/{id}")
-    public ResponseEntity<RoleResponseDTO> getRoleById(@PathVariable Long id) {
+    public ResponseEntity<RoleResponseDTO> getRoleById(@PathVariable Long id, WebRequest webRequest) {
         logger.info("GET /roles/{} - Fetching role by ID", id);
         
+        // Revalidation skips loading the role; checkNotModified has already written the 304
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(roleService.getRoleETag(id))) {
+            return null;
+        }
         RoleResponseDTO role = roleService.getRoleById(id);
-        return ResponseEntity.ok(role);
+        return ResponseEntity.ok().eTag(role.getEtag()).body(role);
     }
     
     // Get role by name
@@ -57,6 +73,15 @@ public class RoleController {
         return ResponseEntity.ok(role);
     }
     
+    // Get several roles by ID in one request
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetResponseDTO<RoleResponseDTO>> getRolesByIds(@RequestParam List<Long> ids) {
+        logger.info("GET /roles?ids= - Fetching {} roles by ID", ids.size());
+        
+        MultiGetResponseDTO<RoleResponseDTO> roles = roleService.getRolesByIds(ids);
+        return ResponseEntity.ok(roles);
+    }
+    
     // Get all roles with pagination and sorting
     @GetMapping
     public ResponseEntity<Page<RoleResponseDTO>> getAllRoles(
@@ -81,12 +106,13 @@ public class RoleController {
     @PutMapping("/{id}")
     public ResponseEntity<RoleResponseDTO> updateRole(
             @PathVariable Long id,
-            @Valid @RequestBody RoleUpdateRequestDTO roleUpdateRequestDTO) {
+            @Valid @RequestBody RoleUpdateRequestDTO roleUpdateRequestDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         
         logger.info("PUT /roles/{} - Updating role", id);
         
-        RoleResponseDTO updatedRole = roleService.updateRole(id, roleUpdateRequestDTO);
-        return ResponseEntity.ok(updatedRole);
+        RoleResponseDTO updatedRole = roleService.updateRole(id, roleUpdateRequestDTO, ifMatch);
+        return ResponseEntity.ok().eTag(updatedRole.getEtag()).body(updatedRole);
     }
     
     // Delete role
@@ -256,4 +282,52 @@ public class RoleController {
         
         return ResponseEntity.ok(response);
     }
+    
+    // Get roles implied by a role (all transitively, or only direct links)
+    @GetMapping("/{roleId}/implied-roles")
+    public ResponseEntity<List<RoleResponseDTO>> getImpliedRoles(
+            @PathVariable Long roleId,
+            @RequestParam(defaultValue = "false") boolean direct) {
+        
+        logger.info("GET /roles/{}/implied-roles - Fetching implied roles, direct={}", roleId, direct);
+        
+        List<RoleResponseDTO> roles = roleService.getImpliedRoles(roleId, direct);
+        return ResponseEntity.ok(roles);
+    }
+    
+    // Make a role imply another role
+    @PostMapping("/{roleId}/implied-roles/{impliedRoleId}")
+    public ResponseEntity<Map<String, String>> addImpliedRole(
+            @PathVariable Long roleId,
+            @PathVariable Long impliedRoleId) {
+        
+        logger.info("POST /roles/{}/implied-roles/{} - Adding implied role", roleId, impliedRoleId);
+        
+        roleService.addImpliedRole(roleId, impliedRoleId);
+        
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Implied role added successfully");
+        response.put("roleId", roleId.toString());
+        response.put("impliedRoleId", impliedRoleId.toString());
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    // Remove a direct implied role link
+    @DeleteMapping("/{roleId}/implied-roles/{impliedRoleId}")
+    public ResponseEntity<Map<String, String>> removeImpliedRole(
+            @PathVariable Long roleId,
+            @PathVariable Long impliedRoleId) {
+        
+        logger.info("DELETE /roles/{}/implied-roles/{} - Removing implied role", roleId, impliedRoleId);
+        
+        roleService.removeImpliedRole(roleId, impliedRoleId);
+        
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Implied role removed successfully");
+        response.put("roleId", roleId.toString());
+        response.put("impliedRoleId", impliedRoleId.toString());
+        
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,153 @@
+package com.vnair.usermanagement.controller;
+
+import com.vnair.usermanagement.common.Permission;
+import com.vnair.usermanagement.dto.request.SeatOperationRequestDTO;
+import com.vnair.usermanagement.dto.response.SeatMapResponseDTO;
+import com.vnair.usermanagement.security.RequiresPermission;
+import com.vnair.usermanagement.service.SeatInventoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import jakarta.validation.Valid;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cabins/{cabinId}/seats")
+@Tag(name = "Quản lý ghế trong khoang", description = "API giữ chỗ, trả chỗ, khóa và tìm ghế trống trong một khoang")
+@SecurityRequirement(name = "Bearer Authentication")
+@RequiresPermission(Permission.CABIN_READ)
+public class SeatInventoryController {
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
+    @GetMapping
+    @Operation(summary = "Lấy sơ đồ ghế",
+               description = "Lấy trạng thái các ghế của khoang: số ghế trống, các ghế đang được giữ và bị khóa")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200",
+                    description = "Lấy sơ đồ ghế thành công",
+                    content = @Content(schema = @Schema(implementation = SeatMapResponseDTO.class))),
+        @ApiResponse(responseCode = "404",
+                    description = "Không tìm thấy khoang")
+    })
+    public SeatMapResponseDTO getSeatMap(
+            @Parameter(description = "ID của khoang", required = true)
+            @PathVariable Long cabinId) {
+        return seatInventoryService.getSeatMap(cabinId);
+    }
+
+    @GetMapping("/contiguous")
+    @Operation(summary = "Tìm ghế trống liền nhau",
+               description = "Trả về dãy count ghế trống liền nhau có số nhỏ nhất, hoặc danh sách rỗng nếu không có")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200",
+                    description = "Tìm kiếm thành công"),
+        @ApiResponse(responseCode = "400",
+                    description = "Số ghế không hợp lệ"),
+        @ApiResponse(responseCode = "404",
+                    description = "Không tìm thấy khoang")
+    })
+    public List<Integer> findContiguousSeats(
+            @Parameter(description = "ID của khoang", required = true)
+            @PathVariable Long cabinId,
+            @Parameter(description = "Số ghế liền nhau cần tìm", required = true)
+            @RequestParam int count) {
+        return seatInventoryService.findContiguousSeats(cabinId, count);
+    }
+
+    @PostMapping("/hold")
+    @RequiresPermission(Permission.CABIN_WRITE)
+    @Operation(summary = "Giữ ghế",
+               description = "Giữ các ghế đang trống; nếu có ghế không trống thì không ghế nào được giữ")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200",
+                    description = "Giữ ghế thành công",
+                    content = @Content(schema = @Schema(implementation = SeatMapResponseDTO.class))),
+        @ApiResponse(responseCode = "400",
+                    description = "Số ghế nằm ngoài khoang"),
+        @ApiResponse(responseCode = "404",
+                    description = "Không tìm thấy khoang"),
+        @ApiResponse(responseCode = "409",
+                    description = "Có ghế không còn trống hoặc version sơ đồ ghế không khớp")
+    })
+    public SeatMapResponseDTO holdSeats(
+            @Parameter(description = "ID của khoang", required = true)
+            @PathVariable Long cabinId,
+            @Valid @RequestBody SeatOperationRequestDTO request) {
+        return seatInventoryService.holdSeats(cabinId, request);
+    }
+
+    @PostMapping("/release")
+    @RequiresPermission(Permission.CABIN_WRITE)
+    @Operation(summary = "Trả ghế",
+               description = "Trả các ghế đang được giữ về trạng thái trống")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200",
+                    description = "Trả ghế thành công",
+                    content = @Content(schema = @Schema(implementation = SeatMapResponseDTO.class))),
+        @ApiResponse(responseCode = "400",
+                    description = "Số ghế nằm ngoài khoang"),
+        @ApiResponse(responseCode = "404",
+                    description = "Không tìm thấy khoang"),
+        @ApiResponse(responseCode = "409",
+                    description = "Có ghế không ở trạng thái đang giữ hoặc version sơ đồ ghế không khớp")
+    })
+    public SeatMapResponseDTO releaseSeats(
+            @Parameter(description = "ID của khoang", required = true)
+            @PathVariable Long cabinId,
+            @Valid @RequestBody SeatOperationRequestDTO request) {
+        return seatInventoryService.releaseSeats(cabinId, request);
+    }
+
+    @PostMapping("/block")
+    @RequiresPermission(Permission.CABIN_WRITE)
+    @Operation(summary = "Khóa ghế",
+               description = "Khóa các ghế đang trống, ví dụ ghế hỏng hoặc dành cho tổ bay")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200",
+                    description = "Khóa ghế thành công",
+                    content = @Content(schema = @Schema(implementation = SeatMapResponseDTO.class))),
+        @ApiResponse(responseCode = "400",
+                    description = "Số ghế nằm ngoài khoang"),
+        @ApiResponse(responseCode = "404",
+                    description = "Không tìm thấy khoang"),
+        @ApiResponse(responseCode = "409",
+                    description = "Có ghế không còn trống hoặc version sơ đồ ghế không khớp")
+    })
+    public SeatMapResponseDTO blockSeats(
+            @Parameter(description = "ID của khoang", required = true)
+            @PathVariable Long cabinId,
+            @Valid @RequestBody SeatOperationRequestDTO request) {
+        return seatInventoryService.blockSeats(cabinId, request);
+    }
+
+    @PostMapping("/unblock")
+    @RequiresPermission(Permission.CABIN_WRITE)
+    @Operation(summary = "Mở khóa ghế",
+               description = "Mở khóa các ghế đang bị khóa")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200",
+                    description = "Mở khóa ghế thành công",
+                    content = @Content(schema = @Schema(implementation = SeatMapResponseDTO.class))),
+        @ApiResponse(responseCode = "400",
+                    description = "Số ghế nằm ngoài khoang"),
+        @ApiResponse(responseCode = "404",
+                    description = "Không tìm thấy khoang"),
+        @ApiResponse(responseCode = "409",
+                    description = "Có ghế không bị khóa hoặc version sơ đồ ghế không khớp")
+    })
+    public SeatMapResponseDTO unblockSeats(
+            @Parameter(description = "ID của khoang", required = true)
+            @PathVariable Long cabinId,
+            @Valid @RequestBody SeatOperationRequestDTO request) {
+        return seatInventoryService.unblockSeats(cabinId, request);
+    }
+}
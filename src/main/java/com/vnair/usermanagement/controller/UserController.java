@@ -4,6 +4,7 @@ import com.vnair.usermanagement.common.UserStatus;
 import com.vnair.usermanagement.dto.UserCreateRequestDTO;
 import com.vnair.usermanagement.dto.UserResponseDTO;
 import com.vnair.usermanagement.dto.UserUpdateRequestDTO;
+import com.vnair.usermanagement.dto.response.MultiGetResponseDTO;
 import com.vnair.usermanagement.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,11 +22,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -48,10 +52,15 @@ public class UserController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponseDTO> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserResponseDTO> getUserById(@PathVariable Long id, WebRequest webRequest) {
         logger.info("GET /users/{} - Fetching user by ID", id);
+        // Revalidation only reads the version column; checkNotModified has already written the 304
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(userService.getUserETag(id))) {
+            return null;
+        }
         UserResponseDTO user = userService.getUserById(id);
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok().eTag(user.getEtag()).body(user);
     }
     
     @GetMapping("/username/{username}")
@@ -68,6 +77,13 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
     
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetResponseDTO<UserResponseDTO>> getUsersByIds(@RequestParam List<Long> ids) {
+        logger.info("GET /users?ids= - Fetching {} users by ID", ids.size());
+        MultiGetResponseDTO<UserResponseDTO> users = userService.getUsersByIds(ids);
+        return ResponseEntity.ok(users);
+    }
+    
     @GetMapping
     public ResponseEntity<Page<UserResponseDTO>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
@@ -86,6 +102,27 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
     
+    // Same listing with only the selected fields, e.g. ?fields=id,username; unselected columns are not read.
+    // ?ids= takes precedence, so both parameters together still resolve to the multi-get
+    @GetMapping(params = {"fields", "!ids"})
+    public ResponseEntity<Page<Map<String, Object>>> getAllUsersWithFields(
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        
+        logger.info("GET /users?fields={} - Fetching selected user fields with pagination", fields);
+        
+        Sort sort = sortDir.equalsIgnoreCase("desc") ? 
+            Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        
+        Pageable pageable = PageRequest.of(page, size, sort);
+        Page<Map<String, Object>> users = userService.getAllUsers(fields, pageable);
+        
+        return ResponseEntity.ok(users);
+    }
+    
     @GetMapping("/status/{status}")
     public ResponseEntity<Page<UserResponseDTO>> getUsersByStatus(
             @PathVariable UserStatus status,
@@ -127,24 +164,26 @@ public class UserController {
     @PutMapping("/{id}")
     public ResponseEntity<UserResponseDTO> updateUser(
             @PathVariable Long id, 
-            @Valid @RequestBody UserUpdateRequestDTO updateRequest) {
+            @Valid @RequestBody UserUpdateRequestDTO updateRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         
         logger.info("PUT /users/{} - Updating user", id);
-        UserResponseDTO updatedUser = userService.updateUser(id, updateRequest);
-        return ResponseEntity.ok(updatedUser);
+        UserResponseDTO updatedUser = userService.updateUser(id, updateRequest, ifMatch);
+        return ResponseEntity.ok().eTag(updatedUser.getEtag()).body(updatedUser);
     }
     
     @PatchMapping("/{id}/status")
     public ResponseEntity<UserResponseDTO> updateUserStatus(
             @PathVariable Long id, 
-            @RequestBody Map<String, String> statusRequest) {
+            @RequestBody Map<String, String> statusRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         
         logger.info("PATCH /users/{}/status - Updating user status", id);
         
         UserStatus status = UserStatus.valueOf(statusRequest.get("status").toUpperCase());
-        UserResponseDTO updatedUser = userService.updateUserStatus(id, status);
+        UserResponseDTO updatedUser = userService.updateUserStatus(id, status, ifMatch);
         
-        return ResponseEntity.ok(updatedUser);
+        return ResponseEntity.ok().eTag(updatedUser.getEtag()).body(updatedUser);
     }
     
     @DeleteMapping("/{id}")
@@ -1,8 +1,14 @@
 package com.vnair.usermanagement.controller;
 
+import com.vnair.usermanagement.common.Permission;
+import com.vnair.usermanagement.dto.UserRoleAuditEventResponseDTO;
+import com.vnair.usermanagement.dto.UserRoleBulkJobResponseDTO;
 import com.vnair.usermanagement.dto.UserRoleCreateRequestDTO;
 import com.vnair.usermanagement.dto.UserRoleResponseDTO;
 import com.vnair.usermanagement.dto.UserRoleUpdateRequestDTO;
+import com.vnair.usermanagement.security.RequiresPermission;
+import com.vnair.usermanagement.service.UserRoleAuditService;
+import com.vnair.usermanagement.service.UserRoleBulkJobService;
 import com.vnair.usermanagement.service.UserRoleService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -13,9 +19,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -25,6 +33,7 @@ import java.util.Map;
 @RestController
 @RequestMapping("/user-roles")
 @CrossOrigin(origins = "*", maxAge = 3600)
+@RequiresPermission(Permission.USER_ROLE_READ)
 public class UserRoleController {
     
     private static final Logger logger = LoggerFactory.getLogger(UserRoleController.class);
@@ -32,8 +41,15 @@ public class UserRoleController {
     @Autowired
     private UserRoleService userRoleService;
     
+    @Autowired
+    private UserRoleBulkJobService userRoleBulkJobService;
+    
+    @Autowired
+    private UserRoleAuditService userRoleAuditService;
+    
     // Assign role to user
     @PostMapping
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
     public ResponseEntity<UserRoleResponseDTO> assignRoleToUser(@Valid @RequestBody UserRoleCreateRequestDTO userRoleCreateRequestDTO) {
         logger.info("POST /user-roles - Assigning role {} to user {}", 
                     userRoleCreateRequestDTO.getRoleId(), userRoleCreateRequestDTO.getUserId());
@@ -44,11 +60,16 @@ public class UserRoleController {
     
     // Get UserRole by ID
     @GetMapping("/{id}")
-    public ResponseEntity<UserRoleResponseDTO> getUserRoleById(@PathVariable Long id) {
+    public ResponseEntity<UserRoleResponseDTO> getUserRoleById(@PathVariable Long id, WebRequest webRequest) {
         logger.info("GET /user-roles/{} - Fetching UserRole by ID", id);
         
+        // Revalidation only reads version columns; checkNotModified has already written the 304
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(userRoleService.getUserRoleETag(id))) {
+            return null;
+        }
         UserRoleResponseDTO userRole = userRoleService.getUserRoleById(id);
-        return ResponseEntity.ok(userRole);
+        return ResponseEntity.ok().eTag(userRole.getEtag()).body(userRole);
     }
     
     // Get UserRole by user and role
@@ -79,20 +100,43 @@ public class UserRoleController {
         return ResponseEntity.ok(userRoles);
     }
     
+    // Same listing with only the selected fields, e.g. ?fields=userId,roleName; users and roles are joined only when needed
+    @GetMapping(params = "fields")
+    public ResponseEntity<Page<Map<String, Object>>> getAllUserRolesWithFields(
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        
+        logger.info("GET /user-roles?fields={} - Fetching selected UserRole fields with pagination", fields);
+        
+        Sort sort = sortDir.equalsIgnoreCase("desc") ? 
+            Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        
+        Pageable pageable = PageRequest.of(page, size, sort);
+        Page<Map<String, Object>> userRoles = userRoleService.getAllUserRoles(fields, pageable);
+        
+        return ResponseEntity.ok(userRoles);
+    }
+    
     // Update UserRole
     @PutMapping("/{id}")
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
     public ResponseEntity<UserRoleResponseDTO> updateUserRole(
             @PathVariable Long id,
-            @Valid @RequestBody UserRoleUpdateRequestDTO userRoleUpdateRequestDTO) {
+            @Valid @RequestBody UserRoleUpdateRequestDTO userRoleUpdateRequestDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         
         logger.info("PUT /user-roles/{} - Updating UserRole", id);
         
-        UserRoleResponseDTO updatedUserRole = userRoleService.updateUserRole(id, userRoleUpdateRequestDTO);
-        return ResponseEntity.ok(updatedUserRole);
+        UserRoleResponseDTO updatedUserRole = userRoleService.updateUserRole(id, userRoleUpdateRequestDTO, ifMatch);
+        return ResponseEntity.ok().eTag(updatedUserRole.getEtag()).body(updatedUserRole);
     }
     
     // Remove UserRole by ID
     @DeleteMapping("/{id}")
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
     public ResponseEntity<Map<String, String>> removeUserRole(@PathVariable Long id) {
         logger.info("DELETE /user-roles/{} - Removing UserRole", id);
         
@@ -107,6 +151,7 @@ public class UserRoleController {
     
     // Remove UserRole by user and role
     @DeleteMapping("/users/{userId}/roles/{roleId}")
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
     public ResponseEntity<Map<String, String>> removeUserRole(@PathVariable Long userId, @PathVariable Long roleId) {
         logger.info("DELETE /user-roles/users/{}/roles/{} - Removing UserRole", userId, roleId);
         
@@ -263,6 +308,44 @@ public class UserRoleController {
         return ResponseEntity.ok(userRoles);
     }
     
+    // Get audit log entries for a user
+    @GetMapping("/users/{userId}/audit")
+    public ResponseEntity<Page<UserRoleAuditEventResponseDTO>> getUserAuditLog(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        logger.info("GET /user-roles/users/{}/audit - Fetching audit log for user", userId);
+        
+        Page<UserRoleAuditEventResponseDTO> entries = userRoleAuditService.getUserAuditLog(userId, PageRequest.of(page, size));
+        return ResponseEntity.ok(entries);
+    }
+    
+    // Get audit log entries for a role
+    @GetMapping("/roles/{roleId}/audit")
+    public ResponseEntity<Page<UserRoleAuditEventResponseDTO>> getRoleAuditLog(
+            @PathVariable Long roleId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        logger.info("GET /user-roles/roles/{}/audit - Fetching audit log for role", roleId);
+        
+        Page<UserRoleAuditEventResponseDTO> entries = userRoleAuditService.getRoleAuditLog(roleId, PageRequest.of(page, size));
+        return ResponseEntity.ok(entries);
+    }
+    
+    // Get the roles a user held at a point in time, from the audit log
+    @GetMapping("/users/{userId}/roles-at")
+    public ResponseEntity<List<UserRoleAuditEventResponseDTO>> getRolesHeldAt(
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        
+        logger.info("GET /user-roles/users/{}/roles-at - Fetching roles held at {}", userId, at);
+        
+        List<UserRoleAuditEventResponseDTO> roles = userRoleAuditService.getRolesHeldAt(userId, at);
+        return ResponseEntity.ok(roles);
+    }
+    
     // Check if user has role
     @GetMapping("/users/{userId}/roles/{roleId}/exists")
     public ResponseEntity<Map<String, Boolean>> hasUserRole(@PathVariable Long userId, @PathVariable Long roleId) {
@@ -302,6 +385,8 @@ public class UserRoleController {
         Map<String, Object> response = new HashMap<>();
         response.putAll(statistics);
         response.put("activeUserRoles", activeCount);
+        response.put("auditPending", (long) userRoleAuditService.getPendingCount());
+        response.put("auditFailed", userRoleAuditService.getFailedCount());
         
         return ResponseEntity.ok(response);
     }
@@ -336,6 +421,7 @@ public class UserRoleController {
     
     // Assign multiple roles to user
     @PostMapping("/users/{userId}/batch-assign")
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
     public ResponseEntity<List<UserRoleResponseDTO>> assignMultipleRolesToUser(
             @PathVariable Long userId,
             @RequestBody List<Long> roleIds,
@@ -349,6 +435,7 @@ public class UserRoleController {
     
     // Remove multiple roles from user
     @PostMapping("/users/{userId}/batch-remove")
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
     public ResponseEntity<Map<String, String>> removeMultipleRolesFromUser(
             @PathVariable Long userId,
             @RequestBody List<Long> roleIds) {
@@ -365,50 +452,72 @@ public class UserRoleController {
         return ResponseEntity.ok(response);
     }
     
-    // Deactivate all user roles
+    // Deactivate all user roles (background job)
     @PostMapping("/users/{userId}/deactivate-all")
-    public ResponseEntity<Map<String, String>> deactivateAllUserRoles(@PathVariable Long userId) {
-        logger.info("POST /user-roles/users/{}/deactivate-all - Deactivating all roles for user", userId);
-        
-        userRoleService.deactivateAllUserRoles(userId);
-        
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "All user roles deactivated successfully");
-        response.put("userId", userId.toString());
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
+    public ResponseEntity<UserRoleBulkJobResponseDTO> deactivateAllUserRoles(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String requestedBy) {
+        logger.info("POST /user-roles/users/{}/deactivate-all - Starting job to deactivate all roles for user", userId);
         
-        return ResponseEntity.ok(response);
+        UserRoleBulkJobResponseDTO job = userRoleBulkJobService.startDeactivateUserRoles(userId, requestedBy);
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
     }
     
-    // Deactivate all role assignments
+    // Deactivate all role assignments (background job)
     @PostMapping("/roles/{roleId}/deactivate-all")
-    public ResponseEntity<Map<String, String>> deactivateAllRoleAssignments(@PathVariable Long roleId) {
-        logger.info("POST /user-roles/roles/{}/deactivate-all - Deactivating all assignments for role", roleId);
-        
-        userRoleService.deactivateAllRoleAssignments(roleId);
-        
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "All role assignments deactivated successfully");
-        response.put("roleId", roleId.toString());
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
+    public ResponseEntity<UserRoleBulkJobResponseDTO> deactivateAllRoleAssignments(
+            @PathVariable Long roleId,
+            @RequestParam(required = false) String requestedBy) {
+        logger.info("POST /user-roles/roles/{}/deactivate-all - Starting job to deactivate all assignments for role", roleId);
         
-        return ResponseEntity.ok(response);
+        UserRoleBulkJobResponseDTO job = userRoleBulkJobService.startDeactivateRoleAssignments(roleId, requestedBy);
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
     }
     
-    // Deactivate expired UserRoles
+    // Deactivate expired UserRoles (background job)
     @PostMapping("/deactivate-expired")
-    public ResponseEntity<Map<String, Object>> deactivateExpiredUserRoles() {
-        logger.info("POST /user-roles/deactivate-expired - Deactivating expired UserRoles");
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
+    public ResponseEntity<UserRoleBulkJobResponseDTO> deactivateExpiredUserRoles(
+            @RequestParam(required = false) String requestedBy) {
+        logger.info("POST /user-roles/deactivate-expired - Starting job to deactivate expired UserRoles");
         
-        int deactivatedCount = userRoleService.deactivateExpiredUserRoles();
+        UserRoleBulkJobResponseDTO job = userRoleBulkJobService.startDeactivateExpired(requestedBy);
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+    }
+    
+    // Get recent bulk jobs
+    @GetMapping("/jobs")
+    public ResponseEntity<List<UserRoleBulkJobResponseDTO>> getBulkJobs() {
+        logger.info("GET /user-roles/jobs - Fetching recent bulk jobs");
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Expired UserRoles deactivated successfully");
-        response.put("deactivatedCount", deactivatedCount);
+        List<UserRoleBulkJobResponseDTO> jobs = userRoleBulkJobService.getRecentJobs();
+        return ResponseEntity.ok(jobs);
+    }
+    
+    // Get bulk job progress
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<UserRoleBulkJobResponseDTO> getBulkJob(@PathVariable Long jobId) {
+        logger.info("GET /user-roles/jobs/{} - Fetching bulk job", jobId);
         
-        return ResponseEntity.ok(response);
+        UserRoleBulkJobResponseDTO job = userRoleBulkJobService.getJob(jobId);
+        return ResponseEntity.ok(job);
+    }
+    
+    // Cancel bulk job
+    @PostMapping("/jobs/{jobId}/cancel")
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
+    public ResponseEntity<UserRoleBulkJobResponseDTO> cancelBulkJob(@PathVariable Long jobId) {
+        logger.info("POST /user-roles/jobs/{}/cancel - Cancelling bulk job", jobId);
+        
+        UserRoleBulkJobResponseDTO job = userRoleBulkJobService.cancelJob(jobId);
+        return ResponseEntity.ok(job);
     }
     
     // Set UserRole expiry
     @PutMapping("/{id}/expiry")
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
     public ResponseEntity<Map<String, String>> setUserRoleExpiry(
             @PathVariable Long id,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime expiryDate) {
@@ -427,6 +536,7 @@ public class UserRoleController {
     
     // Remove UserRole expiry
     @DeleteMapping("/{id}/expiry")
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
     public ResponseEntity<Map<String, String>> removeUserRoleExpiry(@PathVariable Long id) {
         logger.info("DELETE /user-roles/{}/expiry - Removing expiry for UserRole", id);
         
@@ -441,6 +551,7 @@ public class UserRoleController {
     
     // Reactivate UserRole
     @PostMapping("/{id}/reactivate")
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
     public ResponseEntity<UserRoleResponseDTO> reactivateUserRole(@PathVariable Long id) {
         logger.info("POST /user-roles/{}/reactivate - Reactivating UserRole", id);
         
@@ -459,19 +570,21 @@ public class UserRoleController {
     
     // Transfer user roles
     @PostMapping("/users/{fromUserId}/transfer-to/{toUserId}")
-    public ResponseEntity<Map<String, String>> transferUserRoles(
+    @RequiresPermission(Permission.USER_ROLE_WRITE)
+    public ResponseEntity<Map<String, Object>> transferUserRoles(
             @PathVariable Long fromUserId,
             @PathVariable Long toUserId,
             @RequestParam(required = false) String transferredBy) {
         
         logger.info("POST /user-roles/users/{}/transfer-to/{} - Transferring roles", fromUserId, toUserId);
         
-        userRoleService.transferUserRoles(fromUserId, toUserId, transferredBy);
+        Map<String, Integer> counts = userRoleService.transferUserRoles(fromUserId, toUserId, transferredBy);
         
-        Map<String, String> response = new HashMap<>();
+        Map<String, Object> response = new HashMap<>();
         response.put("message", "User roles transferred successfully");
         response.put("fromUserId", fromUserId.toString());
         response.put("toUserId", toUserId.toString());
+        response.putAll(counts);
         
         return ResponseEntity.ok(response);
     }
@@ -2,6 +2,7 @@ package com.vnair.usermanagement.controller;
 
 import com.vnair.usermanagement.common.UserStatus;
 import com.vnair.usermanagement.dto.UserResponseDTO;
+import com.vnair.usermanagement.service.DashboardStreamService;
 import com.vnair.usermanagement.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,6 +17,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Map;
+
 @Controller
 @RequestMapping("/web")
 public class UserSSRController {
@@ -25,6 +28,9 @@ public class UserSSRController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private DashboardStreamService dashboardStreamService;
+    
     @GetMapping("/users")
     public String usersList(
             @RequestParam(defaultValue = "0") int page,
@@ -72,10 +78,11 @@ public class UserSSRController {
             model.addAttribute("pageSizes", new int[]{5, 10, 20, 50});
             
             // Add user statistics
-            model.addAttribute("activeCount", userService.countUsersByStatus(UserStatus.ACTIVE));
-            model.addAttribute("inactiveCount", userService.countUsersByStatus(UserStatus.INACTIVE));
-            model.addAttribute("suspendedCount", userService.countUsersByStatus(UserStatus.SUSPENDED));
-            model.addAttribute("deletedCount", userService.countUsersByStatus(UserStatus.DELETED));
+            Map<String, Long> counters = dashboardStreamService.getCounters();
+            model.addAttribute("activeCount", counters.get("users.active"));
+            model.addAttribute("inactiveCount", counters.get("users.inactive"));
+            model.addAttribute("suspendedCount", counters.get("users.suspended"));
+            model.addAttribute("deletedCount", counters.get("users.deleted"));
             
             return "users/list";
             
@@ -91,17 +98,13 @@ public class UserSSRController {
         logger.info("GET /web/users/dashboard - Displaying users dashboard");
         
         try {
-            // Get statistics
-            long totalUsers = userService.countUsersByStatus(UserStatus.ACTIVE) + 
-                            userService.countUsersByStatus(UserStatus.INACTIVE) + 
-                            userService.countUsersByStatus(UserStatus.SUSPENDED) + 
-                            userService.countUsersByStatus(UserStatus.DELETED);
-            
-            model.addAttribute("totalUsers", totalUsers);
-            model.addAttribute("activeCount", userService.countUsersByStatus(UserStatus.ACTIVE));
-            model.addAttribute("inactiveCount", userService.countUsersByStatus(UserStatus.INACTIVE));
-            model.addAttribute("suspendedCount", userService.countUsersByStatus(UserStatus.SUSPENDED));
-            model.addAttribute("deletedCount", userService.countUsersByStatus(UserStatus.DELETED));
+            // Get statistics from the shared dashboard counters, kept live by the counter stream
+            Map<String, Long> counters = dashboardStreamService.getCounters();
+            model.addAttribute("totalUsers", counters.get("users.total"));
+            model.addAttribute("activeCount", counters.get("users.active"));
+            model.addAttribute("inactiveCount", counters.get("users.inactive"));
+            model.addAttribute("suspendedCount", counters.get("users.suspended"));
+            model.addAttribute("deletedCount", counters.get("users.deleted"));
             
             // Get recent users (latest 5)
             Pageable recentUsersPageable = PageRequest.of(0, 5, Sort.by("createdAt").descending());
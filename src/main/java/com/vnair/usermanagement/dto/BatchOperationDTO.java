@@ -0,0 +1,115 @@
+package com.vnair.usermanagement.dto;
+
+import com.vnair.usermanagement.common.BatchOperationType;
+import com.vnair.usermanagement.common.UserStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+/**
+ * One operation of a batch request. Which fields are read depends on the type, see {@link BatchOperationType}.
+ */
+public class BatchOperationDTO {
+    
+    @NotNull(message = "Operation type is required")
+    private BatchOperationType type;
+    
+    private Long userId;
+    
+    private Long roleId;
+    
+    private Long userRoleId;
+    
+    private UserStatus status;
+    
+    private Boolean isActive;
+    
+    private LocalDateTime expiresAt;
+    
+    @Size(max = 500, message = "Notes cannot exceed 500 characters")
+    private String notes;
+    
+    @Size(max = 500, message = "Description cannot exceed 500 characters")
+    private String description;
+    
+    // Constructors
+    public BatchOperationDTO() {}
+    
+    public BatchOperationDTO(BatchOperationType type) {
+        this.type = type;
+    }
+    
+    // Getters and Setters
+    public BatchOperationType getType() {
+        return type;
+    }
+    
+    public void setType(BatchOperationType type) {
+        this.type = type;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getRoleId() {
+        return roleId;
+    }
+    
+    public void setRoleId(Long roleId) {
+        this.roleId = roleId;
+    }
+    
+    public Long getUserRoleId() {
+        return userRoleId;
+    }
+    
+    public void setUserRoleId(Long userRoleId) {
+        this.userRoleId = userRoleId;
+    }
+    
+    public UserStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(UserStatus status) {
+        this.status = status;
+    }
+    
+    public Boolean getIsActive() {
+        return isActive;
+    }
+    
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+}
@@ -0,0 +1,66 @@
+package com.vnair.usermanagement.dto;
+
+import com.vnair.usermanagement.common.BatchOperationStatus;
+import com.vnair.usermanagement.common.BatchOperationType;
+
+public class BatchOperationResultDTO {
+    
+    private Integer index; // Position of the operation in the request
+    private BatchOperationType type;
+    private BatchOperationStatus status;
+    private Long entityId; // Id of the user, role or assignment the operation touched
+    private String message; // Error message, set on the failed operation only
+    
+    // Constructors
+    public BatchOperationResultDTO() {}
+    
+    public BatchOperationResultDTO(Integer index, BatchOperationType type, BatchOperationStatus status,
+                                   Long entityId, String message) {
+        this.index = index;
+        this.type = type;
+        this.status = status;
+        this.entityId = entityId;
+        this.message = message;
+    }
+    
+    // Getters and Setters
+    public Integer getIndex() {
+        return index;
+    }
+    
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+    
+    public BatchOperationType getType() {
+        return type;
+    }
+    
+    public void setType(BatchOperationType type) {
+        this.type = type;
+    }
+    
+    public BatchOperationStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(BatchOperationStatus status) {
+        this.status = status;
+    }
+    
+    public Long getEntityId() {
+        return entityId;
+    }
+    
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,40 @@
+package com.vnair.usermanagement.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchRequestDTO {
+    
+    @NotEmpty(message = "At least one operation is required")
+    private List<@Valid BatchOperationDTO> operations; // Applied in list order
+    
+    @Size(max = 100, message = "Assigned by cannot exceed 100 characters")
+    private String assignedBy; // Recorded on ASSIGN_ROLE operations
+    
+    // Constructors
+    public BatchRequestDTO() {}
+    
+    public BatchRequestDTO(List<BatchOperationDTO> operations) {
+        this.operations = operations;
+    }
+    
+    // Getters and Setters
+    public List<BatchOperationDTO> getOperations() {
+        return operations;
+    }
+    
+    public void setOperations(List<BatchOperationDTO> operations) {
+        this.operations = operations;
+    }
+    
+    public String getAssignedBy() {
+        return assignedBy;
+    }
+    
+    public void setAssignedBy(String assignedBy) {
+        this.assignedBy = assignedBy;
+    }
+}
@@ -0,0 +1,44 @@
+package com.vnair.usermanagement.dto;
+
+import java.util.List;
+
+public class BatchResponseDTO {
+    
+    private List<BatchOperationResultDTO> results; // One per operation, in request order
+    private Integer succeeded;
+    private Integer failed; // Operations not committed: failed, rolled back or skipped
+    
+    // Constructors
+    public BatchResponseDTO() {}
+    
+    public BatchResponseDTO(List<BatchOperationResultDTO> results, Integer succeeded, Integer failed) {
+        this.results = results;
+        this.succeeded = succeeded;
+        this.failed = failed;
+    }
+    
+    // Getters and Setters
+    public List<BatchOperationResultDTO> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<BatchOperationResultDTO> results) {
+        this.results = results;
+    }
+    
+    public Integer getSucceeded() {
+        return succeeded;
+    }
+    
+    public void setSucceeded(Integer succeeded) {
+        this.succeeded = succeeded;
+    }
+    
+    public Integer getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(Integer failed) {
+        this.failed = failed;
+    }
+}
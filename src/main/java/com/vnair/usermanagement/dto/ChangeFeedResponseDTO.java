@@ -0,0 +1,44 @@
+package com.vnair.usermanagement.dto;
+
+import java.util.List;
+
+public class ChangeFeedResponseDTO {
+    
+    private List<ChangeRecordDTO> changes;
+    private Long nextCursor; // Pass as since= on the next call
+    private Boolean hasMore;
+    
+    // Constructors
+    public ChangeFeedResponseDTO() {}
+    
+    public ChangeFeedResponseDTO(List<ChangeRecordDTO> changes, Long nextCursor, Boolean hasMore) {
+        this.changes = changes;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+    
+    // Getters and Setters
+    public List<ChangeRecordDTO> getChanges() {
+        return changes;
+    }
+    
+    public void setChanges(List<ChangeRecordDTO> changes) {
+        this.changes = changes;
+    }
+    
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
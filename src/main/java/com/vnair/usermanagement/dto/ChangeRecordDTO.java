@@ -0,0 +1,88 @@
+package com.vnair.usermanagement.dto;
+
+import com.vnair.usermanagement.common.ChangeEntityType;
+import com.vnair.usermanagement.common.ChangeOperation;
+
+import java.time.LocalDateTime;
+
+public class ChangeRecordDTO {
+    
+    private Long seq;
+    private ChangeEntityType entityType;
+    private Long entityId;
+    private ChangeOperation operation;
+    private Long userId; // Set for USER and USER_ROLE changes
+    private Long roleId; // Set for ROLE and USER_ROLE changes
+    private LocalDateTime changedAt;
+    
+    // Constructors
+    public ChangeRecordDTO() {}
+    
+    public ChangeRecordDTO(Long seq, ChangeEntityType entityType, Long entityId, ChangeOperation operation,
+                           Long userId, Long roleId, LocalDateTime changedAt) {
+        this.seq = seq;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.operation = operation;
+        this.userId = userId;
+        this.roleId = roleId;
+        this.changedAt = changedAt;
+    }
+    
+    // Getters and Setters
+    public Long getSeq() {
+        return seq;
+    }
+    
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+    
+    public ChangeEntityType getEntityType() {
+        return entityType;
+    }
+    
+    public void setEntityType(ChangeEntityType entityType) {
+        this.entityType = entityType;
+    }
+    
+    public Long getEntityId() {
+        return entityId;
+    }
+    
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+    
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+    
+    public void setOperation(ChangeOperation operation) {
+        this.operation = operation;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getRoleId() {
+        return roleId;
+    }
+    
+    public void setRoleId(Long roleId) {
+        this.roleId = roleId;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,85 @@
+package com.vnair.usermanagement.dto;
+
+import com.vnair.usermanagement.common.JobRunStatus;
+
+import java.time.LocalDateTime;
+
+public class JobRunResponseDTO {
+    
+    private Long id;
+    private String jobName;
+    private String nodeId;
+    private JobRunStatus status;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long durationMs;
+    private String message;
+    
+    // Constructors
+    public JobRunResponseDTO() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getJobName() {
+        return jobName;
+    }
+    
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+    
+    public JobRunStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(JobRunStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+    
+    public Long getDurationMs() {
+        return durationMs;
+    }
+    
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
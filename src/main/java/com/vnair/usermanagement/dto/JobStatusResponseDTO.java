@@ -0,0 +1,65 @@
+package com.vnair.usermanagement.dto;
+
+import java.time.LocalDateTime;
+
+public class JobStatusResponseDTO {
+    
+    private String jobName;
+    private long intervalSeconds;
+    private String ownerId;
+    private LocalDateTime leaseUntil;
+    private boolean leaseHeld;
+    private boolean ownedByThisNode;
+    
+    // Constructors
+    public JobStatusResponseDTO() {}
+    
+    // Getters and Setters
+    public String getJobName() {
+        return jobName;
+    }
+    
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+    
+    public long getIntervalSeconds() {
+        return intervalSeconds;
+    }
+    
+    public void setIntervalSeconds(long intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+    
+    public String getOwnerId() {
+        return ownerId;
+    }
+    
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+    
+    public LocalDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+    
+    public void setLeaseUntil(LocalDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+    
+    public boolean isLeaseHeld() {
+        return leaseHeld;
+    }
+    
+    public void setLeaseHeld(boolean leaseHeld) {
+        this.leaseHeld = leaseHeld;
+    }
+    
+    public boolean isOwnedByThisNode() {
+        return ownedByThisNode;
+    }
+    
+    public void setOwnedByThisNode(boolean ownedByThisNode) {
+        this.ownedByThisNode = ownedByThisNode;
+    }
+}
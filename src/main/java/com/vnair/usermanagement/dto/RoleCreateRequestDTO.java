@@ -3,6 +3,8 @@ package com.vnair.usermanagement.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.util.Set;
+
 public class RoleCreateRequestDTO {
     
     @NotBlank(message = "Role name is required")
@@ -12,6 +14,8 @@ public class RoleCreateRequestDTO {
     @Size(max = 500, message = "Description cannot exceed 500 characters")
     private String description;
     
+    private Set<String> permissions; // Permission codes such as "aircraft:read"
+    
     private Boolean isActive = true;
     
     // Constructors
@@ -39,6 +43,14 @@ public class RoleCreateRequestDTO {
         this.description = description;
     }
     
+    public Set<String> getPermissions() {
+        return permissions;
+    }
+    
+    public void setPermissions(Set<String> permissions) {
+        this.permissions = permissions;
+    }
+    
     public Boolean getIsActive() {
         return isActive;
     }
@@ -53,6 +65,7 @@ public class RoleCreateRequestDTO {
                 "name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", isActive=" + isActive +
+                ", permissions=" + permissions +
                 '}';
     }
 }
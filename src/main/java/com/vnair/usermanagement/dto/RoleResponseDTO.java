@@ -1,6 +1,9 @@
 package com.vnair.usermanagement.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.LocalDateTime;
+import java.util.Set;
 
 public class RoleResponseDTO {
     
@@ -8,10 +11,14 @@ public class RoleResponseDTO {
     private String name;
     private String description;
     private Boolean isActive;
+    private Set<String> permissions;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private int userCount; // Number of users assigned to this role
     
+    @JsonIgnore
+    private String etag; // Sent as the ETag header, not in the body
+    
     // Constructors
     public RoleResponseDTO() {}
     
@@ -58,6 +65,14 @@ public class RoleResponseDTO {
         this.isActive = isActive;
     }
     
+    public Set<String> getPermissions() {
+        return permissions;
+    }
+    
+    public void setPermissions(Set<String> permissions) {
+        this.permissions = permissions;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -82,6 +97,14 @@ public class RoleResponseDTO {
         this.userCount = userCount;
     }
     
+    public String getEtag() {
+        return etag;
+    }
+    
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+    
     @Override
     public String toString() {
         return "RoleResponseDTO{" +
@@ -89,6 +112,7 @@ public class RoleResponseDTO {
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", isActive=" + isActive +
+                ", permissions=" + permissions +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 ", userCount=" + userCount +
@@ -2,6 +2,8 @@ package com.vnair.usermanagement.dto;
 
 import jakarta.validation.constraints.Size;
 
+import java.util.Set;
+
 public class RoleUpdateRequestDTO {
     
     @Size(min = 2, max = 50, message = "Role name must be between 2 and 50 characters")
@@ -10,6 +12,8 @@ public class RoleUpdateRequestDTO {
     @Size(max = 500, message = "Description cannot exceed 500 characters")
     private String description;
     
+    private Set<String> permissions; // Permission codes such as "aircraft:read"
+    
     private Boolean isActive;
     
     // Constructors
@@ -38,6 +42,14 @@ public class RoleUpdateRequestDTO {
         this.description = description;
     }
     
+    public Set<String> getPermissions() {
+        return permissions;
+    }
+    
+    public void setPermissions(Set<String> permissions) {
+        this.permissions = permissions;
+    }
+    
     public Boolean getIsActive() {
         return isActive;
     }
@@ -52,6 +64,7 @@ public class RoleUpdateRequestDTO {
                 "name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", isActive=" + isActive +
+                ", permissions=" + permissions +
                 '}';
     }
 }
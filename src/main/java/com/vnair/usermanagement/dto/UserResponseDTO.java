@@ -1,5 +1,7 @@
 package com.vnair.usermanagement.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.LocalDateTime;
 
 import com.vnair.usermanagement.common.UserStatus;
@@ -14,6 +16,9 @@ public class UserResponseDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    @JsonIgnore
+    private String etag; // Sent as the ETag header, not in the body
+    
     // Constructors
     public UserResponseDTO() {}
     
@@ -84,4 +89,12 @@ public class UserResponseDTO {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public String getEtag() {
+        return etag;
+    }
+    
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
 }
@@ -0,0 +1,112 @@
+package com.vnair.usermanagement.dto;
+
+import com.vnair.usermanagement.common.AuditChangeType;
+
+import java.time.LocalDateTime;
+
+public class UserRoleAuditEventResponseDTO {
+    
+    private Long id;
+    private Long userRoleId;
+    private Long userId;
+    private Long roleId;
+    private String roleName; // Null when the role no longer exists
+    private AuditChangeType changeType;
+    private Boolean active;
+    private LocalDateTime expiresAt;
+    private String changedBy;
+    private LocalDateTime occurredAt;
+    private LocalDateTime recordedAt;
+    
+    // Constructors
+    public UserRoleAuditEventResponseDTO() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserRoleId() {
+        return userRoleId;
+    }
+    
+    public void setUserRoleId(Long userRoleId) {
+        this.userRoleId = userRoleId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getRoleId() {
+        return roleId;
+    }
+    
+    public void setRoleId(Long roleId) {
+        this.roleId = roleId;
+    }
+    
+    public String getRoleName() {
+        return roleName;
+    }
+    
+    public void setRoleName(String roleName) {
+        this.roleName = roleName;
+    }
+    
+    public AuditChangeType getChangeType() {
+        return changeType;
+    }
+    
+    public void setChangeType(AuditChangeType changeType) {
+        this.changeType = changeType;
+    }
+    
+    public Boolean getActive() {
+        return active;
+    }
+    
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public String getChangedBy() {
+        return changedBy;
+    }
+    
+    public void setChangedBy(String changedBy) {
+        this.changedBy = changedBy;
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+    
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+    
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+}
@@ -0,0 +1,157 @@
+package com.vnair.usermanagement.dto;
+
+import com.vnair.usermanagement.common.BulkJobStatus;
+import com.vnair.usermanagement.common.BulkJobType;
+
+import java.time.LocalDateTime;
+
+public class UserRoleBulkJobResponseDTO {
+    
+    private Long id;
+    private BulkJobType jobType;
+    private Long targetId;
+    private BulkJobStatus status;
+    private int chunkSize;
+    private LocalDateTime cutoffTime;
+    private long lastProcessedId;
+    private long processedCount;
+    private long estimatedTotal;
+    private String requestedBy;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public UserRoleBulkJobResponseDTO() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public BulkJobType getJobType() {
+        return jobType;
+    }
+    
+    public void setJobType(BulkJobType jobType) {
+        this.jobType = jobType;
+    }
+    
+    public Long getTargetId() {
+        return targetId;
+    }
+    
+    public void setTargetId(Long targetId) {
+        this.targetId = targetId;
+    }
+    
+    public BulkJobStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(BulkJobStatus status) {
+        this.status = status;
+    }
+    
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+    
+    public LocalDateTime getCutoffTime() {
+        return cutoffTime;
+    }
+    
+    public void setCutoffTime(LocalDateTime cutoffTime) {
+        this.cutoffTime = cutoffTime;
+    }
+    
+    public long getLastProcessedId() {
+        return lastProcessedId;
+    }
+    
+    public void setLastProcessedId(long lastProcessedId) {
+        this.lastProcessedId = lastProcessedId;
+    }
+    
+    public long getProcessedCount() {
+        return processedCount;
+    }
+    
+    public void setProcessedCount(long processedCount) {
+        this.processedCount = processedCount;
+    }
+    
+    public long getEstimatedTotal() {
+        return estimatedTotal;
+    }
+    
+    public void setEstimatedTotal(long estimatedTotal) {
+        this.estimatedTotal = estimatedTotal;
+    }
+    
+    public String getRequestedBy() {
+        return requestedBy;
+    }
+    
+    public void setRequestedBy(String requestedBy) {
+        this.requestedBy = requestedBy;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    // Progress percentage based on the estimate taken when the job was created
+    public int getProgressPercent() {
+        if (estimatedTotal <= 0) {
+            return status == BulkJobStatus.COMPLETED ? 100 : 0;
+        }
+        return (int) Math.min(100, processedCount * 100 / estimatedTotal);
+    }
+}
@@ -1,5 +1,6 @@
 package com.vnair.usermanagement.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
@@ -22,6 +23,9 @@ public class UserRoleResponseDTO {
     private String notes;
     private boolean expired;
     
+    @JsonIgnore
+    private String etag; // Sent as the ETag header, not in the body
+    
     // Constructors
     public UserRoleResponseDTO() {}
     
@@ -151,6 +155,14 @@ public class UserRoleResponseDTO {
         this.notes = notes;
     }
     
+    public String getEtag() {
+        return etag;
+    }
+    
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+    
     public boolean isExpired() {
         return expired;
     }
@@ -0,0 +1,22 @@
+package com.vnair.usermanagement.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class AircraftCloneRequestDTO {
+    @NotEmpty(message = "Danh sách mã máy bay mới không được để trống")
+    @Size(max = 100, message = "Tối đa 100 mã máy bay mỗi lần nhân bản")
+    private List<@NotBlank(message = "Mã máy bay không được để trống") String> codes;
+    
+    private String name; // Tên máy bay mới, bỏ trống để dùng tên của máy bay nguồn
+
+    // Getters & Setters
+    public List<String> getCodes() { return codes; }
+    public void setCodes(List<String> codes) { this.codes = codes; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+}
@@ -0,0 +1,29 @@
+package com.vnair.usermanagement.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.util.List;
+
+/**
+ * Request giữ chỗ, trả chỗ, khóa hoặc mở khóa nhiều ghế trong một lần
+ */
+@Schema(description = "Danh sách ghế cần thao tác, thực hiện tất cả hoặc không ghế nào")
+public class SeatOperationRequestDTO {
+    
+    @Schema(description = "Số ghế, bắt đầu từ 1", example = "[12, 13, 14]")
+    @NotEmpty(message = "Danh sách ghế không được để trống")
+    private List<@NotNull @Positive Integer> seats;
+    
+    @Schema(description = "Version sơ đồ ghế đã đọc; nếu có và không khớp thì trả về 409", example = "42")
+    private Long expectedVersion;
+
+    // Getters & Setters
+    public List<Integer> getSeats() { return seats; }
+    public void setSeats(List<Integer> seats) { this.seats = seats; }
+
+    public Long getExpectedVersion() { return expectedVersion; }
+    public void setExpectedVersion(Long expectedVersion) { this.expectedVersion = expectedVersion; }
+}
@@ -1,5 +1,7 @@
 package com.vnair.usermanagement.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.List;
 
 public class AircraftResponseDTO {
@@ -8,6 +10,9 @@ public class AircraftResponseDTO {
     private String name;
     private List<Long> cabinIds;
 
+    @JsonIgnore
+    private String etag; // Trả về qua header ETag, không nằm trong body
+
     // Getters & Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -20,4 +25,7 @@ public class AircraftResponseDTO {
 
     public List<Long> getCabinIds() { return cabinIds; }
     public void setCabinIds(List<Long> cabinIds) { this.cabinIds = cabinIds; }
+
+    public String getEtag() { return etag; }
+    public void setEtag(String etag) { this.etag = etag; }
 }
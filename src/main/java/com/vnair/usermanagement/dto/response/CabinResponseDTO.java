@@ -1,5 +1,7 @@
 package com.vnair.usermanagement.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class CabinResponseDTO {
     private Long id;
     private String name;
@@ -11,12 +13,17 @@ public class CabinResponseDTO {
     private String aircraftCode;
     private String aircraftName;
 
+    @JsonIgnore
+    private String etag; // Trả về qua header ETag, không nằm trong body
+
     public Long getAircraftId() { return aircraftId; }
     public void setAircraftId(Long aircraftId) { this.aircraftId = aircraftId; }
     public String getAircraftCode() { return aircraftCode; }
     public void setAircraftCode(String aircraftCode) { this.aircraftCode = aircraftCode; }
     public String getAircraftName() { return aircraftName; }
     public void setAircraftName(String aircraftName) { this.aircraftName = aircraftName; }
+    public String getEtag() { return etag; }
+    public void setEtag(String etag) { this.etag = etag; }
 
     // Getters & Setters
     public Long getId() { return id; }
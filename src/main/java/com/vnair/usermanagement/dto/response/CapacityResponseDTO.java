@@ -0,0 +1,44 @@
+package com.vnair.usermanagement.dto.response;
+
+import com.vnair.usermanagement.common.CabinPosition;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+/**
+ * DTO trả về sức chứa (số khoang, số ghế) của một máy bay hoặc của toàn đội bay
+ */
+@Schema(description = "Sức chứa của một máy bay hoặc toàn đội bay, tổng và theo vị trí khoang")
+public class CapacityResponseDTO {
+    
+    @Schema(description = "ID máy bay, null với tổng toàn đội bay", example = "1")
+    private Long aircraftId;
+    
+    @Schema(description = "Tổng số khoang", example = "3")
+    private long cabinCount;
+    
+    @Schema(description = "Tổng số ghế", example = "216")
+    private long seatCount;
+    
+    @Schema(description = "Số khoang theo vị trí khoang", example = "{\"FRONT\": 1, \"MIDDLE\": 1, \"REAR\": 1}")
+    private Map<CabinPosition, Long> cabinsByPosition;
+    
+    @Schema(description = "Số ghế theo vị trí khoang", example = "{\"FRONT\": 12, \"MIDDLE\": 24, \"REAR\": 180}")
+    private Map<CabinPosition, Long> seatsByPosition;
+
+    // Getters & Setters
+    public Long getAircraftId() { return aircraftId; }
+    public void setAircraftId(Long aircraftId) { this.aircraftId = aircraftId; }
+
+    public long getCabinCount() { return cabinCount; }
+    public void setCabinCount(long cabinCount) { this.cabinCount = cabinCount; }
+
+    public long getSeatCount() { return seatCount; }
+    public void setSeatCount(long seatCount) { this.seatCount = seatCount; }
+
+    public Map<CabinPosition, Long> getCabinsByPosition() { return cabinsByPosition; }
+    public void setCabinsByPosition(Map<CabinPosition, Long> cabinsByPosition) { this.cabinsByPosition = cabinsByPosition; }
+
+    public Map<CabinPosition, Long> getSeatsByPosition() { return seatsByPosition; }
+    public void setSeatsByPosition(Map<CabinPosition, Long> seatsByPosition) { this.seatsByPosition = seatsByPosition; }
+}
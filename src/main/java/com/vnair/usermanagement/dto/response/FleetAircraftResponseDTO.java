@@ -0,0 +1,37 @@
+package com.vnair.usermanagement.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO máy bay kèm các khoang của nó trong snapshot đội bay
+ */
+@Schema(description = "Máy bay trong snapshot đội bay, kèm các khoang theo thứ tự ID")
+public class FleetAircraftResponseDTO {
+    
+    @Schema(description = "ID máy bay", example = "1")
+    private Long id;
+    
+    @Schema(description = "Mã máy bay", example = "VN-A123")
+    private String code;
+    
+    @Schema(description = "Tên máy bay", example = "Airbus A321")
+    private String name;
+    
+    @Schema(description = "Các khoang của máy bay")
+    private List<FleetCabinResponseDTO> cabins;
+
+    // Getters & Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public List<FleetCabinResponseDTO> getCabins() { return cabins; }
+    public void setCabins(List<FleetCabinResponseDTO> cabins) { this.cabins = cabins; }
+}
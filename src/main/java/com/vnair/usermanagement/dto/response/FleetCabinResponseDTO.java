@@ -0,0 +1,41 @@
+package com.vnair.usermanagement.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO khoang nằm trong snapshot đội bay; thông tin máy bay nằm ở phần tử cha
+ */
+@Schema(description = "Khoang của máy bay trong snapshot đội bay")
+public class FleetCabinResponseDTO {
+    
+    @Schema(description = "ID khoang", example = "1")
+    private Long id;
+    
+    @Schema(description = "Tên khoang", example = "Economy")
+    private String name;
+    
+    @Schema(description = "Vị trí khoang", example = "REAR")
+    private String position;
+    
+    @Schema(description = "Số ghế", example = "180")
+    private int seatCount;
+    
+    @Schema(description = "Mô tả khoang", example = "Standard economy cabin")
+    private String description;
+
+    // Getters & Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getPosition() { return position; }
+    public void setPosition(String position) { this.position = position; }
+
+    public int getSeatCount() { return seatCount; }
+    public void setSeatCount(int seatCount) { this.seatCount = seatCount; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+}
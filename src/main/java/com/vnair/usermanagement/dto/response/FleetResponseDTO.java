@@ -0,0 +1,37 @@
+package com.vnair.usermanagement.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO snapshot toàn bộ đội bay: mọi máy bay kèm các khoang, cùng version của đội bay
+ */
+@Schema(description = "Snapshot toàn bộ đội bay; version tăng sau mỗi thay đổi máy bay hoặc khoang")
+public class FleetResponseDTO {
+    
+    @Schema(description = "Version đội bay, cũng là ETag của response", example = "42")
+    private long version;
+    
+    @Schema(description = "Số máy bay", example = "12")
+    private int aircraftCount;
+    
+    @Schema(description = "Tổng số khoang", example = "36")
+    private int cabinCount;
+    
+    @Schema(description = "Các máy bay theo thứ tự ID")
+    private List<FleetAircraftResponseDTO> aircrafts;
+
+    // Getters & Setters
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public int getAircraftCount() { return aircraftCount; }
+    public void setAircraftCount(int aircraftCount) { this.aircraftCount = aircraftCount; }
+
+    public int getCabinCount() { return cabinCount; }
+    public void setCabinCount(int cabinCount) { this.cabinCount = cabinCount; }
+
+    public List<FleetAircraftResponseDTO> getAircrafts() { return aircrafts; }
+    public void setAircrafts(List<FleetAircraftResponseDTO> aircrafts) { this.aircrafts = aircrafts; }
+}
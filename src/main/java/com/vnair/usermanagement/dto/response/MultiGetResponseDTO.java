@@ -0,0 +1,43 @@
+package com.vnair.usermanagement.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO trả về kết quả lấy nhiều bản ghi theo danh sách ID
+ */
+@Schema(description = "Kết quả lấy nhiều bản ghi theo ID")
+public class MultiGetResponseDTO<T> {
+    
+    @Schema(description = "Các bản ghi tìm thấy, theo thứ tự ID trong request")
+    private List<T> items;
+    
+    @Schema(description = "Các ID không tồn tại", example = "[7, 9]")
+    private List<Long> missingIds;
+
+    // Constructors
+    public MultiGetResponseDTO() {}
+
+    public MultiGetResponseDTO(List<T> items, List<Long> missingIds) {
+        this.items = items;
+        this.missingIds = missingIds;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public void setMissingIds(List<Long> missingIds) {
+        this.missingIds = missingIds;
+    }
+}
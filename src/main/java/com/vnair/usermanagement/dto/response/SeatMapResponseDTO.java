@@ -0,0 +1,61 @@
+package com.vnair.usermanagement.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO trả về sơ đồ ghế của một khoang
+ */
+@Schema(description = "Sơ đồ ghế của khoang; ghế không nằm trong heldSeats hay blockedSeats là ghế trống")
+public class SeatMapResponseDTO {
+    
+    @Schema(description = "ID khoang", example = "1")
+    private Long cabinId;
+    
+    @Schema(description = "Tổng số ghế", example = "180")
+    private int seatCount;
+    
+    @Schema(description = "Version sơ đồ ghế, tăng sau mỗi thay đổi", example = "42")
+    private long version;
+    
+    @Schema(description = "Số ghế trống", example = "170")
+    private int availableCount;
+    
+    @Schema(description = "Số ghế đang được giữ", example = "8")
+    private int heldCount;
+    
+    @Schema(description = "Số ghế bị khóa", example = "2")
+    private int blockedCount;
+    
+    @Schema(description = "Các ghế đang được giữ, bắt đầu từ 1", example = "[12, 13]")
+    private List<Integer> heldSeats;
+    
+    @Schema(description = "Các ghế bị khóa, bắt đầu từ 1", example = "[1]")
+    private List<Integer> blockedSeats;
+
+    // Getters & Setters
+    public Long getCabinId() { return cabinId; }
+    public void setCabinId(Long cabinId) { this.cabinId = cabinId; }
+
+    public int getSeatCount() { return seatCount; }
+    public void setSeatCount(int seatCount) { this.seatCount = seatCount; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public int getAvailableCount() { return availableCount; }
+    public void setAvailableCount(int availableCount) { this.availableCount = availableCount; }
+
+    public int getHeldCount() { return heldCount; }
+    public void setHeldCount(int heldCount) { this.heldCount = heldCount; }
+
+    public int getBlockedCount() { return blockedCount; }
+    public void setBlockedCount(int blockedCount) { this.blockedCount = blockedCount; }
+
+    public List<Integer> getHeldSeats() { return heldSeats; }
+    public void setHeldSeats(List<Integer> heldSeats) { this.heldSeats = heldSeats; }
+
+    public List<Integer> getBlockedSeats() { return blockedSeats; }
+    public void setBlockedSeats(List<Integer> blockedSeats) { this.blockedSeats = blockedSeats; }
+}
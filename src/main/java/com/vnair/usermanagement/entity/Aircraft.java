@@ -4,18 +4,27 @@ import jakarta.persistence.*;
 import java.util.List;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = Aircraft.CODE_CONSTRAINT, columnNames = "code"))
 public class Aircraft {
+    // Tên ràng buộc unique của code, dùng để nhận ra lỗi trùng mã
+    public static final String CODE_CONSTRAINT = "uk_aircraft_code";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    private String code; // Mã máy bay (ví dụ: VN-A123)
+    private String code; // Mã máy bay (ví dụ: VN-A123), duy nhất trong đội bay
 
     private String name; // Tên máy bay
 
-    @OneToMany(mappedBy = "aircraft", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "aircraft") // Cabin được xóa hàng loạt trong AircraftService
     private List<Cabin> cabins;
 
+    // Version cho optimistic lock và ETag; tăng cả khi cabin của máy bay thay đổi
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     // Getters & Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -28,4 +37,7 @@ public class Aircraft {
 
     public List<Cabin> getCabins() { return cabins; }
     public void setCabins(List<Cabin> cabins) { this.cabins = cabins; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -1,6 +1,7 @@
 
 package com.vnair.usermanagement.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import com.vnair.usermanagement.common.CabinPosition;
 import jakarta.persistence.EnumType;
@@ -11,6 +12,9 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
 public class Cabin {
@@ -29,8 +33,14 @@ public class Cabin {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "aircraft_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Aircraft aircraft; // Máy bay chứa khoang này
 
+    // Version cho optimistic lock và ETag
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     // Getters & Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -49,4 +59,7 @@ public class Cabin {
 
     public Aircraft getAircraft() { return aircraft; }
     public void setAircraft(Aircraft aircraft) { this.aircraft = aircraft; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,54 @@
+package com.vnair.usermanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Trạng thái ghế của một khoang, lưu dạng bitset (mỗi long 64 ghế, little-endian).
+ * Bảng chỉ được ghi bởi SeatInventoryService, bằng compare-and-set trên version; đây là bản đúng của sơ đồ ghế.
+ */
+@Entity
+@Table(name = "cabin_seat_maps")
+public class CabinSeatMap {
+    @Id
+    @Column(name = "cabin_id")
+    private Long cabinId;
+
+    @Column(name = "seat_count", nullable = false)
+    private int seatCount; // Số ghế tại thời điểm lưu
+
+    @Column(name = "held", nullable = false)
+    private byte[] held; // Bitset các ghế đang được giữ
+
+    @Column(name = "blocked", nullable = false)
+    private byte[] blocked; // Bitset các ghế bị khóa
+
+    @Column(name = "version", nullable = false)
+    private long version; // Số lần thay đổi, bản cũ hơn không ghi đè bản mới hơn
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Getters & Setters
+    public Long getCabinId() { return cabinId; }
+    public void setCabinId(Long cabinId) { this.cabinId = cabinId; }
+
+    public int getSeatCount() { return seatCount; }
+    public void setSeatCount(int seatCount) { this.seatCount = seatCount; }
+
+    public byte[] getHeld() { return held; }
+    public void setHeld(byte[] held) { this.held = held; }
+
+    public byte[] getBlocked() { return blocked; }
+    public void setBlocked(byte[] blocked) { this.blocked = blocked; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
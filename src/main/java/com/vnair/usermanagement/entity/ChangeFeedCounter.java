@@ -0,0 +1,39 @@
+package com.vnair.usermanagement.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Single-row counter holding the last change feed sequence number.
+ * Writers bump it just before commit; the row lock orders commits by sequence.
+ */
+@Entity
+@Table(name = "change_feed_counter")
+public class ChangeFeedCounter {
+    
+    @Id
+    @Column(name = "id")
+    private Integer id;
+    
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+    
+    // Constructors
+    public ChangeFeedCounter() {}
+    
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+    
+    public void setId(Integer id) {
+        this.id = id;
+    }
+    
+    public Long getLastSeq() {
+        return lastSeq;
+    }
+    
+    public void setLastSeq(Long lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+}
@@ -0,0 +1,104 @@
+package com.vnair.usermanagement.entity;
+
+import com.vnair.usermanagement.common.ChangeEntityType;
+import com.vnair.usermanagement.common.ChangeOperation;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the change feed. seq is taken from change_feed_counter just before commit, so
+ * sequence numbers have no gaps and become visible in order.
+ * For USER_ROLE rows userId and roleId identify the assignment; deleting a user or role also
+ * removes its assignments without a USER_ROLE row.
+ */
+@Entity
+@Table(name = "change_log", indexes = {
+    @Index(name = "idx_change_log_changed_at", columnList = "changed_at")
+})
+public class ChangeLogEntry {
+    
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private ChangeEntityType entityType;
+    
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 20)
+    private ChangeOperation operation;
+    
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "role_id")
+    private Long roleId;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+    
+    // Constructors
+    public ChangeLogEntry() {}
+    
+    // Getters and Setters
+    public Long getSeq() {
+        return seq;
+    }
+    
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+    
+    public ChangeEntityType getEntityType() {
+        return entityType;
+    }
+    
+    public void setEntityType(ChangeEntityType entityType) {
+        this.entityType = entityType;
+    }
+    
+    public Long getEntityId() {
+        return entityId;
+    }
+    
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+    
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+    
+    public void setOperation(ChangeOperation operation) {
+        this.operation = operation;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getRoleId() {
+        return roleId;
+    }
+    
+    public void setRoleId(Long roleId) {
+        this.roleId = roleId;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,39 @@
+package com.vnair.usermanagement.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Single-row counter bumped by every aircraft or cabin change, just before commit.
+ * It versions the whole-fleet snapshot, so clients can poll it cheaply.
+ */
+@Entity
+@Table(name = "fleet_version_counter")
+public class FleetVersionCounter {
+    
+    @Id
+    @Column(name = "id")
+    private Integer id;
+    
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    // Constructors
+    public FleetVersionCounter() {}
+    
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+    
+    public void setId(Integer id) {
+        this.id = id;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
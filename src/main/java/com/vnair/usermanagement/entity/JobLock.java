@@ -0,0 +1,91 @@
+package com.vnair.usermanagement.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per cluster job. The node whose ownerId is stored here may run the job until leaseUntil.
+ * Leases are taken with a conditional UPDATE, so any database supported by JPA works.
+ * Every acquisition increments fencingToken, so a node whose lease was taken over can tell.
+ */
+@Entity
+@Table(name = "job_lock")
+public class JobLock {
+    
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+    
+    @Column(name = "owner_id")
+    private String ownerId;
+    
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "fencing_token", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long fencingToken = 0L;
+    
+    // Constructors
+    public JobLock() {}
+    
+    public JobLock(String jobName, LocalDateTime leaseUntil) {
+        this.jobName = jobName;
+        this.leaseUntil = leaseUntil;
+        this.updatedAt = leaseUntil;
+    }
+    
+    // Getters and Setters
+    public String getJobName() {
+        return jobName;
+    }
+    
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+    
+    public String getOwnerId() {
+        return ownerId;
+    }
+    
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+    
+    public LocalDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+    
+    public void setLeaseUntil(LocalDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public Long getFencingToken() {
+        return fencingToken;
+    }
+    
+    public void setFencingToken(Long fencingToken) {
+        this.fencingToken = fencingToken;
+    }
+    
+    @Override
+    public String toString() {
+        return "JobLock{" +
+                "jobName='" + jobName + '\'' +
+                ", ownerId='" + ownerId + '\'' +
+                ", leaseUntil=" + leaseUntil +
+                ", fencingToken=" + fencingToken +
+                '}';
+    }
+}
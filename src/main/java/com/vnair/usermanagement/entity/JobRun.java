@@ -0,0 +1,125 @@
+package com.vnair.usermanagement.entity;
+
+import com.vnair.usermanagement.common.JobRunStatus;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "job_runs", indexes = {
+    @Index(name = "idx_job_runs_job_name", columnList = "job_name"),
+    @Index(name = "idx_job_runs_started_at", columnList = "started_at")
+})
+public class JobRun {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+    
+    @Column(name = "node_id", nullable = false)
+    private String nodeId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobRunStatus status = JobRunStatus.RUNNING;
+    
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    @Column(name = "duration_ms")
+    private Long durationMs;
+    
+    @Column(length = 1000)
+    private String message;
+    
+    // Constructors
+    public JobRun() {}
+    
+    public JobRun(String jobName, String nodeId, LocalDateTime startedAt) {
+        this.jobName = jobName;
+        this.nodeId = nodeId;
+        this.startedAt = startedAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getJobName() {
+        return jobName;
+    }
+    
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+    
+    public JobRunStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(JobRunStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+    
+    public Long getDurationMs() {
+        return durationMs;
+    }
+    
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    @Override
+    public String toString() {
+        return "JobRun{" +
+                "id=" + id +
+                ", jobName='" + jobName + '\'' +
+                ", nodeId='" + nodeId + '\'' +
+                ", status=" + status +
+                ", startedAt=" + startedAt +
+                '}';
+    }
+}
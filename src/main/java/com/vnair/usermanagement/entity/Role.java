@@ -30,6 +30,10 @@ public class Role {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
     
+    // Bitmask of com.vnair.usermanagement.common.Permission bits granted by this role
+    @Column(name = "permissions", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long permissions = 0L;
+    
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -38,8 +42,13 @@ public class Role {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
-    // One-to-many relationship with UserRole
-    @OneToMany(mappedBy = "role", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    // Optimistic lock version, also the ETag of the resource
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+    
+    // One-to-many relationship with UserRole (deleted in bulk by RoleService, not by cascade)
+    @OneToMany(mappedBy = "role", fetch = FetchType.LAZY)
     private Set<UserRole> userRoles = new HashSet<>();
     
     // Constructors
@@ -83,6 +92,14 @@ public class Role {
         this.isActive = isActive;
     }
     
+    public Long getPermissions() {
+        return permissions;
+    }
+    
+    public void setPermissions(Long permissions) {
+        this.permissions = permissions;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -99,6 +116,14 @@ public class Role {
         this.updatedAt = updatedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public Set<UserRole> getUserRoles() {
         return userRoles;
     }
@@ -144,6 +169,7 @@ public class Role {
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", isActive=" + isActive +
+                ", permissions=" + permissions +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
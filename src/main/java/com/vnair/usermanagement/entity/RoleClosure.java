@@ -0,0 +1,96 @@
+package com.vnair.usermanagement.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Transitive closure of role_hierarchy: one row per (ancestor, descendant) pair, including a
+ * self row for every role that takes part in the hierarchy.
+ * pathCount is the number of distinct paths between the two roles, which lets a link be removed
+ * incrementally: only pairs whose last path went through the removed link drop to zero.
+ */
+@Entity
+@Table(name = "role_closure", indexes = {
+    @Index(name = "idx_role_closure_descendant", columnList = "descendant_id")
+})
+public class RoleClosure {
+    
+    @EmbeddedId
+    private Key id;
+    
+    @Column(name = "path_count", nullable = false)
+    private Long pathCount;
+    
+    // Constructors
+    public RoleClosure() {}
+    
+    public RoleClosure(Long ancestorId, Long descendantId, Long pathCount) {
+        this.id = new Key(ancestorId, descendantId);
+        this.pathCount = pathCount;
+    }
+    
+    // Getters and Setters
+    public Key getId() {
+        return id;
+    }
+    
+    public void setId(Key id) {
+        this.id = id;
+    }
+    
+    public Long getPathCount() {
+        return pathCount;
+    }
+    
+    public void setPathCount(Long pathCount) {
+        this.pathCount = pathCount;
+    }
+    
+    @Embeddable
+    public static class Key implements Serializable {
+        
+        @Column(name = "ancestor_id", nullable = false)
+        private Long ancestorId;
+        
+        @Column(name = "descendant_id", nullable = false)
+        private Long descendantId;
+        
+        public Key() {}
+        
+        public Key(Long ancestorId, Long descendantId) {
+            this.ancestorId = ancestorId;
+            this.descendantId = descendantId;
+        }
+        
+        public Long getAncestorId() {
+            return ancestorId;
+        }
+        
+        public void setAncestorId(Long ancestorId) {
+            this.ancestorId = ancestorId;
+        }
+        
+        public Long getDescendantId() {
+            return descendantId;
+        }
+        
+        public void setDescendantId(Long descendantId) {
+            this.descendantId = descendantId;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(ancestorId, key.ancestorId) && Objects.equals(descendantId, key.descendantId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(ancestorId, descendantId);
+        }
+    }
+}
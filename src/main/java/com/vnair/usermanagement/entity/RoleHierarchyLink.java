@@ -0,0 +1,80 @@
+package com.vnair.usermanagement.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Direct parent link between two roles: holding the parent role implies holding the child role.
+ * The transitive closure of these links is kept in role_closure by RoleService.
+ */
+@Entity
+@Table(name = "role_hierarchy", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"parent_role_id", "child_role_id"})
+}, indexes = {
+    @Index(name = "idx_role_hierarchy_child", columnList = "child_role_id")
+})
+public class RoleHierarchyLink {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_role_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Role parent;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "child_role_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Role child;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public RoleHierarchyLink() {}
+    
+    public RoleHierarchyLink(Role parent, Role child) {
+        this.parent = parent;
+        this.child = child;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Role getParent() {
+        return parent;
+    }
+    
+    public void setParent(Role parent) {
+        this.parent = parent;
+    }
+    
+    public Role getChild() {
+        return child;
+    }
+    
+    public void setChild(Role child) {
+        this.child = child;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
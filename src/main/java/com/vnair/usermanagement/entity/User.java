@@ -78,8 +78,13 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
-    // One-to-many relationship with UserRole
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    // Optimistic lock version, also the ETag of the resource
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+    
+    // One-to-many relationship with UserRole (deleted in bulk by UserService, not by cascade)
+    @OneToMany(mappedBy = "user", fetch = FetchType.LAZY)
     private Set<UserRole> userRoles = new HashSet<>();
     
     // Constructors
@@ -208,6 +213,14 @@ public class User {
         this.updatedAt = updatedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public Set<UserRole> getUserRoles() {
         return userRoles;
     }
@@ -3,13 +3,18 @@ package com.vnair.usermanagement.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 @Entity
 @Table(name = "user_roles", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "role_id"})
+}, indexes = {
+    @Index(name = "idx_user_roles_expires_at", columnList = "expires_at")
 })
 public class UserRole {
     
@@ -19,11 +24,13 @@ public class UserRole {
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @NotNull(message = "User is required")
     private User user;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "role_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @NotNull(message = "Role is required")
     private Role role;
     
@@ -47,6 +54,11 @@ public class UserRole {
     @Column(name = "notes", length = 500)
     private String notes; // Optional notes about the assignment
     
+    // Optimistic lock version, also the ETag of the resource
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+    
     // Constructors
     public UserRole() {}
     
@@ -134,6 +146,14 @@ public class UserRole {
         this.notes = notes;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     // Helper methods
     public boolean isExpired() {
         return expiresAt != null && expiresAt.isBefore(LocalDateTime.now());
@@ -153,7 +173,8 @@ public class UserRole {
     
     @Override
     public int hashCode() {
-        return getClass().hashCode();
+        // user_id and role_id are unique together and stable once set; proxies return ids without loading
+        return Objects.hash(user != null ? user.getId() : null, role != null ? role.getId() : null);
     }
     
     @Override
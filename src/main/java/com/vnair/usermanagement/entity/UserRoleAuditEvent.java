@@ -0,0 +1,148 @@
+package com.vnair.usermanagement.entity;
+
+import com.vnair.usermanagement.common.AuditChangeType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only log of user role changes. Rows are never updated or deleted and keep no foreign keys,
+ * so the history outlives the users, roles and assignments it describes.
+ * Each row carries the assignment state after the change.
+ */
+@Entity
+@Table(name = "user_role_audit_log", indexes = {
+    @Index(name = "idx_user_role_audit_user", columnList = "user_id, occurred_at"),
+    @Index(name = "idx_user_role_audit_role", columnList = "role_id, occurred_at"),
+    @Index(name = "idx_user_role_audit_user_role", columnList = "user_role_id")
+})
+public class UserRoleAuditEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_role_id")
+    private Long userRoleId;
+    
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "role_id")
+    private Long roleId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 30)
+    private AuditChangeType changeType;
+    
+    @Column(name = "active", nullable = false)
+    private Boolean active;
+    
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "changed_by")
+    private String changedBy;
+    
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+    
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+    
+    // Constructors
+    public UserRoleAuditEvent() {}
+    
+    public UserRoleAuditEvent(Long userRoleId, Long userId, Long roleId, AuditChangeType changeType,
+                              boolean active, LocalDateTime expiresAt, String changedBy, LocalDateTime occurredAt) {
+        this.userRoleId = userRoleId;
+        this.userId = userId;
+        this.roleId = roleId;
+        this.changeType = changeType;
+        this.active = active;
+        this.expiresAt = expiresAt;
+        this.changedBy = changedBy;
+        this.occurredAt = occurredAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserRoleId() {
+        return userRoleId;
+    }
+    
+    public void setUserRoleId(Long userRoleId) {
+        this.userRoleId = userRoleId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getRoleId() {
+        return roleId;
+    }
+    
+    public void setRoleId(Long roleId) {
+        this.roleId = roleId;
+    }
+    
+    public AuditChangeType getChangeType() {
+        return changeType;
+    }
+    
+    public void setChangeType(AuditChangeType changeType) {
+        this.changeType = changeType;
+    }
+    
+    public Boolean getActive() {
+        return active;
+    }
+    
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public String getChangedBy() {
+        return changedBy;
+    }
+    
+    public void setChangedBy(String changedBy) {
+        this.changedBy = changedBy;
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+    
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+    
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+}
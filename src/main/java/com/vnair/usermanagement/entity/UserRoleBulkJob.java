@@ -0,0 +1,216 @@
+package com.vnair.usermanagement.entity;
+
+import com.vnair.usermanagement.common.BulkJobStatus;
+import com.vnair.usermanagement.common.BulkJobType;
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Background job that deactivates user_roles rows in id-ordered chunks.
+ * Progress (lastProcessedId, processedCount) is committed together with each chunk,
+ * so an interrupted job resumes from where it stopped.
+ */
+@Entity
+@Table(name = "user_role_bulk_jobs")
+public class UserRoleBulkJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type", nullable = false)
+    private BulkJobType jobType;
+    
+    @Column(name = "target_id")
+    private Long targetId; // roleId or userId depending on jobType
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BulkJobStatus status = BulkJobStatus.PENDING;
+    
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+    
+    @Column(name = "cutoff_time")
+    private LocalDateTime cutoffTime; // Expiry cutoff for DEACTIVATE_EXPIRED jobs
+    
+    @Column(name = "last_processed_id", nullable = false)
+    private long lastProcessedId = 0L;
+    
+    @Column(name = "processed_count", nullable = false)
+    private long processedCount = 0L;
+    
+    @Column(name = "estimated_total", nullable = false)
+    private long estimatedTotal = 0L;
+    
+    @Column(name = "requested_by")
+    private String requestedBy;
+    
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public UserRoleBulkJob() {}
+    
+    public UserRoleBulkJob(BulkJobType jobType, Long targetId, int chunkSize) {
+        this.jobType = jobType;
+        this.targetId = targetId;
+        this.chunkSize = chunkSize;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public BulkJobType getJobType() {
+        return jobType;
+    }
+    
+    public void setJobType(BulkJobType jobType) {
+        this.jobType = jobType;
+    }
+    
+    public Long getTargetId() {
+        return targetId;
+    }
+    
+    public void setTargetId(Long targetId) {
+        this.targetId = targetId;
+    }
+    
+    public BulkJobStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(BulkJobStatus status) {
+        this.status = status;
+    }
+    
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+    
+    public LocalDateTime getCutoffTime() {
+        return cutoffTime;
+    }
+    
+    public void setCutoffTime(LocalDateTime cutoffTime) {
+        this.cutoffTime = cutoffTime;
+    }
+    
+    public long getLastProcessedId() {
+        return lastProcessedId;
+    }
+    
+    public void setLastProcessedId(long lastProcessedId) {
+        this.lastProcessedId = lastProcessedId;
+    }
+    
+    public long getProcessedCount() {
+        return processedCount;
+    }
+    
+    public void setProcessedCount(long processedCount) {
+        this.processedCount = processedCount;
+    }
+    
+    public long getEstimatedTotal() {
+        return estimatedTotal;
+    }
+    
+    public void setEstimatedTotal(long estimatedTotal) {
+        this.estimatedTotal = estimatedTotal;
+    }
+    
+    public String getRequestedBy() {
+        return requestedBy;
+    }
+    
+    public void setRequestedBy(String requestedBy) {
+        this.requestedBy = requestedBy;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    // Helper methods
+    public boolean isFinished() {
+        return status == BulkJobStatus.COMPLETED || status == BulkJobStatus.CANCELLED || status == BulkJobStatus.FAILED;
+    }
+    
+    @Override
+    public String toString() {
+        return "UserRoleBulkJob{" +
+                "id=" + id +
+                ", jobType=" + jobType +
+                ", targetId=" + targetId +
+                ", status=" + status +
+                ", lastProcessedId=" + lastProcessedId +
+                ", processedCount=" + processedCount +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package com.vnair.usermanagement.event;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Published when an aircraft or cabin is created, updated or deleted.
+ * Aircraft list their cabin ids and cabins embed aircraft fields, so listeners treat either kind
+ * as a change to the whole fleet configuration. A change to several aircraft or cabins in one
+ * transaction, such as a clone, is published once with all their ids.
+ */
+public class FleetChangedEvent {
+    
+    public enum Kind {
+        AIRCRAFT,
+        CABIN
+    }
+    
+    private final Kind kind;
+    private final List<Long> ids;
+    
+    public FleetChangedEvent(Kind kind, Long id) {
+        this(kind, Collections.singletonList(id));
+    }
+    
+    public FleetChangedEvent(Kind kind, List<Long> ids) {
+        this.kind = kind;
+        this.ids = Collections.unmodifiableList(ids);
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    // First changed id
+    public Long getId() {
+        return ids.get(0);
+    }
+    
+    public List<Long> getIds() {
+        return ids;
+    }
+}
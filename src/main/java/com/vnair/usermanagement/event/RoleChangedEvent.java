@@ -0,0 +1,31 @@
+package com.vnair.usermanagement.event;
+
+/**
+ * Published inside the transaction that created, updated or deleted a role, or changed the roles it implies.
+ * Deleting a role also removes its user_roles rows without a per-row UserRoleChangedEvent.
+ */
+public class RoleChangedEvent {
+    
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        HIERARCHY_CHANGED
+    }
+    
+    private final Long roleId;
+    private final ChangeType type;
+    
+    public RoleChangedEvent(Long roleId, ChangeType type) {
+        this.roleId = roleId;
+        this.type = type;
+    }
+    
+    public Long getRoleId() {
+        return roleId;
+    }
+    
+    public ChangeType getType() {
+        return type;
+    }
+}
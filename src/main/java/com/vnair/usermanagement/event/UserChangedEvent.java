@@ -0,0 +1,29 @@
+package com.vnair.usermanagement.event;
+
+/**
+ * Published inside the transaction that created or updated a user.
+ * Deletions publish {@link UserDeletedEvent} instead.
+ */
+public class UserChangedEvent {
+    
+    public enum ChangeType {
+        CREATED,
+        UPDATED
+    }
+    
+    private final Long userId;
+    private final ChangeType type;
+    
+    public UserChangedEvent(Long userId, ChangeType type) {
+        this.userId = userId;
+        this.type = type;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public ChangeType getType() {
+        return type;
+    }
+}
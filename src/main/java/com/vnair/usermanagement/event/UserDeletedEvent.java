@@ -0,0 +1,18 @@
+package com.vnair.usermanagement.event;
+
+/**
+ * Published inside the transaction that deleted a user.
+ * The user's user_roles rows are removed in bulk without a per-row UserRoleChangedEvent.
+ */
+public class UserDeletedEvent {
+    
+    private final Long userId;
+    
+    public UserDeletedEvent(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+}
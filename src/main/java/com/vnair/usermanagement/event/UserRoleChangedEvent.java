@@ -0,0 +1,118 @@
+package com.vnair.usermanagement.event;
+
+import com.vnair.usermanagement.entity.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Published inside the transaction that changed one or more user_roles rows.
+ * Each change carries the row's state after the change, so listeners can apply it as an upsert
+ * (or a removal for REMOVED). Listeners that touch caches should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ */
+public class UserRoleChangedEvent {
+    
+    public enum ChangeType {
+        ASSIGNED,
+        UPDATED,
+        DEACTIVATED,
+        EXPIRED,
+        REMOVED
+    }
+    
+    private final List<Change> changes;
+    
+    // Taken inside the changing transaction, after its row locks, so changes to one row are ordered
+    private final LocalDateTime occurredAt = LocalDateTime.now();
+    
+    public UserRoleChangedEvent(List<Change> changes) {
+        this.changes = Collections.unmodifiableList(new ArrayList<>(changes));
+    }
+    
+    public static UserRoleChangedEvent of(UserRole userRole, ChangeType type) {
+        return new UserRoleChangedEvent(Collections.singletonList(Change.of(userRole, type)));
+    }
+    
+    public static UserRoleChangedEvent of(List<UserRole> userRoles, ChangeType type) {
+        List<Change> changes = new ArrayList<>(userRoles.size());
+        for (UserRole userRole : userRoles) {
+            changes.add(Change.of(userRole, type));
+        }
+        return new UserRoleChangedEvent(changes);
+    }
+    
+    // REMOVED changes for (id, user_id, role_id) rows returned by a DELETE ... RETURNING
+    public static UserRoleChangedEvent removedRows(List<Object[]> rows) {
+        List<Change> changes = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            changes.add(new Change(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                    ((Number) row[2]).longValue(), ChangeType.REMOVED, false, null));
+        }
+        return new UserRoleChangedEvent(changes);
+    }
+    
+    public List<Change> getChanges() {
+        return changes;
+    }
+    
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public static class Change {
+        
+        private final Long userRoleId;
+        private final Long userId;
+        private final Long roleId;
+        private final ChangeType type;
+        private final boolean active;
+        private final LocalDateTime expiresAt;
+        
+        public Change(Long userRoleId, Long userId, Long roleId, ChangeType type,
+                      boolean active, LocalDateTime expiresAt) {
+            this.userRoleId = userRoleId;
+            this.userId = userId;
+            this.roleId = roleId;
+            this.type = type;
+            this.active = active && type != ChangeType.REMOVED;
+            this.expiresAt = expiresAt;
+        }
+        
+        public static Change of(UserRole userRole, ChangeType type) {
+            return new Change(userRole.getId(), userRole.getUser().getId(), userRole.getRole().getId(), type,
+                    Boolean.TRUE.equals(userRole.getIsActive()), userRole.getExpiresAt());
+        }
+        
+        public Long getUserRoleId() {
+            return userRoleId;
+        }
+        
+        public Long getUserId() {
+            return userId;
+        }
+        
+        public Long getRoleId() {
+            return roleId;
+        }
+        
+        public ChangeType getType() {
+            return type;
+        }
+        
+        // Active flag after the change (always false for REMOVED)
+        public boolean isActive() {
+            return active;
+        }
+        
+        public LocalDateTime getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.vnair.usermanagement.exception;
+
+/**
+ * Thrown when a change feed cursor points before the oldest retained change, so the client must resync
+ */
+public class ChangeCursorExpiredException extends RuntimeException {
+    
+    public ChangeCursorExpiredException(String message) {
+        super(message);
+    }
+}
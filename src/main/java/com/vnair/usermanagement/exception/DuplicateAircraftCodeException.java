@@ -0,0 +1,8 @@
+package com.vnair.usermanagement.exception;
+
+public class DuplicateAircraftCodeException extends RuntimeException {
+    
+    public DuplicateAircraftCodeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.vnair.usermanagement.exception;
+
+/**
+ * Thrown when a batch request is empty or has more operations than allowed
+ */
+public class InvalidBatchRequestException extends RuntimeException {
+    
+    public InvalidBatchRequestException(String message) {
+        super(message);
+    }
+}
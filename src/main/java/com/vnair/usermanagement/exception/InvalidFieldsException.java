@@ -0,0 +1,11 @@
+package com.vnair.usermanagement.exception;
+
+/**
+ * Thrown when a fields= selection names a field the endpoint does not expose
+ */
+public class InvalidFieldsException extends RuntimeException {
+    
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.vnair.usermanagement.exception;
+
+/**
+ * Thrown when a request names a permission that is not in the catalog
+ */
+public class InvalidPermissionException extends RuntimeException {
+    
+    public InvalidPermissionException(String message) {
+        super(message);
+    }
+}
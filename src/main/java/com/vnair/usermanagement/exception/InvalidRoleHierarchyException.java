@@ -0,0 +1,11 @@
+package com.vnair.usermanagement.exception;
+
+/**
+ * Thrown when a role link would make a role imply itself
+ */
+public class InvalidRoleHierarchyException extends RuntimeException {
+    
+    public InvalidRoleHierarchyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.vnair.usermanagement.exception;
+
+/**
+ * Thrown when a seat number is outside the cabin or a seat search asks for an invalid count
+ */
+public class InvalidSeatException extends RuntimeException {
+    
+    public InvalidSeatException(String message) {
+        super(message);
+    }
+}
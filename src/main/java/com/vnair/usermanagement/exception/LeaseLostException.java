@@ -0,0 +1,11 @@
+package com.vnair.usermanagement.exception;
+
+/**
+ * Thrown when a node writes on behalf of a cluster job lease that has expired or was taken over
+ */
+public class LeaseLostException extends RuntimeException {
+    
+    public LeaseLostException(String jobName, long fencingToken) {
+        super("Lease of '" + jobName + "' with fencing token " + fencingToken + " is no longer held");
+    }
+}
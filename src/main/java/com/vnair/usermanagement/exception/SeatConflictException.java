@@ -0,0 +1,21 @@
+package com.vnair.usermanagement.exception;
+
+import java.util.List;
+
+/**
+ * Thrown when seats are not in the state an operation expects, or the seat map version has moved on.
+ * Nothing was changed.
+ */
+public class SeatConflictException extends RuntimeException {
+    
+    private final List<Integer> seats;
+    
+    public SeatConflictException(String message, List<Integer> seats) {
+        super(message);
+        this.seats = seats;
+    }
+    
+    public List<Integer> getSeats() {
+        return seats;
+    }
+}
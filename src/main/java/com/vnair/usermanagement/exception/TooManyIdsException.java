@@ -0,0 +1,11 @@
+package com.vnair.usermanagement.exception;
+
+/**
+ * Thrown when a multi-get request asks for more ids than allowed
+ */
+public class TooManyIdsException extends RuntimeException {
+    
+    public TooManyIdsException(String message) {
+        super(message);
+    }
+}
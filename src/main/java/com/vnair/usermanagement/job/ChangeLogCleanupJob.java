@@ -0,0 +1,69 @@
+package com.vnair.usermanagement.job;
+
+import com.vnair.usermanagement.repository.ChangeLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Removes change_log rows older than the change feed retention period.
+ * Clients with a cursor before the oldest remaining row get 410 and resync.
+ * changed_at is not ordered like seq, so rows are removed by seq: everything before the first seq
+ * still inside the retention period. The log always loses a contiguous prefix, never a row in between.
+ */
+@Component
+public class ChangeLogCleanupJob implements ClusterJob {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ChangeLogCleanupJob.class);
+    
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JobLeaseManager jobLeaseManager;
+    
+    @Value("${app.jobs.change-log-cleanup.interval-minutes:60}")
+    private long intervalMinutes;
+    
+    @Value("${app.change-feed.retention-days:30}")
+    private long retentionDays;
+    
+    @Override
+    public String getName() {
+        return "change-log-cleanup";
+    }
+    
+    @Override
+    public Duration getInterval() {
+        return Duration.ofMinutes(intervalMinutes);
+    }
+    
+    @Override
+    public void run(JobLease lease) {
+        LocalDateTime cutoffTime = LocalDateTime.now().minusDays(retentionDays);
+        
+        Integer count = transactionTemplate.execute(status -> {
+            jobLeaseManager.verify(lease);
+            Long firstKeptSeq = changeLogRepository.findFirstSeqChangedSince(cutoffTime);
+            if (firstKeptSeq == null) {
+                Long maxSeq = changeLogRepository.findMaxSeq();
+                if (maxSeq == null) {
+                    return 0;
+                }
+                firstKeptSeq = maxSeq + 1;
+            }
+            return changeLogRepository.deleteSeqBefore(firstKeptSeq);
+        });
+        
+        logger.info("Removed {} change log entries older than {}", count, cutoffTime);
+    }
+}
@@ -0,0 +1,19 @@
+package com.vnair.usermanagement.job;
+
+import java.time.Duration;
+
+/**
+ * A periodic task that must run on exactly one node of the cluster.
+ * Beans implementing this interface are picked up by {@link ClusterJobRunner}.
+ */
+public interface ClusterJob {
+    
+    // Unique name, also the key of the job_lock row
+    String getName();
+    
+    // Nominal time between runs; the runner adds jitter
+    Duration getInterval();
+    
+    // Writes made by the run are fenced by calling JobLeaseManager.verify(lease) in their transaction
+    void run(JobLease lease);
+}
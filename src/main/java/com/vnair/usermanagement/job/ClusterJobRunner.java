@@ -0,0 +1,191 @@
+package com.vnair.usermanagement.job;
+
+import com.vnair.usermanagement.common.JobRunStatus;
+import com.vnair.usermanagement.entity.JobRun;
+import com.vnair.usermanagement.repository.JobRunRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every {@link ClusterJob} on one node at a time using leases stored in job_lock.
+ * <p>
+ * Each node schedules every job with a jittered delay. When a job is due, the node tries to take
+ * the lease through {@link JobLeaseManager}; only the winner runs it and records a job_runs row.
+ * The lease is renewed while the job runs and, when the run ends, is kept for half an interval
+ * so other nodes whose own schedule comes up shortly afterwards do not run the job again.
+ * A node that dies stops renewing, and its lease expires after app.jobs.lease-seconds.
+ * A node that only stalls may still be running when another node takes over, so jobs fence their
+ * writes with the {@link JobLease} they are given, and renewing or holding a lost lease has no effect.
+ */
+@Component
+public class ClusterJobRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ClusterJobRunner.class);
+    
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+    
+    @Autowired
+    private JobLeaseManager jobLeaseManager;
+    
+    @Autowired
+    private JobRunRepository jobRunRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired(required = false)
+    private List<ClusterJob> jobs = List.of();
+    
+    @Value("${app.jobs.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.jobs.jitter-ratio:0.1}")
+    private double jitterRatio;
+    
+    @Value("${app.jobs.pool-size:2}")
+    private int poolSize;
+    
+    private ScheduledExecutorService executor;
+    
+    // Separate thread so lease renewal is never starved by long running jobs
+    private ScheduledExecutorService renewalExecutor;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        String nodeId = jobLeaseManager.getNodeId();
+        if (!enabled || jobs.isEmpty()) {
+            logger.info("Cluster jobs disabled on node {}", nodeId);
+            return;
+        }
+        
+        executor = Executors.newScheduledThreadPool(poolSize, r -> {
+            Thread thread = new Thread(r, "cluster-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+        renewalExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cluster-job-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        for (ClusterJob job : jobs) {
+            jobLeaseManager.ensureLockRow(job.getName());
+            // Spread the first runs of all nodes over the first interval
+            long initialDelayMs = (long) (job.getInterval().toMillis() * ThreadLocalRandom.current().nextDouble(0.1, 1.0));
+            executor.schedule(() -> runIfLeader(job), initialDelayMs, TimeUnit.MILLISECONDS);
+            logger.info("Cluster job '{}' scheduled every {} on node {}", job.getName(), job.getInterval(), nodeId);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            renewalExecutor.shutdownNow();
+        }
+    }
+    
+    public String getNodeId() {
+        return jobLeaseManager.getNodeId();
+    }
+    
+    public List<ClusterJob> getJobs() {
+        return jobs;
+    }
+    
+    private void runIfLeader(ClusterJob job) {
+        try {
+            jobLeaseManager.tryAcquire(job.getName()).ifPresent(lease -> runWithLease(job, lease));
+        } catch (RuntimeException e) {
+            logger.error("Cluster job '{}' could not be started", job.getName(), e);
+        } finally {
+            scheduleNext(job);
+        }
+    }
+    
+    private void runWithLease(ClusterJob job, JobLease lease) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        JobRun jobRun = transactionTemplate.execute(status ->
+                jobRunRepository.save(new JobRun(job.getName(), lease.getOwnerId(), startedAt)));
+        
+        // Renew at a third of the lease so one missed renewal does not lose it
+        long renewMs = Math.max(1000L, jobLeaseManager.getLeaseSeconds() * 1000L / 3);
+        ScheduledFuture<?> renewal = renewalExecutor.scheduleAtFixedRate(
+                () -> renewLease(lease), renewMs, renewMs, TimeUnit.MILLISECONDS);
+        
+        JobRunStatus runStatus = JobRunStatus.SUCCEEDED;
+        String message = null;
+        try {
+            job.run(lease);
+        } catch (RuntimeException e) {
+            logger.error("Cluster job '{}' failed", job.getName(), e);
+            runStatus = JobRunStatus.FAILED;
+            message = e.getClass().getSimpleName() + ": " + e.getMessage();
+        } finally {
+            renewal.cancel(false);
+        }
+        
+        LocalDateTime finishedAt = LocalDateTime.now();
+        finishRun(jobRun.getId(), runStatus, message, startedAt, finishedAt);
+        
+        // Hold the lease for half an interval after the start so the job is not repeated by another node
+        LocalDateTime holdUntil = startedAt.plus(job.getInterval().dividedBy(2));
+        LocalDateTime leaseEnd = holdUntil.isAfter(finishedAt) ? holdUntil : finishedAt;
+        jobLeaseManager.extendUntil(lease, leaseEnd);
+    }
+    
+    private void renewLease(JobLease lease) {
+        try {
+            if (!jobLeaseManager.renew(lease)) {
+                logger.warn("Cluster job '{}' lost its lease on node {}", lease.getJobName(), lease.getOwnerId());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not renew lease of cluster job '{}'", lease.getJobName(), e);
+        }
+    }
+    
+    private void finishRun(Long jobRunId, JobRunStatus runStatus, String message,
+                           LocalDateTime startedAt, LocalDateTime finishedAt) {
+        String truncated = message != null && message.length() > MAX_MESSAGE_LENGTH
+                ? message.substring(0, MAX_MESSAGE_LENGTH)
+                : message;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jobRunRepository.findById(jobRunId).ifPresent(run -> {
+                        run.setStatus(runStatus);
+                        run.setMessage(truncated);
+                        run.setFinishedAt(finishedAt);
+                        run.setDurationMs(Duration.between(startedAt, finishedAt).toMillis());
+                    }));
+        } catch (RuntimeException e) {
+            logger.error("Could not record run {} of a cluster job", jobRunId, e);
+        }
+    }
+    
+    private void scheduleNext(ClusterJob job) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        long intervalMs = job.getInterval().toMillis();
+        double jitter = ThreadLocalRandom.current().nextDouble(-jitterRatio, jitterRatio);
+        long delayMs = Math.max(1000L, (long) (intervalMs * (1.0 + jitter)));
+        executor.schedule(() -> runIfLeader(job), delayMs, TimeUnit.MILLISECONDS);
+    }
+}
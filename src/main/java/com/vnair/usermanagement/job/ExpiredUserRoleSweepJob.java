@@ -0,0 +1,79 @@
+package com.vnair.usermanagement.job;
+
+import com.vnair.usermanagement.common.BulkJobStatus;
+import com.vnair.usermanagement.common.BulkJobType;
+import com.vnair.usermanagement.repository.UserRoleBulkJobRepository;
+import com.vnair.usermanagement.repository.UserRoleRepository;
+import com.vnair.usermanagement.service.UserRoleBulkJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+
+/**
+ * Safety net for the expiry timer wheel: deactivates assignments that expired while no node was
+ * running, or whose expiry was missed, through a chunked DEACTIVATE_EXPIRED bulk job.
+ */
+@Component
+public class ExpiredUserRoleSweepJob implements ClusterJob {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ExpiredUserRoleSweepJob.class);
+    
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+    
+    @Autowired
+    private UserRoleBulkJobRepository bulkJobRepository;
+    
+    @Autowired
+    private UserRoleBulkJobService userRoleBulkJobService;
+    
+    @Autowired
+    private JobLeaseManager jobLeaseManager;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${app.jobs.expired-sweep.interval-minutes:10}")
+    private long intervalMinutes;
+    
+    @Value("${app.jobs.expired-sweep.grace-seconds:60}")
+    private long graceSeconds;
+    
+    @Override
+    public String getName() {
+        return "expired-user-role-sweep";
+    }
+    
+    @Override
+    public Duration getInterval() {
+        return Duration.ofMinutes(intervalMinutes);
+    }
+    
+    @Override
+    public void run(JobLease lease) {
+        // Leave recent expirations to the timer wheel
+        LocalDateTime cutoffTime = LocalDateTime.now().minusSeconds(graceSeconds);
+        long missedCount = userRoleRepository.countExpiredActive(cutoffTime);
+        if (missedCount == 0) {
+            return;
+        }
+        
+        if (bulkJobRepository.existsByJobTypeAndStatusIn(BulkJobType.DEACTIVATE_EXPIRED,
+                EnumSet.of(BulkJobStatus.PENDING, BulkJobStatus.RUNNING))) {
+            logger.info("{} expired UserRoles pending, expiry job already running", missedCount);
+            return;
+        }
+        
+        // Checked right before starting; a duplicate expiry job would only revisit rows that are still active
+        transactionTemplate.executeWithoutResult(status -> jobLeaseManager.verify(lease));
+        logger.info("Starting expiry job for {} missed expired UserRoles", missedCount);
+        userRoleBulkJobService.startDeactivateExpired(getName());
+    }
+}
@@ -0,0 +1,69 @@
+package com.vnair.usermanagement.job;
+
+import com.vnair.usermanagement.common.BulkJobStatus;
+import com.vnair.usermanagement.repository.JobRunRepository;
+import com.vnair.usermanagement.repository.UserRoleBulkJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+
+/**
+ * Removes job_runs rows and finished user_role_bulk_jobs rows older than the retention period.
+ */
+@Component
+public class JobHistoryCleanupJob implements ClusterJob {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobHistoryCleanupJob.class);
+    
+    @Autowired
+    private JobRunRepository jobRunRepository;
+    
+    @Autowired
+    private UserRoleBulkJobRepository bulkJobRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JobLeaseManager jobLeaseManager;
+    
+    @Value("${app.jobs.history-cleanup.interval-minutes:360}")
+    private long intervalMinutes;
+    
+    @Value("${app.jobs.history-cleanup.retention-days:14}")
+    private long retentionDays;
+    
+    @Override
+    public String getName() {
+        return "job-history-cleanup";
+    }
+    
+    @Override
+    public Duration getInterval() {
+        return Duration.ofMinutes(intervalMinutes);
+    }
+    
+    @Override
+    public void run(JobLease lease) {
+        LocalDateTime cutoffTime = LocalDateTime.now().minusDays(retentionDays);
+        
+        Integer runCount = transactionTemplate.execute(status -> {
+            jobLeaseManager.verify(lease);
+            return jobRunRepository.deleteStartedBefore(cutoffTime);
+        });
+        Integer bulkJobCount = transactionTemplate.execute(status -> {
+            jobLeaseManager.verify(lease);
+            return bulkJobRepository.deleteFinishedBefore(
+                    EnumSet.of(BulkJobStatus.COMPLETED, BulkJobStatus.CANCELLED, BulkJobStatus.FAILED), cutoffTime);
+        });
+        
+        logger.info("Removed {} job runs and {} bulk jobs older than {}", runCount, bulkJobCount, cutoffTime);
+    }
+}
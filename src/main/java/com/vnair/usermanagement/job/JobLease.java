@@ -0,0 +1,39 @@
+package com.vnair.usermanagement.job;
+
+/**
+ * A lease acquired through {@link JobLeaseManager}. The fencing token identifies this acquisition:
+ * once another node, or this node again, acquires the lease, the token no longer matches the job_lock row.
+ */
+public final class JobLease {
+    
+    private final String jobName;
+    private final String ownerId;
+    private final long fencingToken;
+    
+    JobLease(String jobName, String ownerId, long fencingToken) {
+        this.jobName = jobName;
+        this.ownerId = ownerId;
+        this.fencingToken = fencingToken;
+    }
+    
+    public String getJobName() {
+        return jobName;
+    }
+    
+    public String getOwnerId() {
+        return ownerId;
+    }
+    
+    public long getFencingToken() {
+        return fencingToken;
+    }
+    
+    @Override
+    public String toString() {
+        return "JobLease{" +
+                "jobName='" + jobName + '\'' +
+                ", ownerId='" + ownerId + '\'' +
+                ", fencingToken=" + fencingToken +
+                '}';
+    }
+}
@@ -0,0 +1,116 @@
+package com.vnair.usermanagement.job;
+
+import com.vnair.usermanagement.entity.JobLock;
+import com.vnair.usermanagement.exception.LeaseLostException;
+import com.vnair.usermanagement.repository.JobLockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Acquires, renews and checks the leases stored in job_lock.
+ * <p>
+ * A lease is taken with a conditional UPDATE that also increments the row's fencing token, so the
+ * returned {@link JobLease} stops matching as soon as the lease is acquired again. Work done under a
+ * lease is fenced by calling {@link #verify(JobLease)} inside the transaction that writes: it share-locks
+ * the row while the lease is still held, so the lease cannot be taken over until that transaction ends,
+ * and a node that lost its lease mid-run fails with {@link LeaseLostException} instead of writing.
+ */
+@Component
+public class JobLeaseManager {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobLeaseManager.class);
+    
+    private final JobLockRepository jobLockRepository;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    private final String nodeId;
+    
+    private final long leaseSeconds;
+    
+    public JobLeaseManager(JobLockRepository jobLockRepository, PlatformTransactionManager transactionManager,
+                           @Value("${app.jobs.node-id:}") String configuredNodeId,
+                           @Value("${app.jobs.lease-seconds:60}") long leaseSeconds) {
+        this.jobLockRepository = jobLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = configuredNodeId.isBlank() ? defaultNodeId() : configuredNodeId;
+        this.leaseSeconds = leaseSeconds;
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    public long getLeaseSeconds() {
+        return leaseSeconds;
+    }
+    
+    // Lock rows are created once per lease name; a concurrent insert by another node is fine
+    public void ensureLockRow(String jobName) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!jobLockRepository.existsById(jobName)) {
+                    jobLockRepository.save(new JobLock(jobName, LocalDateTime.now()));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Lock row for '{}' was created by another node", jobName);
+        } catch (RuntimeException e) {
+            logger.warn("Could not create lock row for '{}'", jobName, e);
+        }
+    }
+    
+    // Take the lease for app.jobs.lease-seconds when it is free or expired
+    public Optional<JobLease> tryAcquire(String jobName) {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> {
+            if (jobLockRepository.tryAcquire(jobName, nodeId, now.plusSeconds(leaseSeconds), now) == 0) {
+                return Optional.<JobLease>empty();
+            }
+            return jobLockRepository.findFencingToken(jobName, nodeId)
+                    .map(token -> new JobLease(jobName, nodeId, token));
+        });
+    }
+    
+    // Extend the lease by app.jobs.lease-seconds; returns false when it was lost
+    public boolean renew(JobLease lease) {
+        return extendUntil(lease, LocalDateTime.now().plusSeconds(leaseSeconds));
+    }
+    
+    // Move the end of the lease, e.g. to hold it after a run; returns false when it was lost
+    public boolean extendUntil(JobLease lease, LocalDateTime leaseUntil) {
+        Integer updated = transactionTemplate.execute(status -> jobLockRepository.updateLease(
+                lease.getJobName(), lease.getOwnerId(), lease.getFencingToken(), leaseUntil, LocalDateTime.now()));
+        return updated != null && updated > 0;
+    }
+    
+    /**
+     * Fails with {@link LeaseLostException} unless the lease is still held. Must be called inside the
+     * transaction that writes on behalf of the lease; the lock row stays share-locked until it ends.
+     */
+    public void verify(JobLease lease) {
+        jobLockRepository.findHeldForShare(lease.getJobName(), lease.getOwnerId(), lease.getFencingToken(),
+                        LocalDateTime.now())
+                .orElseThrow(() -> new LeaseLostException(lease.getJobName(), lease.getFencingToken()));
+    }
+    
+    private String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
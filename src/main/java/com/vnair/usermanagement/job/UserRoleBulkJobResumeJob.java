@@ -0,0 +1,49 @@
+package com.vnair.usermanagement.job;
+
+import com.vnair.usermanagement.service.UserRoleBulkJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Resumes user_role_bulk_jobs left PENDING or RUNNING by a node that stopped or crashed.
+ * A job counts as abandoned once it has made no progress for app.jobs.bulk-job-resume.stale-minutes;
+ * running jobs update their row with every chunk.
+ */
+@Component
+public class UserRoleBulkJobResumeJob implements ClusterJob {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserRoleBulkJobResumeJob.class);
+    
+    @Autowired
+    private UserRoleBulkJobService userRoleBulkJobService;
+    
+    @Value("${app.jobs.bulk-job-resume.interval-minutes:5}")
+    private long intervalMinutes;
+    
+    @Value("${app.jobs.bulk-job-resume.stale-minutes:5}")
+    private long staleMinutes;
+    
+    @Override
+    public String getName() {
+        return "user-role-bulk-job-resume";
+    }
+    
+    @Override
+    public Duration getInterval() {
+        return Duration.ofMinutes(intervalMinutes);
+    }
+    
+    @Override
+    public void run(JobLease lease) {
+        int resumed = userRoleBulkJobService.resumeStaleJobs(LocalDateTime.now().minusMinutes(staleMinutes), lease);
+        if (resumed > 0) {
+            logger.info("Resumed {} abandoned UserRole bulk jobs", resumed);
+        }
+    }
+}
@@ -3,10 +3,17 @@ package com.vnair.usermanagement.repository;
 import com.vnair.usermanagement.entity.Aircraft;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface AircraftRepository extends JpaRepository<Aircraft, Long> {
     
     /**
@@ -27,4 +34,44 @@ public interface AircraftRepository extends JpaRepository<Aircraft, Long> {
      * Tìm theo code
      */
     Aircraft findByCode(String code);
+    
+    /**
+     * Lấy nhiều máy bay kèm cabin trong một câu truy vấn
+     */
+    @Query("SELECT DISTINCT a FROM Aircraft a LEFT JOIN FETCH a.cabins WHERE a.id IN :ids")
+    List<Aircraft> findAllWithCabinsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Toàn bộ máy bay kèm cabin trong một câu truy vấn, mỗi dòng một cabin (máy bay không có cabin có một dòng,
+     * các cột cabin null): aircraft id, code, name, cabin id, name, position, seatCount, description
+     */
+    @Query("SELECT a.id, a.code, a.name, c.id, c.name, c.position, c.seatCount, c.description " +
+           "FROM Aircraft a LEFT JOIN a.cabins c ORDER BY a.id, c.id")
+    List<Object[]> findFleetRows();
+    
+    /**
+     * Các mã trong danh sách đã được dùng
+     */
+    @Query("SELECT a.code FROM Aircraft a WHERE a.code IN :codes")
+    List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+    
+    /**
+     * Version hiện tại, dùng cho conditional GET mà không load máy bay
+     */
+    @Query("SELECT a.version FROM Aircraft a WHERE a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    /**
+     * Khóa máy bay và tăng version ngay, dùng khi danh sách cabin của máy bay thay đổi
+     */
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT a FROM Aircraft a WHERE a.id = :id")
+    Optional<Aircraft> findByIdForVersionIncrement(@Param("id") Long id);
+    
+    /**
+     * Xóa máy bay trực tiếp, cabin phải được xóa trước
+     */
+    @Modifying
+    @Query("DELETE FROM Aircraft a WHERE a.id = :id")
+    int deleteAircraftById(@Param("id") Long id);
 }
@@ -5,9 +5,11 @@ import com.vnair.usermanagement.entity.Cabin;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CabinRepository extends JpaRepository<Cabin, Long> {
@@ -50,4 +52,54 @@ public interface CabinRepository extends JpaRepository<Cabin, Long> {
      * Tìm theo position
      */
     Page<Cabin> findByPosition(CabinPosition position, Pageable pageable);
+    
+    /**
+     * Xóa toàn bộ cabin của máy bay bằng một câu DELETE, không load entity
+     */
+    @Modifying
+    @Query("DELETE FROM Cabin c WHERE c.aircraft.id = :aircraftId")
+    int deleteAllByAircraftId(@Param("aircraftId") Long aircraftId);
+    
+    /**
+     * Các ID trong danh sách còn tồn tại
+     */
+    @Query("SELECT c.id FROM Cabin c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Số cabin và tổng số ghế theo máy bay và vị trí khoang (aircraft id, position, số cabin, tổng ghế)
+     */
+    @Query("SELECT c.aircraft.id, c.position, COUNT(c), SUM(c.seatCount) FROM Cabin c " +
+           "WHERE c.aircraft IS NOT NULL GROUP BY c.aircraft.id, c.position")
+    List<Object[]> sumSeatsGroupByAircraftAndPosition();
+    
+    /**
+     * Như trên, chỉ cho các máy bay trong danh sách
+     */
+    @Query("SELECT c.aircraft.id, c.position, COUNT(c), SUM(c.seatCount) FROM Cabin c " +
+           "WHERE c.aircraft.id IN :aircraftIds GROUP BY c.aircraft.id, c.position")
+    List<Object[]> sumSeatsGroupByAircraftAndPositionIn(@Param("aircraftIds") Collection<Long> aircraftIds);
+    
+    /**
+     * Sao chép toàn bộ cabin của máy bay nguồn sang từng máy bay đích bằng một câu INSERT ... SELECT.
+     * Persistence context được clear sau câu lệnh vì collection cabins của các máy bay đã load không còn đúng
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("INSERT INTO Cabin (name, position, seatCount, description, aircraft) " +
+           "SELECT c.name, c.position, c.seatCount, c.description, a FROM Cabin c, Aircraft a " +
+           "WHERE c.aircraft.id = :sourceAircraftId AND a.id IN :targetAircraftIds")
+    int copyCabins(@Param("sourceAircraftId") Long sourceAircraftId,
+                   @Param("targetAircraftIds") Collection<Long> targetAircraftIds);
+    
+    /**
+     * Version của cabin và của máy bay chứa nó (cabin version, aircraft version), cho conditional GET
+     */
+    @Query("SELECT c.version, a.version FROM Cabin c LEFT JOIN c.aircraft a WHERE c.id = :id")
+    List<Object[]> findVersionsById(@Param("id") Long id);
+    
+    /**
+     * Lấy nhiều cabin kèm máy bay trong một câu truy vấn
+     */
+    @Query("SELECT c FROM Cabin c LEFT JOIN FETCH c.aircraft WHERE c.id IN :ids")
+    List<Cabin> findAllWithAircraftByIdIn(@Param("ids") Collection<Long> ids);
 }
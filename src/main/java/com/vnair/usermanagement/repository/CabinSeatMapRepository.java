@@ -0,0 +1,7 @@
+package com.vnair.usermanagement.repository;
+
+import com.vnair.usermanagement.entity.CabinSeatMap;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CabinSeatMapRepository extends JpaRepository<CabinSeatMap, Long> {
+}
@@ -0,0 +1,36 @@
+package com.vnair.usermanagement.repository;
+
+import com.vnair.usermanagement.entity.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+    
+    // Changes after the cursor, in sequence order
+    List<ChangeLogEntry> findBySeqGreaterThanOrderBySeqAsc(Long seq, Pageable pageable);
+    
+    // Last sequence number handed out
+    @Query("SELECT c.lastSeq FROM ChangeFeedCounter c WHERE c.id = 1")
+    Long findLastSeq();
+    
+    // First sequence number still inside the retention period; null when every change is older
+    @Query("SELECT MIN(c.seq) FROM ChangeLogEntry c WHERE c.changedAt >= :cutoffTime")
+    Long findFirstSeqChangedSince(@Param("cutoffTime") LocalDateTime cutoffTime);
+    
+    // Last sequence number in the log; null when it is empty
+    @Query("SELECT MAX(c.seq) FROM ChangeLogEntry c")
+    Long findMaxSeq();
+    
+    // Delete the prefix of the log before seq
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry c WHERE c.seq < :seq")
+    int deleteSeqBefore(@Param("seq") Long seq);
+}
@@ -0,0 +1,45 @@
+package com.vnair.usermanagement.repository;
+
+import com.vnair.usermanagement.entity.JobLock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+    
+    // Take the lease when it has expired (or is already ours) with a new fencing token; returns 1 when acquired
+    @Modifying
+    @Query("UPDATE JobLock l SET l.ownerId = :ownerId, l.leaseUntil = :leaseUntil, l.updatedAt = :currentTime, " +
+           "l.fencingToken = l.fencingToken + 1 " +
+           "WHERE l.jobName = :jobName AND (l.leaseUntil <= :currentTime OR l.ownerId = :ownerId)")
+    int tryAcquire(@Param("jobName") String jobName, @Param("ownerId") String ownerId,
+                   @Param("leaseUntil") LocalDateTime leaseUntil, @Param("currentTime") LocalDateTime currentTime);
+    
+    // Fencing token of a lease just acquired by ownerId
+    @Query("SELECT l.fencingToken FROM JobLock l WHERE l.jobName = :jobName AND l.ownerId = :ownerId")
+    Optional<Long> findFencingToken(@Param("jobName") String jobName, @Param("ownerId") String ownerId);
+    
+    // Extend (or shorten) a lease we still hold; returns 0 when the lease was lost or taken over
+    @Modifying
+    @Query("UPDATE JobLock l SET l.leaseUntil = :leaseUntil, l.updatedAt = :currentTime " +
+           "WHERE l.jobName = :jobName AND l.ownerId = :ownerId AND l.fencingToken = :fencingToken")
+    int updateLease(@Param("jobName") String jobName, @Param("ownerId") String ownerId,
+                    @Param("fencingToken") Long fencingToken, @Param("leaseUntil") LocalDateTime leaseUntil,
+                    @Param("currentTime") LocalDateTime currentTime);
+    
+    // Share-lock the lock row while the lease is still held, so it cannot be taken over before the caller commits
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT l FROM JobLock l WHERE l.jobName = :jobName AND l.ownerId = :ownerId " +
+           "AND l.fencingToken = :fencingToken AND l.leaseUntil > :currentTime")
+    Optional<JobLock> findHeldForShare(@Param("jobName") String jobName, @Param("ownerId") String ownerId,
+                                       @Param("fencingToken") Long fencingToken,
+                                       @Param("currentTime") LocalDateTime currentTime);
+}
@@ -0,0 +1,26 @@
+package com.vnair.usermanagement.repository;
+
+import com.vnair.usermanagement.entity.JobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+    
+    // Most recent runs first
+    List<JobRun> findTop50ByOrderByIdDesc();
+    
+    // Most recent runs of one job
+    List<JobRun> findTop50ByJobNameOrderByIdDesc(String jobName);
+    
+    // Remove run history older than the retention period
+    @Modifying
+    @Query("DELETE FROM JobRun r WHERE r.startedAt < :cutoffTime")
+    int deleteStartedBefore(@Param("cutoffTime") LocalDateTime cutoffTime);
+}
@@ -0,0 +1,59 @@
+package com.vnair.usermanagement.repository;
+
+import com.vnair.usermanagement.entity.RoleClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RoleClosureRepository extends JpaRepository<RoleClosure, RoleClosure.Key> {
+    
+    // Serialize hierarchy changes until the end of the transaction, so two links cannot close a cycle together
+    @Query(value = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(:lockKey)) AS l", nativeQuery = true)
+    long lockHierarchy(@Param("lockKey") long lockKey);
+    
+    // Add the self row of a role if it is missing
+    @Modifying
+    @Query(value = "INSERT INTO role_closure (ancestor_id, descendant_id, path_count) VALUES (:roleId, :roleId, 1) " +
+                   "ON CONFLICT (ancestor_id, descendant_id) DO NOTHING", nativeQuery = true)
+    int insertSelfRow(@Param("roleId") Long roleId);
+    
+    // Check if ancestorId implies descendantId
+    @Query("SELECT COUNT(c) > 0 FROM RoleClosure c WHERE c.id.ancestorId = :ancestorId AND c.id.descendantId = :descendantId")
+    boolean existsPath(@Param("ancestorId") Long ancestorId, @Param("descendantId") Long descendantId);
+    
+    // Add the paths created by link parent -> child: every ancestor of parent reaches every descendant of child
+    @Modifying
+    @Query(value = "INSERT INTO role_closure (ancestor_id, descendant_id, path_count) " +
+                   "SELECT a.ancestor_id, d.descendant_id, a.path_count * d.path_count " +
+                   "FROM role_closure a JOIN role_closure d ON a.descendant_id = :parentId AND d.ancestor_id = :childId " +
+                   "ON CONFLICT (ancestor_id, descendant_id) " +
+                   "DO UPDATE SET path_count = role_closure.path_count + EXCLUDED.path_count", nativeQuery = true)
+    int addLinkPaths(@Param("parentId") Long parentId, @Param("childId") Long childId);
+    
+    // Subtract the paths that went through link parent -> child
+    @Modifying
+    @Query(value = "UPDATE role_closure rc SET path_count = rc.path_count - p.path_count " +
+                   "FROM (SELECT a.ancestor_id, d.descendant_id, a.path_count * d.path_count AS path_count " +
+                   "      FROM role_closure a JOIN role_closure d ON a.descendant_id = :parentId AND d.ancestor_id = :childId) p " +
+                   "WHERE rc.ancestor_id = p.ancestor_id AND rc.descendant_id = p.descendant_id", nativeQuery = true)
+    int removeLinkPaths(@Param("parentId") Long parentId, @Param("childId") Long childId);
+    
+    // Drop pairs left without any path
+    @Modifying
+    @Query("DELETE FROM RoleClosure c WHERE c.pathCount <= 0")
+    int deleteEmptyPaths();
+    
+    // Drop every row of a role, its links must already be removed
+    @Modifying
+    @Query("DELETE FROM RoleClosure c WHERE c.id.ancestorId = :roleId OR c.id.descendantId = :roleId")
+    int deleteAllOfRole(@Param("roleId") Long roleId);
+    
+    // All (ancestor id, descendant id) pairs, without self rows
+    @Query("SELECT c.id.ancestorId, c.id.descendantId FROM RoleClosure c WHERE c.id.ancestorId <> c.id.descendantId")
+    List<Object[]> findAllImpliedPairs();
+}
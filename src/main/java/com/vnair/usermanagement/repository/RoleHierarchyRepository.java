@@ -0,0 +1,31 @@
+package com.vnair.usermanagement.repository;
+
+import com.vnair.usermanagement.entity.Role;
+import com.vnair.usermanagement.entity.RoleHierarchyLink;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RoleHierarchyRepository extends JpaRepository<RoleHierarchyLink, Long> {
+    
+    // Check if a direct link exists
+    boolean existsByParentIdAndChildId(Long parentId, Long childId);
+    
+    // Roles directly implied by a role
+    @Query("SELECT l.child FROM RoleHierarchyLink l WHERE l.parent.id = :roleId ORDER BY l.child.name")
+    List<Role> findChildRoles(@Param("roleId") Long roleId);
+    
+    // Direct links touching a role as (parent id, child id) pairs
+    @Query("SELECT l.parent.id, l.child.id FROM RoleHierarchyLink l WHERE l.parent.id = :roleId OR l.child.id = :roleId")
+    List<Object[]> findLinksOfRole(@Param("roleId") Long roleId);
+    
+    // Delete a direct link
+    @Modifying
+    @Query("DELETE FROM RoleHierarchyLink l WHERE l.parent.id = :parentId AND l.child.id = :childId")
+    int deleteLink(@Param("parentId") Long parentId, @Param("childId") Long childId);
+}
@@ -4,10 +4,12 @@ import com.vnair.usermanagement.entity.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,11 +38,6 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     @Query("SELECT r FROM Role r WHERE LOWER(r.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<Role> findByNameContainingIgnoreCase(@Param("keyword") String keyword, Pageable pageable);
     
-    // Search roles by name or description containing keyword
-    @Query("SELECT r FROM Role r WHERE LOWER(r.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-           "OR LOWER(r.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    Page<Role> searchRoles(@Param("keyword") String keyword, Pageable pageable);
-    
     // Count roles by active status
     long countByIsActive(Boolean isActive);
     
@@ -48,16 +45,26 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     @Query("SELECT r FROM Role r JOIN r.userRoles ur WHERE ur.user.id = :userId")
     List<Role> findRolesByUserId(@Param("userId") Long userId);
     
-    // Find roles not assigned to a specific user
-    @Query("SELECT r FROM Role r WHERE r.id NOT IN " +
-           "(SELECT ur.role.id FROM UserRole ur WHERE ur.user.id = :userId)")
-    List<Role> findRolesNotAssignedToUser(@Param("userId") Long userId);
-    
-    // Find active roles
-    @Query("SELECT r FROM Role r WHERE r.isActive = true ORDER BY r.name")
-    List<Role> findActiveRoles();
-    
     // Get role statistics
     @Query("SELECT r.isActive, COUNT(r) FROM Role r GROUP BY r.isActive")
     List<Object[]> getRoleStatistics();
+    
+    // Roles implied by a role through the hierarchy, looked up in the closure table
+    @Query("SELECT r FROM Role r, RoleClosure c WHERE c.id.descendantId = r.id " +
+           "AND c.id.ancestorId = :roleId AND r.id <> :roleId ORDER BY r.name")
+    List<Role> findImpliedRoles(@Param("roleId") Long roleId);
+    
+    // Name and permission mask of the given roles and every role they imply
+    @Query("SELECT r.name, r.permissions FROM Role r WHERE r.id IN :roleIds " +
+           "OR r.id IN (SELECT c.id.descendantId FROM RoleClosure c WHERE c.id.ancestorId IN :roleIds)")
+    List<Object[]> findEffectiveRoleGrants(@Param("roleIds") Collection<Long> roleIds);
+    
+    // Current version, for conditional GET without loading the role
+    @Query("SELECT r.version FROM Role r WHERE r.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    // Delete role row directly, children must already be removed
+    @Modifying
+    @Query("DELETE FROM Role r WHERE r.id = :id")
+    int deleteRoleById(@Param("id") Long id);
 }
@@ -0,0 +1,37 @@
+package com.vnair.usermanagement.repository;
+
+import com.vnair.usermanagement.entity.UserRoleAuditEvent;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserRoleAuditEventRepository extends JpaRepository<UserRoleAuditEvent, Long> {
+    
+    // Audit entries of a user, newest first
+    Page<UserRoleAuditEvent> findByUserIdOrderByOccurredAtDescIdDesc(Long userId, Pageable pageable);
+    
+    // Audit entries of a role, newest first
+    Page<UserRoleAuditEvent> findByRoleIdOrderByOccurredAtDescIdDesc(Long roleId, Pageable pageable);
+    
+    // Latest entry per role of a user at the given time, kept when it left the assignment in force
+    // and neither the role nor the user was deleted after it
+    @Query(value = "SELECT latest.* FROM (" +
+                   "  SELECT DISTINCT ON (a.role_id) a.* FROM user_role_audit_log a " +
+                   "  WHERE a.user_id = :userId AND a.role_id IS NOT NULL AND a.occurred_at <= :at " +
+                   "  ORDER BY a.role_id, a.occurred_at DESC, a.id DESC" +
+                   ") latest " +
+                   "WHERE latest.active = true AND (latest.expires_at IS NULL OR latest.expires_at > :at) " +
+                   "AND NOT EXISTS (SELECT 1 FROM user_role_audit_log d WHERE d.change_type = 'ROLE_DELETED' " +
+                   "  AND d.role_id = latest.role_id AND d.occurred_at >= latest.occurred_at AND d.occurred_at <= :at) " +
+                   "AND NOT EXISTS (SELECT 1 FROM user_role_audit_log d WHERE d.change_type = 'USER_DELETED' " +
+                   "  AND d.user_id = latest.user_id AND d.occurred_at >= latest.occurred_at AND d.occurred_at <= :at) " +
+                   "ORDER BY latest.role_id", nativeQuery = true)
+    List<UserRoleAuditEvent> findRolesInForceAt(@Param("userId") Long userId, @Param("at") LocalDateTime at);
+}
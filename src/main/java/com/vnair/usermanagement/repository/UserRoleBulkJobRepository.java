@@ -0,0 +1,42 @@
+package com.vnair.usermanagement.repository;
+
+import com.vnair.usermanagement.common.BulkJobStatus;
+import com.vnair.usermanagement.common.BulkJobType;
+import com.vnair.usermanagement.entity.UserRoleBulkJob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserRoleBulkJobRepository extends JpaRepository<UserRoleBulkJob, Long> {
+    
+    // Lock the job row for the duration of one chunk so cancel and progress updates never interleave
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM UserRoleBulkJob j WHERE j.id = :id")
+    Optional<UserRoleBulkJob> findByIdForUpdate(@Param("id") Long id);
+    
+    // Find jobs that were interrupted or never started and have made no progress since the given time
+    List<UserRoleBulkJob> findByStatusInAndUpdatedAtBeforeOrderByIdAsc(Collection<BulkJobStatus> statuses,
+                                                                       LocalDateTime updatedBefore);
+    
+    // Check for an unfinished job of the given type
+    boolean existsByJobTypeAndStatusIn(BulkJobType jobType, Collection<BulkJobStatus> statuses);
+    
+    // Most recent jobs first
+    List<UserRoleBulkJob> findTop50ByOrderByIdDesc();
+    
+    // Remove finished jobs older than the retention period
+    @Modifying
+    @Query("DELETE FROM UserRoleBulkJob j WHERE j.status IN :statuses AND j.completedAt < :cutoffTime")
+    int deleteFinishedBefore(@Param("statuses") Collection<BulkJobStatus> statuses,
+                             @Param("cutoffTime") LocalDateTime cutoffTime);
+}
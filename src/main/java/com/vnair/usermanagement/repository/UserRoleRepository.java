@@ -1,21 +1,28 @@
 package com.vnair.usermanagement.repository;
 
 import com.vnair.usermanagement.entity.UserRole;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRoleRepository extends JpaRepository<UserRole, Long> {
     
+    // Versions the assignment's representation depends on (assignment, user, role) and its expiry, for conditional GET
+    @Query("SELECT ur.version, u.version, r.version, ur.expiresAt FROM UserRole ur JOIN ur.user u JOIN ur.role r WHERE ur.id = :id")
+    List<Object[]> findVersionsById(@Param("id") Long id);
+    
     // Find UserRole by user and role
     Optional<UserRole> findByUserIdAndRoleId(Long userId, Long roleId);
     
@@ -28,6 +35,18 @@ public interface UserRoleRepository extends JpaRepository<UserRole, Long> {
     boolean existsActiveUserRole(@Param("userId") Long userId, @Param("roleId") Long roleId, 
                                 @Param("currentTime") LocalDateTime currentTime);
     
+    // Check if user has an active role that is or implies the given role
+    @Query("SELECT COUNT(ur) > 0 FROM UserRole ur WHERE ur.user.id = :userId " +
+           "AND ur.isActive = true AND (ur.expiresAt IS NULL OR ur.expiresAt > :currentTime) " +
+           "AND (ur.role.id = :roleId OR ur.role.id IN " +
+           "(SELECT c.id.ancestorId FROM RoleClosure c WHERE c.id.descendantId = :roleId))")
+    boolean existsActiveEffectiveRole(@Param("userId") Long userId, @Param("roleId") Long roleId,
+                                      @Param("currentTime") LocalDateTime currentTime);
+    
+    // Ids of all roles a user has a row for, active or not
+    @Query("SELECT ur.role.id FROM UserRole ur WHERE ur.user.id = :userId")
+    List<Long> findRoleIdsByUserId(@Param("userId") Long userId);
+    
     // Find all roles for a user
     @Query("SELECT ur FROM UserRole ur WHERE ur.user.id = :userId")
     List<UserRole> findByUserId(@Param("userId") Long userId);
@@ -89,21 +108,126 @@ public interface UserRoleRepository extends JpaRepository<UserRole, Long> {
            "AND (ur.expiresAt IS NULL OR ur.expiresAt > :currentTime)")
     long countActiveRolesByUser(@Param("userId") Long userId, @Param("currentTime") LocalDateTime currentTime);
     
-    // Deactivate expired roles
-    @Modifying
-    @Query("UPDATE UserRole ur SET ur.isActive = false WHERE ur.expiresAt IS NOT NULL " +
-           "AND ur.expiresAt <= :currentTime AND ur.isActive = true")
-    int deactivateExpiredUserRoles(@Param("currentTime") LocalDateTime currentTime);
+    // Next chunk of active assignments (id, user_id, role_id) for a role, in id order after the cursor
+    @Query(value = "SELECT ur.id, ur.user_id, ur.role_id FROM user_roles ur WHERE ur.role_id = :roleId " +
+                   "AND ur.is_active = true AND ur.id > :afterId ORDER BY ur.id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findActiveByRoleIdAfter(@Param("roleId") Long roleId, @Param("afterId") long afterId,
+                                           @Param("limit") int limit);
+    
+    // Next chunk of active assignments (id, user_id, role_id) for a user, in id order after the cursor
+    @Query(value = "SELECT ur.id, ur.user_id, ur.role_id FROM user_roles ur WHERE ur.user_id = :userId " +
+                   "AND ur.is_active = true AND ur.id > :afterId ORDER BY ur.id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findActiveByUserIdAfter(@Param("userId") Long userId, @Param("afterId") long afterId,
+                                           @Param("limit") int limit);
+    
+    // Next chunk of active but expired assignments (id, user_id, role_id), in id order after the cursor
+    @Query(value = "SELECT ur.id, ur.user_id, ur.role_id FROM user_roles ur WHERE ur.is_active = true " +
+                   "AND ur.expires_at IS NOT NULL AND ur.expires_at <= :cutoffTime AND ur.id > :afterId " +
+                   "ORDER BY ur.id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findExpiredActiveAfter(@Param("cutoffTime") LocalDateTime cutoffTime, @Param("afterId") long afterId,
+                                          @Param("limit") int limit);
+    
+    // All active, non-expired (user id, role id, expiresAt) rows, used to build the RBAC index
+    @Query("SELECT ur.user.id, ur.role.id, ur.expiresAt FROM UserRole ur WHERE ur.isActive = true " +
+           "AND (ur.expiresAt IS NULL OR ur.expiresAt > :currentTime)")
+    List<Object[]> findActiveUserRolePairs(@Param("currentTime") LocalDateTime currentTime);
     
-    // Bulk deactivate user roles
-    @Modifying
-    @Query("UPDATE UserRole ur SET ur.isActive = false WHERE ur.user.id = :userId")
-    int deactivateAllUserRoles(@Param("userId") Long userId);
+    // Current (id, user id, role id, isActive, expiresAt) of the given assignments, used by the RBAC index
+    @Query("SELECT ur.id, ur.user.id, ur.role.id, ur.isActive, ur.expiresAt FROM UserRole ur WHERE ur.id IN :ids")
+    List<Object[]> findAssignmentStatesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Existing assignments (id, user id, role id) among the given users and roles, for batch duplicate checks
+    @Query("SELECT ur.id, ur.user.id, ur.role.id FROM UserRole ur WHERE ur.user.id IN :userIds AND ur.role.id IN :roleIds")
+    List<Object[]> findByUserIdInAndRoleIdIn(@Param("userIds") Collection<Long> userIds,
+                                             @Param("roleIds") Collection<Long> roleIds);
     
-    // Bulk deactivate role assignments
+    // Active assignments (id, user id, expiresAt) expiring in (from, to], read through the expires_at index
+    @Query("SELECT ur.id, ur.user.id, ur.expiresAt FROM UserRole ur WHERE ur.isActive = true " +
+           "AND ur.expiresAt > :fromTime AND ur.expiresAt <= :toTime")
+    List<Object[]> findActiveExpiringBetween(@Param("fromTime") LocalDateTime fromTime,
+                                             @Param("toTime") LocalDateTime toTime);
+    
+    // Lock the still active assignments among ids before the expiry scheduler deactivates them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ur FROM UserRole ur WHERE ur.id IN :ids AND ur.isActive = true")
+    List<UserRole> findActiveByIdInForUpdate(@Param("ids") Collection<Long> ids);
+    
+    // Deactivate one chunk of UserRoles by id
+    @Modifying
+    @Query("UPDATE UserRole ur SET ur.isActive = false, ur.updatedAt = :currentTime, ur.version = ur.version + 1 " +
+           "WHERE ur.id IN :ids AND ur.isActive = true")
+    int deactivateByIds(@Param("ids") List<Long> ids, @Param("currentTime") LocalDateTime currentTime);
+    
+    // Progress estimates for bulk deactivation jobs
+    @Query("SELECT COUNT(ur) FROM UserRole ur WHERE ur.role.id = :roleId AND ur.isActive = true")
+    long countAllActiveByRoleId(@Param("roleId") Long roleId);
+    
+    @Query("SELECT COUNT(ur) FROM UserRole ur WHERE ur.user.id = :userId AND ur.isActive = true")
+    long countAllActiveByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT COUNT(ur) FROM UserRole ur WHERE ur.isActive = true AND ur.expiresAt IS NOT NULL " +
+           "AND ur.expiresAt <= :cutoffTime")
+    long countExpiredActive(@Param("cutoffTime") LocalDateTime cutoffTime);
+    
+    // Dashboard counters in one scan: total, active, inactive, expired (still flagged active),
+    // expiring in (now, expiringBefore], users with an active role, roles with an active user
+    @Query(value = "SELECT COUNT(*), " +
+                   "COUNT(*) FILTER (WHERE ur.is_active AND (ur.expires_at IS NULL OR ur.expires_at > :currentTime)), " +
+                   "COUNT(*) FILTER (WHERE NOT ur.is_active), " +
+                   "COUNT(*) FILTER (WHERE ur.is_active AND ur.expires_at <= :currentTime), " +
+                   "COUNT(*) FILTER (WHERE ur.is_active AND ur.expires_at > :currentTime AND ur.expires_at <= :expiringBefore), " +
+                   "COUNT(DISTINCT ur.user_id) FILTER (WHERE ur.is_active AND (ur.expires_at IS NULL OR ur.expires_at > :currentTime)), " +
+                   "COUNT(DISTINCT ur.role_id) FILTER (WHERE ur.is_active AND (ur.expires_at IS NULL OR ur.expires_at > :currentTime)) " +
+                   "FROM user_roles ur", nativeQuery = true)
+    List<Object[]> summarizeAssignments(@Param("currentTime") LocalDateTime currentTime,
+                                        @Param("expiringBefore") LocalDateTime expiringBefore);
+    
+    // Copy the source user's active roles to the target user, skipping roles the target already has
     @Modifying
-    @Query("UPDATE UserRole ur SET ur.isActive = false WHERE ur.role.id = :roleId")
-    int deactivateAllRoleAssignments(@Param("roleId") Long roleId);
+    @Query(value = "INSERT INTO user_roles (user_id, role_id, assigned_by, is_active, assigned_at, updated_at, notes) " +
+                   "SELECT :toUserId, ur.role_id, CAST(:assignedBy AS VARCHAR), true, :currentTime, :currentTime, CAST(:notes AS VARCHAR) " +
+                   "FROM user_roles ur WHERE ur.user_id = :fromUserId AND ur.is_active = true " +
+                   "AND (ur.expires_at IS NULL OR ur.expires_at > :currentTime) " +
+                   "AND NOT EXISTS (SELECT 1 FROM user_roles t WHERE t.user_id = :toUserId AND t.role_id = ur.role_id)",
+           nativeQuery = true)
+    int copyActiveRolesToUser(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId,
+                              @Param("assignedBy") String assignedBy, @Param("notes") String notes,
+                              @Param("currentTime") LocalDateTime currentTime);
+    
+    // Lock the user's active roles before a transfer copies and deactivates them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ur FROM UserRole ur WHERE ur.user.id = :userId AND ur.isActive = true " +
+           "AND (ur.expiresAt IS NULL OR ur.expiresAt > :currentTime)")
+    List<UserRole> findActiveByUserIdForUpdate(@Param("userId") Long userId,
+                                               @Param("currentTime") LocalDateTime currentTime);
+    
+    // Rows a transfer inserted: (user, role) is unique and existing rows keep their earlier assignedAt
+    @Query("SELECT ur FROM UserRole ur WHERE ur.user.id = :userId AND ur.role.id IN :roleIds " +
+           "AND ur.assignedAt = :assignedAt")
+    List<UserRole> findByUserIdAndRoleIdInAndAssignedAt(@Param("userId") Long userId,
+                                                        @Param("roleIds") Collection<Long> roleIds,
+                                                        @Param("assignedAt") LocalDateTime assignedAt);
+    
+    // Deactivate the user's currently active (non-expired) roles
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UserRole ur SET ur.isActive = false, ur.updatedAt = :currentTime, ur.version = ur.version + 1 " +
+           "WHERE ur.user.id = :userId " +
+           "AND ur.isActive = true AND (ur.expiresAt IS NULL OR ur.expiresAt > :currentTime)")
+    int deactivateActiveUserRoles(@Param("userId") Long userId, @Param("currentTime") LocalDateTime currentTime);
+    
+    // Delete one chunk of a role's assignments without loading them; returns (id, user_id, role_id) per deleted row
+    @Query(value = "DELETE FROM user_roles WHERE id IN " +
+                   "(SELECT id FROM user_roles WHERE role_id = :roleId ORDER BY id LIMIT :limit) " +
+                   "RETURNING id, user_id, role_id",
+           nativeQuery = true)
+    List<Object[]> deleteChunkByRoleId(@Param("roleId") Long roleId, @Param("limit") int limit);
+    
+    // Delete one chunk of a user's assignments without loading them; returns (id, user_id, role_id) per deleted row
+    @Query(value = "DELETE FROM user_roles WHERE id IN " +
+                   "(SELECT id FROM user_roles WHERE user_id = :userId ORDER BY id LIMIT :limit) " +
+                   "RETURNING id, user_id, role_id",
+           nativeQuery = true)
+    List<Object[]> deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
     
     // Get user role statistics
     @Query("SELECT ur.isActive, COUNT(ur) FROM UserRole ur GROUP BY ur.isActive")
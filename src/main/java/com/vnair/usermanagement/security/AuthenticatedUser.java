@@ -0,0 +1,40 @@
+package com.vnair.usermanagement.security;
+
+import com.vnair.usermanagement.common.Permission;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Authenticated principal carrying the user id and the effective permission mask,
+ * so a permission check is a single AND against the mask.
+ */
+public class AuthenticatedUser extends User {
+    
+    private final Long userId;
+    private final long permissions;
+    
+    public AuthenticatedUser(Long userId, String username, String password, boolean enabled, boolean accountNonLocked,
+                             Collection<? extends GrantedAuthority> authorities, long permissions) {
+        super(username, password, enabled, true, true, accountNonLocked, authorities);
+        this.userId = userId;
+        this.permissions = permissions;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public long getPermissions() {
+        return permissions;
+    }
+    
+    public boolean hasPermissions(long requiredMask) {
+        return (permissions & requiredMask) == requiredMask;
+    }
+    
+    public boolean hasPermission(Permission permission) {
+        return hasPermissions(permission.mask());
+    }
+}
@@ -0,0 +1,53 @@
+package com.vnair.usermanagement.security;
+
+import com.vnair.usermanagement.common.Permission;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enforces {@link RequiresPermission}. The required mask of each handler is resolved once,
+ * after that a check is one map lookup and one AND against the principal's permission mask.
+ */
+@Component
+public class PermissionInterceptor implements HandlerInterceptor {
+    
+    private static final long NONE = 0L;
+    
+    private final ConcurrentHashMap<Method, Long> requiredMasks = new ConcurrentHashMap<>();
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        
+        long required = requiredMasks.computeIfAbsent(handlerMethod.getMethod(), method -> resolveMask(handlerMethod));
+        if (required == NONE) {
+            return true;
+        }
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user
+                && user.hasPermissions(required)) {
+            return true;
+        }
+        throw new AccessDeniedException("Missing permission: " + String.join(", ", Permission.codesOf(required)));
+    }
+    
+    private long resolveMask(HandlerMethod handlerMethod) {
+        RequiresPermission annotation = handlerMethod.getMethodAnnotation(RequiresPermission.class);
+        if (annotation == null) {
+            annotation = handlerMethod.getBeanType().getAnnotation(RequiresPermission.class);
+        }
+        return annotation != null ? Permission.maskOf(annotation.value()) : NONE;
+    }
+}
@@ -0,0 +1,653 @@
+package com.vnair.usermanagement.security;
+
+import com.vnair.usermanagement.common.ChangeEntityType;
+import com.vnair.usermanagement.common.ChangeOperation;
+import com.vnair.usermanagement.entity.ChangeLogEntry;
+import com.vnair.usermanagement.event.RoleChangedEvent;
+import com.vnair.usermanagement.event.UserDeletedEvent;
+import com.vnair.usermanagement.event.UserRoleChangedEvent;
+import com.vnair.usermanagement.repository.ChangeLogRepository;
+import com.vnair.usermanagement.repository.RoleClosureRepository;
+import com.vnair.usermanagement.repository.UserRoleRepository;
+import com.vnair.usermanagement.util.LongObjectHashMap;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of active (non-expired) role assignments.
+ * <p>
+ * Each role gets a dense bit number; each user maps to a long[] bitset of their active roles, and
+ * each role maps to a sorted long[] of its user ids. All maps are keyed by primitive longs, so a
+ * role check is a hash probe and a bit test, and counts are array lengths or popcounts.
+ * Role checks also honour the role hierarchy: the ancestors of each role are loaded from role_closure,
+ * so a user holds a role when they hold it or any role that implies it. Counts stay per assignment.
+ * <p>
+ * The index is built from user_roles at startup and kept current from UserRoleChangedEvent,
+ * RoleChangedEvent and UserDeletedEvent after commit. Events arriving during a build are queued
+ * and replayed on top of the fresh snapshot. Changes made by other nodes are picked up by polling
+ * the change_log after the cursor taken at the last build (app.rbac-index.poll-ms); the touched
+ * assignments are re-read from user_roles. A periodic rebuild still resets everything.
+ * <p>
+ * Expiry times are kept per assignment and checked on every read: assignments whose expiry has passed
+ * are dropped before the query runs, so no node depends on the expiry scheduler's events for them.
+ * Until the first build finishes, {@link #isReady()} is false and callers fall back to the database.
+ */
+@Component
+public class RbacIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RbacIndex.class);
+
+    private static final long[] NO_IDS = new long[0];
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private RoleClosureRepository roleClosureRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Value("${app.rbac-index.rebuild-minutes:10}")
+    private long rebuildMinutes;
+
+    @Value("${app.rbac-index.poll-ms:1000}")
+    private long pollMs;
+
+    @Value("${app.rbac-index.poll-batch-size:1000}")
+    private int pollBatchSize;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private State state = new State();
+    private LongObjectHashMap<long[]> ancestorsByRole = new LongObjectHashMap<>();
+    private boolean ready;
+    private List<Runnable> pendingUpdates; // non-null while a build is running
+
+    // Earliest expiry in the index as epoch millis, read without the lock to skip the expiry check
+    private volatile long nextExpiryMillis = Long.MAX_VALUE;
+
+    // Last change_log seq applied; only used by rebuild and poll, which are synchronized
+    private long changeCursor;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "rbac-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+        if (rebuildMinutes > 0) {
+            executor.scheduleWithFixedDelay(this::rebuildQuietly, rebuildMinutes, rebuildMinutes, TimeUnit.MINUTES);
+        }
+        if (pollMs > 0) {
+            executor.scheduleWithFixedDelay(this::pollQuietly, pollMs, pollMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Rebuild the whole index from user_roles
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingUpdates = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State fresh = new State();
+        LocalDateTime now = LocalDateTime.now();
+        LongObjectHashMap<long[]> ancestors;
+        long cursor;
+        try {
+            // Taken before the snapshot, so changes committed while it loads are polled again
+            Long lastSeq = changeLogRepository.findLastSeq();
+            cursor = lastSeq != null ? lastSeq : 0L;
+            for (Object[] row : userRoleRepository.findActiveUserRolePairs(now)) {
+                fresh.grant((Long) row[0], (Long) row[1], (LocalDateTime) row[2]);
+            }
+            ancestors = loadAncestors();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                // Keep the old state and apply what arrived meanwhile
+                pendingUpdates.forEach(Runnable::run);
+                pendingUpdates = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            state = fresh;
+            ancestorsByRole = ancestors;
+            pendingUpdates.forEach(Runnable::run);
+            pendingUpdates = null;
+            changeCursor = cursor;
+            refreshNextExpiry();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("RBAC index built: {} users, {} roles, {} active assignments, {} roles with ancestors",
+                fresh.users.size(), fresh.roles.size(), fresh.total, ancestors.size());
+    }
+
+    // Apply changes other nodes committed since the last build or poll
+    public synchronized void poll() {
+        if (!isReady()) {
+            return;
+        }
+        List<ChangeLogEntry> entries;
+        do {
+            entries = changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(changeCursor, PageRequest.of(0, pollBatchSize));
+            if (entries.isEmpty()) {
+                return;
+            }
+            if (entries.get(0).getSeq() > changeCursor + 1) {
+                // Retention removed changes this node has not seen
+                logger.warn("RBAC index change cursor {} expired, rebuilding", changeCursor);
+                rebuild();
+                return;
+            }
+            applyChanges(entries);
+            changeCursor = entries.get(entries.size() - 1).getSeq();
+        } while (entries.size() == pollBatchSize);
+    }
+
+    private void applyChanges(List<ChangeLogEntry> entries) {
+        Map<Long, long[]> assignments = new LinkedHashMap<>(); // userRoleId -> (userId, roleId)
+        Set<Long> deletedUsers = new HashSet<>();
+        Set<Long> deletedRoles = new HashSet<>();
+        boolean rolesChanged = false;
+        for (ChangeLogEntry entry : entries) {
+            if (entry.getEntityType() == ChangeEntityType.USER_ROLE) {
+                assignments.put(entry.getEntityId(), new long[] { entry.getUserId(), entry.getRoleId() });
+            } else if (entry.getEntityType() == ChangeEntityType.USER && entry.getOperation() == ChangeOperation.DELETED) {
+                deletedUsers.add(entry.getEntityId());
+            } else if (entry.getEntityType() == ChangeEntityType.ROLE) {
+                rolesChanged = true;
+                if (entry.getOperation() == ChangeOperation.DELETED) {
+                    deletedRoles.add(entry.getEntityId());
+                }
+            }
+        }
+
+        // Re-read the touched assignments; ids that are gone were deleted
+        List<Object[]> rows = assignments.isEmpty()
+                ? new ArrayList<>()
+                : userRoleRepository.findAssignmentStatesByIdIn(assignments.keySet());
+        LocalDateTime now = LocalDateTime.now();
+        apply(() -> {
+            Set<Long> present = new HashSet<>();
+            for (Object[] row : rows) {
+                present.add((Long) row[0]);
+            }
+            // Removals first, so a deleted row never revokes a newer row for the same user and role
+            for (Map.Entry<Long, long[]> assignment : assignments.entrySet()) {
+                if (!present.contains(assignment.getKey())) {
+                    state.revoke(assignment.getValue()[0], assignment.getValue()[1]);
+                }
+            }
+            deletedUsers.forEach(state::removeUser);
+            deletedRoles.forEach(state::removeRole);
+            for (Object[] row : rows) {
+                LocalDateTime expiresAt = (LocalDateTime) row[4];
+                if (Boolean.TRUE.equals(row[3]) && (expiresAt == null || expiresAt.isAfter(now))) {
+                    state.grant((Long) row[1], (Long) row[2], expiresAt);
+                } else {
+                    state.revoke((Long) row[1], (Long) row[2]);
+                }
+            }
+        });
+        if (rolesChanged) {
+            reloadHierarchy();
+        }
+    }
+
+    // Reload the role hierarchy only, after a link was added or removed
+    public synchronized void reloadHierarchy() {
+        LongObjectHashMap<long[]> ancestors = loadAncestors();
+        lock.writeLock().lock();
+        try {
+            ancestorsByRole = ancestors;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // True when the user holds the role directly or through a role that implies it
+    public boolean hasRole(long userId, long roleId) {
+        expireDue();
+        lock.readLock().lock();
+        try {
+            if (state.hasRole(userId, roleId)) {
+                return true;
+            }
+            long[] ancestors = ancestorsByRole.get(roleId);
+            if (ancestors != null) {
+                for (long ancestorId : ancestors) {
+                    if (state.hasRole(userId, ancestorId)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countRolesOfUser(long userId) {
+        expireDue();
+        lock.readLock().lock();
+        try {
+            long[] words = state.users.get(userId);
+            return words != null ? countBits(words) : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countUsersOfRole(long roleId) {
+        expireDue();
+        lock.readLock().lock();
+        try {
+            RoleEntry entry = state.roles.get(roleId);
+            return entry != null ? entry.size : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long countActiveAssignments() {
+        expireDue();
+        lock.readLock().lock();
+        try {
+            return state.total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Active role ids of a user, in bit order
+    public long[] getRoleIdsOfUser(long userId) {
+        expireDue();
+        lock.readLock().lock();
+        try {
+            long[] words = state.users.get(userId);
+            if (words == null) {
+                return NO_IDS;
+            }
+            long[] roleIds = new long[countBits(words)];
+            int i = 0;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+                    roleIds[i++] = state.roleIdsByBit[bit];
+                    word &= word - 1;
+                }
+            }
+            return roleIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Sorted user ids holding a role
+    public long[] getUserIdsOfRole(long roleId) {
+        expireDue();
+        lock.readLock().lock();
+        try {
+            RoleEntry entry = state.roles.get(roleId);
+            return entry != null ? Arrays.copyOf(entry.userIds, entry.size) : NO_IDS;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        apply(() -> {
+            for (UserRoleChangedEvent.Change change : event.getChanges()) {
+                boolean active = change.isActive()
+                        && (change.getExpiresAt() == null || change.getExpiresAt().isAfter(now));
+                if (active) {
+                    state.grant(change.getUserId(), change.getRoleId(), change.getExpiresAt());
+                } else {
+                    state.revoke(change.getUserId(), change.getRoleId());
+                }
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        if (event.getType() == RoleChangedEvent.ChangeType.DELETED) {
+            apply(() -> state.removeRole(event.getRoleId()));
+        }
+        if (event.getType() == RoleChangedEvent.ChangeType.DELETED
+                || event.getType() == RoleChangedEvent.ChangeType.HIERARCHY_CHANGED) {
+            try {
+                reloadHierarchy();
+            } catch (RuntimeException e) {
+                logger.error("RBAC index hierarchy reload failed, next rebuild will retry", e);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        apply(() -> state.removeUser(event.getUserId()));
+    }
+
+    private void apply(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+            refreshNextExpiry();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Drop assignments whose expiry has passed; a volatile read when nothing is due
+    private void expireDue() {
+        if (System.currentTimeMillis() < nextExpiryMillis) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            state.expireUntil(LocalDateTime.now());
+            refreshNextExpiry();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void refreshNextExpiry() {
+        LocalDateTime next = state.nextExpiry();
+        nextExpiryMillis = next != null ? next.atZone(zone).toInstant().toEpochMilli() : Long.MAX_VALUE;
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.error("RBAC index rebuild failed", e);
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            logger.error("RBAC index change poll failed, next poll will retry", e);
+        }
+    }
+
+    // Ancestor role ids keyed by descendant role id
+    private LongObjectHashMap<long[]> loadAncestors() {
+        LongObjectHashMap<long[]> ancestors = new LongObjectHashMap<>();
+        for (Object[] row : roleClosureRepository.findAllImpliedPairs()) {
+            long ancestorId = (Long) row[0];
+            long descendantId = (Long) row[1];
+            long[] ids = ancestors.get(descendantId);
+            if (ids == null) {
+                ids = new long[] { ancestorId };
+            } else {
+                ids = Arrays.copyOf(ids, ids.length + 1);
+                ids[ids.length - 1] = ancestorId;
+            }
+            ancestors.put(descendantId, ids);
+        }
+        return ancestors;
+    }
+
+    private static int countBits(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static final class RoleEntry {
+        private final int bit;
+        private long[] userIds = new long[4]; // sorted, first size entries used
+        private int size;
+
+        private RoleEntry(int bit) {
+            this.bit = bit;
+        }
+
+        private void addUser(long userId) {
+            int pos = Arrays.binarySearch(userIds, 0, size, userId);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == userIds.length) {
+                userIds = Arrays.copyOf(userIds, size + (size >> 1) + 1);
+            }
+            System.arraycopy(userIds, pos, userIds, pos + 1, size - pos);
+            userIds[pos] = userId;
+            size++;
+        }
+
+        private void removeUser(long userId) {
+            int pos = Arrays.binarySearch(userIds, 0, size, userId);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(userIds, pos + 1, userIds, pos, size - pos - 1);
+            size--;
+        }
+    }
+
+    private static final class Expiry {
+        private final long userId;
+        private final long roleId;
+        private final LocalDateTime expiresAt;
+
+        private Expiry(long userId, long roleId, LocalDateTime expiresAt) {
+            this.userId = userId;
+            this.roleId = roleId;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class State {
+        private final LongObjectHashMap<long[]> users = new LongObjectHashMap<>(1024);
+        private final LongObjectHashMap<RoleEntry> roles = new LongObjectHashMap<>(64);
+        // userId -> roleId -> expiresAt, only for assignments that expire
+        private final LongObjectHashMap<LongObjectHashMap<LocalDateTime>> expiries = new LongObjectHashMap<>();
+        // May hold entries whose assignment was revoked or re-timed; they are skipped when polled
+        private final PriorityQueue<Expiry> expiryQueue = new PriorityQueue<>(Comparator.comparing((Expiry e) -> e.expiresAt));
+        private long[] roleIdsByBit = new long[64];
+        private final ArrayDeque<Integer> freeBits = new ArrayDeque<>();
+        private int nextBit;
+        private long total;
+
+        private boolean hasRole(long userId, long roleId) {
+            RoleEntry entry = roles.get(roleId);
+            if (entry == null) {
+                return false;
+            }
+            long[] words = users.get(userId);
+            int word = entry.bit >>> 6;
+            return words != null && word < words.length && (words[word] & (1L << entry.bit)) != 0;
+        }
+
+        private void grant(long userId, long roleId, LocalDateTime expiresAt) {
+            grant(userId, roleId);
+            LongObjectHashMap<LocalDateTime> byRole = expiries.get(userId);
+            if (expiresAt == null) {
+                if (byRole != null) {
+                    removeExpiry(userId, byRole, roleId);
+                }
+                return;
+            }
+            if (byRole == null) {
+                byRole = new LongObjectHashMap<>(4);
+                expiries.put(userId, byRole);
+            }
+            if (!expiresAt.equals(byRole.put(roleId, expiresAt))) {
+                expiryQueue.add(new Expiry(userId, roleId, expiresAt));
+            }
+        }
+
+        private void expireUntil(LocalDateTime now) {
+            while (!expiryQueue.isEmpty() && !expiryQueue.peek().expiresAt.isAfter(now)) {
+                Expiry expiry = expiryQueue.poll();
+                LongObjectHashMap<LocalDateTime> byRole = expiries.get(expiry.userId);
+                if (byRole != null && expiry.expiresAt.equals(byRole.get(expiry.roleId))) {
+                    revoke(expiry.userId, expiry.roleId);
+                }
+            }
+        }
+
+        private LocalDateTime nextExpiry() {
+            return expiryQueue.isEmpty() ? null : expiryQueue.peek().expiresAt;
+        }
+
+        private void removeExpiry(long userId, LongObjectHashMap<LocalDateTime> byRole, long roleId) {
+            byRole.remove(roleId);
+            if (byRole.isEmpty()) {
+                expiries.remove(userId);
+            }
+        }
+
+        private void grant(long userId, long roleId) {
+            RoleEntry entry = roles.get(roleId);
+            if (entry == null) {
+                entry = new RoleEntry(allocateBit(roleId));
+                roles.put(roleId, entry);
+            }
+
+            int word = entry.bit >>> 6;
+            long[] words = users.get(userId);
+            if (words == null || word >= words.length) {
+                words = words == null ? new long[word + 1] : Arrays.copyOf(words, word + 1);
+                users.put(userId, words);
+            }
+
+            long mask = 1L << entry.bit;
+            if ((words[word] & mask) == 0) {
+                words[word] |= mask;
+                entry.addUser(userId);
+                total++;
+            }
+        }
+
+        private void revoke(long userId, long roleId) {
+            LongObjectHashMap<LocalDateTime> byRole = expiries.get(userId);
+            if (byRole != null) {
+                removeExpiry(userId, byRole, roleId);
+            }
+            RoleEntry entry = roles.get(roleId);
+            long[] words = users.get(userId);
+            if (entry == null || words == null) {
+                return;
+            }
+
+            int word = entry.bit >>> 6;
+            long mask = 1L << entry.bit;
+            if (word < words.length && (words[word] & mask) != 0) {
+                words[word] &= ~mask;
+                entry.removeUser(userId);
+                total--;
+                if (countBits(words) == 0) {
+                    users.remove(userId);
+                }
+            }
+        }
+
+        private void removeRole(long roleId) {
+            RoleEntry entry = roles.get(roleId);
+            if (entry == null) {
+                return;
+            }
+            for (long userId : Arrays.copyOf(entry.userIds, entry.size)) {
+                revoke(userId, roleId);
+            }
+            roles.remove(roleId);
+            freeBits.push(entry.bit);
+        }
+
+        private void removeUser(long userId) {
+            long[] words = users.get(userId);
+            if (words == null) {
+                return;
+            }
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+                    revoke(userId, roleIdsByBit[bit]);
+                    word &= word - 1;
+                }
+            }
+        }
+
+        private int allocateBit(long roleId) {
+            int bit = freeBits.isEmpty() ? nextBit++ : freeBits.pop();
+            if (bit >= roleIdsByBit.length) {
+                roleIdsByBit = Arrays.copyOf(roleIdsByBit, roleIdsByBit.length * 2);
+            }
+            roleIdsByBit[bit] = roleId;
+            return bit;
+        }
+    }
+}
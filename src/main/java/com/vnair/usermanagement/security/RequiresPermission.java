@@ -0,0 +1,19 @@
+package com.vnair.usermanagement.security;
+
+import com.vnair.usermanagement.common.Permission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requires every listed permission on a controller method or class.
+ * A method annotation replaces the class annotation. Checked by PermissionInterceptor.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresPermission {
+    
+    Permission[] value();
+}
@@ -0,0 +1,201 @@
+package com.vnair.usermanagement.security;
+
+import com.vnair.usermanagement.entity.Role;
+import com.vnair.usermanagement.event.RoleChangedEvent;
+import com.vnair.usermanagement.repository.RoleRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable in-memory snapshot of the roles table, which holds a few hundred rows at most.
+ * <p>
+ * Readers take the current snapshot without locking; writers build a complete new snapshot and
+ * swap it in (copy-on-write). The snapshot is reloaded after every committed RoleChangedEvent,
+ * on first use, and every app.role-catalog.refresh-minutes to pick up changes made by other nodes.
+ */
+@Component
+public class RoleCatalog {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RoleCatalog.class);
+    
+    @Autowired
+    private RoleRepository roleRepository;
+    
+    @Value("${app.role-catalog.refresh-minutes:5}")
+    private long refreshMinutes;
+    
+    private volatile Snapshot snapshot;
+    
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "role-catalog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (refreshMinutes > 0) {
+            executor.scheduleWithFixedDelay(this::refreshQuietly, refreshMinutes, refreshMinutes, TimeUnit.MINUTES);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    // Reload the whole catalog; synchronized so the last reload always reads the latest committed state
+    public synchronized void refresh() {
+        List<Entry> entries = new ArrayList<>();
+        for (Role role : roleRepository.findAll()) {
+            entries.add(new Entry(role));
+        }
+        snapshot = new Snapshot(entries);
+        logger.debug("Role catalog refreshed: {} roles", entries.size());
+    }
+    
+    // All roles ordered by name
+    public List<Entry> getAll() {
+        return current().all;
+    }
+    
+    public Optional<Entry> findById(Long id) {
+        return Optional.ofNullable(current().byId.get(id));
+    }
+    
+    public Optional<Entry> findByNameIgnoreCase(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(current().byName.get(name.toLowerCase(Locale.ROOT)));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        if (event.getType() == RoleChangedEvent.ChangeType.HIERARCHY_CHANGED) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // The snapshot is stale now, drop it so the next read reloads
+            snapshot = null;
+            logger.error("Role catalog refresh failed", e);
+        }
+    }
+    
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+    
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.error("Role catalog refresh failed", e);
+        }
+    }
+    
+    private static final class Snapshot {
+        private final List<Entry> all;
+        private final Map<Long, Entry> byId;
+        private final Map<String, Entry> byName;
+        
+        private Snapshot(List<Entry> entries) {
+            List<Entry> sorted = new ArrayList<>(entries);
+            sorted.sort(Comparator.comparing(Entry::getName, String.CASE_INSENSITIVE_ORDER));
+            Map<Long, Entry> ids = new HashMap<>();
+            Map<String, Entry> names = new HashMap<>();
+            for (Entry entry : sorted) {
+                ids.put(entry.getId(), entry);
+                names.put(entry.getName().toLowerCase(Locale.ROOT), entry);
+            }
+            this.all = Collections.unmodifiableList(sorted);
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byName = Collections.unmodifiableMap(names);
+        }
+    }
+    
+    /**
+     * Read-only copy of a role row, safe to share between threads
+     */
+    public static final class Entry {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Boolean isActive;
+        private final long permissions;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        private final Long version;
+        
+        private Entry(Role role) {
+            this.id = role.getId();
+            this.name = role.getName();
+            this.description = role.getDescription();
+            this.isActive = role.getIsActive();
+            this.permissions = role.getPermissions() != null ? role.getPermissions() : 0L;
+            this.createdAt = role.getCreatedAt();
+            this.updatedAt = role.getUpdatedAt();
+            this.version = role.getVersion();
+        }
+        
+        public Long getId() {
+            return id;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public String getDescription() {
+            return description;
+        }
+        
+        public Boolean getIsActive() {
+            return isActive;
+        }
+        
+        public long getPermissions() {
+            return permissions;
+        }
+        
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+        
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+        
+        public Long getVersion() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.vnair.usermanagement.security;
+
+import com.vnair.usermanagement.event.RoleChangedEvent;
+import com.vnair.usermanagement.event.UserDeletedEvent;
+import com.vnair.usermanagement.event.UserRoleChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches the granted authorities and effective permission mask of each user so authenticated
+ * requests do not reload user_roles.
+ * Entries are evicted after commit when a user's assignments or a role change, and are never kept
+ * past the TTL or past the earliest expiry of the roles they contain.
+ */
+@Component
+public class UserAuthorityCache {
+    
+    @Value("${app.authority-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+    
+    private final ConcurrentHashMap<Long, CachedAuthorities> entries = new ConcurrentHashMap<>();
+    
+    // Bumped on every eviction so a load that raced with an eviction is not cached
+    private final AtomicLong generation = new AtomicLong();
+    
+    public CachedAuthorities get(Long userId, Supplier<CachedAuthorities> loader) {
+        LocalDateTime now = LocalDateTime.now();
+        CachedAuthorities cached = entries.get(userId);
+        if (cached != null && cached.getValidUntil().isAfter(now)) {
+            return cached;
+        }
+        
+        long generationBeforeLoad = generation.get();
+        CachedAuthorities loaded = loader.get();
+        
+        LocalDateTime ttlLimit = now.plusSeconds(ttlSeconds);
+        LocalDateTime validUntil = loaded.getValidUntil() != null && loaded.getValidUntil().isBefore(ttlLimit)
+                ? loaded.getValidUntil()
+                : ttlLimit;
+        CachedAuthorities entry = new CachedAuthorities(loaded.getAuthorities(), loaded.getPermissions(), validUntil);
+        
+        if (generation.get() == generationBeforeLoad) {
+            entries.put(userId, entry);
+        }
+        return entry;
+    }
+    
+    public void evict(Long userId) {
+        generation.incrementAndGet();
+        entries.remove(userId);
+    }
+    
+    public void evictAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        for (UserRoleChangedEvent.Change change : event.getChanges()) {
+            evict(change.getUserId());
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        evict(event.getUserId());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        // Role renames, permission changes, deletes and hierarchy changes affect every holder of the role and its ancestors
+        evictAll();
+    }
+    
+    public static class CachedAuthorities {
+        
+        private final Set<GrantedAuthority> authorities;
+        private final long permissions;
+        private final LocalDateTime validUntil;
+        
+        // permissions is the OR of the granted roles' masks; validUntil is the earliest expiry
+        // among the granted roles, or null when none expire
+        public CachedAuthorities(Set<GrantedAuthority> authorities, long permissions, LocalDateTime validUntil) {
+            this.authorities = Collections.unmodifiableSet(authorities);
+            this.permissions = permissions;
+            this.validUntil = validUntil;
+        }
+        
+        public Set<GrantedAuthority> getAuthorities() {
+            return authorities;
+        }
+        
+        public long getPermissions() {
+            return permissions;
+        }
+        
+        public LocalDateTime getValidUntil() {
+            return validUntil;
+        }
+    }
+}
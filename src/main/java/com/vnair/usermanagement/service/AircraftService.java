@@ -1,18 +1,30 @@
 package com.vnair.usermanagement.service;
 
+import com.vnair.usermanagement.dto.request.AircraftCloneRequestDTO;
 import com.vnair.usermanagement.dto.request.AircraftCreateRequestDTO;
 import com.vnair.usermanagement.dto.request.AircraftPageRequestDTO;
 import com.vnair.usermanagement.dto.request.AircraftUpdateRequestDTO;
 import com.vnair.usermanagement.dto.response.AircraftResponseDTO;
+import com.vnair.usermanagement.dto.response.MultiGetResponseDTO;
 import com.vnair.usermanagement.dto.response.PageResponseDTO;
 
 import java.util.List;
 
 public interface AircraftService {
     AircraftResponseDTO createAircraft(AircraftCreateRequestDTO request);
-    AircraftResponseDTO updateAircraft(Long id, AircraftUpdateRequestDTO request);
+    // ifMatch là header If-Match, null nếu cập nhật không điều kiện
+    AircraftResponseDTO updateAircraft(Long id, AircraftUpdateRequestDTO request, String ifMatch);
     void deleteAircraft(Long id);
+    
+    // Nhân bản máy bay và toàn bộ cabin của nó sang từng mã mới, trả về các máy bay mới theo thứ tự mã
+    List<AircraftResponseDTO> cloneAircraft(Long id, AircraftCloneRequestDTO request);
     AircraftResponseDTO getAircraft(Long id);
+    
+    // ETag hiện tại của máy bay, đọc từ cột version mà không load máy bay
+    String getAircraftETag(Long id);
+    
+    // Lấy nhiều máy bay theo danh sách ID, giữ thứ tự request
+    MultiGetResponseDTO<AircraftResponseDTO> getAircraftsByIds(List<Long> ids);
     List<AircraftResponseDTO> getAllAircrafts();
     
     // Phân trang
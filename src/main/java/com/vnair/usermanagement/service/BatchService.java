@@ -0,0 +1,11 @@
+package com.vnair.usermanagement.service;
+
+import com.vnair.usermanagement.dto.BatchRequestDTO;
+import com.vnair.usermanagement.dto.BatchResponseDTO;
+
+public interface BatchService {
+    
+    // Apply the operations in order, in one transaction or in chunks of app.batch.chunk-size;
+    // a failing operation rolls back its chunk and skips the chunks after it
+    BatchResponseDTO executeBatch(BatchRequestDTO batchRequest);
+}
@@ -4,16 +4,28 @@ import com.vnair.usermanagement.dto.request.CabinCreateRequestDTO;
 import com.vnair.usermanagement.dto.request.CabinPageRequestDTO;
 import com.vnair.usermanagement.dto.request.CabinUpdateRequestDTO;
 import com.vnair.usermanagement.dto.response.CabinResponseDTO;
+import com.vnair.usermanagement.dto.response.MultiGetResponseDTO;
 import com.vnair.usermanagement.dto.response.PageResponseDTO;
 
 import java.util.List;
+import java.util.Map;
 
 public interface CabinService {
     CabinResponseDTO createCabin(CabinCreateRequestDTO request);
-    CabinResponseDTO updateCabin(Long id, CabinUpdateRequestDTO request);
+    // ifMatch là header If-Match, null nếu cập nhật không điều kiện
+    CabinResponseDTO updateCabin(Long id, CabinUpdateRequestDTO request, String ifMatch);
     void deleteCabin(Long id);
     CabinResponseDTO getCabin(Long id);
+    
+    // ETag hiện tại của cabin (version của cabin và máy bay chứa nó)
+    String getCabinETag(Long id);
+    
+    // Lấy nhiều cabin theo danh sách ID, giữ thứ tự request
+    MultiGetResponseDTO<CabinResponseDTO> getCabinsByIds(List<Long> ids);
     List<CabinResponseDTO> getAllCabins();
+    
+    // Chỉ đọc các cột được chọn qua fields= (danh sách phân tách bằng dấu phẩy)
+    List<Map<String, Object>> getAllCabins(String fields);
 
     // Lấy danh sách cabin của một máy bay
     List<CabinResponseDTO> getCabinsByAircraft(Long aircraftId);
@@ -0,0 +1,12 @@
+package com.vnair.usermanagement.service;
+
+import com.vnair.usermanagement.dto.ChangeFeedResponseDTO;
+
+public interface ChangeFeedService {
+    
+    // Changes with seq greater than the cursor, oldest first; since=0 starts from the oldest retained change
+    ChangeFeedResponseDTO getChanges(long since, Integer limit);
+    
+    // Sequence number of the latest committed change
+    long getLatestSeq();
+}
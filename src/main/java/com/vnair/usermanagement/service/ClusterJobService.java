@@ -0,0 +1,14 @@
+package com.vnair.usermanagement.service;
+
+import com.vnair.usermanagement.dto.JobRunResponseDTO;
+import com.vnair.usermanagement.dto.JobStatusResponseDTO;
+
+import java.util.List;
+
+public interface ClusterJobService {
+    
+    List<JobStatusResponseDTO> getJobStatuses();
+    
+    // Recent runs of all jobs, or of one job when jobName is given
+    List<JobRunResponseDTO> getJobRuns(String jobName);
+}
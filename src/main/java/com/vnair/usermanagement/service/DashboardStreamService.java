@@ -0,0 +1,19 @@
+package com.vnair.usermanagement.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Optional;
+
+public interface DashboardStreamService {
+    
+    // Open a stream: a "snapshot" event with all counters, then "counters" events with the ones that changed;
+    // empty when app.dashboard-stream.max-subscribers streams are already open
+    Optional<SseEmitter> subscribe();
+    
+    // Current dashboard counters by key (users.active, userRoles.expiringSoon, ...)
+    Map<String, Long> getCounters();
+    
+    // Number of open dashboard streams
+    int getSubscriberCount();
+}
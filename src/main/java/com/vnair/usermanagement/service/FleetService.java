@@ -0,0 +1,23 @@
+package com.vnair.usermanagement.service;
+
+import com.vnair.usermanagement.dto.response.CapacityResponseDTO;
+import com.vnair.usermanagement.dto.response.FleetResponseDTO;
+
+import java.util.List;
+
+public interface FleetService {
+    // Toàn bộ máy bay kèm khoang, đọc bằng một câu truy vấn
+    FleetResponseDTO getFleet();
+    
+    // ETag của snapshot đội bay, chỉ đọc bộ đếm version
+    String getFleetETag();
+    
+    // Sức chứa toàn đội bay, tổng và theo vị trí khoang
+    CapacityResponseDTO getFleetCapacity();
+    
+    // Sức chứa của từng máy bay có ít nhất một khoang, theo thứ tự ID
+    List<CapacityResponseDTO> getAircraftCapacities();
+    
+    // Sức chứa của một máy bay
+    CapacityResponseDTO getAircraftCapacity(Long aircraftId);
+}
@@ -3,6 +3,7 @@ package com.vnair.usermanagement.service;
 import com.vnair.usermanagement.dto.RoleCreateRequestDTO;
 import com.vnair.usermanagement.dto.RoleResponseDTO;
 import com.vnair.usermanagement.dto.RoleUpdateRequestDTO;
+import com.vnair.usermanagement.dto.response.MultiGetResponseDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -16,11 +17,18 @@ public interface RoleService {
     
     RoleResponseDTO getRoleById(Long id);
     
+    // Current ETag of the role (its version), without loading the row
+    String getRoleETag(Long id);
+    
+    // Roles for the given ids in request order, with the ids that do not exist
+    MultiGetResponseDTO<RoleResponseDTO> getRolesByIds(List<Long> ids);
+    
     RoleResponseDTO getRoleByName(String name);
     
     Page<RoleResponseDTO> getAllRoles(Pageable pageable);
     
-    RoleResponseDTO updateRole(Long id, RoleUpdateRequestDTO roleUpdateRequestDTO);
+    // ifMatch is the If-Match header, or null to update unconditionally
+    RoleResponseDTO updateRole(Long id, RoleUpdateRequestDTO roleUpdateRequestDTO, String ifMatch);
     
     void deleteRole(Long id);
     
@@ -54,4 +62,14 @@ public interface RoleService {
     void assignMultipleRolesToUser(Long userId, List<Long> roleIds);
     
     void removeMultipleRolesFromUser(Long userId, List<Long> roleIds);
+    
+    // Role Hierarchy
+    void addImpliedRole(Long roleId, Long impliedRoleId);
+    
+    void removeImpliedRole(Long roleId, Long impliedRoleId);
+    
+    List<RoleResponseDTO> getImpliedRoles(Long roleId, boolean directOnly);
+    
+    // Permissions
+    List<Map<String, Object>> getPermissionCatalog();
 }
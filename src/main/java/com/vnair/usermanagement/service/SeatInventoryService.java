@@ -0,0 +1,29 @@
+package com.vnair.usermanagement.service;
+
+import com.vnair.usermanagement.dto.request.SeatOperationRequestDTO;
+import com.vnair.usermanagement.dto.response.SeatMapResponseDTO;
+
+import java.util.List;
+
+public interface SeatInventoryService {
+    // Sơ đồ ghế hiện tại của khoang
+    SeatMapResponseDTO getSeatMap(Long cabinId);
+    
+    // Giữ các ghế đang trống; tất cả ghế cùng được giữ hoặc không ghế nào (409)
+    SeatMapResponseDTO holdSeats(Long cabinId, SeatOperationRequestDTO request);
+    
+    // Trả các ghế đang được giữ về trạng thái trống
+    SeatMapResponseDTO releaseSeats(Long cabinId, SeatOperationRequestDTO request);
+    
+    // Khóa các ghế đang trống
+    SeatMapResponseDTO blockSeats(Long cabinId, SeatOperationRequestDTO request);
+    
+    // Mở khóa các ghế đang bị khóa
+    SeatMapResponseDTO unblockSeats(Long cabinId, SeatOperationRequestDTO request);
+    
+    // count ghế trống liền nhau có số nhỏ nhất, danh sách rỗng nếu không có
+    List<Integer> findContiguousSeats(Long cabinId, int count);
+    
+    // Gọi trong transaction cập nhật khoang, trước khi đổi seatCount; áp dụng khi transaction commit
+    void resizeCabin(Long cabinId, int seatCount);
+}
@@ -0,0 +1,27 @@
+package com.vnair.usermanagement.service;
+
+import com.vnair.usermanagement.dto.UserRoleAuditEventResponseDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UserRoleAuditService {
+    
+    // Audit entries of a user, newest first
+    Page<UserRoleAuditEventResponseDTO> getUserAuditLog(Long userId, Pageable pageable);
+    
+    // Audit entries of a role, newest first
+    Page<UserRoleAuditEventResponseDTO> getRoleAuditLog(Long roleId, Pageable pageable);
+    
+    // Roles the user held at the given time, each with the entry that put it in force.
+    // Assignments older than the log are covered by the baseline entries of UserRoleAuditBaselineSeeder.
+    List<UserRoleAuditEventResponseDTO> getRolesHeldAt(Long userId, LocalDateTime at);
+    
+    // Entries waiting in the buffer for the writer
+    int getPendingCount();
+    
+    // Entries that could not be written
+    long getFailedCount();
+}
@@ -0,0 +1,28 @@
+package com.vnair.usermanagement.service;
+
+import com.vnair.usermanagement.dto.UserRoleBulkJobResponseDTO;
+import com.vnair.usermanagement.job.JobLease;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UserRoleBulkJobService {
+    
+    // Start Jobs
+    UserRoleBulkJobResponseDTO startDeactivateRoleAssignments(Long roleId, String requestedBy);
+    
+    UserRoleBulkJobResponseDTO startDeactivateUserRoles(Long userId, String requestedBy);
+    
+    UserRoleBulkJobResponseDTO startDeactivateExpired(String requestedBy);
+    
+    // Query Jobs
+    UserRoleBulkJobResponseDTO getJob(Long jobId);
+    
+    List<UserRoleBulkJobResponseDTO> getRecentJobs();
+    
+    // Control Jobs
+    UserRoleBulkJobResponseDTO cancelJob(Long jobId);
+    
+    // Resume unfinished jobs without progress since inactiveSince; returns the number resumed
+    int resumeStaleJobs(LocalDateTime inactiveSince, JobLease lease);
+}
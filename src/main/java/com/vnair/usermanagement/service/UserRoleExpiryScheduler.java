@@ -0,0 +1,12 @@
+package com.vnair.usermanagement.service;
+
+import java.time.LocalDateTime;
+
+public interface UserRoleExpiryScheduler {
+    
+    // Number of assignments currently waiting in the timer wheel
+    int getScheduledCount();
+    
+    // Expirations up to this time are loaded into the wheel
+    LocalDateTime getLoadedUntil();
+}
@@ -17,11 +17,18 @@ public interface UserRoleService {
     
     UserRoleResponseDTO getUserRoleById(Long id);
     
+    // Current ETag of the assignment (its version and those of its user and role), without loading the rows
+    String getUserRoleETag(Long id);
+    
     UserRoleResponseDTO getUserRole(Long userId, Long roleId);
     
     Page<UserRoleResponseDTO> getAllUserRoles(Pageable pageable);
     
-    UserRoleResponseDTO updateUserRole(Long id, UserRoleUpdateRequestDTO userRoleUpdateRequestDTO);
+    // Only the selected fields, read with a projection query (fields is a comma-separated list)
+    Page<Map<String, Object>> getAllUserRoles(String fields, Pageable pageable);
+    
+    // ifMatch is the If-Match header, or null to update unconditionally
+    UserRoleResponseDTO updateUserRole(Long id, UserRoleUpdateRequestDTO userRoleUpdateRequestDTO, String ifMatch);
     
     void removeUserRole(Long id);
     
@@ -75,13 +82,7 @@ public interface UserRoleService {
     
     void removeMultipleRolesFromUser(Long userId, List<Long> roleIds);
     
-    void deactivateAllUserRoles(Long userId);
-    
-    void deactivateAllRoleAssignments(Long roleId);
-    
     // Maintenance Operations
-    int deactivateExpiredUserRoles();
-    
     void extendUserRoleExpiry(Long userRoleId, LocalDateTime newExpiryDate);
     
     void setUserRoleExpiry(Long userRoleId, LocalDateTime expiryDate);
@@ -93,5 +94,5 @@ public interface UserRoleService {
     
     List<UserRoleResponseDTO> getInactiveUserRoles(Long userId);
     
-    void transferUserRoles(Long fromUserId, Long toUserId, String transferredBy);
+    Map<String, Integer> transferUserRoles(Long fromUserId, Long toUserId, String transferredBy);
 }
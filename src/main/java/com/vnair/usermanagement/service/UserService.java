@@ -4,11 +4,13 @@ import com.vnair.usermanagement.common.UserStatus;
 import com.vnair.usermanagement.dto.UserCreateRequestDTO;
 import com.vnair.usermanagement.dto.UserResponseDTO;
 import com.vnair.usermanagement.dto.UserUpdateRequestDTO;
+import com.vnair.usermanagement.dto.response.MultiGetResponseDTO;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 
 public interface UserService {
     
@@ -16,19 +18,29 @@ public interface UserService {
     
     UserResponseDTO getUserById(Long id);
     
+    // Current ETag of the user, read from the version column without loading the row
+    String getUserETag(Long id);
+    
     UserResponseDTO getUserByUsername(String username);
     
+    // Users for the given ids in request order, with the ids that do not exist
+    MultiGetResponseDTO<UserResponseDTO> getUsersByIds(List<Long> ids);
+    
     UserResponseDTO getUserByEmail(String email);
     
     Page<UserResponseDTO> getAllUsers(Pageable pageable);
     
+    // Only the selected fields, read with a projection query (fields is a comma-separated list)
+    Page<Map<String, Object>> getAllUsers(String fields, Pageable pageable);
+    
     Page<UserResponseDTO> getUsersByStatus(UserStatus status, Pageable pageable);
     
     Page<UserResponseDTO> searchUsers(String keyword, Pageable pageable);
     
-    UserResponseDTO updateUser(Long id, UserUpdateRequestDTO updateRequest);
+    // ifMatch is the If-Match header, or null to update unconditionally
+    UserResponseDTO updateUser(Long id, UserUpdateRequestDTO updateRequest, String ifMatch);
     
-    UserResponseDTO updateUserStatus(Long id, UserStatus status);
+    UserResponseDTO updateUserStatus(Long id, UserStatus status, String ifMatch);
     
     void deleteUser(Long id);
     
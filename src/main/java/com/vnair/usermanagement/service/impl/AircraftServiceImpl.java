@@ -1,62 +1,178 @@
 package com.vnair.usermanagement.service.impl;
 
+import com.vnair.usermanagement.common.CabinPosition;
+import com.vnair.usermanagement.dto.request.AircraftCloneRequestDTO;
 import com.vnair.usermanagement.dto.request.AircraftCreateRequestDTO;
 import com.vnair.usermanagement.dto.request.AircraftPageRequestDTO;
 import com.vnair.usermanagement.dto.request.AircraftUpdateRequestDTO;
 import com.vnair.usermanagement.dto.response.AircraftResponseDTO;
+import com.vnair.usermanagement.dto.response.MultiGetResponseDTO;
 import com.vnair.usermanagement.dto.response.PageResponseDTO;
 import com.vnair.usermanagement.entity.Aircraft;
 import com.vnair.usermanagement.entity.Cabin;
+import com.vnair.usermanagement.event.FleetChangedEvent;
 import com.vnair.usermanagement.exception.AircraftNotFoundException;
+import com.vnair.usermanagement.exception.DuplicateAircraftCodeException;
 import com.vnair.usermanagement.repository.AircraftRepository;
+import com.vnair.usermanagement.repository.CabinRepository;
 import com.vnair.usermanagement.service.AircraftService;
+import com.vnair.usermanagement.util.ETagUtil;
+import com.vnair.usermanagement.util.FleetCapacityRollup;
+import com.vnair.usermanagement.util.MultiGetUtil;
 import com.vnair.usermanagement.util.PaginationUtil;
+import com.vnair.usermanagement.util.SingleFlightRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class AircraftServiceImpl implements AircraftService {
+    // SQLState unique_violation của PostgreSQL
+    private static final String UNIQUE_VIOLATION = "23505";
+    
     @Autowired
     private AircraftRepository aircraftRepository;
+    
+    @Autowired
+    private CabinRepository cabinRepository;
+    
+    @Autowired
+    private SingleFlightRegistry singleFlightRegistry;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private FleetCapacityRollup fleetCapacityRollup;
+    
+    @Value("${app.multi-get.max-ids:100}")
+    private int multiGetMaxIds;
 
     @Override
     public AircraftResponseDTO createAircraft(AircraftCreateRequestDTO request) {
         Aircraft aircraft = new Aircraft();
         aircraft.setCode(request.getCode());
         aircraft.setName(request.getName());
-        aircraft = aircraftRepository.save(aircraft);
+        Aircraft created = aircraft;
+        aircraft = saveWithUniqueCodes(() -> aircraftRepository.save(created), List.of(request.getCode()));
+        eventPublisher.publishEvent(new FleetChangedEvent(FleetChangedEvent.Kind.AIRCRAFT, aircraft.getId()));
         return toResponseDTO(aircraft);
     }
 
     @Override
-    public AircraftResponseDTO updateAircraft(Long id, AircraftUpdateRequestDTO request) {
+    @Transactional
+    public AircraftResponseDTO updateAircraft(Long id, AircraftUpdateRequestDTO request, String ifMatch) {
         Aircraft aircraft = aircraftRepository.findById(id)
                 .orElseThrow(() -> new AircraftNotFoundException(id));
+        // Ghi đồng thời sau bước kiểm tra này vẫn bị chặn bởi cột version khi flush
+        ETagUtil.checkIfMatch(ifMatch, ETagUtil.of(aircraft.getVersion()));
         
         aircraft.setCode(request.getCode());
         aircraft.setName(request.getName());
-        aircraft = aircraftRepository.save(aircraft);
+        // Flush để ETag trả về mang version mới
+        Aircraft changed = aircraft;
+        aircraft = saveWithUniqueCodes(() -> aircraftRepository.saveAndFlush(changed), List.of(request.getCode()));
+        eventPublisher.publishEvent(new FleetChangedEvent(FleetChangedEvent.Kind.AIRCRAFT, aircraft.getId()));
         return toResponseDTO(aircraft);
     }
 
     @Override
+    @Transactional
     public void deleteAircraft(Long id) {
         if (!aircraftRepository.existsById(id)) {
             throw new AircraftNotFoundException(id);
         }
-        aircraftRepository.deleteById(id);
+        // Xóa cabin và máy bay bằng hai câu DELETE, không load cabin vào bộ nhớ
+        cabinRepository.deleteAllByAircraftId(id);
+        aircraftRepository.deleteAircraftById(id);
+        fleetCapacityRollup.aircraftRemoved(id);
+        eventPublisher.publishEvent(new FleetChangedEvent(FleetChangedEvent.Kind.AIRCRAFT, id));
+    }
+
+    @Override
+    @Transactional
+    public List<AircraftResponseDTO> cloneAircraft(Long id, AircraftCloneRequestDTO request) {
+        Aircraft source = aircraftRepository.findById(id)
+                .orElseThrow(() -> new AircraftNotFoundException(id));
+        List<String> codes = request.getCodes().stream()
+                .map(String::trim)
+                .distinct()
+                .collect(Collectors.toList());
+        // Báo trước mọi mã trùng; ràng buộc unique trên code chặn các request đồng thời vượt qua bước này
+        List<String> existingCodes = aircraftRepository.findExistingCodes(codes);
+        if (!existingCodes.isEmpty()) {
+            throw new DuplicateAircraftCodeException("Aircraft codes already in use: " + existingCodes);
+        }
+        
+        String name = request.getName() != null && !request.getName().isBlank() ? request.getName() : source.getName();
+        List<Aircraft> clones = codes.stream().map(code -> {
+            Aircraft clone = new Aircraft();
+            clone.setCode(code);
+            clone.setName(name);
+            return clone;
+        }).collect(Collectors.toList());
+        List<Long> cloneIds = saveWithUniqueCodes(() -> aircraftRepository.saveAll(clones), codes).stream()
+                .map(Aircraft::getId)
+                .collect(Collectors.toList());
+        
+        // Cabin của mọi máy bay mới được chèn bằng một câu INSERT ... SELECT, không load cabin nguồn
+        cabinRepository.copyCabins(id, cloneIds);
+        for (Object[] row : cabinRepository.sumSeatsGroupByAircraftAndPositionIn(cloneIds)) {
+            fleetCapacityRollup.cabinsAdded((Long) row[0], (CabinPosition) row[1],
+                    ((Number) row[2]).longValue(), ((Number) row[3]).longValue());
+        }
+        // Một sự kiện cho cả lần clone, cache và bộ đếm version chỉ cập nhật một lần
+        eventPublisher.publishEvent(new FleetChangedEvent(FleetChangedEvent.Kind.AIRCRAFT, cloneIds));
+        
+        // Đọc lại máy bay mới kèm cabin trong một câu truy vấn, giữ thứ tự mã trong request
+        Map<Long, Aircraft> loaded = aircraftRepository.findAllWithCabinsByIdIn(cloneIds).stream()
+                .collect(Collectors.toMap(Aircraft::getId, Function.identity()));
+        return cloneIds.stream()
+                .map(loaded::get)
+                .map(this::toResponseDTO)
+                .collect(Collectors.toList());
     }
 
     @Override
     public AircraftResponseDTO getAircraft(Long id) {
-        Aircraft aircraft = aircraftRepository.findById(id)
+        // Các request đồng thời cùng id dùng chung một lần truy vấn
+        return singleFlightRegistry.<Long, AircraftResponseDTO>get("aircraft-by-id").execute(id, () -> {
+            Aircraft aircraft = aircraftRepository.findById(id)
+                    .orElseThrow(() -> new AircraftNotFoundException(id));
+            return toResponseDTO(aircraft);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getAircraftETag(Long id) {
+        return aircraftRepository.findVersionById(id)
+                .map(ETagUtil::of)
                 .orElseThrow(() -> new AircraftNotFoundException(id));
-        return toResponseDTO(aircraft);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MultiGetResponseDTO<AircraftResponseDTO> getAircraftsByIds(List<Long> ids) {
+        List<Long> distinctIds = MultiGetUtil.distinctIds(ids, multiGetMaxIds);
+        // Lấy máy bay và cabin trong một câu truy vấn thay vì từng máy bay một
+        List<Aircraft> aircrafts = distinctIds.isEmpty()
+                ? Collections.emptyList()
+                : aircraftRepository.findAllWithCabinsByIdIn(distinctIds);
+        return MultiGetUtil.createResponse(distinctIds, aircrafts, Aircraft::getId, this::toResponseDTO);
     }
 
     @Override
@@ -90,6 +206,29 @@ public class AircraftServiceImpl implements AircraftService {
         return PaginationUtil.createPageResponse(aircraftPage, content);
     }
 
+    // Vi phạm ràng buộc unique của code (do request đồng thời) được trả về 409 như khi kiểm tra trước;
+    // các vi phạm khác (NOT NULL, độ dài, khóa ngoại) được ném lại nguyên vẹn
+    private <T> T saveWithUniqueCodes(Supplier<T> save, List<String> codes) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateCode(e)) {
+                throw e;
+            }
+            throw new DuplicateAircraftCodeException("Aircraft codes already in use: " + codes);
+        }
+    }
+
+    private static boolean isDuplicateCode(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && UNIQUE_VIOLATION.equals(violation.getSQLState())) {
+                return Aircraft.CODE_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
     private AircraftResponseDTO toResponseDTO(Aircraft aircraft) {
         AircraftResponseDTO dto = new AircraftResponseDTO();
         dto.setId(aircraft.getId());
@@ -101,6 +240,8 @@ public class AircraftServiceImpl implements AircraftService {
                     .collect(Collectors.toList());
             dto.setCabinIds(cabinIds);
         }
+        // Version máy bay tăng mỗi khi cabin của nó thay đổi nên cũng bao phủ cabinIds
+        dto.setEtag(ETagUtil.of(aircraft.getVersion()));
         return dto;
     }
 }
@@ -0,0 +1,427 @@
+package com.vnair.usermanagement.service.impl;
+
+import com.vnair.usermanagement.common.BatchOperationStatus;
+import com.vnair.usermanagement.common.BatchOperationType;
+import com.vnair.usermanagement.dto.BatchOperationDTO;
+import com.vnair.usermanagement.dto.BatchOperationResultDTO;
+import com.vnair.usermanagement.dto.BatchRequestDTO;
+import com.vnair.usermanagement.dto.BatchResponseDTO;
+import com.vnair.usermanagement.entity.Role;
+import com.vnair.usermanagement.entity.User;
+import com.vnair.usermanagement.entity.UserRole;
+import com.vnair.usermanagement.event.RoleChangedEvent;
+import com.vnair.usermanagement.event.UserChangedEvent;
+import com.vnair.usermanagement.event.UserRoleChangedEvent;
+import com.vnair.usermanagement.exception.DuplicateUserException;
+import com.vnair.usermanagement.exception.InvalidBatchRequestException;
+import com.vnair.usermanagement.exception.RoleNotFoundException;
+import com.vnair.usermanagement.exception.UserNotFoundException;
+import com.vnair.usermanagement.repository.RoleRepository;
+import com.vnair.usermanagement.repository.UserRepository;
+import com.vnair.usermanagement.repository.UserRoleRepository;
+import com.vnair.usermanagement.service.BatchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class BatchServiceImpl implements BatchService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BatchServiceImpl.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private RoleRepository roleRepository;
+    
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // 0 runs the whole batch in one transaction
+    @Value("${app.batch.chunk-size:0}")
+    private int chunkSize;
+    
+    @Value("${app.batch.max-operations:1000}")
+    private int maxOperations;
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchResponseDTO executeBatch(BatchRequestDTO batchRequest) {
+        List<BatchOperationDTO> operations = batchRequest.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            throw new InvalidBatchRequestException("Batch must contain at least one operation");
+        }
+        if (operations.size() > maxOperations) {
+            throw new InvalidBatchRequestException("Batch has " + operations.size()
+                    + " operations, at most " + maxOperations + " are allowed");
+        }
+        for (int i = 0; i < operations.size(); i++) {
+            if (operations.get(i) == null || operations.get(i).getType() == null) {
+                throw new InvalidBatchRequestException("Operation " + i + " has no type");
+            }
+        }
+        
+        int size = chunkSize > 0 ? chunkSize : operations.size();
+        logger.info("Executing batch of {} operations in chunks of {}", operations.size(), size);
+        
+        BatchOperationResultDTO[] results = new BatchOperationResultDTO[operations.size()];
+        boolean aborted = false;
+        for (int from = 0; from < operations.size(); from += size) {
+            int to = Math.min(from + size, operations.size());
+            if (aborted) {
+                for (int i = from; i < to; i++) {
+                    results[i] = result(i, operations.get(i), BatchOperationStatus.SKIPPED, targetId(operations.get(i)), null);
+                }
+                continue;
+            }
+            aborted = !executeChunk(operations, from, to, batchRequest.getAssignedBy(), results);
+        }
+        
+        int succeeded = 0;
+        for (BatchOperationResultDTO result : results) {
+            if (result.getStatus() == BatchOperationStatus.SUCCEEDED) {
+                succeeded++;
+            }
+        }
+        logger.info("Batch finished: {} succeeded, {} not applied", succeeded, operations.size() - succeeded);
+        return new BatchResponseDTO(Arrays.asList(results), succeeded, operations.size() - succeeded);
+    }
+    
+    // Apply operations [from, to) in one transaction; returns false if the chunk was rolled back
+    private boolean executeChunk(List<BatchOperationDTO> operations, int from, int to, String assignedBy,
+                                 BatchOperationResultDTO[] results) {
+        Long[] entityIds = new Long[to - from];
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    new ChunkExecution(operations, from, to, assignedBy, entityIds).run());
+        } catch (OperationFailedException ex) {
+            logger.warn("Batch operation {} failed, rolling back operations {}-{}: {}", ex.index, from, to - 1, ex.getMessage());
+            for (int i = from; i < to; i++) {
+                BatchOperationDTO operation = operations.get(i);
+                results[i] = i == ex.index
+                        ? result(i, operation, BatchOperationStatus.FAILED, targetId(operation), ex.getMessage())
+                        : result(i, operation, BatchOperationStatus.ROLLED_BACK, targetId(operation), null);
+            }
+            return false;
+        } catch (RuntimeException ex) {
+            // Failed while flushing at commit, so no single operation can be blamed
+            logger.warn("Batch operations {}-{} failed at commit: {}", from, to - 1, ex.getMessage());
+            String message = "Chunk failed at commit: " + ex.getMessage();
+            for (int i = from; i < to; i++) {
+                results[i] = result(i, operations.get(i), BatchOperationStatus.FAILED, targetId(operations.get(i)), message);
+            }
+            return false;
+        }
+        
+        for (int i = from; i < to; i++) {
+            results[i] = result(i, operations.get(i), BatchOperationStatus.SUCCEEDED, entityIds[i - from], null);
+        }
+        return true;
+    }
+    
+    private BatchOperationResultDTO result(int index, BatchOperationDTO operation, BatchOperationStatus status,
+                                           Long entityId, String message) {
+        return new BatchOperationResultDTO(index, operation.getType(), status, entityId, message);
+    }
+    
+    // Id the operation targets; new assignments have none until they commit
+    private Long targetId(BatchOperationDTO operation) {
+        switch (operation.getType()) {
+            case UPDATE_USER_STATUS:
+                return operation.getUserId();
+            case UPDATE_ROLE:
+                return operation.getRoleId();
+            case ASSIGN_ROLE:
+                return null;
+            default:
+                return operation.getUserRoleId();
+        }
+    }
+    
+    private static <T> T require(T value, String field, BatchOperationType type) {
+        if (value == null) {
+            throw new InvalidBatchRequestException(field + " is required for " + type);
+        }
+        return value;
+    }
+    
+    /**
+     * One chunk inside its transaction. Every user, role and assignment the chunk references is loaded
+     * up front with one query per table, operations then change the managed entities, and Hibernate
+     * writes the updates and deletes at commit in JDBC batches. Events are published once per chunk.
+     */
+    private class ChunkExecution {
+        
+        private final List<BatchOperationDTO> operations;
+        private final int from;
+        private final int to;
+        private final String assignedBy;
+        private final Long[] entityIds;
+        
+        private final Map<Long, User> users = new HashMap<>();
+        private final Map<Long, Role> roles = new HashMap<>();
+        private final Map<Long, UserRole> userRoles = new HashMap<>();
+        // Role ids each user holds, for the duplicate check on ASSIGN_ROLE
+        private final Map<Long, Set<Long>> assignedRoleIds = new HashMap<>();
+        // Pairs deleted in this chunk but not flushed yet
+        private final Map<Long, Set<Long>> removedRoleIds = new HashMap<>();
+        
+        private final List<UserRole> assigned = new ArrayList<>();
+        private final Map<Long, UserRole> updated = new LinkedHashMap<>();
+        private final List<UserRole> removed = new ArrayList<>();
+        private final Set<Long> changedUserIds = new LinkedHashSet<>();
+        private final Set<Long> changedRoleIds = new LinkedHashSet<>();
+        
+        ChunkExecution(List<BatchOperationDTO> operations, int from, int to, String assignedBy, Long[] entityIds) {
+            this.operations = operations;
+            this.from = from;
+            this.to = to;
+            this.assignedBy = assignedBy;
+            this.entityIds = entityIds;
+        }
+        
+        void run() {
+            preload();
+            for (int i = from; i < to; i++) {
+                BatchOperationDTO operation = operations.get(i);
+                try {
+                    entityIds[i - from] = apply(operation);
+                } catch (RuntimeException ex) {
+                    throw new OperationFailedException(i, ex);
+                }
+            }
+            publishEvents();
+        }
+        
+        private void preload() {
+            Set<Long> userIds = new HashSet<>();
+            Set<Long> roleIds = new HashSet<>();
+            Set<Long> userRoleIds = new HashSet<>();
+            Set<Long> assignUserIds = new HashSet<>();
+            Set<Long> assignRoleIds = new HashSet<>();
+            for (int i = from; i < to; i++) {
+                BatchOperationDTO operation = operations.get(i);
+                switch (operation.getType()) {
+                    case UPDATE_USER_STATUS:
+                        addIfPresent(userIds, operation.getUserId());
+                        break;
+                    case UPDATE_ROLE:
+                        addIfPresent(roleIds, operation.getRoleId());
+                        break;
+                    case ASSIGN_ROLE:
+                        addIfPresent(userIds, operation.getUserId());
+                        addIfPresent(roleIds, operation.getRoleId());
+                        addIfPresent(assignUserIds, operation.getUserId());
+                        addIfPresent(assignRoleIds, operation.getRoleId());
+                        break;
+                    default:
+                        addIfPresent(userRoleIds, operation.getUserRoleId());
+                }
+            }
+            
+            if (!userIds.isEmpty()) {
+                userRepository.findAllById(userIds).forEach(user -> users.put(user.getId(), user));
+            }
+            if (!roleIds.isEmpty()) {
+                roleRepository.findAllById(roleIds).forEach(role -> roles.put(role.getId(), role));
+            }
+            if (!userRoleIds.isEmpty()) {
+                userRoleRepository.findAllById(userRoleIds).forEach(userRole -> userRoles.put(userRole.getId(), userRole));
+            }
+            if (!assignUserIds.isEmpty() && !assignRoleIds.isEmpty()) {
+                for (Object[] row : userRoleRepository.findByUserIdInAndRoleIdIn(assignUserIds, assignRoleIds)) {
+                    assignedRoleIds.computeIfAbsent((Long) row[1], key -> new HashSet<>()).add((Long) row[2]);
+                }
+            }
+        }
+        
+        private void addIfPresent(Set<Long> ids, Long id) {
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        
+        // Apply one operation and return the id of the entity it touched
+        private Long apply(BatchOperationDTO operation) {
+            BatchOperationType type = operation.getType();
+            switch (type) {
+                case UPDATE_USER_STATUS: {
+                    Long userId = require(operation.getUserId(), "userId", type);
+                    User user = findUser(userId);
+                    user.setStatus(require(operation.getStatus(), "status", type));
+                    changedUserIds.add(userId);
+                    return userId;
+                }
+                case UPDATE_ROLE: {
+                    Long roleId = require(operation.getRoleId(), "roleId", type);
+                    Role role = roles.get(roleId);
+                    if (role == null) {
+                        throw new RoleNotFoundException("Role not found with ID: " + roleId);
+                    }
+                    if (operation.getDescription() != null) {
+                        role.setDescription(operation.getDescription());
+                    }
+                    if (operation.getIsActive() != null) {
+                        role.setIsActive(operation.getIsActive());
+                    }
+                    changedRoleIds.add(roleId);
+                    return roleId;
+                }
+                case ASSIGN_ROLE:
+                    return assignRole(operation);
+                case UPDATE_USER_ROLE: {
+                    UserRole userRole = findUserRole(require(operation.getUserRoleId(), "userRoleId", type));
+                    if (operation.getIsActive() != null) {
+                        userRole.setIsActive(operation.getIsActive());
+                    }
+                    if (operation.getExpiresAt() != null) {
+                        userRole.setExpiresAt(operation.getExpiresAt());
+                    }
+                    if (operation.getNotes() != null) {
+                        userRole.setNotes(operation.getNotes());
+                    }
+                    return markUpdated(userRole);
+                }
+                case SET_USER_ROLE_EXPIRY: {
+                    UserRole userRole = findUserRole(require(operation.getUserRoleId(), "userRoleId", type));
+                    userRole.setExpiresAt(operation.getExpiresAt());
+                    return markUpdated(userRole);
+                }
+                case REACTIVATE_USER_ROLE: {
+                    UserRole userRole = findUserRole(require(operation.getUserRoleId(), "userRoleId", type));
+                    userRole.setIsActive(true);
+                    return markUpdated(userRole);
+                }
+                case REMOVE_USER_ROLE: {
+                    UserRole userRole = findUserRole(require(operation.getUserRoleId(), "userRoleId", type));
+                    userRoleRepository.delete(userRole);
+                    userRoles.remove(userRole.getId());
+                    updated.remove(userRole.getId());
+                    Long userId = userRole.getUser().getId();
+                    Long roleId = userRole.getRole().getId();
+                    Set<Long> heldRoleIds = assignedRoleIds.get(userId);
+                    if (heldRoleIds != null) {
+                        heldRoleIds.remove(roleId);
+                    }
+                    removedRoleIds.computeIfAbsent(userId, key -> new HashSet<>()).add(roleId);
+                    removed.add(userRole);
+                    return userRole.getId();
+                }
+                default:
+                    throw new InvalidBatchRequestException("Unsupported operation type: " + type);
+            }
+        }
+        
+        private Long assignRole(BatchOperationDTO operation) {
+            BatchOperationType type = operation.getType();
+            User user = findUser(require(operation.getUserId(), "userId", type));
+            Long roleId = require(operation.getRoleId(), "roleId", type);
+            Role role = roles.get(roleId);
+            if (role == null) {
+                throw new RoleNotFoundException("Role not found with ID: " + roleId);
+            }
+            
+            Set<Long> heldRoleIds = assignedRoleIds.computeIfAbsent(user.getId(), key -> new HashSet<>());
+            if (heldRoleIds.contains(roleId)) {
+                throw new DuplicateUserException("User already has this role assigned");
+            }
+            
+            // IDENTITY inserts run immediately, so a pending delete of the same pair must reach the database first
+            Set<Long> pendingRemovals = removedRoleIds.get(user.getId());
+            if (pendingRemovals != null && pendingRemovals.remove(roleId)) {
+                userRoleRepository.flush();
+            }
+            
+            UserRole userRole = new UserRole(user, role, assignedBy);
+            userRole.setIsActive(operation.getIsActive() != null ? operation.getIsActive() : Boolean.TRUE);
+            userRole.setExpiresAt(operation.getExpiresAt());
+            userRole.setNotes(operation.getNotes());
+            UserRole savedUserRole = userRoleRepository.save(userRole);
+            
+            heldRoleIds.add(roleId);
+            userRoles.put(savedUserRole.getId(), savedUserRole);
+            assigned.add(savedUserRole);
+            return savedUserRole.getId();
+        }
+        
+        private User findUser(Long userId) {
+            User user = users.get(userId);
+            if (user == null) {
+                throw new UserNotFoundException(userId);
+            }
+            return user;
+        }
+        
+        private UserRole findUserRole(Long userRoleId) {
+            UserRole userRole = userRoles.get(userRoleId);
+            if (userRole == null) {
+                throw new UserNotFoundException("UserRole not found with ID: " + userRoleId);
+            }
+            return userRole;
+        }
+        
+        private Long markUpdated(UserRole userRole) {
+            updated.put(userRole.getId(), userRole);
+            return userRole.getId();
+        }
+        
+        // One event per kind of change, each carrying the final state of its rows
+        private void publishEvents() {
+            List<UserRole> updatedOnly = new ArrayList<>();
+            for (UserRole userRole : updated.values()) {
+                if (!assigned.contains(userRole)) {
+                    updatedOnly.add(userRole);
+                }
+            }
+            if (!assigned.isEmpty()) {
+                eventPublisher.publishEvent(UserRoleChangedEvent.of(assigned, UserRoleChangedEvent.ChangeType.ASSIGNED));
+            }
+            if (!updatedOnly.isEmpty()) {
+                eventPublisher.publishEvent(UserRoleChangedEvent.of(updatedOnly, UserRoleChangedEvent.ChangeType.UPDATED));
+            }
+            if (!removed.isEmpty()) {
+                eventPublisher.publishEvent(UserRoleChangedEvent.of(removed, UserRoleChangedEvent.ChangeType.REMOVED));
+            }
+            for (Long userId : changedUserIds) {
+                eventPublisher.publishEvent(new UserChangedEvent(userId, UserChangedEvent.ChangeType.UPDATED));
+            }
+            for (Long roleId : changedRoleIds) {
+                eventPublisher.publishEvent(new RoleChangedEvent(roleId, RoleChangedEvent.ChangeType.UPDATED));
+            }
+        }
+    }
+    
+    // Carries the index of the failing operation out of the transaction callback, which rolls the chunk back
+    private static class OperationFailedException extends RuntimeException {
+        
+        private final int index;
+        
+        OperationFailedException(int index, RuntimeException cause) {
+            super(cause.getMessage(), cause);
+            this.index = index;
+        }
+    }
+}
@@ -4,22 +4,36 @@ import com.vnair.usermanagement.dto.request.CabinCreateRequestDTO;
 import com.vnair.usermanagement.dto.request.CabinPageRequestDTO;
 import com.vnair.usermanagement.dto.request.CabinUpdateRequestDTO;
 import com.vnair.usermanagement.dto.response.CabinResponseDTO;
+import com.vnair.usermanagement.dto.response.MultiGetResponseDTO;
 import com.vnair.usermanagement.dto.response.PageResponseDTO;
 import com.vnair.usermanagement.entity.Cabin;
 import com.vnair.usermanagement.common.CabinPosition;
+import com.vnair.usermanagement.event.FleetChangedEvent;
 import com.vnair.usermanagement.exception.AircraftNotFoundException;
 import com.vnair.usermanagement.exception.CabinNotFoundException;
 import com.vnair.usermanagement.repository.CabinRepository;
 import com.vnair.usermanagement.service.CabinService;
+import com.vnair.usermanagement.service.SeatInventoryService;
 import com.vnair.usermanagement.entity.Aircraft;
 import com.vnair.usermanagement.repository.AircraftRepository;
+import com.vnair.usermanagement.util.ETagUtil;
+import com.vnair.usermanagement.util.FleetCapacityRollup;
+import com.vnair.usermanagement.util.MultiGetUtil;
 import com.vnair.usermanagement.util.PaginationUtil;
+import com.vnair.usermanagement.util.SparseFieldsQuery;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,8 +43,38 @@ public class CabinServiceImpl implements CabinService {
 
     @Autowired
     private AircraftRepository aircraftRepository;
+    
+    @Autowired
+    private SparseFieldsQuery sparseFieldsQuery;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
+    @Autowired
+    private FleetCapacityRollup fleetCapacityRollup;
+
+    @Value("${app.multi-get.max-ids:100}")
+    private int multiGetMaxIds;
+
+    // Các trường được chọn qua fields=, ánh xạ sang thuộc tính entity; chỉ join aircraft khi cần
+    private static final Map<String, String> SPARSE_FIELDS = new LinkedHashMap<>();
+
+    static {
+        SPARSE_FIELDS.put("id", "id");
+        SPARSE_FIELDS.put("name", "name");
+        SPARSE_FIELDS.put("position", "position");
+        SPARSE_FIELDS.put("seatCount", "seatCount");
+        SPARSE_FIELDS.put("description", "description");
+        SPARSE_FIELDS.put("aircraftId", "aircraft.id");
+        SPARSE_FIELDS.put("aircraftCode", "aircraft.code");
+        SPARSE_FIELDS.put("aircraftName", "aircraft.name");
+    }
 
     @Override
+    @Transactional
     public CabinResponseDTO createCabin(CabinCreateRequestDTO request) {
         Cabin cabin = new Cabin();
         cabin.setName(request.getName());
@@ -38,40 +82,77 @@ public class CabinServiceImpl implements CabinService {
         cabin.setSeatCount(request.getSeatCount());
         cabin.setDescription(request.getDescription());
         
-        // Liên kết cabin với máy bay
-        Aircraft aircraft = aircraftRepository.findById(request.getAircraftId())
+        // Liên kết cabin với máy bay, tăng version máy bay vì cabinIds của nó thay đổi
+        Aircraft aircraft = aircraftRepository.findByIdForVersionIncrement(request.getAircraftId())
                 .orElseThrow(() -> new AircraftNotFoundException(request.getAircraftId()));
         cabin.setAircraft(aircraft);
         
         cabin = cabinRepository.save(cabin);
+        fleetCapacityRollup.cabinAdded(aircraft.getId(), cabin.getPosition(), cabin.getSeatCount());
+        eventPublisher.publishEvent(new FleetChangedEvent(FleetChangedEvent.Kind.CABIN, cabin.getId()));
         return toResponseDTO(cabin);
     }
 
     @Override
-    public CabinResponseDTO updateCabin(Long id, CabinUpdateRequestDTO request) {
+    @Transactional(readOnly = true)
+    public MultiGetResponseDTO<CabinResponseDTO> getCabinsByIds(List<Long> ids) {
+        List<Long> distinctIds = MultiGetUtil.distinctIds(ids, multiGetMaxIds);
+        // Lấy cabin và máy bay trong một câu truy vấn
+        List<Cabin> cabins = distinctIds.isEmpty()
+                ? Collections.emptyList()
+                : cabinRepository.findAllWithAircraftByIdIn(distinctIds);
+        return MultiGetUtil.createResponse(distinctIds, cabins, Cabin::getId, this::toResponseDTO);
+    }
+
+    @Override
+    @Transactional
+    public CabinResponseDTO updateCabin(Long id, CabinUpdateRequestDTO request, String ifMatch) {
         Cabin cabin = cabinRepository.findById(id)
                 .orElseThrow(() -> new CabinNotFoundException(id));
+        ETagUtil.checkIfMatch(ifMatch, cabinETag(cabin));
+        
+        // Sức chứa cũ được trừ khỏi rollup, sức chứa mới được cộng vào sau khi commit
+        Long previousAircraftId = cabin.getAircraft() != null ? cabin.getAircraft().getId() : null;
+        fleetCapacityRollup.cabinRemoved(previousAircraftId, cabin.getPosition(), cabin.getSeatCount());
+        
+        // Đổi số ghế của sơ đồ ghế; bị từ chối (409) nếu ghế bị cắt bớt đang được giữ hoặc bị khóa
+        if (cabin.getSeatCount() != request.getSeatCount()) {
+            seatInventoryService.resizeCabin(id, request.getSeatCount());
+        }
         
         cabin.setName(request.getName());
         cabin.setPosition(CabinPosition.valueOf(request.getPosition()));
         cabin.setSeatCount(request.getSeatCount());
         cabin.setDescription(request.getDescription());
         
-        // Cập nhật liên kết máy bay
-        Aircraft aircraft = aircraftRepository.findById(request.getAircraftId())
+        // Cập nhật liên kết máy bay; khi chuyển cabin sang máy bay khác thì cả hai máy bay đều tăng version
+        Aircraft previous = cabin.getAircraft();
+        if (previous != null && !previous.getId().equals(request.getAircraftId())) {
+            aircraftRepository.findByIdForVersionIncrement(previous.getId());
+        }
+        Aircraft aircraft = aircraftRepository.findByIdForVersionIncrement(request.getAircraftId())
                 .orElseThrow(() -> new AircraftNotFoundException(request.getAircraftId()));
         cabin.setAircraft(aircraft);
         
-        cabin = cabinRepository.save(cabin);
+        // Flush để ETag trả về mang version mới
+        cabin = cabinRepository.saveAndFlush(cabin);
+        fleetCapacityRollup.cabinAdded(aircraft.getId(), cabin.getPosition(), cabin.getSeatCount());
+        eventPublisher.publishEvent(new FleetChangedEvent(FleetChangedEvent.Kind.CABIN, cabin.getId()));
         return toResponseDTO(cabin);
     }
 
     @Override
+    @Transactional
     public void deleteCabin(Long id) {
-        if (!cabinRepository.existsById(id)) {
-            throw new CabinNotFoundException(id);
+        Cabin cabin = cabinRepository.findById(id)
+                .orElseThrow(() -> new CabinNotFoundException(id));
+        if (cabin.getAircraft() != null) {
+            aircraftRepository.findByIdForVersionIncrement(cabin.getAircraft().getId());
         }
-        cabinRepository.deleteById(id);
+        cabinRepository.delete(cabin);
+        fleetCapacityRollup.cabinRemoved(cabin.getAircraft() != null ? cabin.getAircraft().getId() : null,
+                cabin.getPosition(), cabin.getSeatCount());
+        eventPublisher.publishEvent(new FleetChangedEvent(FleetChangedEvent.Kind.CABIN, id));
     }
 
     @Override
@@ -81,6 +162,16 @@ public class CabinServiceImpl implements CabinService {
         return toResponseDTO(cabin);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getCabinETag(Long id) {
+        List<Object[]> rows = cabinRepository.findVersionsById(id);
+        if (rows.isEmpty()) {
+            throw new CabinNotFoundException(id);
+        }
+        return ETagUtil.of(rows.get(0)[0], rows.get(0)[1]);
+    }
+
     @Override
     public List<CabinResponseDTO> getAllCabins() {
         return cabinRepository.findAll().stream()
@@ -88,6 +179,12 @@ public class CabinServiceImpl implements CabinService {
             .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllCabins(String fields) {
+        return sparseFieldsQuery.findAll(Cabin.class, SPARSE_FIELDS, fields, Sort.by("id"));
+    }
+
     @Override
     public List<CabinResponseDTO> getCabinsByAircraft(Long aircraftId) {
         return cabinRepository.findByAircraftId(aircraftId).stream()
@@ -150,6 +247,12 @@ public class CabinServiceImpl implements CabinService {
             dto.setAircraftCode(cabin.getAircraft().getCode());
             dto.setAircraftName(cabin.getAircraft().getName());
         }
+        dto.setEtag(cabinETag(cabin));
         return dto;
     }
+
+    // Cabin trả về code và tên máy bay nên ETag gồm cả version của máy bay
+    private String cabinETag(Cabin cabin) {
+        return ETagUtil.of(cabin.getVersion(), cabin.getAircraft() != null ? cabin.getAircraft().getVersion() : null);
+    }
 }
@@ -0,0 +1,218 @@
+package com.vnair.usermanagement.service.impl;
+
+import com.vnair.usermanagement.common.ChangeEntityType;
+import com.vnair.usermanagement.common.ChangeOperation;
+import com.vnair.usermanagement.dto.ChangeFeedResponseDTO;
+import com.vnair.usermanagement.dto.ChangeRecordDTO;
+import com.vnair.usermanagement.entity.ChangeLogEntry;
+import com.vnair.usermanagement.event.RoleChangedEvent;
+import com.vnair.usermanagement.event.UserChangedEvent;
+import com.vnair.usermanagement.event.UserDeletedEvent;
+import com.vnair.usermanagement.event.UserRoleChangedEvent;
+import com.vnair.usermanagement.exception.ChangeCursorExpiredException;
+import com.vnair.usermanagement.repository.ChangeLogRepository;
+import com.vnair.usermanagement.service.ChangeFeedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Change feed of users, roles and role assignments for incremental sync.
+ * <p>
+ * Every write records one change_log row per changed entity in the writing transaction. Sequence
+ * numbers come from the single change_feed_counter row, bumped just before commit: the row lock is
+ * held only until commit, so sequence numbers have no gaps and commit in order, and a reader that
+ * has seen seq N will never later find a change below N.
+ */
+@Service
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedServiceImpl.class);
+    
+    // Reserves count sequence numbers and returns the last one; creates the counter row on first use
+    private static final String RESERVE_SEQ_SQL = "INSERT INTO change_feed_counter (id, last_seq) VALUES (1, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET last_seq = change_feed_counter.last_seq + EXCLUDED.last_seq " +
+            "RETURNING last_seq";
+    
+    private static final String INSERT_SQL = "INSERT INTO change_log " +
+            "(seq, entity_type, entity_id, operation, user_id, role_id, changed_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${app.change-feed.default-limit:100}")
+    private int defaultLimit;
+    
+    @Value("${app.change-feed.max-limit:1000}")
+    private int maxLimit;
+    
+    // BEFORE_COMMIT joins the writing transaction; without one the template opens its own
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        List<ChangeLogEntry> entries = new ArrayList<>(event.getChanges().size());
+        for (UserRoleChangedEvent.Change change : event.getChanges()) {
+            entries.add(entry(ChangeEntityType.USER_ROLE, change.getUserRoleId(), toOperation(change.getType()),
+                    change.getUserId(), change.getRoleId(), event.getOccurredAt()));
+        }
+        record(entries);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        ChangeOperation operation;
+        switch (event.getType()) {
+            case CREATED:
+                operation = ChangeOperation.CREATED;
+                break;
+            case DELETED:
+                operation = ChangeOperation.DELETED;
+                break;
+            default:
+                operation = ChangeOperation.UPDATED;
+                break;
+        }
+        record(Collections.singletonList(entry(ChangeEntityType.ROLE, event.getRoleId(), operation,
+                null, event.getRoleId(), LocalDateTime.now())));
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        ChangeOperation operation = event.getType() == UserChangedEvent.ChangeType.CREATED
+                ? ChangeOperation.CREATED : ChangeOperation.UPDATED;
+        record(Collections.singletonList(entry(ChangeEntityType.USER, event.getUserId(), operation,
+                event.getUserId(), null, LocalDateTime.now())));
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        record(Collections.singletonList(entry(ChangeEntityType.USER, event.getUserId(), ChangeOperation.DELETED,
+                event.getUserId(), null, LocalDateTime.now())));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeFeedResponseDTO getChanges(long since, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        logger.info("Fetching changes since {} (limit {})", since, pageSize);
+        
+        // Read the counter before the rows: every seq up to it is already committed
+        long latestSeq = getLatestSeq();
+        List<ChangeLogEntry> entries = changeLogRepository.findBySeqGreaterThanOrderBySeqAsc(
+                since, PageRequest.of(0, pageSize + 1));
+        
+        // Sequence numbers have no gaps, so a missing successor means retention already removed it
+        boolean expired = entries.isEmpty()
+                ? since < latestSeq
+                : since > 0 && entries.get(0).getSeq() > since + 1;
+        if (expired) {
+            throw new ChangeCursorExpiredException("Change cursor " + since + " is older than the retained changes, resync required");
+        }
+        
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+        }
+        long nextCursor = entries.isEmpty() ? Math.max(since, 0L) : entries.get(entries.size() - 1).getSeq();
+        
+        List<ChangeRecordDTO> changes = entries.stream()
+                .map(this::mapToRecordDTO)
+                .collect(Collectors.toList());
+        return new ChangeFeedResponseDTO(changes, nextCursor, hasMore);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long getLatestSeq() {
+        Long latestSeq = changeLogRepository.findLastSeq();
+        return latestSeq != null ? latestSeq : 0L;
+    }
+    
+    private void record(List<ChangeLogEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            long lastSeq = jdbcTemplate.queryForObject(RESERVE_SEQ_SQL, Long.class, (long) entries.size());
+            long seq = lastSeq - entries.size();
+            for (ChangeLogEntry entry : entries) {
+                entry.setSeq(++seq);
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+                ps.setLong(1, entry.getSeq());
+                ps.setString(2, entry.getEntityType().name());
+                ps.setLong(3, entry.getEntityId());
+                ps.setString(4, entry.getOperation().name());
+                setNullableLong(ps, 5, entry.getUserId());
+                setNullableLong(ps, 6, entry.getRoleId());
+                ps.setTimestamp(7, Timestamp.valueOf(entry.getChangedAt()));
+            });
+        });
+    }
+    
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+    
+    private static ChangeOperation toOperation(UserRoleChangedEvent.ChangeType type) {
+        switch (type) {
+            case ASSIGNED:
+                return ChangeOperation.CREATED;
+            case REMOVED:
+                return ChangeOperation.DELETED;
+            default:
+                return ChangeOperation.UPDATED;
+        }
+    }
+    
+    private static ChangeLogEntry entry(ChangeEntityType entityType, Long entityId, ChangeOperation operation,
+                                        Long userId, Long roleId, LocalDateTime changedAt) {
+        ChangeLogEntry entry = new ChangeLogEntry();
+        entry.setEntityType(entityType);
+        entry.setEntityId(entityId);
+        entry.setOperation(operation);
+        entry.setUserId(userId);
+        entry.setRoleId(roleId);
+        entry.setChangedAt(changedAt);
+        return entry;
+    }
+    
+    private ChangeRecordDTO mapToRecordDTO(ChangeLogEntry entry) {
+        return new ChangeRecordDTO(
+                entry.getSeq(),
+                entry.getEntityType(),
+                entry.getEntityId(),
+                entry.getOperation(),
+                entry.getUserId(),
+                entry.getRoleId(),
+                entry.getChangedAt()
+        );
+    }
+}
@@ -0,0 +1,79 @@
+package com.vnair.usermanagement.service.impl;
+
+import com.vnair.usermanagement.dto.JobRunResponseDTO;
+import com.vnair.usermanagement.dto.JobStatusResponseDTO;
+import com.vnair.usermanagement.entity.JobLock;
+import com.vnair.usermanagement.entity.JobRun;
+import com.vnair.usermanagement.job.ClusterJob;
+import com.vnair.usermanagement.job.ClusterJobRunner;
+import com.vnair.usermanagement.repository.JobLockRepository;
+import com.vnair.usermanagement.repository.JobRunRepository;
+import com.vnair.usermanagement.service.ClusterJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional(readOnly = true)
+public class ClusterJobServiceImpl implements ClusterJobService {
+    
+    @Autowired
+    private ClusterJobRunner clusterJobRunner;
+    
+    @Autowired
+    private JobLockRepository jobLockRepository;
+    
+    @Autowired
+    private JobRunRepository jobRunRepository;
+    
+    @Override
+    public List<JobStatusResponseDTO> getJobStatuses() {
+        LocalDateTime now = LocalDateTime.now();
+        String nodeId = clusterJobRunner.getNodeId();
+        
+        return clusterJobRunner.getJobs().stream()
+                .map(job -> toStatusDTO(job, jobLockRepository.findById(job.getName()).orElse(null), nodeId, now))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<JobRunResponseDTO> getJobRuns(String jobName) {
+        List<JobRun> runs = jobName == null || jobName.isBlank()
+                ? jobRunRepository.findTop50ByOrderByIdDesc()
+                : jobRunRepository.findTop50ByJobNameOrderByIdDesc(jobName);
+        
+        return runs.stream()
+                .map(this::toRunDTO)
+                .collect(Collectors.toList());
+    }
+    
+    private JobStatusResponseDTO toStatusDTO(ClusterJob job, JobLock lock, String nodeId, LocalDateTime now) {
+        JobStatusResponseDTO dto = new JobStatusResponseDTO();
+        dto.setJobName(job.getName());
+        dto.setIntervalSeconds(job.getInterval().getSeconds());
+        if (lock != null) {
+            dto.setOwnerId(lock.getOwnerId());
+            dto.setLeaseUntil(lock.getLeaseUntil());
+            dto.setLeaseHeld(lock.getLeaseUntil().isAfter(now));
+            dto.setOwnedByThisNode(nodeId != null && nodeId.equals(lock.getOwnerId()));
+        }
+        return dto;
+    }
+    
+    private JobRunResponseDTO toRunDTO(JobRun run) {
+        JobRunResponseDTO dto = new JobRunResponseDTO();
+        dto.setId(run.getId());
+        dto.setJobName(run.getJobName());
+        dto.setNodeId(run.getNodeId());
+        dto.setStatus(run.getStatus());
+        dto.setStartedAt(run.getStartedAt());
+        dto.setFinishedAt(run.getFinishedAt());
+        dto.setDurationMs(run.getDurationMs());
+        dto.setMessage(run.getMessage());
+        return dto;
+    }
+}
@@ -3,7 +3,10 @@ package com.vnair.usermanagement.service.impl;
 import com.vnair.usermanagement.common.UserStatus;
 import com.vnair.usermanagement.entity.User;
 import com.vnair.usermanagement.entity.UserRole;
+import com.vnair.usermanagement.repository.RoleRepository;
 import com.vnair.usermanagement.repository.UserRepository;
+import com.vnair.usermanagement.security.AuthenticatedUser;
+import com.vnair.usermanagement.security.UserAuthorityCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -13,7 +16,11 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -28,6 +35,12 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         System.out.println("=== CustomUserDetailsService.loadUserByUsername called with: " + username);
@@ -44,18 +57,20 @@ public class CustomUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("User account is not active: " + username);
         }
 
-        Collection<? extends GrantedAuthority> authorities = getAuthorities(user);
+        UserAuthorityCache.CachedAuthorities grants =
+                userAuthorityCache.get(user.getId(), () -> getAuthorities(user));
+        Collection<? extends GrantedAuthority> authorities = grants.getAuthorities();
         System.out.println("=== User authorities: " + authorities);
 
-        UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPasswordHash())
-                .authorities(authorities)
-                .accountExpired(false)
-                .accountLocked(user.getStatus() == UserStatus.SUSPENDED)
-                .credentialsExpired(false)
-                .disabled(user.getStatus() == UserStatus.INACTIVE || user.getStatus() == UserStatus.DELETED)
-                .build();
+        // Effective permission mask travels with the principal for PermissionInterceptor
+        UserDetails userDetails = new AuthenticatedUser(
+                user.getId(),
+                user.getUsername(),
+                user.getPasswordHash(),
+                !(user.getStatus() == UserStatus.INACTIVE || user.getStatus() == UserStatus.DELETED),
+                user.getStatus() != UserStatus.SUSPENDED,
+                authorities,
+                grants.getPermissions());
         
         System.out.println("=== Created UserDetails with username: " + userDetails.getUsername());
         System.out.println("=== UserDetails enabled: " + userDetails.isEnabled());
@@ -65,14 +80,35 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
 
     /**
-     * Get user authorities based on their roles
+     * Get user authorities and the OR of the permission masks of their roles and the roles those imply,
+     * valid until the earliest role expiry
      */
-    private Collection<? extends GrantedAuthority> getAuthorities(User user) {
-        Set<UserRole> userRoles = user.getUserRoles();
-        
-        return userRoles.stream()
+    private UserAuthorityCache.CachedAuthorities getAuthorities(User user) {
+        Set<UserRole> activeUserRoles = user.getUserRoles().stream()
                 .filter(ur -> ur.getIsActive() && !ur.isExpired())
-                .map(ur -> new SimpleGrantedAuthority("ROLE_" + ur.getRole().getName().toUpperCase()))
                 .collect(Collectors.toSet());
+        
+        // Implied roles come from one lookup in the closure table, not a walk of the hierarchy
+        Set<Long> roleIds = activeUserRoles.stream()
+                .map(ur -> ur.getRole().getId())
+                .collect(Collectors.toSet());
+        List<Object[]> grants = roleIds.isEmpty()
+                ? List.of()
+                : roleRepository.findEffectiveRoleGrants(roleIds);
+        
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        long permissions = 0L;
+        for (Object[] grant : grants) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + ((String) grant[0]).toUpperCase()));
+            permissions |= (Long) grant[1];
+        }
+        
+        LocalDateTime earliestExpiry = activeUserRoles.stream()
+                .map(UserRole::getExpiresAt)
+                .filter(Objects::nonNull)
+                .min(LocalDateTime::compareTo)
+                .orElse(null);
+        
+        return new UserAuthorityCache.CachedAuthorities(authorities, permissions, earliestExpiry);
     }
 }
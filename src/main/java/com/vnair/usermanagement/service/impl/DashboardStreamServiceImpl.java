@@ -0,0 +1,421 @@
+package com.vnair.usermanagement.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vnair.usermanagement.common.UserStatus;
+import com.vnair.usermanagement.event.RoleChangedEvent;
+import com.vnair.usermanagement.event.UserChangedEvent;
+import com.vnair.usermanagement.event.UserDeletedEvent;
+import com.vnair.usermanagement.event.UserRoleChangedEvent;
+import com.vnair.usermanagement.repository.UserRepository;
+import com.vnair.usermanagement.repository.UserRoleRepository;
+import com.vnair.usermanagement.security.RoleCatalog;
+import com.vnair.usermanagement.service.DashboardStreamService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live dashboard counters pushed over Server-Sent Events.
+ * <p>
+ * Committed writes only mark the counters dirty. A single pusher thread reloads them at most once
+ * every app.dashboard-stream.push-interval-ms (two aggregate queries), serializes the changed
+ * counters once and writes the same payload to every open stream, so database load does not grow
+ * with the number of dashboards watching. Counters are also reloaded every
+ * app.dashboard-stream.refresh-seconds to pick up time-based expiry and writes made on other nodes.
+ * Nothing is loaded while no dashboard is connected. At most app.dashboard-stream.max-subscribers
+ * streams are open at a time.
+ * <p>
+ * The pusher only queues events. Each stream has its own bounded queue, which is drained by a sender
+ * pool with at most one task per stream, so a slow client never delays the others. A stream is dropped
+ * when its queue overflows (app.dashboard-stream.max-pending-events) or when one write takes longer than
+ * app.dashboard-stream.send-timeout-ms; a write that is stuck is left to the container's write timeout.
+ */
+@Service
+public class DashboardStreamServiceImpl implements DashboardStreamService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStreamServiceImpl.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+    
+    @Autowired
+    private RoleCatalog roleCatalog;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.dashboard-stream.push-interval-ms:1000}")
+    private long pushIntervalMs;
+    
+    @Value("${app.dashboard-stream.refresh-seconds:30}")
+    private long refreshSeconds;
+    
+    @Value("${app.dashboard-stream.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+    
+    @Value("${app.dashboard-stream.emitter-timeout-minutes:30}")
+    private long emitterTimeoutMinutes;
+    
+    @Value("${app.dashboard-stream.expiring-window-days:7}")
+    private long expiringWindowDays;
+    
+    @Value("${app.dashboard-stream.max-subscribers:50}")
+    private int maxSubscribers;
+    
+    @Value("${app.dashboard-stream.max-pending-events:16}")
+    private int maxPendingEvents;
+    
+    @Value("${app.dashboard-stream.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+    
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    
+    // Streams waiting for their first snapshot, served by the pusher thread
+    private final ConcurrentLinkedQueue<Subscriber> joining = new ConcurrentLinkedQueue<>();
+    
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    
+    // Last counters sent to the open streams; only the pusher thread replaces it
+    private volatile Map<String, Long> counters;
+    
+    private long lastLoadNanos;
+    private long lastSendNanos;
+    
+    private final ScheduledExecutorService pusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "dashboard-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // At most one drain task per stream, so threads never outnumber the streams
+    private ThreadPoolExecutor senders;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        AtomicInteger senderNumber = new AtomicInteger();
+        senders = new ThreadPoolExecutor(0, maxSubscribers, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "dashboard-stream-sender-" + senderNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pusher.scheduleWithFixedDelay(this::tickQuietly, pushIntervalMs, pushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pusher.shutdownNow();
+        if (senders != null) {
+            senders.shutdownNow();
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+    
+    @Override
+    public synchronized Optional<SseEmitter> subscribe() {
+        // Every stream keeps a connection open and may hold a sender thread while a write is in progress,
+        // so their number is capped
+        if (getSubscriberCount() >= maxSubscribers) {
+            logger.warn("Dashboard stream refused, {} already open", getSubscriberCount());
+            return Optional.empty();
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(TimeUnit.MINUTES.toMillis(emitterTimeoutMinutes)),
+                maxPendingEvents);
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(e -> remove(subscriber));
+        joining.add(subscriber);
+        logger.debug("Dashboard stream opened, {} open", getSubscriberCount());
+        return Optional.of(subscriber.emitter);
+    }
+    
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> current = counters;
+        if (current != null && !dirty.get()) {
+            return current;
+        }
+        // Not cached by the caller's thread: the pusher owns the copy it diffs against
+        return loadCounters();
+    }
+    
+    @Override
+    public int getSubscriberCount() {
+        return subscribers.size() + joining.size();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        dirty.set(true);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        dirty.set(true);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        dirty.set(true);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        dirty.set(true);
+    }
+    
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            logger.error("Dashboard stream push failed", e);
+        }
+    }
+    
+    private void tick() {
+        if (subscribers.isEmpty() && joining.isEmpty()) {
+            // Nobody is watching, reload from scratch when the next dashboard connects
+            counters = null;
+            return;
+        }
+        
+        long now = System.nanoTime();
+        dropStalled(now);
+        Map<String, Long> previous = counters;
+        boolean stale = previous == null || now - lastLoadNanos >= TimeUnit.SECONDS.toNanos(refreshSeconds);
+        if (dirty.getAndSet(false) || stale) {
+            Map<String, Long> loaded;
+            try {
+                loaded = loadCounters();
+            } catch (RuntimeException e) {
+                // Retry on the next tick
+                dirty.set(true);
+                throw e;
+            }
+            counters = loaded;
+            lastLoadNanos = now;
+            if (previous != null) {
+                Map<String, Long> changed = new LinkedHashMap<>();
+                for (Map.Entry<String, Long> entry : loaded.entrySet()) {
+                    if (!Objects.equals(previous.get(entry.getKey()), entry.getValue())) {
+                        changed.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                if (!changed.isEmpty()) {
+                    broadcast("counters", toJson(changed));
+                    lastSendNanos = now;
+                }
+            }
+        }
+        
+        Subscriber subscriber;
+        if (!joining.isEmpty()) {
+            String snapshot = toJson(counters);
+            while ((subscriber = joining.poll()) != null) {
+                // Queued before any later counters event, so the snapshot always arrives first
+                subscribers.add(subscriber);
+                enqueue(subscriber, SseEmitter.event().name("snapshot").data(snapshot));
+            }
+        }
+        
+        // Keep idle connections open through proxies
+        if (now - lastSendNanos >= TimeUnit.SECONDS.toNanos(heartbeatSeconds)) {
+            for (Subscriber open : subscribers) {
+                enqueue(open, SseEmitter.event().comment("heartbeat"));
+            }
+            lastSendNanos = now;
+        }
+    }
+    
+    private void broadcast(String eventName, String payload) {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, SseEmitter.event().name(eventName).data(payload));
+        }
+    }
+    
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.dropped) {
+            return;
+        }
+        if (!subscriber.pending.offer(event)) {
+            drop(subscriber, "fell " + maxPendingEvents + " events behind");
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+                drop(subscriber, "no sender thread available");
+            }
+        }
+    }
+    
+    // Runs on a sender thread; only one drain per stream runs at a time
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            if (subscriber.dropped) {
+                subscriber.draining.set(false);
+                completeIfIdle(subscriber);
+                return;
+            }
+            SseEmitter.SseEventBuilder event = subscriber.pending.poll();
+            if (event == null) {
+                subscriber.draining.set(false);
+                if (subscriber.dropped) {
+                    completeIfIdle(subscriber);
+                    return;
+                }
+                // An event queued after the poll but before the flag was cleared would otherwise wait
+                if (subscriber.pending.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            subscriber.sendingSinceNanos = System.nanoTime();
+            try {
+                subscriber.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container completes the emitter
+                remove(subscriber);
+                subscriber.pending.clear();
+                subscriber.draining.set(false);
+                return;
+            } finally {
+                subscriber.sendingSinceNanos = 0L;
+            }
+        }
+    }
+    
+    private void dropStalled(long now) {
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSinceNanos;
+            if (since != 0L && now - since > timeoutNanos) {
+                drop(subscriber, "a write took longer than " + sendTimeoutMs + " ms");
+            }
+        }
+    }
+    
+    private void drop(Subscriber subscriber, String reason) {
+        logger.warn("Dropping dashboard stream: {}", reason);
+        subscriber.dropped = true;
+        remove(subscriber);
+        subscriber.pending.clear();
+        completeIfIdle(subscriber);
+    }
+    
+    // complete() waits for a write in progress, so only the side that finds the stream idle calls it;
+    // a drain that is still writing completes the stream itself when the write returns
+    private void completeIfIdle(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            subscriber.emitter.complete();
+        }
+    }
+    
+    private void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        joining.remove(subscriber);
+    }
+    
+    private Map<String, Long> loadCounters() {
+        LocalDateTime currentTime = LocalDateTime.now();
+        Map<String, Long> loaded = new LinkedHashMap<>();
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            long totalUsers = 0;
+            for (UserStatus userStatus : UserStatus.values()) {
+                loaded.put("users." + userStatus.name().toLowerCase(Locale.ROOT), 0L);
+            }
+            for (Object[] row : userRepository.countGroupByStatus()) {
+                long count = ((Number) row[1]).longValue();
+                loaded.put("users." + ((UserStatus) row[0]).name().toLowerCase(Locale.ROOT), count);
+                totalUsers += count;
+            }
+            loaded.put("users.total", totalUsers);
+            
+            List<Object[]> summary = userRoleRepository.summarizeAssignments(
+                    currentTime, currentTime.plusDays(expiringWindowDays));
+            Object[] row = summary.get(0);
+            loaded.put("userRoles.total", ((Number) row[0]).longValue());
+            loaded.put("userRoles.active", ((Number) row[1]).longValue());
+            loaded.put("userRoles.inactive", ((Number) row[2]).longValue());
+            loaded.put("userRoles.expired", ((Number) row[3]).longValue());
+            loaded.put("userRoles.expiringSoon", ((Number) row[4]).longValue());
+            loaded.put("userRoles.users", ((Number) row[5]).longValue());
+            loaded.put("userRoles.roles", ((Number) row[6]).longValue());
+        });
+        
+        List<RoleCatalog.Entry> roles = roleCatalog.getAll();
+        long activeRoles = roles.stream()
+                .filter(role -> Boolean.TRUE.equals(role.getIsActive()))
+                .count();
+        loaded.put("roles.total", (long) roles.size());
+        loaded.put("roles.active", activeRoles);
+        loaded.put("roles.inactive", roles.size() - activeRoles);
+        return Collections.unmodifiableMap(loaded);
+    }
+    
+    private static final class Subscriber {
+        
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        
+        // Start of the write in progress, 0 when idle
+        private volatile long sendingSinceNanos;
+        
+        private volatile boolean dropped;
+        
+        private Subscriber(SseEmitter emitter, int maxPendingEvents) {
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(maxPendingEvents);
+        }
+    }
+    
+    private String toJson(Map<String, Long> values) {
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize dashboard counters", e);
+        }
+    }
+}
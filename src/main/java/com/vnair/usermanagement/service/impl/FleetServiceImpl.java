@@ -0,0 +1,149 @@
+package com.vnair.usermanagement.service.impl;
+
+import com.vnair.usermanagement.common.CabinPosition;
+import com.vnair.usermanagement.dto.response.CapacityResponseDTO;
+import com.vnair.usermanagement.dto.response.FleetAircraftResponseDTO;
+import com.vnair.usermanagement.dto.response.FleetCabinResponseDTO;
+import com.vnair.usermanagement.dto.response.FleetResponseDTO;
+import com.vnair.usermanagement.event.FleetChangedEvent;
+import com.vnair.usermanagement.exception.AircraftNotFoundException;
+import com.vnair.usermanagement.repository.AircraftRepository;
+import com.vnair.usermanagement.service.FleetService;
+import com.vnair.usermanagement.util.ETagUtil;
+import com.vnair.usermanagement.util.FleetCapacityRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class FleetServiceImpl implements FleetService {
+    // Tăng version đội bay; tạo dòng bộ đếm ở lần dùng đầu tiên
+    private static final String BUMP_VERSION_SQL = "INSERT INTO fleet_version_counter (id, version) VALUES (1, 1) " +
+            "ON CONFLICT (id) DO UPDATE SET version = fleet_version_counter.version + 1";
+
+    private static final String SELECT_VERSION_SQL = "SELECT version FROM fleet_version_counter WHERE id = 1";
+
+    @Autowired
+    private FleetCapacityRollup fleetCapacityRollup;
+
+    @Autowired
+    private AircraftRepository aircraftRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Snapshot gần nhất, dùng lại khi version đội bay chưa đổi; không bao giờ bị sửa sau khi tạo
+    private volatile FleetResponseDTO fleetSnapshot;
+
+    // Tăng version ngay trước commit, trong transaction ghi; khóa dòng bộ đếm giữ tới commit nên
+    // version tăng theo đúng thứ tự commit
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onFleetChanged(FleetChangedEvent event) {
+        jdbcTemplate.update(BUMP_VERSION_SQL);
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public FleetResponseDTO getFleet() {
+        // Version và dữ liệu được đọc trong cùng một snapshot của DB
+        long version = readFleetVersion();
+        FleetResponseDTO cached = fleetSnapshot;
+        if (cached != null && cached.getVersion() == version) {
+            return cached;
+        }
+
+        // Các dòng đã sắp theo máy bay nên gom cabin trong một lượt duyệt
+        List<FleetAircraftResponseDTO> aircrafts = new ArrayList<>();
+        FleetAircraftResponseDTO aircraft = null;
+        int cabinCount = 0;
+        for (Object[] row : aircraftRepository.findFleetRows()) {
+            Long aircraftId = (Long) row[0];
+            if (aircraft == null || !aircraft.getId().equals(aircraftId)) {
+                aircraft = new FleetAircraftResponseDTO();
+                aircraft.setId(aircraftId);
+                aircraft.setCode((String) row[1]);
+                aircraft.setName((String) row[2]);
+                aircraft.setCabins(new ArrayList<>());
+                aircrafts.add(aircraft);
+            }
+            if (row[3] != null) {
+                FleetCabinResponseDTO cabin = new FleetCabinResponseDTO();
+                cabin.setId((Long) row[3]);
+                cabin.setName((String) row[4]);
+                cabin.setPosition(row[5] != null ? row[5].toString() : null);
+                cabin.setSeatCount((Integer) row[6]);
+                cabin.setDescription((String) row[7]);
+                aircraft.getCabins().add(cabin);
+                cabinCount++;
+            }
+        }
+
+        FleetResponseDTO fleet = new FleetResponseDTO();
+        fleet.setVersion(version);
+        fleet.setAircraftCount(aircrafts.size());
+        fleet.setCabinCount(cabinCount);
+        fleet.setAircrafts(aircrafts);
+        fleetSnapshot = fleet;
+        return fleet;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getFleetETag() {
+        return ETagUtil.of(readFleetVersion());
+    }
+
+    @Override
+    public CapacityResponseDTO getFleetCapacity() {
+        return toCapacityDTO(null, fleetCapacityRollup.getFleet());
+    }
+
+    @Override
+    public List<CapacityResponseDTO> getAircraftCapacities() {
+        return fleetCapacityRollup.getAircrafts().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> toCapacityDTO(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CapacityResponseDTO getAircraftCapacity(Long aircraftId) {
+        FleetCapacityRollup.Totals totals = fleetCapacityRollup.getAircraft(aircraftId);
+        // Máy bay không có khoang nào không nằm trong rollup, cần kiểm tra nó có tồn tại không
+        if (totals.getCabinCount() == 0 && !aircraftRepository.existsById(aircraftId)) {
+            throw new AircraftNotFoundException(aircraftId);
+        }
+        return toCapacityDTO(aircraftId, totals);
+    }
+
+    private long readFleetVersion() {
+        List<Long> versions = jdbcTemplate.queryForList(SELECT_VERSION_SQL, Long.class);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    private CapacityResponseDTO toCapacityDTO(Long aircraftId, FleetCapacityRollup.Totals totals) {
+        Map<CabinPosition, Long> cabinsByPosition = new EnumMap<>(CabinPosition.class);
+        Map<CabinPosition, Long> seatsByPosition = new EnumMap<>(CabinPosition.class);
+        for (CabinPosition position : CabinPosition.values()) {
+            cabinsByPosition.put(position, totals.getCabinCount(position));
+            seatsByPosition.put(position, totals.getSeatCount(position));
+        }
+        CapacityResponseDTO dto = new CapacityResponseDTO();
+        dto.setAircraftId(aircraftId);
+        dto.setCabinCount(totals.getCabinCount());
+        dto.setSeatCount(totals.getSeatCount());
+        dto.setCabinsByPosition(cabinsByPosition);
+        dto.setSeatsByPosition(seatsByPosition);
+        return dto;
+    }
+}
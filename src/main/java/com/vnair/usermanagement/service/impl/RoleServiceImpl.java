@@ -1,29 +1,57 @@
 package com.vnair.usermanagement.service.impl;
 
+import com.vnair.usermanagement.common.Permission;
 import com.vnair.usermanagement.dto.RoleCreateRequestDTO;
 import com.vnair.usermanagement.dto.RoleResponseDTO;
 import com.vnair.usermanagement.dto.RoleUpdateRequestDTO;
+import com.vnair.usermanagement.dto.response.MultiGetResponseDTO;
 import com.vnair.usermanagement.entity.Role;
+import com.vnair.usermanagement.entity.RoleHierarchyLink;
 import com.vnair.usermanagement.entity.User;
 import com.vnair.usermanagement.entity.UserRole;
+import com.vnair.usermanagement.event.RoleChangedEvent;
+import com.vnair.usermanagement.event.UserRoleChangedEvent;
 import com.vnair.usermanagement.exception.DuplicateUserException;
+import com.vnair.usermanagement.exception.InvalidPermissionException;
+import com.vnair.usermanagement.exception.InvalidRoleHierarchyException;
 import com.vnair.usermanagement.exception.RoleNotFoundException;
 import com.vnair.usermanagement.exception.UserNotFoundException;
+import com.vnair.usermanagement.repository.RoleClosureRepository;
+import com.vnair.usermanagement.repository.RoleHierarchyRepository;
 import com.vnair.usermanagement.repository.RoleRepository;
 import com.vnair.usermanagement.repository.UserRepository;
 import com.vnair.usermanagement.repository.UserRoleRepository;
+import com.vnair.usermanagement.security.RbacIndex;
+import com.vnair.usermanagement.security.RoleCatalog;
 import com.vnair.usermanagement.service.RoleService;
+import com.vnair.usermanagement.util.ChunkedDeleteUtil;
+import com.vnair.usermanagement.util.ETagUtil;
+import com.vnair.usermanagement.util.MultiGetUtil;
+import com.vnair.usermanagement.util.SingleFlightRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +60,9 @@ public class RoleServiceImpl implements RoleService {
     
     private static final Logger logger = LoggerFactory.getLogger(RoleServiceImpl.class);
     
+    // Advisory lock key shared by every role hierarchy change
+    private static final long ROLE_HIERARCHY_LOCK_KEY = 0x524f4c4548494552L;
+    
     @Autowired
     private RoleRepository roleRepository;
     
@@ -41,6 +72,33 @@ public class RoleServiceImpl implements RoleService {
     @Autowired
     private UserRoleRepository userRoleRepository;
     
+    @Autowired
+    private RoleHierarchyRepository roleHierarchyRepository;
+    
+    @Autowired
+    private RoleClosureRepository roleClosureRepository;
+    
+    @Autowired
+    private RoleCatalog roleCatalog;
+    
+    @Autowired
+    private RbacIndex rbacIndex;
+    
+    @Autowired
+    private SingleFlightRegistry singleFlightRegistry;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.delete.chunk-size:1000}")
+    private int deleteChunkSize;
+    
+    @Value("${app.multi-get.max-ids:100}")
+    private int multiGetMaxIds;
+    
     @Override
     public RoleResponseDTO createRole(RoleCreateRequestDTO roleCreateRequestDTO) {
         logger.info("Creating new role with name: {}", roleCreateRequestDTO.getName());
@@ -54,33 +112,60 @@ public class RoleServiceImpl implements RoleService {
         role.setName(roleCreateRequestDTO.getName());
         role.setDescription(roleCreateRequestDTO.getDescription());
         role.setIsActive(roleCreateRequestDTO.getIsActive() != null ? roleCreateRequestDTO.getIsActive() : true);
+        if (roleCreateRequestDTO.getPermissions() != null) {
+            role.setPermissions(toPermissionMask(roleCreateRequestDTO.getPermissions()));
+        }
         
         Role savedRole = roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleChangedEvent(savedRole.getId(), RoleChangedEvent.ChangeType.CREATED));
         logger.info("Role created successfully with ID: {}", savedRole.getId());
         
         return convertToResponseDTO(savedRole);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public RoleResponseDTO getRoleById(Long id) {
         logger.info("Fetching role with ID: {}", id);
         
-        Role role = roleRepository.findById(id)
+        // Concurrent lookups of the same id share one query and user count
+        return singleFlightRegistry.<Long, RoleResponseDTO>get("role-by-id").execute(id, () -> {
+            Role role = roleRepository.findById(id)
+                    .orElseThrow(() -> new RoleNotFoundException("Role not found with ID: " + id));
+            return convertToResponseDTO(role);
+        });
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public String getRoleETag(Long id) {
+        // The tag covers the role's own columns only: userCount is a node-local statistic that would
+        // give the same version different tags on different nodes and change whenever an assignment expires
+        Long version = roleRepository.findVersionById(id)
                 .orElseThrow(() -> new RoleNotFoundException("Role not found with ID: " + id));
-        
-        return convertToResponseDTO(role);
+        return ETagUtil.of(version);
     }
     
     @Override
     @Transactional(readOnly = true)
+    public MultiGetResponseDTO<RoleResponseDTO> getRolesByIds(List<Long> ids) {
+        List<Long> distinctIds = MultiGetUtil.distinctIds(ids, multiGetMaxIds);
+        logger.info("Fetching {} roles by ID", distinctIds.size());
+        List<Role> roles = distinctIds.isEmpty() ? Collections.emptyList() : roleRepository.findAllById(distinctIds);
+        return MultiGetUtil.createResponse(distinctIds, roles, Role::getId, this::convertToResponseDTO);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public RoleResponseDTO getRoleByName(String name) {
         logger.info("Fetching role with name: {}", name);
         
-        Role role = roleRepository.findByNameIgnoreCase(name)
+        RoleCatalog.Entry role = roleCatalog.findByNameIgnoreCase(name)
                 .orElseThrow(() -> new UserNotFoundException("Role not found with name: " + name));
         
-        return convertToResponseDTO(role);
+        // The role comes from memory, only its user count may need the database
+        return singleFlightRegistry.<Long, RoleResponseDTO>get("role-by-name").execute(role.getId(),
+                () -> convertToResponseDTO(role));
     }
     
     @Override
@@ -93,11 +178,12 @@ public class RoleServiceImpl implements RoleService {
     }
     
     @Override
-    public RoleResponseDTO updateRole(Long id, RoleUpdateRequestDTO roleUpdateRequestDTO) {
+    public RoleResponseDTO updateRole(Long id, RoleUpdateRequestDTO roleUpdateRequestDTO, String ifMatch) {
         logger.info("Updating role with ID: {}", id);
         
         Role existingRole = roleRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("Role not found with ID: " + id));
+        ETagUtil.checkIfMatch(ifMatch, ETagUtil.of(existingRole.getVersion()));
         
         // Check if new name conflicts with existing roles (excluding current role)
         if (roleUpdateRequestDTO.getName() != null && 
@@ -116,25 +202,45 @@ public class RoleServiceImpl implements RoleService {
         if (roleUpdateRequestDTO.getIsActive() != null) {
             existingRole.setIsActive(roleUpdateRequestDTO.getIsActive());
         }
+        if (roleUpdateRequestDTO.getPermissions() != null) {
+            existingRole.setPermissions(toPermissionMask(roleUpdateRequestDTO.getPermissions()));
+        }
         
-        Role updatedRole = roleRepository.save(existingRole);
+        // Flush so the returned ETag carries the incremented version
+        Role updatedRole = roleRepository.saveAndFlush(existingRole);
+        eventPublisher.publishEvent(new RoleChangedEvent(updatedRole.getId(), RoleChangedEvent.ChangeType.UPDATED));
         logger.info("Role updated successfully with ID: {}", updatedRole.getId());
         
         return convertToResponseDTO(updatedRole);
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteRole(Long id) {
         logger.info("Deleting role with ID: {}", id);
         
-        Role role = roleRepository.findById(id)
-                .orElseThrow(() -> new RoleNotFoundException("Role not found with ID: " + id));
+        if (!roleRepository.existsById(id)) {
+            throw new RoleNotFoundException("Role not found with ID: " + id);
+        }
         
-        // Note: UserRole relationships will be handled by cascade delete if configured,
-        // or should be handled by UserRoleService if needed
+        // Remove assignments in short chunked transactions so a large role never locks all of its rows at once;
+        // the final transaction picks up assignments created in the meantime and removes the role itself.
+        // Each chunk publishes its own REMOVED event, so listeners see the rows even if a later step fails.
+        long deletedCount = ChunkedDeleteUtil.deleteInChunks(transactionTemplate, deleteChunkSize,
+                chunkSize -> userRoleRepository.deleteChunkByRoleId(id, chunkSize),
+                rows -> eventPublisher.publishEvent(UserRoleChangedEvent.removedRows(rows)), () -> {
+            // Unlink the role from the hierarchy so the closure keeps exact path counts
+            roleClosureRepository.lockHierarchy(ROLE_HIERARCHY_LOCK_KEY);
+            for (Object[] link : roleHierarchyRepository.findLinksOfRole(id)) {
+                unlinkRoles((Long) link[0], (Long) link[1]);
+            }
+            roleClosureRepository.deleteAllOfRole(id);
+            
+            roleRepository.deleteRoleById(id);
+            eventPublisher.publishEvent(new RoleChangedEvent(id, RoleChangedEvent.ChangeType.DELETED));
+        });
         
-        roleRepository.delete(role);
-        logger.info("Role deleted successfully with ID: {}", id);
+        logger.info("Role deleted successfully with ID: {} ({} assignments removed)", id, deletedCount);
     }
     
     @Override
@@ -146,22 +252,42 @@ public class RoleServiceImpl implements RoleService {
         return roles.map(this::convertToResponseDTO);
     }
     
+    // Search filters the in-memory role catalog instead of running a LIKE query
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Page<RoleResponseDTO> searchRoles(String keyword, Pageable pageable) {
         logger.info("Searching roles with keyword: {} and pagination: {}", keyword, pageable);
         
-        Page<Role> roles = roleRepository.searchRoles(keyword, pageable);
-        return roles.map(this::convertToResponseDTO);
+        String needle = keyword == null ? "" : keyword.toLowerCase(Locale.ROOT);
+        List<RoleCatalog.Entry> matches = roleCatalog.getAll().stream()
+                .filter(role -> role.getName().toLowerCase(Locale.ROOT).contains(needle)
+                        || (role.getDescription() != null && role.getDescription().toLowerCase(Locale.ROOT).contains(needle)))
+                .collect(Collectors.toCollection(ArrayList::new));
+        
+        Comparator<RoleCatalog.Entry> comparator = toComparator(pageable.getSort());
+        if (comparator != null) {
+            matches.sort(comparator);
+        }
+        
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches.stream().map(this::convertToResponseDTO).collect(Collectors.toList()),
+                    pageable, matches.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<RoleResponseDTO> content = matches.subList(from, to).stream()
+                .map(this::convertToResponseDTO)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, matches.size());
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<RoleResponseDTO> getActiveRoles() {
         logger.info("Fetching all active roles");
         
-        List<Role> roles = roleRepository.findActiveRoles();
-        return roles.stream()
+        return roleCatalog.getAll().stream()
+                .filter(role -> Boolean.TRUE.equals(role.getIsActive()))
                 .map(this::convertToResponseDTO)
                 .collect(Collectors.toList());
     }
@@ -191,6 +317,7 @@ public class RoleServiceImpl implements RoleService {
         userRole.setIsActive(true);
         
         userRoleRepository.save(userRole);
+        eventPublisher.publishEvent(UserRoleChangedEvent.of(userRole, UserRoleChangedEvent.ChangeType.ASSIGNED));
         logger.info("Role {} assigned successfully to user {}", roleId, userId);
     }
     
@@ -212,6 +339,7 @@ public class RoleServiceImpl implements RoleService {
                 .orElseThrow(() -> new RoleNotFoundException("User " + userId + " does not have role " + roleId));
         
         userRoleRepository.delete(userRole);
+        eventPublisher.publishEvent(UserRoleChangedEvent.of(userRole, UserRoleChangedEvent.ChangeType.REMOVED));
         logger.info("Role {} removed successfully from user {}", roleId, userId);
     }
     
@@ -239,8 +367,10 @@ public class RoleServiceImpl implements RoleService {
             throw new UserNotFoundException("User not found with ID: " + userId);
         }
         
-        List<Role> roles = roleRepository.findRolesNotAssignedToUser(userId);
-        return roles.stream()
+        // Catalog minus the roles the user already has a row for, computed in memory
+        Set<Long> assignedRoleIds = new HashSet<>(userRoleRepository.findRoleIdsByUserId(userId));
+        return roleCatalog.getAll().stream()
+                .filter(role -> !assignedRoleIds.contains(role.getId()))
                 .map(this::convertToResponseDTO)
                 .collect(Collectors.toList());
     }
@@ -278,15 +408,15 @@ public class RoleServiceImpl implements RoleService {
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean existsByName(String name) {
-        return roleRepository.existsByNameIgnoreCase(name);
+        return roleCatalog.findByNameIgnoreCase(name).isPresent();
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean existsByNameAndNotId(String name, Long id) {
-        return roleRepository.findByNameIgnoreCase(name)
+        return roleCatalog.findByNameIgnoreCase(name)
                 .map(role -> !role.getId().equals(id))
                 .orElse(false);
     }
@@ -299,6 +429,7 @@ public class RoleServiceImpl implements RoleService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
         
+        List<UserRole> assignedUserRoles = new ArrayList<>();
         for (Long roleId : roleIds) {
             // Validate role exists
             Role role = roleRepository.findById(roleId)
@@ -311,8 +442,10 @@ public class RoleServiceImpl implements RoleService {
                 userRole.setRole(role);
                 userRole.setIsActive(true);
                 userRoleRepository.save(userRole);
+                assignedUserRoles.add(userRole);
             }
         }
+        eventPublisher.publishEvent(UserRoleChangedEvent.of(assignedUserRoles, UserRoleChangedEvent.ChangeType.ASSIGNED));
         
         logger.info("Multiple roles assigned successfully to user {}", userId);
     }
@@ -326,6 +459,7 @@ public class RoleServiceImpl implements RoleService {
             throw new UserNotFoundException("User not found with ID: " + userId);
         }
         
+        List<UserRole> removedUserRoles = new ArrayList<>();
         for (Long roleId : roleIds) {
             // Validate role exists
             if (!roleRepository.existsById(roleId)) {
@@ -334,12 +468,148 @@ public class RoleServiceImpl implements RoleService {
             
             // Find and remove UserRole assignment if exists
             userRoleRepository.findByUserIdAndRoleId(userId, roleId)
-                    .ifPresent(userRoleRepository::delete);
+                    .ifPresent(userRole -> {
+                        userRoleRepository.delete(userRole);
+                        removedUserRoles.add(userRole);
+                    });
         }
+        eventPublisher.publishEvent(UserRoleChangedEvent.of(removedUserRoles, UserRoleChangedEvent.ChangeType.REMOVED));
         
         logger.info("Multiple roles removed successfully from user {}", userId);
     }
     
+    @Override
+    public void addImpliedRole(Long roleId, Long impliedRoleId) {
+        logger.info("Adding implied role {} to role {}", impliedRoleId, roleId);
+        
+        Role role = roleRepository.findById(roleId)
+                .orElseThrow(() -> new RoleNotFoundException("Role not found with ID: " + roleId));
+        Role impliedRole = roleRepository.findById(impliedRoleId)
+                .orElseThrow(() -> new RoleNotFoundException("Role not found with ID: " + impliedRoleId));
+        
+        if (roleId.equals(impliedRoleId)) {
+            throw new InvalidRoleHierarchyException("Role " + roleId + " cannot imply itself");
+        }
+        
+        roleClosureRepository.lockHierarchy(ROLE_HIERARCHY_LOCK_KEY);
+        
+        if (roleHierarchyRepository.existsByParentIdAndChildId(roleId, impliedRoleId)) {
+            throw new DuplicateUserException("Role " + roleId + " already implies role " + impliedRoleId);
+        }
+        
+        // The closure already says whether the implied role reaches back to this one
+        if (roleClosureRepository.existsPath(impliedRoleId, roleId)) {
+            throw new InvalidRoleHierarchyException("Role " + impliedRoleId + " already implies role " + roleId
+                    + ", linking them would create a cycle");
+        }
+        
+        roleHierarchyRepository.save(new RoleHierarchyLink(role, impliedRole));
+        roleClosureRepository.insertSelfRow(roleId);
+        roleClosureRepository.insertSelfRow(impliedRoleId);
+        int pairCount = roleClosureRepository.addLinkPaths(roleId, impliedRoleId);
+        eventPublisher.publishEvent(new RoleChangedEvent(roleId, RoleChangedEvent.ChangeType.HIERARCHY_CHANGED));
+        
+        logger.info("Role {} now implies role {} ({} closure pairs updated)", roleId, impliedRoleId, pairCount);
+    }
+    
+    @Override
+    public void removeImpliedRole(Long roleId, Long impliedRoleId) {
+        logger.info("Removing implied role {} from role {}", impliedRoleId, roleId);
+        
+        roleClosureRepository.lockHierarchy(ROLE_HIERARCHY_LOCK_KEY);
+        
+        if (!roleHierarchyRepository.existsByParentIdAndChildId(roleId, impliedRoleId)) {
+            throw new RoleNotFoundException("Role " + roleId + " does not directly imply role " + impliedRoleId);
+        }
+        
+        unlinkRoles(roleId, impliedRoleId);
+        eventPublisher.publishEvent(new RoleChangedEvent(roleId, RoleChangedEvent.ChangeType.HIERARCHY_CHANGED));
+        
+        logger.info("Role {} no longer implies role {}", roleId, impliedRoleId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<RoleResponseDTO> getImpliedRoles(Long roleId, boolean directOnly) {
+        logger.info("Fetching {} implied roles of role {}", directOnly ? "directly" : "all", roleId);
+        
+        if (!roleRepository.existsById(roleId)) {
+            throw new RoleNotFoundException("Role not found with ID: " + roleId);
+        }
+        
+        List<Role> roles = directOnly
+                ? roleHierarchyRepository.findChildRoles(roleId)
+                : roleRepository.findImpliedRoles(roleId);
+        return roles.stream()
+                .map(this::convertToResponseDTO)
+                .collect(Collectors.toList());
+    }
+    
+    // Remove a direct link and the closure paths that went through it; caller holds the hierarchy lock
+    private void unlinkRoles(Long parentId, Long childId) {
+        roleClosureRepository.removeLinkPaths(parentId, childId);
+        roleClosureRepository.deleteEmptyPaths();
+        roleHierarchyRepository.deleteLink(parentId, childId);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Map<String, Object>> getPermissionCatalog() {
+        List<Map<String, Object>> catalog = new ArrayList<>();
+        for (Permission permission : Permission.values()) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("code", permission.getCode());
+            entry.put("bit", permission.getBit());
+            catalog.add(entry);
+        }
+        return catalog;
+    }
+    
+    private long toPermissionMask(Set<String> codes) {
+        for (String code : codes) {
+            if (Permission.fromCode(code) == null) {
+                throw new InvalidPermissionException("Unknown permission: " + code);
+            }
+        }
+        return Permission.maskOfCodes(codes);
+    }
+    
+    // Sort catalog entries like the repository would; unknown properties are ignored
+    private Comparator<RoleCatalog.Entry> toComparator(Sort sort) {
+        Comparator<RoleCatalog.Entry> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<RoleCatalog.Entry> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(RoleCatalog.Entry::getId);
+                case "name" -> Comparator.comparing(RoleCatalog.Entry::getName, String.CASE_INSENSITIVE_ORDER);
+                case "description" -> Comparator.comparing(RoleCatalog.Entry::getDescription,
+                        Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+                case "isActive" -> Comparator.comparing(RoleCatalog.Entry::getIsActive,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                case "createdAt" -> Comparator.comparing(RoleCatalog.Entry::getCreatedAt,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                case "updatedAt" -> Comparator.comparing(RoleCatalog.Entry::getUpdatedAt,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                default -> null;
+            };
+            if (next == null) {
+                continue;
+            }
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+    
+    // Active assignments of a role, from the RBAC index when it is ready
+    private int countRoleUsers(Long roleId) {
+        if (rbacIndex.isReady()) {
+            return rbacIndex.countUsersOfRole(roleId);
+        }
+        return (int) userRoleRepository.countActiveUsersByRole(roleId, LocalDateTime.now());
+    }
+    
     // Helper method to convert Entity to ResponseDTO
     private RoleResponseDTO convertToResponseDTO(Role role) {
         RoleResponseDTO dto = new RoleResponseDTO();
@@ -347,9 +617,26 @@ public class RoleServiceImpl implements RoleService {
         dto.setName(role.getName());
         dto.setDescription(role.getDescription());
         dto.setIsActive(role.getIsActive());
+        dto.setPermissions(Permission.codesOf(role.getPermissions() != null ? role.getPermissions() : 0L));
+        dto.setCreatedAt(role.getCreatedAt());
+        dto.setUpdatedAt(role.getUpdatedAt());
+        dto.setUserCount(role.getId() != null ? countRoleUsers(role.getId()) : 0);
+        dto.setEtag(ETagUtil.of(role.getVersion()));
+        
+        return dto;
+    }
+    
+    private RoleResponseDTO convertToResponseDTO(RoleCatalog.Entry role) {
+        RoleResponseDTO dto = new RoleResponseDTO();
+        dto.setId(role.getId());
+        dto.setName(role.getName());
+        dto.setDescription(role.getDescription());
+        dto.setIsActive(role.getIsActive());
+        dto.setPermissions(Permission.codesOf(role.getPermissions()));
         dto.setCreatedAt(role.getCreatedAt());
         dto.setUpdatedAt(role.getUpdatedAt());
-        dto.setUserCount(role.getUserRoles() != null ? role.getUserRoles().size() : 0);
+        dto.setUserCount(countRoleUsers(role.getId()));
+        dto.setEtag(ETagUtil.of(role.getVersion()));
         
         return dto;
     }
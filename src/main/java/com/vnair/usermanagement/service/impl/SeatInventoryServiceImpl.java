@@ -0,0 +1,304 @@
+package com.vnair.usermanagement.service.impl;
+
+import com.vnair.usermanagement.common.SeatState;
+import com.vnair.usermanagement.dto.request.SeatOperationRequestDTO;
+import com.vnair.usermanagement.dto.response.SeatMapResponseDTO;
+import com.vnair.usermanagement.entity.Cabin;
+import com.vnair.usermanagement.event.FleetChangedEvent;
+import com.vnair.usermanagement.exception.CabinNotFoundException;
+import com.vnair.usermanagement.exception.InvalidSeatException;
+import com.vnair.usermanagement.exception.SeatConflictException;
+import com.vnair.usermanagement.repository.CabinRepository;
+import com.vnair.usermanagement.repository.CabinSeatMapRepository;
+import com.vnair.usermanagement.service.SeatInventoryService;
+import com.vnair.usermanagement.util.SeatMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Quản lý trạng thái từng ghế (trống, đang giữ, bị khóa) của các khoang.
+ * <p>
+ * Mỗi khoang có một {@link SeatMap} trong bộ nhớ, được nạp khi dùng lần đầu. Thao tác nhiều ghế khóa
+ * sơ đồ của khoang đó, kiểm tra trạng thái mong đợi của mọi ghế (và version nếu request gửi kèm) rồi mới
+ * đổi, nên hoặc tất cả ghế cùng đổi hoặc không ghế nào.
+ * <p>
+ * Bảng cabin_seat_maps là bản đúng, bản trong bộ nhớ chỉ là cache. Mỗi thay đổi được ghi ngay bằng
+ * compare-and-set trên cột version: chỉ ghi khi dòng trong DB vẫn ở version mà sơ đồ đã được nạp. Nếu
+ * node khác đã ghi trước, sơ đồ được nạp lại từ DB và thao tác được kiểm tra lại, nên hai node không
+ * thể cùng giữ một ghế. Khi đọc, version trong DB được so với bản cache để không trả về sơ đồ cũ.
+ */
+@Service
+public class SeatInventoryServiceImpl implements SeatInventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatInventoryServiceImpl.class);
+
+    // Chỉ ghi khi khoang còn tồn tại và dòng hiện có vẫn ở version mong đợi (chưa có dòng thì chèn mới)
+    private static final String COMPARE_AND_SET_SQL = "INSERT INTO cabin_seat_maps " +
+            "(cabin_id, seat_count, held, blocked, version, updated_at) " +
+            "SELECT ?, ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM cabin WHERE id = ?) " +
+            "ON CONFLICT (cabin_id) DO UPDATE SET seat_count = EXCLUDED.seat_count, held = EXCLUDED.held, " +
+            "blocked = EXCLUDED.blocked, version = EXCLUDED.version, updated_at = EXCLUDED.updated_at " +
+            "WHERE cabin_seat_maps.version = ?";
+    
+    private static final String VERSION_SQL = "SELECT version FROM cabin_seat_maps WHERE cabin_id = ?";
+    
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private CabinRepository cabinRepository;
+
+    @Autowired
+    private CabinSeatMapRepository cabinSeatMapRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentHashMap<Long, SeatMap> maps = new ConcurrentHashMap<>();
+
+    @Override
+    public SeatMapResponseDTO getSeatMap(Long cabinId) {
+        SeatMap map = currentMap(cabinId);
+        synchronized (map) {
+            return toResponseDTO(cabinId, map);
+        }
+    }
+
+    @Override
+    public SeatMapResponseDTO holdSeats(Long cabinId, SeatOperationRequestDTO request) {
+        return transition(cabinId, request, SeatState.AVAILABLE, SeatState.HELD);
+    }
+
+    @Override
+    public SeatMapResponseDTO releaseSeats(Long cabinId, SeatOperationRequestDTO request) {
+        return transition(cabinId, request, SeatState.HELD, SeatState.AVAILABLE);
+    }
+
+    @Override
+    public SeatMapResponseDTO blockSeats(Long cabinId, SeatOperationRequestDTO request) {
+        return transition(cabinId, request, SeatState.AVAILABLE, SeatState.BLOCKED);
+    }
+
+    @Override
+    public SeatMapResponseDTO unblockSeats(Long cabinId, SeatOperationRequestDTO request) {
+        return transition(cabinId, request, SeatState.BLOCKED, SeatState.AVAILABLE);
+    }
+
+    @Override
+    public List<Integer> findContiguousSeats(Long cabinId, int count) {
+        if (count <= 0) {
+            throw new InvalidSeatException("Seat count must be positive: " + count);
+        }
+        SeatMap map = currentMap(cabinId);
+        int first;
+        synchronized (map) {
+            first = map.findContiguousAvailable(count);
+        }
+        if (first < 0) {
+            return Collections.emptyList();
+        }
+        return IntStream.range(first + 1, first + 1 + count).boxed().toList();
+    }
+
+    @Override
+    public void resizeCabin(Long cabinId, int seatCount) {
+        SeatMap map = currentMap(cabinId);
+        synchronized (map) {
+            if (seatCount == map.size()) {
+                return;
+            }
+            int[] occupied = map.occupiedFrom(seatCount);
+            if (occupied.length > 0) {
+                throw new SeatConflictException("Cannot reduce cabin " + cabinId + " to " + seatCount + " seats, "
+                        + occupied.length + " seat(s) beyond it are held or blocked", toSeatNumbers(occupied));
+            }
+            // Ghế sắp bị cắt không thể bị giữ trong lúc chờ commit
+            map.restrict(seatCount);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    applyResize(cabinId, map, seatCount, status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            applyResize(cabinId, map, seatCount, true);
+        }
+    }
+
+    // Khoang hoặc máy bay bị xóa thì bỏ sơ đồ ghế tương ứng khỏi bộ nhớ và DB
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFleetChanged(FleetChangedEvent event) {
+        if (maps.isEmpty()) {
+            return;
+        }
+        if (event.getKind() == FleetChangedEvent.Kind.CABIN) {
+            for (Long cabinId : event.getIds()) {
+                if (maps.containsKey(cabinId) && !cabinRepository.existsById(cabinId)) {
+                    evict(Collections.singletonList(cabinId));
+                }
+            }
+            return;
+        }
+        Set<Long> removed = new HashSet<>(maps.keySet());
+        removed.removeAll(cabinRepository.findExistingIds(removed));
+        evict(removed);
+    }
+
+    private SeatMapResponseDTO transition(Long cabinId, SeatOperationRequestDTO request, SeatState from, SeatState to) {
+        for (int attempt = 1; ; attempt++) {
+            SeatMap map = mapFor(cabinId);
+            synchronized (map) {
+                if (maps.get(cabinId) != map) {
+                    continue; // Đã bị thay bằng bản nạp lại trong lúc chờ khóa
+                }
+                int[] seats = toIndexes(request.getSeats(), map.size());
+                Long expectedVersion = request.getExpectedVersion();
+                if (expectedVersion != null && expectedVersion != map.getVersion()) {
+                    throw new SeatConflictException("Seat map of cabin " + cabinId + " is at version " + map.getVersion()
+                            + ", expected " + expectedVersion, Collections.emptyList());
+                }
+                int[] conflicts = map.conflicts(seats, from);
+                if (conflicts.length > 0) {
+                    throw new SeatConflictException(conflicts.length + " seat(s) of cabin " + cabinId + " are not "
+                            + from, toSeatNumbers(conflicts));
+                }
+                long storedVersion = map.getVersion();
+                map.set(seats, to);
+                if (compareAndSet(cabinId, map, storedVersion)) {
+                    return toResponseDTO(cabinId, map);
+                }
+                // Node khác đã ghi trước: bỏ bản cache, nạp lại và kiểm tra lại từ đầu
+                maps.remove(cabinId, map);
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new SeatConflictException("Seat map of cabin " + cabinId
+                            + " is being changed concurrently, retry the request", Collections.emptyList());
+                }
+            }
+        }
+    }
+
+    private void applyResize(Long cabinId, SeatMap map, int seatCount, boolean committed) {
+        synchronized (map) {
+            if (committed) {
+                // Lần nạp sau đổi số ghế theo khoang đã commit và ghi xuống DB
+                maps.remove(cabinId, map);
+            } else {
+                map.unrestrict();
+            }
+        }
+    }
+
+    // Sơ đồ trong cache, nạp lại nếu DB đã có version khác (do node khác ghi)
+    private SeatMap currentMap(Long cabinId) {
+        SeatMap map = mapFor(cabinId);
+        List<Long> stored = jdbcTemplate.queryForList(VERSION_SQL, Long.class, cabinId);
+        if (!stored.isEmpty() && stored.get(0) != map.getVersion()) {
+            maps.remove(cabinId, map);
+            map = mapFor(cabinId);
+        }
+        return map;
+    }
+
+    private SeatMap mapFor(Long cabinId) {
+        SeatMap map = maps.get(cabinId);
+        return map != null ? map : maps.computeIfAbsent(cabinId, this::load);
+    }
+
+    private SeatMap load(Long cabinId) {
+        Cabin cabin = cabinRepository.findById(cabinId)
+                .orElseThrow(() -> new CabinNotFoundException(cabinId));
+        return cabinSeatMapRepository.findById(cabinId)
+                .map(row -> {
+                    SeatMap map = new SeatMap(row.getSeatCount(), toWords(row.getHeld()), toWords(row.getBlocked()),
+                            row.getVersion());
+                    // Số ghế đã đổi khi sơ đồ chưa được nạp (node khác hoặc trước khi khởi động lại)
+                    if (map.size() != cabin.getSeatCount()) {
+                        long storedVersion = map.getVersion();
+                        map.resize(cabin.getSeatCount());
+                        if (!compareAndSet(cabinId, map, storedVersion)) {
+                            // Node khác đã ghi trước; thao tác ghi tiếp theo sẽ thất bại và nạp lại
+                            logger.debug("Resized seat map of cabin {} was already changed by another node", cabinId);
+                        }
+                    }
+                    return map;
+                })
+                .orElseGet(() -> new SeatMap(cabin.getSeatCount()));
+    }
+
+    private void evict(Collection<Long> cabinIds) {
+        for (Long cabinId : cabinIds) {
+            maps.remove(cabinId);
+            jdbcTemplate.update("DELETE FROM cabin_seat_maps WHERE cabin_id = ?", cabinId);
+        }
+    }
+
+    // Ghi sơ đồ nếu dòng trong DB vẫn ở expectedVersion; false khi node khác đã ghi hoặc khoang đã bị xóa
+    private boolean compareAndSet(Long cabinId, SeatMap map, long expectedVersion) {
+        return jdbcTemplate.update(COMPARE_AND_SET_SQL, cabinId, map.size(), toBytes(map.heldWords()),
+                toBytes(map.blockedWords()), map.getVersion(), Timestamp.valueOf(LocalDateTime.now()), cabinId,
+                expectedVersion) == 1;
+    }
+
+    private int[] toIndexes(List<Integer> seatNumbers, int size) {
+        int[] seats = seatNumbers.stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+        for (int seat : seats) {
+            if (seat < 1 || seat > size) {
+                throw new InvalidSeatException("Seat " + seat + " is outside the cabin, which has " + size + " seats");
+            }
+        }
+        for (int i = 0; i < seats.length; i++) {
+            seats[i]--;
+        }
+        return seats;
+    }
+
+    private List<Integer> toSeatNumbers(int[] seats) {
+        return Arrays.stream(seats).map(seat -> seat + 1).boxed().toList();
+    }
+
+    private SeatMapResponseDTO toResponseDTO(Long cabinId, SeatMap map) {
+        SeatMapResponseDTO dto = new SeatMapResponseDTO();
+        dto.setCabinId(cabinId);
+        dto.setSeatCount(map.size());
+        dto.setVersion(map.getVersion());
+        dto.setAvailableCount(map.count(SeatState.AVAILABLE));
+        dto.setHeldCount(map.count(SeatState.HELD));
+        dto.setBlockedCount(map.count(SeatState.BLOCKED));
+        dto.setHeldSeats(toSeatNumbers(map.seats(SeatState.HELD)));
+        dto.setBlockedSeats(toSeatNumbers(map.seats(SeatState.BLOCKED)));
+        return dto;
+    }
+
+    private static byte[] toBytes(long[] words) {
+        ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asLongBuffer().put(words);
+        return buffer.array();
+    }
+
+    private static long[] toWords(byte[] bytes) {
+        long[] words = new long[bytes.length / Long.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(words);
+        return words;
+    }
+}
@@ -0,0 +1,278 @@
+package com.vnair.usermanagement.service.impl;
+
+import com.vnair.usermanagement.common.AuditChangeType;
+import com.vnair.usermanagement.dto.UserRoleAuditEventResponseDTO;
+import com.vnair.usermanagement.entity.UserRoleAuditEvent;
+import com.vnair.usermanagement.event.RoleChangedEvent;
+import com.vnair.usermanagement.event.UserDeletedEvent;
+import com.vnair.usermanagement.event.UserRoleChangedEvent;
+import com.vnair.usermanagement.repository.UserRoleAuditEventRepository;
+import com.vnair.usermanagement.security.RoleCatalog;
+import com.vnair.usermanagement.service.UserRoleAuditService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only audit log of user role changes.
+ * <p>
+ * Committed changes are copied into a bounded ring buffer and return immediately; a single writer
+ * thread drains the buffer and inserts the entries with one JDBC batch per drain. When the buffer
+ * is full the caller waits briefly, then writes its own entries directly so nothing is dropped.
+ * Entries that still fail after retries are counted and logged.
+ */
+@Service
+public class UserRoleAuditServiceImpl implements UserRoleAuditService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserRoleAuditServiceImpl.class);
+    
+    private static final String INSERT_SQL = "INSERT INTO user_role_audit_log " +
+            "(user_role_id, user_id, role_id, change_type, active, expires_at, changed_by, occurred_at, recorded_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final String SYSTEM_ACTOR = "system";
+    
+    @Autowired
+    private UserRoleAuditEventRepository auditEventRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private RoleCatalog roleCatalog;
+    
+    @Value("${app.audit.buffer-size:8192}")
+    private int bufferSize;
+    
+    @Value("${app.audit.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.audit.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+    
+    private ArrayBlockingQueue<UserRoleAuditEvent> buffer;
+    
+    private final AtomicLong failedCount = new AtomicLong();
+    
+    private volatile boolean running = true;
+    
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "user-role-audit-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @PostConstruct
+    public void start() {
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        writer.submit(this::writeLoop);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        // The writer drains what is left before it stops
+        running = false;
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Audit writer did not finish, {} entries left unwritten", buffer.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        String changedBy = currentActor();
+        List<UserRoleAuditEvent> entries = new ArrayList<>(event.getChanges().size());
+        for (UserRoleChangedEvent.Change change : event.getChanges()) {
+            entries.add(new UserRoleAuditEvent(change.getUserRoleId(), change.getUserId(), change.getRoleId(),
+                    AuditChangeType.valueOf(change.getType().name()), change.isActive(), change.getExpiresAt(),
+                    changedBy, event.getOccurredAt()));
+        }
+        enqueue(entries);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        if (event.getType() == RoleChangedEvent.ChangeType.DELETED) {
+            enqueue(Collections.singletonList(new UserRoleAuditEvent(null, null, event.getRoleId(),
+                    AuditChangeType.ROLE_DELETED, false, null, currentActor(), LocalDateTime.now())));
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        enqueue(Collections.singletonList(new UserRoleAuditEvent(null, event.getUserId(), null,
+                AuditChangeType.USER_DELETED, false, null, currentActor(), LocalDateTime.now())));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserRoleAuditEventResponseDTO> getUserAuditLog(Long userId, Pageable pageable) {
+        logger.info("Fetching audit log for user: {}", userId);
+        
+        return auditEventRepository.findByUserIdOrderByOccurredAtDescIdDesc(userId, pageable)
+                .map(this::convertToResponseDTO);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserRoleAuditEventResponseDTO> getRoleAuditLog(Long roleId, Pageable pageable) {
+        logger.info("Fetching audit log for role: {}", roleId);
+        
+        return auditEventRepository.findByRoleIdOrderByOccurredAtDescIdDesc(roleId, pageable)
+                .map(this::convertToResponseDTO);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserRoleAuditEventResponseDTO> getRolesHeldAt(Long userId, LocalDateTime at) {
+        logger.info("Fetching roles held by user {} at {}", userId, at);
+        
+        return auditEventRepository.findRolesInForceAt(userId, at).stream()
+                .map(this::convertToResponseDTO)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public int getPendingCount() {
+        return buffer.size();
+    }
+    
+    @Override
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+    
+    private void enqueue(List<UserRoleAuditEvent> entries) {
+        List<UserRoleAuditEvent> overflow = null;
+        for (UserRoleAuditEvent entry : entries) {
+            boolean queued;
+            try {
+                queued = buffer.offer(entry, offerTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+            if (!queued) {
+                if (overflow == null) {
+                    overflow = new ArrayList<>();
+                }
+                overflow.add(entry);
+            }
+        }
+        
+        if (overflow != null) {
+            // Writer is behind; write these entries on the caller's thread instead of dropping them
+            logger.warn("Audit buffer full, writing {} entries directly", overflow.size());
+            try {
+                write(overflow);
+            } catch (RuntimeException e) {
+                failedCount.addAndGet(overflow.size());
+                logger.error("Failed to write {} audit entries", overflow.size(), e);
+            }
+        }
+    }
+    
+    private void writeLoop() {
+        List<UserRoleAuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                UserRoleAuditEvent first = buffer.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void writeWithRetry(List<UserRoleAuditEvent> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    failedCount.addAndGet(batch.size());
+                    logger.error("Failed to write {} audit entries after {} attempts", batch.size(), attempt, e);
+                    return;
+                }
+                logger.warn("Audit batch write failed (attempt {}), retrying", attempt, e);
+                Thread.sleep(200L * attempt);
+            }
+        }
+    }
+    
+    private void write(List<UserRoleAuditEvent> entries) {
+        Timestamp recordedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setObject(1, entry.getUserRoleId(), Types.BIGINT);
+            ps.setObject(2, entry.getUserId(), Types.BIGINT);
+            ps.setObject(3, entry.getRoleId(), Types.BIGINT);
+            ps.setString(4, entry.getChangeType().name());
+            ps.setBoolean(5, Boolean.TRUE.equals(entry.getActive()));
+            ps.setTimestamp(6, entry.getExpiresAt() != null ? Timestamp.valueOf(entry.getExpiresAt()) : null);
+            ps.setString(7, entry.getChangedBy());
+            ps.setTimestamp(8, Timestamp.valueOf(entry.getOccurredAt()));
+            ps.setTimestamp(9, recordedAt);
+        });
+    }
+    
+    private String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : SYSTEM_ACTOR;
+    }
+    
+    private UserRoleAuditEventResponseDTO convertToResponseDTO(UserRoleAuditEvent event) {
+        UserRoleAuditEventResponseDTO dto = new UserRoleAuditEventResponseDTO();
+        dto.setId(event.getId());
+        dto.setUserRoleId(event.getUserRoleId());
+        dto.setUserId(event.getUserId());
+        dto.setRoleId(event.getRoleId());
+        if (event.getRoleId() != null) {
+            roleCatalog.findById(event.getRoleId()).ifPresent(role -> dto.setRoleName(role.getName()));
+        }
+        dto.setChangeType(event.getChangeType());
+        dto.setActive(event.getActive());
+        dto.setExpiresAt(event.getExpiresAt());
+        dto.setChangedBy(event.getChangedBy());
+        dto.setOccurredAt(event.getOccurredAt());
+        dto.setRecordedAt(event.getRecordedAt());
+        return dto;
+    }
+}
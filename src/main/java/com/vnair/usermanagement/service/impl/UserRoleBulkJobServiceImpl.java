@@ -0,0 +1,338 @@
+package com.vnair.usermanagement.service.impl;
+
+import com.vnair.usermanagement.common.BulkJobStatus;
+import com.vnair.usermanagement.common.BulkJobType;
+import com.vnair.usermanagement.dto.UserRoleBulkJobResponseDTO;
+import com.vnair.usermanagement.entity.UserRoleBulkJob;
+import com.vnair.usermanagement.event.UserRoleChangedEvent;
+import com.vnair.usermanagement.exception.ResourceNotFoundException;
+import com.vnair.usermanagement.exception.RoleNotFoundException;
+import com.vnair.usermanagement.exception.UserNotFoundException;
+import com.vnair.usermanagement.job.JobLease;
+import com.vnair.usermanagement.job.JobLeaseManager;
+import com.vnair.usermanagement.repository.RoleRepository;
+import com.vnair.usermanagement.repository.UserRepository;
+import com.vnair.usermanagement.repository.UserRoleBulkJobRepository;
+import com.vnair.usermanagement.repository.UserRoleRepository;
+import com.vnair.usermanagement.service.UserRoleBulkJobService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Runs mass deactivations of user_roles as background jobs.
+ * Each chunk selects the next ids after the job cursor and deactivates them in its own short
+ * transaction, together with the job's progress, so row locks are held only for one chunk at a time.
+ * Jobs left unfinished by a node that stopped are resumed on one node by UserRoleBulkJobResumeJob.
+ */
+@Service
+public class UserRoleBulkJobServiceImpl implements UserRoleBulkJobService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserRoleBulkJobServiceImpl.class);
+    
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+    
+    @Autowired
+    private UserRoleBulkJobRepository bulkJobRepository;
+    
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private RoleRepository roleRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private JobLeaseManager jobLeaseManager;
+    
+    @Value("${app.user-role-jobs.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${app.user-role-jobs.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    // Jobs queued or running on this node
+    private final Set<Long> submittedJobIds = ConcurrentHashMap.newKeySet();
+    
+    // Jobs run one at a time so concurrent jobs never compete for the same rows
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "user-role-bulk-job");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public UserRoleBulkJobServiceImpl(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Override
+    public UserRoleBulkJobResponseDTO startDeactivateRoleAssignments(Long roleId, String requestedBy) {
+        logger.info("Starting job to deactivate all assignments for role: {}", roleId);
+        
+        if (!roleRepository.existsById(roleId)) {
+            throw new RoleNotFoundException("Role not found with ID: " + roleId);
+        }
+        
+        return createAndSubmit(BulkJobType.DEACTIVATE_ROLE_ASSIGNMENTS, roleId, null, requestedBy,
+                userRoleRepository.countAllActiveByRoleId(roleId));
+    }
+    
+    @Override
+    public UserRoleBulkJobResponseDTO startDeactivateUserRoles(Long userId, String requestedBy) {
+        logger.info("Starting job to deactivate all roles for user: {}", userId);
+        
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User not found with ID: " + userId);
+        }
+        
+        return createAndSubmit(BulkJobType.DEACTIVATE_USER_ROLES, userId, null, requestedBy,
+                userRoleRepository.countAllActiveByUserId(userId));
+    }
+    
+    @Override
+    public UserRoleBulkJobResponseDTO startDeactivateExpired(String requestedBy) {
+        logger.info("Starting job to deactivate expired UserRoles");
+        
+        // Fix the cutoff at creation so a resumed job processes the same set of rows
+        LocalDateTime cutoffTime = LocalDateTime.now();
+        return createAndSubmit(BulkJobType.DEACTIVATE_EXPIRED, null, cutoffTime, requestedBy,
+                userRoleRepository.countExpiredActive(cutoffTime));
+    }
+    
+    @Override
+    public UserRoleBulkJobResponseDTO getJob(Long jobId) {
+        return bulkJobRepository.findById(jobId)
+                .map(this::toResponseDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("UserRoleBulkJob", "id", jobId));
+    }
+    
+    @Override
+    public List<UserRoleBulkJobResponseDTO> getRecentJobs() {
+        return bulkJobRepository.findTop50ByOrderByIdDesc().stream()
+                .map(this::toResponseDTO)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public UserRoleBulkJobResponseDTO cancelJob(Long jobId) {
+        logger.info("Cancelling UserRole bulk job: {}", jobId);
+        
+        // Waits for the running chunk to commit; the worker sees the status before its next chunk
+        UserRoleBulkJob job = transactionTemplate.execute(status -> {
+            UserRoleBulkJob locked = bulkJobRepository.findByIdForUpdate(jobId)
+                    .orElseThrow(() -> new ResourceNotFoundException("UserRoleBulkJob", "id", jobId));
+            if (!locked.isFinished()) {
+                locked.setStatus(BulkJobStatus.CANCELLED);
+                locked.setCompletedAt(LocalDateTime.now());
+            }
+            return locked;
+        });
+        
+        return toResponseDTO(job);
+    }
+    
+    @Override
+    public int resumeStaleJobs(LocalDateTime inactiveSince, JobLease lease) {
+        // Claim the jobs by touching updated_at, so other nodes see them as active again
+        List<UserRoleBulkJob> claimed = transactionTemplate.execute(status -> {
+            jobLeaseManager.verify(lease);
+            List<UserRoleBulkJob> stale = new ArrayList<>();
+            for (UserRoleBulkJob job : bulkJobRepository.findByStatusInAndUpdatedAtBeforeOrderByIdAsc(
+                    EnumSet.of(BulkJobStatus.PENDING, BulkJobStatus.RUNNING), inactiveSince)) {
+                if (!submittedJobIds.contains(job.getId())) {
+                    job.setUpdatedAt(LocalDateTime.now());
+                    stale.add(job);
+                }
+            }
+            return stale;
+        });
+        
+        for (UserRoleBulkJob job : claimed) {
+            logger.info("Resuming UserRole bulk job {} from id {}", job.getId(), job.getLastProcessedId());
+            submit(job.getId());
+        }
+        return claimed.size();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted jobs stay RUNNING and are resumed by UserRoleBulkJobResumeJob
+        executor.shutdownNow();
+    }
+    
+    private UserRoleBulkJobResponseDTO createAndSubmit(BulkJobType jobType, Long targetId, LocalDateTime cutoffTime,
+                                                       String requestedBy, long estimatedTotal) {
+        UserRoleBulkJob job = new UserRoleBulkJob(jobType, targetId, chunkSize);
+        job.setCutoffTime(cutoffTime);
+        job.setRequestedBy(requestedBy);
+        job.setEstimatedTotal(estimatedTotal);
+        
+        UserRoleBulkJob savedJob = transactionTemplate.execute(status -> bulkJobRepository.save(job));
+        submit(savedJob.getId());
+        
+        logger.info("UserRole bulk job {} created: {} (about {} rows)", savedJob.getId(), jobType, estimatedTotal);
+        return toResponseDTO(savedJob);
+    }
+    
+    private void submit(Long jobId) {
+        submittedJobIds.add(jobId);
+        executor.submit(() -> {
+            try {
+                runJob(jobId);
+            } finally {
+                submittedJobIds.remove(jobId);
+            }
+        });
+    }
+    
+    private void runJob(Long jobId) {
+        try {
+            boolean started = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                UserRoleBulkJob job = bulkJobRepository.findByIdForUpdate(jobId).orElse(null);
+                if (job == null || job.isFinished()) {
+                    return false;
+                }
+                if (job.getStartedAt() == null) {
+                    job.setStartedAt(LocalDateTime.now());
+                }
+                job.setStatus(BulkJobStatus.RUNNING);
+                return true;
+            }));
+            
+            if (!started) {
+                return;
+            }
+            
+            while (processNextChunk(jobId)) {
+                if (chunkPauseMs > 0) {
+                    Thread.sleep(chunkPauseMs);
+                }
+            }
+            
+            logger.info("UserRole bulk job {} finished", jobId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("UserRole bulk job {} interrupted, will be resumed once it is stale", jobId);
+        } catch (RuntimeException e) {
+            logger.error("UserRole bulk job {} failed", jobId, e);
+            markFailed(jobId, e);
+        }
+    }
+    
+    // Processes one chunk in its own transaction; returns true while more rows may remain
+    private boolean processNextChunk(Long jobId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            UserRoleBulkJob job = bulkJobRepository.findByIdForUpdate(jobId).orElse(null);
+            if (job == null || job.isFinished()) {
+                return false;
+            }
+            
+            List<Object[]> rows = findNextChunk(job);
+            LocalDateTime now = LocalDateTime.now();
+            
+            if (!rows.isEmpty()) {
+                List<Long> ids = new ArrayList<>(rows.size());
+                List<UserRoleChangedEvent.Change> changes = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    Long userRoleId = ((Number) row[0]).longValue();
+                    ids.add(userRoleId);
+                    changes.add(new UserRoleChangedEvent.Change(userRoleId, ((Number) row[1]).longValue(),
+                            ((Number) row[2]).longValue(), UserRoleChangedEvent.ChangeType.DEACTIVATED, false, null));
+                }
+                
+                int updatedCount = userRoleRepository.deactivateByIds(ids, now);
+                job.setLastProcessedId(ids.get(ids.size() - 1));
+                job.setProcessedCount(job.getProcessedCount() + updatedCount);
+                eventPublisher.publishEvent(new UserRoleChangedEvent(changes));
+            }
+            
+            if (rows.size() < job.getChunkSize()) {
+                job.setStatus(BulkJobStatus.COMPLETED);
+                job.setCompletedAt(now);
+                return false;
+            }
+            return true;
+        }));
+    }
+    
+    // Next chunk of (id, user_id, role_id) rows after the job cursor
+    private List<Object[]> findNextChunk(UserRoleBulkJob job) {
+        long afterId = job.getLastProcessedId();
+        int limit = job.getChunkSize();
+        
+        switch (job.getJobType()) {
+            case DEACTIVATE_ROLE_ASSIGNMENTS:
+                return userRoleRepository.findActiveByRoleIdAfter(job.getTargetId(), afterId, limit);
+            case DEACTIVATE_USER_ROLES:
+                return userRoleRepository.findActiveByUserIdAfter(job.getTargetId(), afterId, limit);
+            case DEACTIVATE_EXPIRED:
+                return userRoleRepository.findExpiredActiveAfter(job.getCutoffTime(), afterId, limit);
+            default:
+                throw new IllegalStateException("Unsupported job type: " + job.getJobType());
+        }
+    }
+    
+    private void markFailed(Long jobId, RuntimeException cause) {
+        String message = String.valueOf(cause.getMessage());
+        if (message.length() > MAX_ERROR_MESSAGE_LENGTH) {
+            message = message.substring(0, MAX_ERROR_MESSAGE_LENGTH);
+        }
+        String errorMessage = message;
+        
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    bulkJobRepository.findByIdForUpdate(jobId).ifPresent(job -> {
+                        if (!job.isFinished()) {
+                            job.setStatus(BulkJobStatus.FAILED);
+                            job.setErrorMessage(errorMessage);
+                            job.setCompletedAt(LocalDateTime.now());
+                        }
+                    }));
+        } catch (RuntimeException e) {
+            logger.error("Could not mark UserRole bulk job {} as failed", jobId, e);
+        }
+    }
+    
+    private UserRoleBulkJobResponseDTO toResponseDTO(UserRoleBulkJob job) {
+        UserRoleBulkJobResponseDTO dto = new UserRoleBulkJobResponseDTO();
+        dto.setId(job.getId());
+        dto.setJobType(job.getJobType());
+        dto.setTargetId(job.getTargetId());
+        dto.setStatus(job.getStatus());
+        dto.setChunkSize(job.getChunkSize());
+        dto.setCutoffTime(job.getCutoffTime());
+        dto.setLastProcessedId(job.getLastProcessedId());
+        dto.setProcessedCount(job.getProcessedCount());
+        dto.setEstimatedTotal(job.getEstimatedTotal());
+        dto.setRequestedBy(job.getRequestedBy());
+        dto.setErrorMessage(job.getErrorMessage());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setCompletedAt(job.getCompletedAt());
+        dto.setUpdatedAt(job.getUpdatedAt());
+        return dto;
+    }
+}
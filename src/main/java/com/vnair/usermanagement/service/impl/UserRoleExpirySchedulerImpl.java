@@ -0,0 +1,283 @@
+package com.vnair.usermanagement.service.impl;
+
+import com.vnair.usermanagement.entity.UserRole;
+import com.vnair.usermanagement.event.UserRoleChangedEvent;
+import com.vnair.usermanagement.exception.LeaseLostException;
+import com.vnair.usermanagement.job.JobLease;
+import com.vnair.usermanagement.job.JobLeaseManager;
+import com.vnair.usermanagement.repository.UserRoleRepository;
+import com.vnair.usermanagement.service.UserRoleExpiryScheduler;
+import com.vnair.usermanagement.util.HierarchicalTimingWheel;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deactivates temporary role assignments close to their exact expiry time.
+ * <p>
+ * Upcoming expirations are kept in a {@link HierarchicalTimingWheel} that holds only a rolling window
+ * (app.user-role-expiry.window-minutes) loaded from the expires_at index; the window is extended
+ * before it runs out. UserRoleChangedEvents keep the wheel in sync with assignments, expiry changes
+ * and removals. Expiry runs a guarded update, so stale wheel entries are harmless: a row that is no
+ * longer active is skipped and a row whose expiry moved later is rescheduled.
+ * <p>
+ * Every node keeps its wheel loaded, but only the node holding the user-role-expiry lease advances it
+ * and deactivates assignments, checking the lease's fencing token in each expiry transaction. When the
+ * lease moves to another node, that node's first advance fires everything that came due meanwhile.
+ */
+@Service
+public class UserRoleExpirySchedulerImpl implements UserRoleExpiryScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserRoleExpirySchedulerImpl.class);
+    
+    private static final long RETRY_DELAY_MS = 5000L;
+    
+    private static final String LEASE_NAME = "user-role-expiry";
+    
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private JobLeaseManager jobLeaseManager;
+    
+    @Value("${app.user-role-expiry.tick-ms:1000}")
+    private long tickMs;
+    
+    @Value("${app.user-role-expiry.window-minutes:60}")
+    private long windowMinutes;
+    
+    @Value("${app.user-role-expiry.batch-size:500}")
+    private int batchSize;
+    
+    private final ZoneId zone = ZoneId.systemDefault();
+    
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "user-role-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // Guarded by this
+    private HierarchicalTimingWheel<Long, Long> wheel; // userRoleId -> userId
+    private LocalDateTime loadedUntil;
+    private LocalDateTime loadingUntil;
+    
+    // Only used by the tick thread
+    private JobLease lease;
+    private LocalDateTime nextLeaseCheck;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            wheel = new HierarchicalTimingWheel<>(floorTick(now));
+            loadedUntil = now;
+            loadingUntil = now;
+        }
+        
+        // Assignments that expired while the application was down are swept by ExpiredUserRoleSweepJob
+        jobLeaseManager.ensureLockRow(LEASE_NAME);
+        extendWindow(now);
+        executor.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        logger.info("UserRole expiry scheduler started with {} ms ticks and a {} minute window", tickMs, windowMinutes);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    @Override
+    public synchronized int getScheduledCount() {
+        return wheel != null ? wheel.size() : 0;
+    }
+    
+    @Override
+    public synchronized LocalDateTime getLoadedUntil() {
+        return loadedUntil;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        synchronized (this) {
+            if (wheel == null) {
+                return; // Not started yet, the initial window load reads the committed state
+            }
+            for (UserRoleChangedEvent.Change change : event.getChanges()) {
+                LocalDateTime expiresAt = change.getExpiresAt();
+                if (change.isActive() && expiresAt != null && !expiresAt.isAfter(loadingUntil)) {
+                    wheel.schedule(change.getUserRoleId(), change.getUserId(), ceilTick(expiresAt));
+                } else {
+                    // Not expiring inside the window, a later window load picks it up if needed
+                    wheel.cancel(change.getUserRoleId());
+                }
+            }
+        }
+    }
+    
+    private void tick() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (now.plusMinutes(windowMinutes / 2).isAfter(getLoadedUntil())) {
+                extendWindow(now);
+            }
+            if (!holdLease(now)) {
+                return;
+            }
+            
+            Map<Long, Long> due = new LinkedHashMap<>();
+            synchronized (this) {
+                wheel.advanceTo(floorTick(now), due::put);
+            }
+            
+            List<Long> ids = new ArrayList<>(due.keySet());
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                expire(batch, due, now);
+            }
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic task
+            logger.error("UserRole expiry tick failed", e);
+        }
+    }
+    
+    // Acquire or renew the lease every third of its length, so one failed renewal does not lose it
+    private boolean holdLease(LocalDateTime now) {
+        if (nextLeaseCheck != null && now.isBefore(nextLeaseCheck)) {
+            return lease != null;
+        }
+        if (lease == null || !jobLeaseManager.renew(lease)) {
+            JobLease previous = lease;
+            lease = jobLeaseManager.tryAcquire(LEASE_NAME).orElse(null);
+            if (lease != null) {
+                logger.info("UserRole expiry lease acquired by node {}", lease.getOwnerId());
+            } else if (previous != null) {
+                logger.info("UserRole expiry lease lost by node {}", previous.getOwnerId());
+            }
+        }
+        nextLeaseCheck = now.plusSeconds(Math.max(1L, jobLeaseManager.getLeaseSeconds() / 3));
+        return lease != null;
+    }
+    
+    // Load expirations in (loadedUntil, now + window] into the wheel
+    private void extendWindow(LocalDateTime now) {
+        LocalDateTime fromTime;
+        LocalDateTime toTime = now.plusMinutes(windowMinutes);
+        synchronized (this) {
+            fromTime = loadedUntil;
+            // Events committed while loading are applied against the new window end
+            loadingUntil = toTime;
+        }
+        
+        List<Object[]> rows = userRoleRepository.findActiveExpiringBetween(fromTime, toTime);
+        
+        synchronized (this) {
+            for (Object[] row : rows) {
+                Long userRoleId = (Long) row[0];
+                if (!wheel.contains(userRoleId)) {
+                    wheel.schedule(userRoleId, (Long) row[1], ceilTick((LocalDateTime) row[2]));
+                }
+            }
+            loadedUntil = toTime;
+        }
+        
+        logger.debug("Loaded {} UserRole expirations up to {}", rows.size(), toTime);
+    }
+    
+    private void expire(List<Long> ids, Map<Long, Long> userIds, LocalDateTime now) {
+        JobLease currentLease = lease;
+        if (currentLease == null) {
+            // Lost by an earlier batch of this tick; the new holder fires these itself
+            reschedule(ids, userIds, floorTick(now));
+            return;
+        }
+        try {
+            List<UserRole> rescheduled = new ArrayList<>();
+            Integer expiredCount = transactionTemplate.execute(status -> {
+                jobLeaseManager.verify(currentLease);
+                List<UserRole> expired = new ArrayList<>();
+                for (UserRole userRole : userRoleRepository.findActiveByIdInForUpdate(ids)) {
+                    LocalDateTime expiresAt = userRole.getExpiresAt();
+                    if (expiresAt == null) {
+                        continue;
+                    }
+                    if (expiresAt.isAfter(now)) {
+                        // Expiry moved later since it was scheduled
+                        rescheduled.add(userRole);
+                        continue;
+                    }
+                    userRole.setIsActive(false);
+                    expired.add(userRole);
+                }
+                if (!expired.isEmpty()) {
+                    eventPublisher.publishEvent(UserRoleChangedEvent.of(expired, UserRoleChangedEvent.ChangeType.EXPIRED));
+                }
+                return expired.size();
+            });
+            
+            if (!rescheduled.isEmpty()) {
+                synchronized (this) {
+                    for (UserRole userRole : rescheduled) {
+                        if (!userRole.getExpiresAt().isAfter(loadingUntil)) {
+                            wheel.schedule(userRole.getId(), userIds.get(userRole.getId()), ceilTick(userRole.getExpiresAt()));
+                        }
+                    }
+                }
+            }
+            if (expiredCount != null && expiredCount > 0) {
+                logger.info("Deactivated {} expired UserRoles", expiredCount);
+            }
+        } catch (LeaseLostException e) {
+            logger.info("UserRole expiry lease lost, leaving {} expirations to the new holder", ids.size());
+            lease = null;
+            reschedule(ids, userIds, floorTick(now));
+        } catch (RuntimeException e) {
+            logger.error("Failed to deactivate expired UserRoles {}, retrying", ids, e);
+            reschedule(ids, userIds, floorTick(now) + Math.max(1L, RETRY_DELAY_MS / tickMs));
+        }
+    }
+    
+    // Put back expirations that were taken from the wheel but not processed
+    private synchronized void reschedule(List<Long> ids, Map<Long, Long> userIds, long tick) {
+        for (Long id : ids) {
+            wheel.schedule(id, userIds.get(id), tick);
+        }
+    }
+    
+    private long floorTick(LocalDateTime time) {
+        return Math.floorDiv(toEpochMillis(time), tickMs);
+    }
+    
+    // Round up so an assignment is never processed before its expiry time
+    private long ceilTick(LocalDateTime time) {
+        return Math.floorDiv(toEpochMillis(time) + tickMs - 1, tickMs);
+    }
+    
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+}
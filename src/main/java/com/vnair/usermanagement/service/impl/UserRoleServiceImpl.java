@@ -6,25 +6,37 @@ import com.vnair.usermanagement.dto.UserRoleUpdateRequestDTO;
 import com.vnair.usermanagement.entity.Role;
 import com.vnair.usermanagement.entity.User;
 import com.vnair.usermanagement.entity.UserRole;
+import com.vnair.usermanagement.event.UserRoleChangedEvent;
 import com.vnair.usermanagement.exception.DuplicateUserException;
 import com.vnair.usermanagement.exception.RoleNotFoundException;
 import com.vnair.usermanagement.exception.UserNotFoundException;
 import com.vnair.usermanagement.repository.RoleRepository;
 import com.vnair.usermanagement.repository.UserRepository;
 import com.vnair.usermanagement.repository.UserRoleRepository;
+import com.vnair.usermanagement.security.RbacIndex;
+import com.vnair.usermanagement.security.RoleCatalog;
 import com.vnair.usermanagement.service.UserRoleService;
+import com.vnair.usermanagement.util.ETagUtil;
+import com.vnair.usermanagement.util.SparseFieldsQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +45,25 @@ public class UserRoleServiceImpl implements UserRoleService {
     
     private static final Logger logger = LoggerFactory.getLogger(UserRoleServiceImpl.class);
     
+    // Fields selectable with fields=, mapped to entity attributes; user and role are joined only when selected
+    private static final Map<String, String> SPARSE_FIELDS = new LinkedHashMap<>();
+    
+    static {
+        SPARSE_FIELDS.put("id", "id");
+        SPARSE_FIELDS.put("userId", "user.id");
+        SPARSE_FIELDS.put("username", "user.username");
+        SPARSE_FIELDS.put("userEmail", "user.email");
+        SPARSE_FIELDS.put("roleId", "role.id");
+        SPARSE_FIELDS.put("roleName", "role.name");
+        SPARSE_FIELDS.put("roleDescription", "role.description");
+        SPARSE_FIELDS.put("assignedBy", "assignedBy");
+        SPARSE_FIELDS.put("isActive", "isActive");
+        SPARSE_FIELDS.put("assignedAt", "assignedAt");
+        SPARSE_FIELDS.put("updatedAt", "updatedAt");
+        SPARSE_FIELDS.put("expiresAt", "expiresAt");
+        SPARSE_FIELDS.put("notes", "notes");
+    }
+    
     @Autowired
     private UserRoleRepository userRoleRepository;
     
@@ -42,6 +73,18 @@ public class UserRoleServiceImpl implements UserRoleService {
     @Autowired
     private RoleRepository roleRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private RbacIndex rbacIndex;
+    
+    @Autowired
+    private RoleCatalog roleCatalog;
+    
+    @Autowired
+    private SparseFieldsQuery sparseFieldsQuery;
+    
     @Override
     public UserRoleResponseDTO assignRoleToUser(UserRoleCreateRequestDTO userRoleCreateRequestDTO) {
         logger.info("Assigning role {} to user {}", 
@@ -70,6 +113,7 @@ public class UserRoleServiceImpl implements UserRoleService {
         userRole.setNotes(userRoleCreateRequestDTO.getNotes());
         
         UserRole savedUserRole = userRoleRepository.save(userRole);
+        eventPublisher.publishEvent(UserRoleChangedEvent.of(savedUserRole, UserRoleChangedEvent.ChangeType.ASSIGNED));
         logger.info("Role {} assigned successfully to user {} with ID: {}", 
                     role.getId(), user.getId(), savedUserRole.getId());
         
@@ -87,6 +131,19 @@ public class UserRoleServiceImpl implements UserRoleService {
         return convertToResponseDTO(userRole);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public String getUserRoleETag(Long id) {
+        List<Object[]> rows = userRoleRepository.findVersionsById(id);
+        if (rows.isEmpty()) {
+            throw new UserNotFoundException("UserRole not found with ID: " + id);
+        }
+        Object[] row = rows.get(0);
+        LocalDateTime expiresAt = (LocalDateTime) row[3];
+        return userRoleETag((Long) row[0], (Long) row[1], (Long) row[2],
+                expiresAt != null && expiresAt.isBefore(LocalDateTime.now()));
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public UserRoleResponseDTO getUserRole(Long userId, Long roleId) {
@@ -108,11 +165,19 @@ public class UserRoleServiceImpl implements UserRoleService {
     }
     
     @Override
-    public UserRoleResponseDTO updateUserRole(Long id, UserRoleUpdateRequestDTO userRoleUpdateRequestDTO) {
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getAllUserRoles(String fields, Pageable pageable) {
+        logger.info("Fetching UserRoles with fields: {}, pagination: {}", fields, pageable);
+        return sparseFieldsQuery.findPage(UserRole.class, SPARSE_FIELDS, fields, pageable);
+    }
+    
+    @Override
+    public UserRoleResponseDTO updateUserRole(Long id, UserRoleUpdateRequestDTO userRoleUpdateRequestDTO, String ifMatch) {
         logger.info("Updating UserRole with ID: {}", id);
         
         UserRole existingUserRole = userRoleRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("UserRole not found with ID: " + id));
+        ETagUtil.checkIfMatch(ifMatch, userRoleETag(existingUserRole));
         
         // Update fields if provided
         if (userRoleUpdateRequestDTO.getAssignedBy() != null) {
@@ -128,7 +193,9 @@ public class UserRoleServiceImpl implements UserRoleService {
             existingUserRole.setNotes(userRoleUpdateRequestDTO.getNotes());
         }
         
-        UserRole updatedUserRole = userRoleRepository.save(existingUserRole);
+        // Flush so the returned ETag carries the incremented version
+        UserRole updatedUserRole = userRoleRepository.saveAndFlush(existingUserRole);
+        eventPublisher.publishEvent(UserRoleChangedEvent.of(updatedUserRole, UserRoleChangedEvent.ChangeType.UPDATED));
         logger.info("UserRole updated successfully with ID: {}", updatedUserRole.getId());
         
         return convertToResponseDTO(updatedUserRole);
@@ -142,6 +209,7 @@ public class UserRoleServiceImpl implements UserRoleService {
                 .orElseThrow(() -> new UserNotFoundException("UserRole not found with ID: " + id));
         
         userRoleRepository.delete(userRole);
+        eventPublisher.publishEvent(UserRoleChangedEvent.of(userRole, UserRoleChangedEvent.ChangeType.REMOVED));
         logger.info("UserRole removed successfully with ID: {}", id);
     }
     
@@ -153,6 +221,7 @@ public class UserRoleServiceImpl implements UserRoleService {
                 .orElseThrow(() -> new UserNotFoundException("UserRole not found for user " + userId + " and role " + roleId));
         
         userRoleRepository.delete(userRole);
+        eventPublisher.publishEvent(UserRoleChangedEvent.of(userRole, UserRoleChangedEvent.ChangeType.REMOVED));
         logger.info("Role {} removed successfully from user {}", roleId, userId);
     }
     
@@ -323,35 +392,49 @@ public class UserRoleServiceImpl implements UserRoleService {
         return userRoleRepository.existsByUserIdAndRoleId(userId, roleId);
     }
     
+    // Role checks and counts answer from the RBAC index, no transaction is opened when it is ready.
+    // Role checks include roles implied through the role hierarchy.
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean hasActiveUserRole(Long userId, Long roleId) {
-        return userRoleRepository.existsActiveUserRole(userId, roleId, LocalDateTime.now());
+        if (rbacIndex.isReady()) {
+            return rbacIndex.hasRole(userId, roleId);
+        }
+        return userRoleRepository.existsActiveEffectiveRole(userId, roleId, LocalDateTime.now());
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean userHasRole(Long userId, String roleName) {
-        List<UserRole> userRoles = userRoleRepository.findActiveByUserId(userId, LocalDateTime.now());
-        return userRoles.stream()
-                .anyMatch(ur -> ur.getRole().getName().equalsIgnoreCase(roleName));
+        return roleCatalog.findByNameIgnoreCase(roleName)
+                .map(role -> hasActiveUserRole(userId, role.getId()))
+                .orElse(false);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public long countActiveUserRoles() {
+        if (rbacIndex.isReady()) {
+            return rbacIndex.countActiveAssignments();
+        }
         return userRoleRepository.countActiveUserRoles(LocalDateTime.now());
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public long countUsersByRole(Long roleId) {
+        if (rbacIndex.isReady()) {
+            return rbacIndex.countUsersOfRole(roleId);
+        }
         return userRoleRepository.countActiveUsersByRole(roleId, LocalDateTime.now());
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public long countRolesByUser(Long userId) {
+        if (rbacIndex.isReady()) {
+            return rbacIndex.countRolesOfUser(userId);
+        }
         return userRoleRepository.countActiveRolesByUser(userId, LocalDateTime.now());
     }
     
@@ -408,6 +491,7 @@ public class UserRoleServiceImpl implements UserRoleService {
                 .collect(Collectors.toList());
         
         List<UserRole> savedUserRoles = userRoleRepository.saveAll(userRoles);
+        eventPublisher.publishEvent(UserRoleChangedEvent.of(savedUserRoles, UserRoleChangedEvent.ChangeType.ASSIGNED));
         logger.info("Multiple roles assigned successfully to user {}", userId);
         
         return savedUserRoles.stream()
@@ -419,40 +503,19 @@ public class UserRoleServiceImpl implements UserRoleService {
     public void removeMultipleRolesFromUser(Long userId, List<Long> roleIds) {
         logger.info("Removing multiple roles {} from user {}", roleIds, userId);
         
+        List<UserRole> removedUserRoles = new ArrayList<>();
         for (Long roleId : roleIds) {
             userRoleRepository.findByUserIdAndRoleId(userId, roleId)
-                    .ifPresent(userRoleRepository::delete);
+                    .ifPresent(userRole -> {
+                        userRoleRepository.delete(userRole);
+                        removedUserRoles.add(userRole);
+                    });
         }
+        eventPublisher.publishEvent(UserRoleChangedEvent.of(removedUserRoles, UserRoleChangedEvent.ChangeType.REMOVED));
         
         logger.info("Multiple roles removed successfully from user {}", userId);
     }
     
-    @Override
-    public void deactivateAllUserRoles(Long userId) {
-        logger.info("Deactivating all roles for user: {}", userId);
-        
-        int updatedCount = userRoleRepository.deactivateAllUserRoles(userId);
-        logger.info("Deactivated {} roles for user {}", updatedCount, userId);
-    }
-    
-    @Override
-    public void deactivateAllRoleAssignments(Long roleId) {
-        logger.info("Deactivating all assignments for role: {}", roleId);
-        
-        int updatedCount = userRoleRepository.deactivateAllRoleAssignments(roleId);
-        logger.info("Deactivated {} assignments for role {}", updatedCount, roleId);
-    }
-    
-    @Override
-    public int deactivateExpiredUserRoles() {
-        logger.info("Deactivating expired UserRoles");
-        
-        int deactivatedCount = userRoleRepository.deactivateExpiredUserRoles(LocalDateTime.now());
-        logger.info("Deactivated {} expired UserRoles", deactivatedCount);
-        
-        return deactivatedCount;
-    }
-    
     @Override
     public void extendUserRoleExpiry(Long userRoleId, LocalDateTime newExpiryDate) {
         logger.info("Extending expiry for UserRole {} to {}", userRoleId, newExpiryDate);
@@ -462,6 +525,7 @@ public class UserRoleServiceImpl implements UserRoleService {
         
         userRole.setExpiresAt(newExpiryDate);
         userRoleRepository.save(userRole);
+        eventPublisher.publishEvent(UserRoleChangedEvent.of(userRole, UserRoleChangedEvent.ChangeType.UPDATED));
         
         logger.info("Expiry extended successfully for UserRole {}", userRoleId);
     }
@@ -475,6 +539,7 @@ public class UserRoleServiceImpl implements UserRoleService {
         
         userRole.setExpiresAt(expiryDate);
         userRoleRepository.save(userRole);
+        eventPublisher.publishEvent(UserRoleChangedEvent.of(userRole, UserRoleChangedEvent.ChangeType.UPDATED));
         
         logger.info("Expiry set successfully for UserRole {}", userRoleId);
     }
@@ -488,6 +553,7 @@ public class UserRoleServiceImpl implements UserRoleService {
         
         userRole.setExpiresAt(null);
         userRoleRepository.save(userRole);
+        eventPublisher.publishEvent(UserRoleChangedEvent.of(userRole, UserRoleChangedEvent.ChangeType.UPDATED));
         
         logger.info("Expiry removed successfully for UserRole {}", userRoleId);
     }
@@ -501,6 +567,7 @@ public class UserRoleServiceImpl implements UserRoleService {
         
         userRole.setIsActive(true);
         UserRole reactivatedUserRole = userRoleRepository.save(userRole);
+        eventPublisher.publishEvent(UserRoleChangedEvent.of(reactivatedUserRole, UserRoleChangedEvent.ChangeType.UPDATED));
         
         logger.info("UserRole reactivated successfully with ID: {}", id);
         return convertToResponseDTO(reactivatedUserRole);
@@ -526,34 +593,55 @@ public class UserRoleServiceImpl implements UserRoleService {
     }
     
     @Override
-    public void transferUserRoles(Long fromUserId, Long toUserId, String transferredBy) {
+    public Map<String, Integer> transferUserRoles(Long fromUserId, Long toUserId, String transferredBy) {
         logger.info("Transferring roles from user {} to user {}", fromUserId, toUserId);
         
-        User fromUser = userRepository.findById(fromUserId)
-                .orElseThrow(() -> new UserNotFoundException("From user not found with ID: " + fromUserId));
-        
-        User toUser = userRepository.findById(toUserId)
-                .orElseThrow(() -> new UserNotFoundException("To user not found with ID: " + toUserId));
-        
-        List<UserRole> fromUserRoles = userRoleRepository.findActiveByUserId(fromUserId, LocalDateTime.now());
-        
-        for (UserRole userRole : fromUserRoles) {
-            // Deactivate old assignment
-            userRole.setIsActive(false);
-            
-            // Create new assignment for target user
-            if (!userRoleRepository.existsByUserIdAndRoleId(toUserId, userRole.getRole().getId())) {
-                UserRole newUserRole = new UserRole();
-                newUserRole.setUser(toUser);
-                newUserRole.setRole(userRole.getRole());
-                newUserRole.setAssignedBy(transferredBy);
-                newUserRole.setNotes("Transferred from user " + fromUserId);
-                userRoleRepository.save(newUserRole);
+        if (!userRepository.existsById(fromUserId)) {
+            throw new UserNotFoundException("From user not found with ID: " + fromUserId);
+        }
+        
+        if (!userRepository.existsById(toUserId)) {
+            throw new UserNotFoundException("To user not found with ID: " + toUserId);
+        }
+        
+        // Two set-based statements: copy roles the target lacks, then deactivate the source roles.
+        // The copy must run first because it selects from the source user's active roles, which are
+        // locked up front so both statements and the published events see the same rows.
+        // Truncated to the column precision so the inserted rows can be found again by assignedAt.
+        LocalDateTime currentTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<UserRole> sourceUserRoles = userRoleRepository.findActiveByUserIdForUpdate(fromUserId, currentTime);
+        List<Long> sourceIds = new ArrayList<>(sourceUserRoles.size());
+        Set<Long> sourceRoleIds = new HashSet<>();
+        for (UserRole userRole : sourceUserRoles) {
+            sourceIds.add(userRole.getId());
+            sourceRoleIds.add(userRole.getRole().getId());
+        }
+        
+        int assignedCount = userRoleRepository.copyActiveRolesToUser(
+                fromUserId, toUserId, transferredBy, "Transferred from user " + fromUserId, currentTime);
+        int deactivatedCount = userRoleRepository.deactivateActiveUserRoles(fromUserId, currentTime);
+        
+        // Publish only the rows this transfer touched (the bulk update cleared the persistence context)
+        List<UserRoleChangedEvent.Change> changes = new ArrayList<>(assignedCount + deactivatedCount);
+        if (assignedCount > 0) {
+            for (UserRole userRole : userRoleRepository.findByUserIdAndRoleIdInAndAssignedAt(toUserId, sourceRoleIds, currentTime)) {
+                changes.add(UserRoleChangedEvent.Change.of(userRole, UserRoleChangedEvent.ChangeType.ASSIGNED));
             }
         }
+        for (UserRole userRole : userRoleRepository.findAllById(sourceIds)) {
+            changes.add(UserRoleChangedEvent.Change.of(userRole, UserRoleChangedEvent.ChangeType.DEACTIVATED));
+        }
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new UserRoleChangedEvent(changes));
+        }
         
-        userRoleRepository.saveAll(fromUserRoles);
-        logger.info("Roles transferred successfully from user {} to user {}", fromUserId, toUserId);
+        logger.info("Roles transferred successfully from user {} to user {}: {} assigned, {} deactivated",
+                    fromUserId, toUserId, assignedCount, deactivatedCount);
+        
+        Map<String, Integer> result = new HashMap<>();
+        result.put("assignedCount", assignedCount);
+        result.put("deactivatedCount", deactivatedCount);
+        return result;
     }
     
     // Helper method to convert Entity to ResponseDTO
@@ -573,7 +661,20 @@ public class UserRoleServiceImpl implements UserRoleService {
         dto.setExpiresAt(userRole.getExpiresAt());
         dto.setNotes(userRole.getNotes());
         dto.setExpired(userRole.isExpired());
+        dto.setEtag(userRoleETag(userRole));
         
         return dto;
     }
+    
+    private String userRoleETag(UserRole userRole) {
+        return userRoleETag(userRole.getVersion(), userRole.getUser().getVersion(), userRole.getRole().getVersion(),
+                userRole.isExpired());
+    }
+    
+    // The representation embeds user and role fields, and "expired" flips with time alone
+    private String userRoleETag(Long version, Long userVersion, Long roleVersion, boolean expired) {
+        return expired
+                ? ETagUtil.of(version, userVersion, roleVersion, "expired")
+                : ETagUtil.of(version, userVersion, roleVersion);
+    }
 }
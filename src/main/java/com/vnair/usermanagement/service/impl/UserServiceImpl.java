@@ -4,19 +4,38 @@ import com.vnair.usermanagement.common.UserStatus;
 import com.vnair.usermanagement.dto.UserCreateRequestDTO;
 import com.vnair.usermanagement.dto.UserResponseDTO;
 import com.vnair.usermanagement.dto.UserUpdateRequestDTO;
+import com.vnair.usermanagement.dto.response.MultiGetResponseDTO;
 import com.vnair.usermanagement.entity.User;
+import com.vnair.usermanagement.event.UserChangedEvent;
+import com.vnair.usermanagement.event.UserDeletedEvent;
+import com.vnair.usermanagement.event.UserRoleChangedEvent;
 import com.vnair.usermanagement.exception.DuplicateUserException;
 import com.vnair.usermanagement.exception.UserNotFoundException;
 import com.vnair.usermanagement.repository.UserRepository;
+import com.vnair.usermanagement.repository.UserRoleRepository;
 import com.vnair.usermanagement.service.UserService;
+import com.vnair.usermanagement.util.ChunkedDeleteUtil;
+import com.vnair.usermanagement.util.ETagUtil;
+import com.vnair.usermanagement.util.MultiGetUtil;
+import com.vnair.usermanagement.util.SingleFlightRegistry;
+import com.vnair.usermanagement.util.SparseFieldsQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -24,12 +43,46 @@ public class UserServiceImpl implements UserService {
     
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
     
+    // Fields selectable with fields=, mapped to entity attributes; password_hash is never exposed
+    private static final Map<String, String> SPARSE_FIELDS = new LinkedHashMap<>();
+    
+    static {
+        SPARSE_FIELDS.put("id", "id");
+        SPARSE_FIELDS.put("username", "username");
+        SPARSE_FIELDS.put("email", "email");
+        SPARSE_FIELDS.put("phone", "phone");
+        SPARSE_FIELDS.put("status", "status");
+        SPARSE_FIELDS.put("createdAt", "createdAt");
+        SPARSE_FIELDS.put("updatedAt", "updatedAt");
+    }
+    
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.delete.chunk-size:1000}")
+    private int deleteChunkSize;
+    
+    @Value("${app.multi-get.max-ids:100}")
+    private int multiGetMaxIds;
+    
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
     
+    @Autowired
+    private SingleFlightRegistry singleFlightRegistry;
+    
+    @Autowired
+    private SparseFieldsQuery sparseFieldsQuery;
+    
     @Override
     public UserResponseDTO createUser(UserCreateRequestDTO createRequest) {
         // log with context
@@ -57,27 +110,50 @@ public class UserServiceImpl implements UserService {
         user.setStatus(createRequest.getStatus());
         
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId(), UserChangedEvent.ChangeType.CREATED));
         logger.info("User created successfully with ID: {}", savedUser.getId());
         
         return mapToResponseDTO(savedUser);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public UserResponseDTO getUserById(Long id) {
         logger.info("Fetching user by ID: {}", id);
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFoundException(id));
-        return mapToResponseDTO(user);
+        // Concurrent lookups of the same id share one query; waiters hold no connection
+        return singleFlightRegistry.<Long, UserResponseDTO>get("user-by-id").execute(id, () -> {
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new UserNotFoundException(id));
+            return mapToResponseDTO(user);
+        });
     }
     
     @Override
     @Transactional(readOnly = true)
+    public String getUserETag(Long id) {
+        return userRepository.findVersionById(id)
+                .map(ETagUtil::of)
+                .orElseThrow(() -> new UserNotFoundException(id));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public UserResponseDTO getUserByUsername(String username) {
         logger.info("Fetching user by username: {}", username);
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
-        return mapToResponseDTO(user);
+        return singleFlightRegistry.<String, UserResponseDTO>get("user-by-username").execute(username, () -> {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
+            return mapToResponseDTO(user);
+        });
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public MultiGetResponseDTO<UserResponseDTO> getUsersByIds(List<Long> ids) {
+        List<Long> distinctIds = MultiGetUtil.distinctIds(ids, multiGetMaxIds);
+        logger.info("Fetching {} users by ID", distinctIds.size());
+        List<User> users = distinctIds.isEmpty() ? Collections.emptyList() : userRepository.findAllById(distinctIds);
+        return MultiGetUtil.createResponse(distinctIds, users, User::getId, this::mapToResponseDTO);
     }
     
     @Override
@@ -97,6 +173,13 @@ public class UserServiceImpl implements UserService {
         return users.map(this::mapToResponseDTO);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getAllUsers(String fields, Pageable pageable) {
+        logger.info("Fetching users with fields: {}, page {}, size {}", fields, pageable.getPageNumber(), pageable.getPageSize());
+        return sparseFieldsQuery.findPage(User.class, SPARSE_FIELDS, fields, pageable);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public Page<UserResponseDTO> getUsersByStatus(UserStatus status, Pageable pageable) {
@@ -114,11 +197,13 @@ public class UserServiceImpl implements UserService {
     }
     
     @Override
-    public UserResponseDTO updateUser(Long id, UserUpdateRequestDTO updateRequest) {
+    public UserResponseDTO updateUser(Long id, UserUpdateRequestDTO updateRequest, String ifMatch) {
         logger.info("Updating user with ID: {}", id);
         
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(id));
+        // A concurrent write after this check still fails on the version column at flush
+        ETagUtil.checkIfMatch(ifMatch, ETagUtil.of(user.getVersion()));
         
         // Check for duplicates when updating
         if (updateRequest.getUsername() != null && !updateRequest.getUsername().equals(user.getUsername())) {
@@ -150,26 +235,31 @@ public class UserServiceImpl implements UserService {
             user.setStatus(updateRequest.getStatus());
         }
         
-        User updatedUser = userRepository.save(user);
+        // Flush so the returned ETag carries the incremented version
+        User updatedUser = userRepository.saveAndFlush(user);
+        eventPublisher.publishEvent(new UserChangedEvent(updatedUser.getId(), UserChangedEvent.ChangeType.UPDATED));
         logger.info("User updated successfully with ID: {}", updatedUser.getId());
         
         return mapToResponseDTO(updatedUser);
     }
     
     @Override
-    public UserResponseDTO updateUserStatus(Long id, UserStatus status) {
+    public UserResponseDTO updateUserStatus(Long id, UserStatus status, String ifMatch) {
         logger.info("Updating user status for ID: {} to {}", id, status);
         
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(id));
+        ETagUtil.checkIfMatch(ifMatch, ETagUtil.of(user.getVersion()));
         
         user.setStatus(status);
-        User updatedUser = userRepository.save(user);
+        User updatedUser = userRepository.saveAndFlush(user);
+        eventPublisher.publishEvent(new UserChangedEvent(updatedUser.getId(), UserChangedEvent.ChangeType.UPDATED));
         
         return mapToResponseDTO(updatedUser);
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteUser(Long id) {
         logger.info("Deleting user with ID: {}", id);
         
@@ -177,8 +267,17 @@ public class UserServiceImpl implements UserService {
             throw new UserNotFoundException(id);
         }
         
-        userRepository.deleteById(id);
-        logger.info("User deleted successfully with ID: {}", id);
+        // Remove role assignments in short chunked transactions instead of loading them through the cascade;
+        // the final transaction picks up assignments created in the meantime and removes the user itself.
+        // Each chunk publishes its own REMOVED event, so listeners see the rows even if a later step fails.
+        long deletedCount = ChunkedDeleteUtil.deleteInChunks(transactionTemplate, deleteChunkSize,
+                chunkSize -> userRoleRepository.deleteChunkByUserId(id, chunkSize),
+                rows -> eventPublisher.publishEvent(UserRoleChangedEvent.removedRows(rows)), () -> {
+            userRepository.deleteUserById(id);
+            eventPublisher.publishEvent(new UserDeletedEvent(id));
+        });
+        
+        logger.info("User deleted successfully with ID: {} ({} role assignments removed)", id, deletedCount);
     }
     
     @Override
@@ -200,7 +299,7 @@ public class UserServiceImpl implements UserService {
     }
     
     private UserResponseDTO mapToResponseDTO(User user) {
-        return new UserResponseDTO(
+        UserResponseDTO dto = new UserResponseDTO(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
@@ -209,5 +308,7 @@ public class UserServiceImpl implements UserService {
                 user.getCreatedAt(),
                 user.getUpdatedAt()
         );
+        dto.setEtag(ETagUtil.of(user.getVersion()));
+        return dto;
     }
 }
@@ -0,0 +1,51 @@
+package com.vnair.usermanagement.util;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Utility class để xóa các bản ghi con theo từng chunk trước khi xóa bản ghi cha
+ */
+public class ChunkedDeleteUtil {
+
+    /**
+     * Xóa từng chunk trong transaction ngắn riêng để không khóa toàn bộ các dòng cùng lúc.
+     * deleteChunk nhận kích thước chunk và trả về các dòng đã xóa; onDeleted chạy trong cùng transaction
+     * với chunk đó (ví dụ publish event) nên không có dòng nào bị xóa mà không được báo.
+     * Transaction cuối xóa nốt các dòng được tạo thêm trong lúc đó rồi chạy finalStep (xóa bản ghi cha).
+     * Trả về tổng số dòng đã xóa.
+     */
+    public static <T> long deleteInChunks(TransactionTemplate transactionTemplate, int chunkSize,
+                                          IntFunction<List<T>> deleteChunk, Consumer<List<T>> onDeleted,
+                                          Runnable finalStep) {
+        long deletedCount = 0;
+        int chunkCount;
+        do {
+            chunkCount = transactionTemplate.execute(status -> deleteChunk(chunkSize, deleteChunk, onDeleted));
+            deletedCount += chunkCount;
+        } while (chunkCount == chunkSize);
+
+        long remainingCount = transactionTemplate.execute(status -> {
+            long count = 0;
+            int deleted;
+            do {
+                deleted = deleteChunk(chunkSize, deleteChunk, onDeleted);
+                count += deleted;
+            } while (deleted == chunkSize);
+            finalStep.run();
+            return count;
+        });
+        return deletedCount + remainingCount;
+    }
+
+    private static <T> int deleteChunk(int chunkSize, IntFunction<List<T>> deleteChunk, Consumer<List<T>> onDeleted) {
+        List<T> deleted = deleteChunk.apply(chunkSize);
+        if (!deleted.isEmpty()) {
+            onDeleted.accept(deleted);
+        }
+        return deleted.size();
+    }
+}
@@ -0,0 +1,58 @@
+package com.vnair.usermanagement.util;
+
+import com.vnair.usermanagement.exception.PreconditionFailedException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.StringJoiner;
+
+/**
+ * Strong ETags built from entity version columns, and If-Match checks against them.
+ * <p>
+ * A resource whose representation includes data from other rows (user name on an assignment,
+ * aircraft code on a cabin) joins their versions into the tag, so a change to any of them
+ * produces a new tag.
+ */
+public class ETagUtil {
+    
+    private ETagUtil() {
+    }
+    
+    // Quoted tag from the given parts, e.g. "3" or "3.7.1"
+    public static String of(Object... parts) {
+        StringJoiner joiner = new StringJoiner(".", "\"", "\"");
+        for (Object part : parts) {
+            joiner.add(String.valueOf(part != null ? part : 0));
+        }
+        return joiner.toString();
+    }
+    
+    // Quoted tag from a SHA-256 of the content, for representations that have no single version column
+    public static String ofContent(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return '"' + HexFormat.of().formatHex(Arrays.copyOf(digest, 16)) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    /**
+     * Throws PreconditionFailedException unless the If-Match header is absent, "*", or lists the
+     * current tag. If-Match uses strong comparison, so weak tags (W/"...") never match.
+     */
+    public static void checkIfMatch(String ifMatch, String currentETag) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return;
+        }
+        for (String tag : ifMatch.split(",")) {
+            if (tag.trim().equals(currentETag)) {
+                return;
+            }
+        }
+        throw new PreconditionFailedException("Resource was modified, If-Match " + ifMatch.trim()
+                + " does not match current ETag " + currentETag);
+    }
+}
@@ -0,0 +1,292 @@
+package com.vnair.usermanagement.util;
+
+import com.vnair.usermanagement.common.CabinPosition;
+import com.vnair.usermanagement.repository.CabinRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cabin and seat totals per aircraft and cabin position, and for the whole fleet.
+ * <p>
+ * The rollup is built from one GROUP BY aircraft_id, position query and then kept current by the cabin
+ * and aircraft services, which report each cabin added or removed (an update is a removal plus an addition)
+ * and each aircraft deleted. Changes are applied after their transaction commits, as a new immutable
+ * snapshot, so reads never aggregate and never lock. A rebuild only runs while no reported transaction is
+ * between its report and its completion; otherwise a change could be counted both by the query and by its
+ * own delta. A rebuild every app.fleet-capacity.refresh-minutes picks up changes made by other nodes.
+ */
+@Component
+public class FleetCapacityRollup {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetCapacityRollup.class);
+
+    private static final int POSITIONS = CabinPosition.values().length;
+
+    // How long a rebuild waits for reported transactions to complete before giving up on installing
+    private static final long QUIESCE_TIMEOUT_MS = 5000;
+
+    @Autowired
+    private CabinRepository cabinRepository;
+
+    @Value("${app.fleet-capacity.refresh-minutes:10}")
+    private long refreshMinutes;
+
+    private final TransactionTemplate readTransaction;
+
+    private volatile Snapshot snapshot;
+
+    // Reported transactions that have not completed yet; guarded by this
+    private int pendingTransactions;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "fleet-capacity-rollup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FleetCapacityRollup(PlatformTransactionManager transactionManager) {
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::refreshQuietly);
+        if (refreshMinutes > 0) {
+            executor.scheduleWithFixedDelay(this::refreshQuietly, refreshMinutes, refreshMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Rebuild from the database
+    public void refresh() {
+        rebuild();
+    }
+
+    /**
+     * Returns the rebuilt totals. They are installed only when no reported transaction is in flight,
+     * otherwise the current snapshot is kept and goes on being updated by the deltas.
+     */
+    private synchronized Snapshot rebuild() {
+        long deadline = System.currentTimeMillis() + QUIESCE_TIMEOUT_MS;
+        try {
+            while (pendingTransactions > 0 && System.currentTimeMillis() < deadline) {
+                wait(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Still holding the lock, so no new transaction can report until the query has run
+        boolean quiesced = pendingTransactions == 0;
+        Snapshot fresh = load();
+        if (quiesced) {
+            snapshot = fresh;
+        } else {
+            logger.warn("Fleet capacity rebuild not installed, {} cabin transactions still pending", pendingTransactions);
+        }
+        return fresh;
+    }
+
+    public Totals getFleet() {
+        return current().fleet;
+    }
+
+    // Totals of one aircraft; zero when it has no cabins
+    public Totals getAircraft(Long aircraftId) {
+        Totals totals = current().byAircraft.get(aircraftId);
+        return totals != null ? totals : Totals.EMPTY;
+    }
+
+    // Totals of every aircraft that has at least one cabin
+    public Map<Long, Totals> getAircrafts() {
+        return current().byAircraft;
+    }
+
+    // Report from inside the transaction that creates the cabin or moves it in
+    public void cabinAdded(Long aircraftId, CabinPosition position, int seatCount) {
+        afterCommit(() -> apply(aircraftId, position, 1, seatCount));
+    }
+
+    // Report from inside the transaction that inserts several cabins at once, e.g. an aircraft clone
+    public void cabinsAdded(Long aircraftId, CabinPosition position, long cabinCount, long seatCount) {
+        afterCommit(() -> apply(aircraftId, position, cabinCount, seatCount));
+    }
+
+    // Report from inside the transaction that deletes the cabin or moves it out
+    public void cabinRemoved(Long aircraftId, CabinPosition position, int seatCount) {
+        afterCommit(() -> apply(aircraftId, position, -1, -seatCount));
+    }
+
+    // Report from inside the transaction that deletes the aircraft together with its cabins
+    public void aircraftRemoved(Long aircraftId) {
+        afterCommit(() -> removeAircraft(aircraftId));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (this) {
+                change.run();
+            }
+            return;
+        }
+        synchronized (this) {
+            pendingTransactions++;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (FleetCapacityRollup.this) {
+                    try {
+                        if (status == STATUS_COMMITTED) {
+                            change.run();
+                        }
+                    } finally {
+                        pendingTransactions--;
+                        FleetCapacityRollup.this.notifyAll();
+                    }
+                }
+            }
+        });
+    }
+
+    // Callers hold the lock; a change before the first build is already in the database it will read
+    private void apply(Long aircraftId, CabinPosition position, long cabins, long seats) {
+        Snapshot current = snapshot;
+        if (current == null || aircraftId == null || position == null) {
+            return;
+        }
+        Map<Long, Totals> byAircraft = new HashMap<>(current.byAircraft);
+        Totals aircraft = byAircraft.getOrDefault(aircraftId, Totals.EMPTY).plus(position, cabins, seats);
+        if (aircraft.getCabinCount() > 0) {
+            byAircraft.put(aircraftId, aircraft);
+        } else {
+            byAircraft.remove(aircraftId);
+        }
+        snapshot = new Snapshot(byAircraft, current.fleet.plus(position, cabins, seats));
+    }
+
+    private void removeAircraft(Long aircraftId) {
+        Snapshot current = snapshot;
+        if (current == null || !current.byAircraft.containsKey(aircraftId)) {
+            return;
+        }
+        Map<Long, Totals> byAircraft = new HashMap<>(current.byAircraft);
+        Totals removed = byAircraft.remove(aircraftId);
+        snapshot = new Snapshot(byAircraft, current.fleet.minus(removed));
+    }
+
+    private Snapshot load() {
+        List<Object[]> rows = readTransaction.execute(status -> cabinRepository.sumSeatsGroupByAircraftAndPosition());
+        Map<Long, Totals> byAircraft = new HashMap<>();
+        Totals fleet = Totals.EMPTY;
+        for (Object[] row : rows) {
+            Long aircraftId = (Long) row[0];
+            CabinPosition position = (CabinPosition) row[1];
+            long cabins = ((Number) row[2]).longValue();
+            long seats = ((Number) row[3]).longValue();
+            if (position == null) {
+                continue;
+            }
+            byAircraft.put(aircraftId, byAircraft.getOrDefault(aircraftId, Totals.EMPTY).plus(position, cabins, seats));
+            fleet = fleet.plus(position, cabins, seats);
+        }
+        return new Snapshot(byAircraft, fleet);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.error("Fleet capacity rebuild failed", e);
+        }
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, Totals> byAircraft;
+        private final Totals fleet;
+
+        private Snapshot(Map<Long, Totals> byAircraft, Totals fleet) {
+            this.byAircraft = Collections.unmodifiableMap(byAircraft);
+            this.fleet = fleet;
+        }
+    }
+
+    /**
+     * Cabin and seat counts indexed by {@link CabinPosition#ordinal()}. Immutable.
+     */
+    public static final class Totals {
+        static final Totals EMPTY = new Totals(new long[POSITIONS], new long[POSITIONS]);
+
+        private final long[] cabins;
+        private final long[] seats;
+
+        private Totals(long[] cabins, long[] seats) {
+            this.cabins = cabins;
+            this.seats = seats;
+        }
+
+        public long getCabinCount() {
+            return Arrays.stream(cabins).sum();
+        }
+
+        public long getSeatCount() {
+            return Arrays.stream(seats).sum();
+        }
+
+        public long getCabinCount(CabinPosition position) {
+            return cabins[position.ordinal()];
+        }
+
+        public long getSeatCount(CabinPosition position) {
+            return seats[position.ordinal()];
+        }
+
+        private Totals plus(CabinPosition position, long cabinDelta, long seatDelta) {
+            long[] newCabins = cabins.clone();
+            long[] newSeats = seats.clone();
+            newCabins[position.ordinal()] += cabinDelta;
+            newSeats[position.ordinal()] += seatDelta;
+            return new Totals(newCabins, newSeats);
+        }
+
+        private Totals minus(Totals other) {
+            long[] newCabins = cabins.clone();
+            long[] newSeats = seats.clone();
+            for (int i = 0; i < POSITIONS; i++) {
+                newCabins[i] -= other.cabins[i];
+                newSeats[i] -= other.seats[i];
+            }
+            return new Totals(newCabins, newSeats);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.vnair.usermanagement.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vnair.usermanagement.config.CompressionFilter;
+import com.vnair.usermanagement.event.FleetChangedEvent;
+import com.vnair.usermanagement.service.AircraftService;
+import com.vnair.usermanagement.service.CabinService;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-serialized JSON of the full fleet listings, GET /api/aircrafts and GET /api/cabins.
+ * <p>
+ * Each listing is kept as immutable byte arrays (raw JSON and its gzip form), each with an ETag that is a
+ * hash of those bytes. Requests are answered from the current snapshot with no database access and no
+ * Jackson work: a matching If-None-Match gets 304, otherwise the stored array is written as is. A snapshot
+ * is never modified; after every committed FleetChangedEvent both listings are rebuilt and the new snapshot
+ * is swapped in. A rebuild every app.fleet-cache.refresh-minutes picks up changes made by other nodes.
+ */
+@Component
+public class FleetReferenceCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetReferenceCache.class);
+
+    public enum Listing {
+        AIRCRAFTS("/api/aircrafts"),
+        CABINS("/api/cabins");
+
+        private final String path;
+
+        Listing(String path) {
+            this.path = path;
+        }
+    }
+
+    @Autowired
+    private AircraftService aircraftService;
+
+    @Autowired
+    private CabinService cabinService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.fleet-cache.refresh-minutes:5}")
+    private long refreshMinutes;
+
+    @Value("${app.compression.level:6}")
+    private int gzipLevel;
+
+    private final TransactionTemplate readTransaction;
+
+    private volatile Snapshot snapshot;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "fleet-reference-cache");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FleetReferenceCache(PlatformTransactionManager transactionManager) {
+        // Rebuilds run after the writer's commit, so they need a transaction of their own
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (refreshMinutes > 0) {
+            executor.scheduleWithFixedDelay(this::refreshQuietly, refreshMinutes, refreshMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Rebuild both listings; synchronized so the last rebuild always reads the latest committed state
+    public synchronized void refresh() {
+        Map<Listing, Representation> representations = new EnumMap<>(Listing.class);
+        readTransaction.executeWithoutResult(status -> {
+            representations.put(Listing.AIRCRAFTS, serialize(aircraftService.getAllAircrafts()));
+            representations.put(Listing.CABINS, serialize(cabinService.getAllCabins()));
+        });
+        snapshot = new Snapshot(representations);
+        logger.debug("Fleet reference cache rebuilt: aircrafts {} bytes, cabins {} bytes",
+                representations.get(Listing.AIRCRAFTS).json.length, representations.get(Listing.CABINS).json.length);
+    }
+
+    /**
+     * Whether the request is a plain JSON listing request this cache answers. Accept headers that allow any
+     * other type go through normal content negotiation, since that may pick a different handler.
+     */
+    public boolean serves(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod()) || request.getQueryString() != null || listingOf(request) == null) {
+            return false;
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return true;
+        }
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (!mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    // Write the stored bytes of the listing, or 304 when If-None-Match carries their ETag
+    public void write(Listing listing, ServletWebRequest webRequest) throws IOException {
+        Representation representation = current().representations.get(listing);
+        HttpServletResponse response = webRequest.getResponse();
+        boolean gzip = representation.gzip != null
+                && CompressionFilter.acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (webRequest.checkNotModified(gzip ? representation.gzipETag : representation.etag)) {
+            return;
+        }
+
+        byte[] body = gzip ? representation.gzip : representation.json;
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFleetChanged(FleetChangedEvent event) {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // The snapshot is stale now, drop it so the next read rebuilds
+            snapshot = null;
+            logger.error("Fleet reference cache rebuild failed after {} {} changed", event.getKind(), event.getIds(), e);
+        }
+    }
+
+    private Listing listingOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Listing listing : Listing.values()) {
+            if (listing.path.equals(path)) {
+                return listing;
+            }
+        }
+        return null;
+    }
+
+    private Representation serialize(List<?> listing) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(listing);
+            byte[] gzip = CompressionFilter.gzip(json, gzipLevel);
+            return new Representation(json, gzip.length < json.length ? gzip : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize fleet listing", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.error("Fleet reference cache rebuild failed", e);
+        }
+    }
+
+    private static final class Snapshot {
+        private final Map<Listing, Representation> representations;
+
+        private Snapshot(Map<Listing, Representation> representations) {
+            this.representations = Collections.unmodifiableMap(new EnumMap<>(representations));
+        }
+    }
+
+    // Serialized listing; the arrays are never written to after construction
+    private static final class Representation {
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+        private final String gzipETag;
+
+        private Representation(byte[] json, byte[] gzip) {
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = ETagUtil.ofContent(json);
+            this.gzipETag = gzip != null ? ETagUtil.ofContent(gzip) : null;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.vnair.usermanagement.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Hierarchical timing wheel in the style of the classic Linux kernel timer wheel.
+ * <p>
+ * Timers are kept in 4 levels of 64 slots. Level 0 holds timers due within the next 64 ticks,
+ * level n holds timers due within 64^(n+1) ticks; when level 0 wraps, the next slot of the level
+ * above is cascaded down. Each slot is an intrusive doubly linked list, so schedule and cancel
+ * are O(1) and advancing costs one slot per tick plus the occasional cascade.
+ * Timers beyond the range of the top level are parked in its furthest slot and re-inserted
+ * when that slot cascades.
+ * <p>
+ * Timers are identified by key; scheduling an existing key replaces its timer.
+ * This class is not thread-safe, callers must synchronize.
+ */
+public class HierarchicalTimingWheel<K, V> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final Node<K, V>[][] wheel;
+    private final Map<K, Node<K, V>> timers = new HashMap<>();
+
+    // Next tick that has not been processed yet
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long startTick) {
+        this.wheel = new Node[LEVELS][SLOTS];
+        this.currentTick = startTick;
+    }
+
+    /**
+     * Schedule (or reschedule) the timer for key to fire at the given tick.
+     * Ticks in the past fire on the next advance.
+     */
+    public void schedule(K key, V value, long expiryTick) {
+        cancel(key);
+        Node<K, V> node = new Node<>(key, value, expiryTick);
+        timers.put(key, node);
+        insert(node);
+    }
+
+    // Cancel the timer for key; returns false when no timer was scheduled
+    public boolean cancel(K key) {
+        Node<K, V> node = timers.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    public boolean contains(K key) {
+        return timers.containsKey(key);
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Process every tick up to and including targetTick, passing each expired timer to onExpired.
+     * Returns the number of timers fired.
+     */
+    public int advanceTo(long targetTick, BiConsumer<K, V> onExpired) {
+        if (timers.isEmpty()) {
+            // Nothing to cascade or fire, jump straight to the target
+            currentTick = Math.max(currentTick, targetTick + 1);
+            return 0;
+        }
+
+        int fired = 0;
+        while (currentTick <= targetTick) {
+            int index = (int) (currentTick & SLOT_MASK);
+            if (index == 0) {
+                cascadeFrom(1);
+            }
+
+            Node<K, V> node = wheel[0][index];
+            wheel[0][index] = null;
+            currentTick++;
+
+            while (node != null) {
+                Node<K, V> next = node.next;
+                node.prev = null;
+                node.next = null;
+                node.level = -1;
+                timers.remove(node.key);
+                onExpired.accept(node.key, node.value);
+                fired++;
+                node = next;
+            }
+
+            if (timers.isEmpty()) {
+                currentTick = Math.max(currentTick, targetTick + 1);
+            }
+        }
+        return fired;
+    }
+
+    // Cascade the current slot of each level, moving up only while the lower level has wrapped
+    private void cascadeFrom(int level) {
+        while (level < LEVELS) {
+            int index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            Node<K, V> node = wheel[level][index];
+            wheel[level][index] = null;
+
+            while (node != null) {
+                Node<K, V> next = node.next;
+                node.prev = null;
+                node.next = null;
+                insert(node);
+                node = next;
+            }
+
+            if (index != 0) {
+                return;
+            }
+            level++;
+        }
+    }
+
+    private void insert(Node<K, V> node) {
+        long delta = node.expiryTick - currentTick;
+        long slotTick = node.expiryTick;
+        int level;
+
+        if (delta < 0) {
+            // Already due, fire on the next tick processed
+            level = 0;
+            slotTick = currentTick;
+        } else if (delta > MAX_DELTA) {
+            // Beyond the wheel range, park in the furthest top-level slot and re-insert on cascade
+            level = LEVELS - 1;
+            slotTick = currentTick + MAX_DELTA;
+        } else {
+            level = 0;
+            while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+                level++;
+            }
+        }
+
+        int index = (int) ((slotTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        node.level = level;
+        node.slot = index;
+        node.prev = null;
+        node.next = wheel[level][index];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        wheel[level][index] = node;
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.level < 0) {
+            return;
+        }
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            wheel[node.level][node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        node.level = -1;
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final long expiryTick;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+        private int level = -1;
+        private int slot;
+
+        private Node(K key, V value, long expiryTick) {
+            this.key = key;
+            this.value = value;
+            this.expiryTick = expiryTick;
+        }
+    }
+}
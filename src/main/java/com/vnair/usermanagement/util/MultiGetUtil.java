@@ -0,0 +1,58 @@
+package com.vnair.usermanagement.util;
+
+import com.vnair.usermanagement.dto.response.MultiGetResponseDTO;
+import com.vnair.usermanagement.exception.TooManyIdsException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Utility class cho các endpoint lấy nhiều bản ghi theo ?ids=
+ */
+public class MultiGetUtil {
+
+    /**
+     * Bỏ ID trùng và null, giữ thứ tự của request, kiểm tra giới hạn số ID
+     */
+    public static List<Long> distinctIds(Collection<Long> ids, int maxIds) {
+        LinkedHashSet<Long> distinct = new LinkedHashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id != null) {
+                    distinct.add(id);
+                }
+            }
+        }
+        if (distinct.size() > maxIds) {
+            throw new TooManyIdsException("At most " + maxIds + " ids are allowed per request, got " + distinct.size());
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * Sắp xếp kết quả theo thứ tự ID trong request và liệt kê các ID không tìm thấy
+     */
+    public static <E, T> MultiGetResponseDTO<T> createResponse(List<Long> ids, Collection<E> found,
+                                                               Function<E, Long> idOf, Function<E, T> mapper) {
+        Map<Long, E> byId = new HashMap<>();
+        for (E entity : found) {
+            byId.put(idOf.apply(entity), entity);
+        }
+        List<T> items = new ArrayList<>(byId.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            E entity = byId.get(id);
+            if (entity != null) {
+                items.add(mapper.apply(entity));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new MultiGetResponseDTO<>(items, missingIds);
+    }
+}
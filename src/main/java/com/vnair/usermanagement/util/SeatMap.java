@@ -0,0 +1,227 @@
+package com.vnair.usermanagement.util;
+
+import com.vnair.usermanagement.common.SeatState;
+
+import java.util.Arrays;
+
+/**
+ * Seat states of one cabin as two bitsets, held and blocked; a seat with neither bit set is available.
+ * Seats are numbered from 0 here. Every change increments {@link #getVersion()}.
+ * <p>
+ * The usable range can be narrowed below the size with {@link #restrict(int)} while a shrink is pending,
+ * so seats that are about to disappear cannot be taken in the meantime.
+ * This class is not thread-safe, callers must synchronize.
+ */
+public class SeatMap {
+
+    private int size;
+    private int limit;
+    private long[] held;
+    private long[] blocked;
+    private long version;
+
+    public SeatMap(int size) {
+        this(size, new long[words(size)], new long[words(size)], 0);
+    }
+
+    public SeatMap(int size, long[] held, long[] blocked, long version) {
+        this.size = size;
+        this.limit = size;
+        this.held = Arrays.copyOf(held, words(size));
+        this.blocked = Arrays.copyOf(blocked, words(size));
+        this.version = version;
+        clearBeyond(size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public SeatState state(int seat) {
+        if (isSet(blocked, seat)) {
+            return SeatState.BLOCKED;
+        }
+        return isSet(held, seat) ? SeatState.HELD : SeatState.AVAILABLE;
+    }
+
+    // Seats that are outside the usable range or not in the expected state
+    public int[] conflicts(int[] seats, SeatState expected) {
+        int[] conflicts = new int[seats.length];
+        int count = 0;
+        for (int seat : seats) {
+            if (seat < 0 || seat >= limit || state(seat) != expected) {
+                conflicts[count++] = seat;
+            }
+        }
+        return Arrays.copyOf(conflicts, count);
+    }
+
+    // Move the seats to the given state; check conflicts() first for compare-and-set semantics
+    public void set(int[] seats, SeatState state) {
+        for (int seat : seats) {
+            int word = seat >>> 6;
+            long bit = 1L << seat;
+            held[word] = state == SeatState.HELD ? held[word] | bit : held[word] & ~bit;
+            blocked[word] = state == SeatState.BLOCKED ? blocked[word] | bit : blocked[word] & ~bit;
+        }
+        version++;
+    }
+
+    public int count(SeatState state) {
+        int count = 0;
+        for (int word = 0; word < held.length; word++) {
+            count += Long.bitCount(bitsOf(word, state));
+        }
+        return count;
+    }
+
+    // Seats in the given state, in ascending order
+    public int[] seats(SeatState state) {
+        int[] seats = new int[count(state)];
+        int count = 0;
+        for (int word = 0; word < held.length; word++) {
+            long bits = bitsOf(word, state);
+            while (bits != 0) {
+                seats[count++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return seats;
+    }
+
+    /**
+     * First seat of the lowest run of n contiguous available seats within the usable range, or -1.
+     * Works a word at a time: fully free words extend the run by 64, other words are walked run by run
+     * with trailing-zero counts instead of seat by seat.
+     */
+    public int findContiguousAvailable(int n) {
+        if (n <= 0 || n > limit) {
+            return -1;
+        }
+        int runStart = 0;
+        int runLength = 0;
+        for (int word = 0; word < words(limit); word++) {
+            long free = bitsOf(word, SeatState.AVAILABLE) & usableMask(word);
+            if (free == -1L) {
+                if (runLength == 0) {
+                    runStart = word << 6;
+                }
+                runLength += 64;
+                if (runLength >= n) {
+                    return runStart;
+                }
+                continue;
+            }
+            int bit = 0;
+            while (bit < 64) {
+                long rest = free >>> bit;
+                if (rest == 0) {
+                    runLength = 0;
+                    break;
+                }
+                int zeros = Long.numberOfTrailingZeros(rest);
+                if (zeros > 0) {
+                    runLength = 0;
+                    bit += zeros;
+                    continue;
+                }
+                int ones = Long.numberOfTrailingZeros(~rest);
+                if (runLength == 0) {
+                    runStart = (word << 6) + bit;
+                }
+                runLength += ones;
+                if (runLength >= n) {
+                    return runStart;
+                }
+                // A run that reaches bit 63 carries over into the next word
+                bit += ones;
+            }
+        }
+        return -1;
+    }
+
+    // Seats at or above newSize that are not available, i.e. would be lost by shrinking to newSize
+    public int[] occupiedFrom(int newSize) {
+        int count = 0;
+        int[] occupied = new int[Math.max(0, size - newSize)];
+        for (int seat = Math.max(0, newSize); seat < size; seat++) {
+            if (state(seat) != SeatState.AVAILABLE) {
+                occupied[count++] = seat;
+            }
+        }
+        return Arrays.copyOf(occupied, count);
+    }
+
+    // Narrow the usable range ahead of a shrink
+    public void restrict(int newLimit) {
+        limit = Math.min(limit, newLimit);
+    }
+
+    // Undo restrict() when the shrink does not happen
+    public void unrestrict() {
+        limit = size;
+    }
+
+    // Change the size; new seats are available and seats beyond a smaller size are dropped
+    public void resize(int newSize) {
+        held = Arrays.copyOf(held, words(newSize));
+        blocked = Arrays.copyOf(blocked, words(newSize));
+        size = newSize;
+        limit = newSize;
+        clearBeyond(newSize);
+        version++;
+    }
+
+    public long[] heldWords() {
+        return held.clone();
+    }
+
+    public long[] blockedWords() {
+        return blocked.clone();
+    }
+
+    private long bitsOf(int word, SeatState state) {
+        switch (state) {
+            case HELD:
+                return held[word] & ~blocked[word];
+            case BLOCKED:
+                return blocked[word];
+            default:
+                return ~(held[word] | blocked[word]) & sizeMask(word);
+        }
+    }
+
+    private long sizeMask(int word) {
+        int remaining = size - (word << 6);
+        return remaining >= 64 ? -1L : (1L << remaining) - 1;
+    }
+
+    private long usableMask(int word) {
+        int remaining = limit - (word << 6);
+        return remaining >= 64 ? -1L : (1L << remaining) - 1;
+    }
+
+    private void clearBeyond(int newSize) {
+        if (held.length > 0 && (newSize & 63) != 0) {
+            long mask = (1L << newSize) - 1;
+            held[held.length - 1] &= mask;
+            blocked[blocked.length - 1] &= mask;
+        }
+    }
+
+    private static boolean isSet(long[] bits, int seat) {
+        return (bits[seat >>> 6] & (1L << seat)) != 0;
+    }
+
+    private static int words(int size) {
+        return (size + 63) >>> 6;
+    }
+}
@@ -0,0 +1,80 @@
+package com.vnair.usermanagement.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one execution.
+ * The first caller for a key runs the loader; callers that arrive while it is running wait for
+ * and share its result or exception. Nothing is cached once the call completes, so a result is
+ * never older than a load that was already running when the caller arrived.
+ * Shared results are the same instance for every waiter and must not be modified.
+ */
+public class SingleFlight<K, V> {
+    
+    private final String name;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public V execute(K key, Supplier<V> loader) {
+        requests.increment();
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, call);
+        if (inFlight == null) {
+            loads.increment();
+            try {
+                V value = loader.get();
+                call.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                calls.remove(key, call);
+            }
+        }
+        
+        shared.increment();
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+    
+    // Counters since startup; coalescingRatio is the share of requests served by another caller's load
+    public Map<String, Object> getStats() {
+        long requestCount = requests.sum();
+        long sharedCount = shared.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requestCount);
+        stats.put("loads", loads.sum());
+        stats.put("shared", sharedCount);
+        stats.put("inFlight", calls.size());
+        stats.put("coalescingRatio", requestCount > 0 ? (double) sharedCount / requestCount : 0.0);
+        return stats;
+    }
+}
@@ -0,0 +1,28 @@
+package com.vnair.usermanagement.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named single-flight groups shared by the services, so their coalescing counters can be reported together.
+ */
+@Component
+public class SingleFlightRegistry {
+    
+    private final ConcurrentHashMap<String, SingleFlight<?, ?>> flights = new ConcurrentHashMap<>();
+    
+    @SuppressWarnings("unchecked")
+    public <K, V> SingleFlight<K, V> get(String name) {
+        return (SingleFlight<K, V>) flights.computeIfAbsent(name, SingleFlight::new);
+    }
+    
+    // Counters of every group by name
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        flights.keySet().stream().sorted().forEach(name -> stats.put(name, flights.get(name).getStats()));
+        return stats;
+    }
+}
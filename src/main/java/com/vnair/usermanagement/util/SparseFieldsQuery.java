@@ -0,0 +1,152 @@
+package com.vnair.usermanagement.util;
+
+import com.vnair.usermanagement.exception.InvalidFieldsException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs list queries for a fields= selection as tuple projections, so only the selected columns are read.
+ * Each endpoint passes the fields it exposes, mapped to entity attribute paths such as "user.username";
+ * a to-one association is left-joined only when one of its columns other than the id is selected.
+ * Rows come back as maps keyed by field name, in the requested order. Sorting is limited to the same fields.
+ */
+@Component
+public class SparseFieldsQuery {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Parse a comma-separated selection; the result keeps the request order without duplicates
+    public List<String> parseFields(String fields, Map<String, String> allowedFields) {
+        Set<String> selected = new LinkedHashSet<>();
+        List<String> unknown = new ArrayList<>();
+        if (fields != null) {
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (allowedFields.containsKey(name)) {
+                    selected.add(name);
+                } else {
+                    unknown.add(name);
+                }
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new InvalidFieldsException("Unknown fields " + unknown + ", allowed fields are " + allowedFields.keySet());
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidFieldsException("At least one field is required, allowed fields are " + allowedFields.keySet());
+        }
+        return new ArrayList<>(selected);
+    }
+    
+    public <T> Page<Map<String, Object>> findPage(Class<T> entityClass, Map<String, String> allowedFields,
+                                                  String fields, Pageable pageable) {
+        List<String> selected = parseFields(fields, allowedFields);
+        TypedQuery<Tuple> query = createQuery(entityClass, allowedFields, selected, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> rows = toRows(query.getResultList(), selected);
+        // The count query is skipped when the page itself shows the total
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(entityClass));
+    }
+    
+    public <T> List<Map<String, Object>> findAll(Class<T> entityClass, Map<String, String> allowedFields,
+                                                 String fields, Sort sort) {
+        List<String> selected = parseFields(fields, allowedFields);
+        return toRows(createQuery(entityClass, allowedFields, selected, sort).getResultList(), selected);
+    }
+    
+    private <T> TypedQuery<Tuple> createQuery(Class<T> entityClass, Map<String, String> allowedFields,
+                                              List<String> selected, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityClass);
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        
+        List<Selection<?>> selections = new ArrayList<>(selected.size());
+        for (String field : selected) {
+            selections.add(path(root, allowedFields.get(field), joins).alias(field));
+        }
+        query.multiselect(selections);
+        
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            // Only exposed fields can be sorted on, so hidden attributes cannot be probed through the ordering
+            String attributePath = allowedFields.get(order.getProperty());
+            if (attributePath == null) {
+                throw new InvalidFieldsException("Unknown sort field " + order.getProperty()
+                        + ", allowed fields are " + allowedFields.keySet());
+            }
+            Path<?> sortPath = path(root, attributePath, joins);
+            orders.add(order.isAscending() ? cb.asc(sortPath) : cb.desc(sortPath));
+        }
+        query.orderBy(orders);
+        
+        return entityManager.createQuery(query);
+    }
+    
+    private <T> long count(Class<T> entityClass) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        query.select(cb.count(query.from(entityClass)));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+    
+    private Path<?> path(Root<?> root, String attributePath, Map<String, From<?, ?>> joins) {
+        String[] attributes = attributePath.split("\\.");
+        // "association.id" reads the foreign key column, no join needed
+        if (attributes.length == 2 && attributes[1].equals("id")) {
+            return root.get(attributes[0]).get("id");
+        }
+        From<?, ?> from = root;
+        String joinPath = "";
+        for (int i = 0; i < attributes.length - 1; i++) {
+            From<?, ?> parent = from;
+            String attribute = attributes[i];
+            joinPath = joinPath.isEmpty() ? attribute : joinPath + "." + attribute;
+            // Left join keeps rows whose optional association is null, like the full DTO mapping does
+            from = joins.computeIfAbsent(joinPath, key -> parent.join(attribute, JoinType.LEFT));
+        }
+        return from.get(attributes[attributes.length - 1]);
+    }
+    
+    private List<Map<String, Object>> toRows(List<Tuple> tuples, List<String> selected) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : selected) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -57,10 +57,14 @@ CREATE TABLE IF NOT EXISTS roles (
     name VARCHAR(50) UNIQUE NOT NULL,
     description VARCHAR(500),
     is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    permissions BIGINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Add permissions to roles tables created before the permission catalog
+ALTER TABLE roles ADD COLUMN IF NOT EXISTS permissions BIGINT NOT NULL DEFAULT 0;
+
 -- Create aircrafts table
 CREATE TABLE IF NOT EXISTS aircrafts (
     id BIGSERIAL PRIMARY KEY,
@@ -100,6 +104,128 @@ CREATE TABLE IF NOT EXISTS user_roles (
     UNIQUE(user_id, role_id)
 );
 
+-- Create role_hierarchy table (parent role implies child role)
+CREATE TABLE IF NOT EXISTS role_hierarchy (
+    id BIGSERIAL PRIMARY KEY,
+    parent_role_id BIGINT NOT NULL,
+    child_role_id BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (parent_role_id) REFERENCES roles(id) ON DELETE CASCADE,
+    FOREIGN KEY (child_role_id) REFERENCES roles(id) ON DELETE CASCADE,
+    UNIQUE(parent_role_id, child_role_id)
+);
+
+-- Create role_closure table (transitive closure of role_hierarchy with path counts)
+CREATE TABLE IF NOT EXISTS role_closure (
+    ancestor_id BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    path_count BIGINT NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    FOREIGN KEY (ancestor_id) REFERENCES roles(id) ON DELETE CASCADE,
+    FOREIGN KEY (descendant_id) REFERENCES roles(id) ON DELETE CASCADE
+);
+
+-- Create user_role_audit_log table (append-only, no foreign keys so history outlives its rows)
+CREATE TABLE IF NOT EXISTS user_role_audit_log (
+    id BIGSERIAL PRIMARY KEY,
+    user_role_id BIGINT,
+    user_id BIGINT,
+    role_id BIGINT,
+    change_type VARCHAR(30) NOT NULL,
+    active BOOLEAN NOT NULL,
+    expires_at TIMESTAMP,
+    changed_by VARCHAR(255),
+    occurred_at TIMESTAMP NOT NULL,
+    recorded_at TIMESTAMP NOT NULL
+);
+
+-- Create change_log table (change feed for incremental sync, seq handed out by change_feed_counter)
+CREATE TABLE IF NOT EXISTS change_log (
+    seq BIGINT PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    operation VARCHAR(20) NOT NULL,
+    user_id BIGINT,
+    role_id BIGINT,
+    changed_at TIMESTAMP NOT NULL
+);
+
+-- Create change_feed_counter table (single row holding the last change feed seq)
+CREATE TABLE IF NOT EXISTS change_feed_counter (
+    id INTEGER PRIMARY KEY,
+    last_seq BIGINT NOT NULL
+);
+
+INSERT INTO change_feed_counter (id, last_seq) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
+
+-- Create user_role_bulk_jobs table (chunked background deactivation jobs)
+CREATE TABLE IF NOT EXISTS user_role_bulk_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    job_type VARCHAR(50) NOT NULL,
+    target_id BIGINT,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    chunk_size INTEGER NOT NULL,
+    cutoff_time TIMESTAMP,
+    last_processed_id BIGINT NOT NULL DEFAULT 0,
+    processed_count BIGINT NOT NULL DEFAULT 0,
+    estimated_total BIGINT NOT NULL DEFAULT 0,
+    requested_by VARCHAR(255),
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+-- Create job_lock table (one lease row per cluster job)
+CREATE TABLE IF NOT EXISTS job_lock (
+    job_name VARCHAR(100) PRIMARY KEY,
+    owner_id VARCHAR(255),
+    lease_until TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    fencing_token BIGINT NOT NULL DEFAULT 0
+);
+ALTER TABLE job_lock ADD COLUMN IF NOT EXISTS fencing_token BIGINT NOT NULL DEFAULT 0;
+
+-- Create job_runs table (cluster job run history)
+CREATE TABLE IF NOT EXISTS job_runs (
+    id BIGSERIAL PRIMARY KEY,
+    job_name VARCHAR(100) NOT NULL,
+    node_id VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    duration_ms BIGINT,
+    message VARCHAR(1000)
+);
+
+-- Create fleet_version_counter table (single row holding the whole-fleet snapshot version)
+CREATE TABLE IF NOT EXISTS fleet_version_counter (
+    id INTEGER PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO fleet_version_counter (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
+
+-- Create cabin_seat_maps table (seat state bitsets, written by the seat inventory with compare-and-set on version).
+-- No foreign key: cabins live in the JPA-managed cabin table, which does not exist yet when this script runs;
+-- the writer only upserts rows of existing cabins and deletes the row when the cabin is deleted
+CREATE TABLE IF NOT EXISTS cabin_seat_maps (
+    cabin_id BIGINT PRIMARY KEY,
+    seat_count INTEGER NOT NULL,
+    held BYTEA NOT NULL,
+    blocked BYTEA NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Optimistic lock versions, also the ETags of users, roles, assignments, aircraft and cabins
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE roles ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE user_roles ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE aircrafts ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE cabins ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
 -- Create indexes for better performance
 CREATE INDEX IF NOT EXISTS idx_users_username ON users(username);
 CREATE INDEX IF NOT EXISTS idx_users_email ON users(email);
@@ -113,6 +239,20 @@ CREATE INDEX IF NOT EXISTS idx_roles_is_active ON roles(is_active);
 CREATE INDEX IF NOT EXISTS idx_user_roles_user_id ON user_roles(user_id);
 CREATE INDEX IF NOT EXISTS idx_user_roles_role_id ON user_roles(role_id);
 CREATE INDEX IF NOT EXISTS idx_user_roles_is_active ON user_roles(is_active);
+CREATE INDEX IF NOT EXISTS idx_user_roles_expires_at ON user_roles(expires_at) WHERE expires_at IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_role_hierarchy_child ON role_hierarchy(child_role_id);
+CREATE INDEX IF NOT EXISTS idx_role_closure_descendant ON role_closure(descendant_id);
+
+CREATE INDEX IF NOT EXISTS idx_user_role_audit_user ON user_role_audit_log(user_id, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_user_role_audit_role ON user_role_audit_log(role_id, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_user_role_audit_user_role ON user_role_audit_log(user_role_id);
+
+CREATE INDEX IF NOT EXISTS idx_change_log_changed_at ON change_log(changed_at);
+
+CREATE INDEX IF NOT EXISTS idx_user_role_bulk_jobs_status ON user_role_bulk_jobs(status);
+CREATE INDEX IF NOT EXISTS idx_job_runs_job_name ON job_runs(job_name);
+CREATE INDEX IF NOT EXISTS idx_job_runs_started_at ON job_runs(started_at);
 
 CREATE INDEX IF NOT EXISTS idx_aircrafts_code ON aircrafts(code);
 CREATE INDEX IF NOT EXISTS idx_cabins_aircraft_id ON cabins(aircraft_id);
@@ -132,6 +272,14 @@ INSERT INTO roles (name, description, is_active) VALUES
 ('MANAGER', 'Manager role with intermediate privileges', TRUE)
 ON CONFLICT (name) DO NOTHING;
 
+-- Grant permission masks to sample roles (bits from com.vnair.usermanagement.common.Permission)
+-- ADMIN: all; MANAGER: aircraft/cabin read+write, user-role read; USER: aircraft/cabin read
+UPDATE roles SET permissions = 127, version = version + 1 WHERE name = 'ADMIN' AND permissions = 0;
+-- change-feed:read (bit 6) was added after the first seed
+UPDATE roles SET permissions = permissions | 64, version = version + 1 WHERE name = 'ADMIN' AND permissions = 63;
+UPDATE roles SET permissions = 31, version = version + 1 WHERE name = 'MANAGER' AND permissions = 0;
+UPDATE roles SET permissions = 5, version = version + 1 WHERE name = 'USER' AND permissions = 0;
+
 -- Insert sample aircrafts
 INSERT INTO aircrafts (code, name) VALUES
 ('VN-A350', 'Airbus A350-900'),
@@ -0,0 +1,81 @@
+package com.vnair.usermanagement.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vnair.usermanagement.dto.UserRoleResponseDTO;
+import com.vnair.usermanagement.dto.response.PageResponseDTO;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares payload size and encode/decode time of JSON, CBOR and Smile for a 1,000-element
+ * PageResponseDTO of UserRoleResponseDTO, using mappers built the way the application builds them.
+ * Not a unit test; run the main method from the IDE, or after mvn test-compile with the test classpath.
+ */
+public class SerializationBenchmark {
+    
+    private static final int PAGE_SIZE = 1000;
+    private static final int WARMUP_ITERATIONS = 2000;
+    private static final int MEASURED_ITERATIONS = 2000;
+    
+    private static final TypeReference<PageResponseDTO<UserRoleResponseDTO>> PAGE_TYPE = new TypeReference<>() {};
+    
+    public static void main(String[] args) throws Exception {
+        PageResponseDTO<UserRoleResponseDTO> page = createPage();
+        
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("JSON", Jackson2ObjectMapperBuilder.json().build());
+        mappers.put("CBOR", Jackson2ObjectMapperBuilder.cbor().build());
+        mappers.put("Smile", Jackson2ObjectMapperBuilder.smile().build());
+        
+        System.out.printf("%-6s %12s %14s %14s%n", "Format", "Bytes", "Encode (us)", "Decode (us)");
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] payload = mapper.writeValueAsBytes(page);
+            
+            // Warm up the JIT and Jackson's serializer caches before measuring
+            long sink = 0;
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                sink += mapper.writeValueAsBytes(page).length;
+                sink += mapper.readValue(payload, PAGE_TYPE).getNumberOfElements();
+            }
+            
+            long encodeStart = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                sink += mapper.writeValueAsBytes(page).length;
+            }
+            long encodeNanos = System.nanoTime() - encodeStart;
+            
+            long decodeStart = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                sink += mapper.readValue(payload, PAGE_TYPE).getNumberOfElements();
+            }
+            long decodeNanos = System.nanoTime() - decodeStart;
+            
+            System.out.printf("%-6s %12d %14.1f %14.1f%n", entry.getKey(), payload.length,
+                    encodeNanos / 1000.0 / MEASURED_ITERATIONS, decodeNanos / 1000.0 / MEASURED_ITERATIONS);
+            if (sink == 42) {
+                System.out.println();
+            }
+        }
+    }
+    
+    private static PageResponseDTO<UserRoleResponseDTO> createPage() {
+        LocalDateTime now = LocalDateTime.now();
+        List<UserRoleResponseDTO> content = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            long userId = 10_000L + i;
+            long roleId = 1 + i % 8;
+            content.add(new UserRoleResponseDTO((long) i + 1, userId, "user" + userId, "user" + userId + "@vnair.vn",
+                    roleId, "ROLE_" + roleId, "Role number " + roleId, "admin", i % 10 != 0,
+                    now.minusDays(i % 365), now.minusHours(i % 48), i % 3 == 0 ? now.plusDays(30) : null,
+                    i % 5 == 0 ? "Temporary assignment for the summer schedule" : null));
+        }
+        return new PageResponseDTO<>(content, 25_000L, 25, 0, PAGE_SIZE);
+    }
+}
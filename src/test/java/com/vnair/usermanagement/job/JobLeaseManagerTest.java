@@ -0,0 +1,134 @@
+package com.vnair.usermanagement.job;
+
+import com.vnair.usermanagement.entity.JobLock;
+import com.vnair.usermanagement.exception.LeaseLostException;
+import com.vnair.usermanagement.repository.JobLockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Lease acquire, renew, expiry and takeover between two nodes, on H2.
+ * Each test runs in one transaction, which the lease manager's own transactions join.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class JobLeaseManagerTest {
+    
+    private static final String JOB_NAME = "test-job";
+    
+    @Autowired
+    private JobLockRepository jobLockRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private JobLeaseManager nodeA;
+    private JobLeaseManager nodeB;
+    
+    @BeforeEach
+    void setUp() {
+        nodeA = new JobLeaseManager(jobLockRepository, transactionManager, "node-a", 60);
+        nodeB = new JobLeaseManager(jobLockRepository, transactionManager, "node-b", 60);
+        nodeA.ensureLockRow(JOB_NAME);
+        nodeB.ensureLockRow(JOB_NAME);
+    }
+    
+    @Test
+    void onlyOneNodeAcquiresAFreeLease() {
+        Optional<JobLease> leaseA = nodeA.tryAcquire(JOB_NAME);
+        Optional<JobLease> leaseB = nodeB.tryAcquire(JOB_NAME);
+        
+        assertThat(leaseA).isPresent();
+        assertThat(leaseA.get().getOwnerId()).isEqualTo("node-a");
+        assertThat(leaseB).isEmpty();
+        assertThat(lockRow().getOwnerId()).isEqualTo("node-a");
+    }
+    
+    @Test
+    void renewExtendsTheLease() {
+        JobLease lease = nodeA.tryAcquire(JOB_NAME).orElseThrow();
+        LocalDateTime soon = LocalDateTime.now().plusSeconds(5);
+        assertThat(nodeA.extendUntil(lease, soon)).isTrue();
+        
+        assertThat(nodeA.renew(lease)).isTrue();
+        
+        assertThat(lockRow().getLeaseUntil()).isAfter(soon.plusSeconds(30));
+        nodeA.verify(lease);
+    }
+    
+    @Test
+    void expiredLeaseCanNoLongerBeVerified() {
+        JobLease lease = nodeA.tryAcquire(JOB_NAME).orElseThrow();
+        
+        expireLease();
+        
+        assertThatThrownBy(() -> nodeA.verify(lease)).isInstanceOf(LeaseLostException.class);
+    }
+    
+    @Test
+    void expiredLeaseIsTakenOverWithANewFencingToken() {
+        JobLease leaseA = nodeA.tryAcquire(JOB_NAME).orElseThrow();
+        expireLease();
+        
+        JobLease leaseB = nodeB.tryAcquire(JOB_NAME).orElseThrow();
+        
+        assertThat(leaseB.getFencingToken()).isGreaterThan(leaseA.getFencingToken());
+        assertThat(lockRow().getOwnerId()).isEqualTo("node-b");
+        nodeB.verify(leaseB);
+    }
+    
+    @Test
+    void nodeThatLostItsLeaseIsFenced() {
+        JobLease leaseA = nodeA.tryAcquire(JOB_NAME).orElseThrow();
+        expireLease();
+        JobLease leaseB = nodeB.tryAcquire(JOB_NAME).orElseThrow();
+        
+        assertThat(nodeA.renew(leaseA)).isFalse();
+        assertThat(nodeA.extendUntil(leaseA, LocalDateTime.now().plusMinutes(5))).isFalse();
+        assertThatThrownBy(() -> nodeA.verify(leaseA)).isInstanceOf(LeaseLostException.class);
+        
+        assertThat(lockRow().getOwnerId()).isEqualTo("node-b");
+        assertThat(lockRow().getFencingToken()).isEqualTo(leaseB.getFencingToken());
+    }
+    
+    @Test
+    void reacquiringByTheSameNodeFencesTheEarlierRun() {
+        JobLease first = nodeA.tryAcquire(JOB_NAME).orElseThrow();
+        JobLease second = nodeA.tryAcquire(JOB_NAME).orElseThrow();
+        
+        assertThat(second.getFencingToken()).isGreaterThan(first.getFencingToken());
+        assertThat(nodeA.renew(first)).isFalse();
+        assertThatThrownBy(() -> nodeA.verify(first)).isInstanceOf(LeaseLostException.class);
+        nodeA.verify(second);
+    }
+    
+    // Move the end of the current lease into the past, as if its owner had stopped renewing
+    private void expireLease() {
+        entityManager.getEntityManager()
+                .createQuery("UPDATE JobLock l SET l.leaseUntil = :leaseUntil WHERE l.jobName = :jobName")
+                .setParameter("leaseUntil", LocalDateTime.now().minusSeconds(1))
+                .setParameter("jobName", JOB_NAME)
+                .executeUpdate();
+    }
+    
+    // Read the row from the database, not from the persistence context the bulk updates bypass
+    private JobLock lockRow() {
+        entityManager.clear();
+        return jobLockRepository.findById(JOB_NAME).orElseThrow();
+    }
+}